@@ -0,0 +1,68 @@
+package org.radargun.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.radargun.stages.cache.test.CollidingKeysSelector;
+import org.radargun.stages.cache.test.ConcurrentKeysSelector;
+import org.radargun.stages.cache.test.GaussianKeysSelector;
+import org.radargun.stages.cache.test.HotspotKeysSelector;
+import org.radargun.stages.cache.test.KeySelector;
+import org.radargun.stages.cache.test.ZipfianKeysSelector;
+
+/**
+ * Cost of selecting next key. Selectors are identified by the names used in the benchmark XML,
+ * with their default parameters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeySelectorBenchmark {
+   @Param({"concurrent-keys", "colliding-keys", "gaussian-keys", "hotspot-keys", "zipfian-keys", "scrambled-zipfian-keys"})
+   public String selector;
+
+   @Param({"1000000"})
+   public long numEntries;
+
+   private KeySelector keySelector;
+
+   @Setup
+   public void setup() {
+      Random random = new Random(42);
+      switch (selector) {
+         case "concurrent-keys":
+            keySelector = new ConcurrentKeysSelector(random, 0, numEntries);
+            break;
+         case "colliding-keys":
+            keySelector = new CollidingKeysSelector(random, numEntries);
+            break;
+         case "gaussian-keys":
+            keySelector = new GaussianKeysSelector(random, numEntries, numEntries / 2, numEntries / 8);
+            break;
+         case "hotspot-keys":
+            keySelector = new HotspotKeysSelector(random, numEntries, numEntries / 5, 0.8);
+            break;
+         case "zipfian-keys":
+            keySelector = new ZipfianKeysSelector(random, numEntries, 0.99, false);
+            break;
+         case "scrambled-zipfian-keys":
+            keySelector = new ZipfianKeysSelector(random, numEntries, 0.99, true);
+            break;
+         default:
+            throw new IllegalArgumentException("Unknown key selector " + selector);
+      }
+   }
+
+   @Benchmark
+   public long next() {
+      return keySelector.next();
+   }
+}
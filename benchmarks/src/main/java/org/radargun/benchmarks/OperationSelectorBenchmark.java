@@ -0,0 +1,55 @@
+package org.radargun.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.radargun.Operation;
+import org.radargun.stages.test.RatioOperationSelector;
+import org.radargun.stages.test.SchedulingSelector;
+import org.radargun.traits.BasicOperations;
+
+/**
+ * Cost of selecting next operation. Selectors are shared by all benchmark threads, as in the tests;
+ * run with -t to see the contention on {@link SchedulingSelector}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OperationSelectorBenchmark {
+   private RatioOperationSelector ratioSelector;
+   private SchedulingSelector<Operation> schedulingSelector;
+
+   @Setup
+   public void setup() {
+      ratioSelector = new RatioOperationSelector.Builder()
+         .add(BasicOperations.GET, 80)
+         .add(BasicOperations.PUT, 15)
+         .add(BasicOperations.REMOVE, 5)
+         .build();
+      // the number of invocations per interval is high enough that the selector never blocks
+      schedulingSelector = new SchedulingSelector.Builder<>(Operation.class)
+         .add(BasicOperations.GET, Integer.MAX_VALUE, 1)
+         .add(BasicOperations.PUT, Integer.MAX_VALUE, 1)
+         .build();
+      ratioSelector.start();
+   }
+
+   @Benchmark
+   public Operation ratioNext() {
+      Random random = ThreadLocalRandom.current();
+      return ratioSelector.next(random);
+   }
+
+   @Benchmark
+   public Operation schedulingNext() throws InterruptedException {
+      return schedulingSelector.next();
+   }
+}
@@ -0,0 +1,63 @@
+package org.radargun.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.radargun.Operation;
+import org.radargun.stats.Request;
+import org.radargun.stats.Statistics;
+
+/**
+ * Cost of timing a single request and recording it into the statistics.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StatisticsBenchmark {
+   private static final Operation OPERATION = Operation.register("StatisticsBenchmark.Op");
+
+   @Param({"BASIC", "ALL", "HISTOGRAM"})
+   public StatisticsType statisticsType;
+
+   private Statistics statistics;
+   private Request request;
+
+   // all-recording stats grow with the number of requests, start each iteration from scratch
+   @Setup(Level.Iteration)
+   public void setup() {
+      statistics = statisticsType.newStatistics();
+      request = null;
+   }
+
+   @Benchmark
+   public Request startAndRecord() {
+      Request request = statistics.startRequest();
+      request.succeeded(OPERATION);
+      return request;
+   }
+
+   /**
+    * The way {@link org.radargun.stages.test.Stressor} records synchronous requests.
+    */
+   @Benchmark
+   public Request startAndRecordReused() {
+      request = statistics.startRequest(request);
+      request.succeeded(OPERATION);
+      return request;
+   }
+
+   @Benchmark
+   public Request startAndDiscard() {
+      request = statistics.startRequest(request);
+      request.discard();
+      return request;
+   }
+}
@@ -0,0 +1,45 @@
+package org.radargun.benchmarks;
+
+import org.radargun.stats.AllRecordingOperationStats;
+import org.radargun.stats.BasicOperationStats;
+import org.radargun.stats.BasicStatistics;
+import org.radargun.stats.HistogramOperationStats;
+import org.radargun.stats.OperationStats;
+import org.radargun.stats.Statistics;
+
+/**
+ * Operation statistics implementations compared by the benchmarks.
+ */
+public enum StatisticsType {
+   BASIC {
+      @Override
+      OperationStats newOperationStats() {
+         return new BasicOperationStats();
+      }
+   },
+   ALL {
+      @Override
+      OperationStats newOperationStats() {
+         return new AllRecordingOperationStats();
+      }
+   },
+   HISTOGRAM {
+      @Override
+      OperationStats newOperationStats() {
+         HistogramOperationStats stats = new HistogramOperationStats();
+         stats.init();
+         return stats;
+      }
+   };
+
+   abstract OperationStats newOperationStats();
+
+   /**
+    * @return Statistics that already {@link Statistics#begin() began} the measurement.
+    */
+   public Statistics newStatistics() {
+      Statistics statistics = new BasicStatistics(newOperationStats());
+      statistics.begin();
+      return statistics;
+   }
+}
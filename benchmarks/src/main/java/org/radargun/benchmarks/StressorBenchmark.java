@@ -0,0 +1,87 @@
+package org.radargun.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.radargun.Operation;
+import org.radargun.stages.test.Invocation;
+import org.radargun.stages.test.OperationLogic;
+import org.radargun.stages.test.Stressor;
+import org.radargun.stages.test.TestStage;
+import org.radargun.utils.Utils;
+
+/**
+ * Overhead of {@link Stressor#makeRequest(Invocation)} around an invocation that does nothing,
+ * compared to calling the invocation directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StressorBenchmark {
+   private static final Operation OPERATION = Operation.register("StressorBenchmark.Op");
+
+   @Param({"BASIC", "ALL", "HISTOGRAM"})
+   public StatisticsType statisticsType;
+
+   private final Invocation<Object> invocation = new NoopInvocation();
+   private Stressor stressor;
+
+   @Setup(Level.Iteration)
+   public void setup() {
+      stressor = new Stressor(new BenchmarkStage(), new NoopLogic(), 0, 0, false, new CountDownLatch(1), 0);
+      // the stressor is not run, set up the state it would have in the recorded phase
+      Utils.setField(Stressor.class, "stats", stressor, statisticsType.newStatistics());
+      Utils.setField(Stressor.class, "started", stressor, true);
+   }
+
+   @Benchmark
+   public Object baseline() {
+      return invocation.invoke();
+   }
+
+   @Benchmark
+   public Object makeRequest() throws OperationLogic.RequestException {
+      return stressor.makeRequest(invocation);
+   }
+
+   private static class NoopInvocation implements Invocation<Object> {
+      private final Object result = new Object();
+
+      @Override
+      public Object invoke() {
+         return result;
+      }
+
+      @Override
+      public Operation operation() {
+         return OPERATION;
+      }
+
+      @Override
+      public Operation txOperation() {
+         return OPERATION;
+      }
+   }
+
+   private static class NoopLogic extends OperationLogic {
+      @Override
+      public void run(Operation operation) {
+      }
+   }
+
+   private static class BenchmarkStage extends TestStage {
+      @Override
+      public OperationLogic getLogic() {
+         return new NoopLogic();
+      }
+   }
+}
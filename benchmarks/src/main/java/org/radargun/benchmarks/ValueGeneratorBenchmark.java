@@ -0,0 +1,65 @@
+package org.radargun.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.radargun.stages.cache.generators.BooleanValueGenerator;
+import org.radargun.stages.cache.generators.ByteArrayValueGenerator;
+import org.radargun.stages.cache.generators.DateValueGenerator;
+import org.radargun.stages.cache.generators.IntegerValueGenerator;
+import org.radargun.stages.cache.generators.ValueGenerator;
+import org.radargun.stages.cache.generators.WrappedArrayValueGenerator;
+
+/**
+ * Cost of generating a value for a write. Generators are identified by the names used in the benchmark XML.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValueGeneratorBenchmark {
+   @Param({"byte-array", "wrapped-array", "integer", "date", "bool"})
+   public String generator;
+
+   @Param({"100", "1000"})
+   public int size;
+
+   private final Object key = "key";
+   private final Random random = new Random(42);
+   private ValueGenerator valueGenerator;
+
+   @Setup
+   public void setup() {
+      switch (generator) {
+         case "byte-array":
+            valueGenerator = new ByteArrayValueGenerator();
+            break;
+         case "wrapped-array":
+            valueGenerator = new WrappedArrayValueGenerator();
+            break;
+         case "integer":
+            valueGenerator = new IntegerValueGenerator();
+            break;
+         case "date":
+            valueGenerator = new DateValueGenerator();
+            break;
+         case "bool":
+            valueGenerator = new BooleanValueGenerator();
+            break;
+         default:
+            throw new IllegalArgumentException("Unknown value generator " + generator);
+      }
+   }
+
+   @Benchmark
+   public Object generateValue() {
+      return valueGenerator.generateValue(key, size, random);
+   }
+}
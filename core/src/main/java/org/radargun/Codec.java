@@ -0,0 +1,88 @@
+package org.radargun;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.radargun.logging.LogFactory;
+
+/**
+ * Encoding of the serialized objects sent between master and slaves. The codec used by the sender
+ * is identified in the first byte of the payload, so the receiver does not need to use the same setting.
+ *
+ * Codec is selected through system property <code>radargun.codec</code>, default is {@link #JAVA}
+ * (also used when the property value is not recognized).
+ */
+public enum Codec {
+   /**
+    * Plain Java serialization.
+    */
+   JAVA {
+      @Override
+      OutputStream wrap(OutputStream out) {
+         return out;
+      }
+
+      @Override
+      InputStream wrap(InputStream in) {
+         return in;
+      }
+   },
+   /**
+    * Java serialization compressed by the deflate algorithm; trades CPU for smaller messages,
+    * useful with large statistics and many slaves.
+    */
+   DEFLATE {
+      @Override
+      OutputStream wrap(OutputStream out) {
+         return new DeflaterOutputStream(out);
+      }
+
+      @Override
+      InputStream wrap(InputStream in) {
+         return new InflaterInputStream(in);
+      }
+   };
+
+   private static final Codec DEFAULT = parse(System.getProperty("radargun.codec"));
+
+   abstract OutputStream wrap(OutputStream out) throws IOException;
+
+   abstract InputStream wrap(InputStream in) throws IOException;
+
+   /**
+    * @return Codec selected by system property.
+    */
+   public static Codec getDefault() {
+      return DEFAULT;
+   }
+
+   /**
+    * @return Codec with given name (case insensitive), or {@link #JAVA} if the name is null or unknown.
+    */
+   static Codec parse(String name) {
+      if (name == null) {
+         return JAVA;
+      }
+      try {
+         return valueOf(name.trim().toUpperCase(Locale.ENGLISH));
+      } catch (IllegalArgumentException e) {
+         LogFactory.getLog(Codec.class).warn("Unknown codec '" + name + "', using " + JAVA);
+         return JAVA;
+      }
+   }
+
+   /**
+    * @return Codec written in the header of the payload.
+    */
+   static Codec fromHeader(int header) throws IOException {
+      Codec[] values = values();
+      if (header < 0 || header >= values.length) {
+         throw new IOException("Unknown codec " + header);
+      }
+      return values[header];
+   }
+}
@@ -47,6 +47,14 @@ public interface DistStage extends Stage, Serializable {
     */
    StageResult processAckOnMaster(List<DistStageAck> acks);
 
+   /**
+    * Called on master when a slave reports {@link StageProgress progress} during {@link #executeOnSlave()}.
+    * @return False if the stage should be aborted.
+    */
+   default boolean processProgressOnMaster(StageProgress progress) {
+      return true;
+   }
+
    //TODO: remove the call from stages
 
    /**
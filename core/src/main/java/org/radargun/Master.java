@@ -262,7 +262,7 @@ public class Master {
       }
       List<DistStageAck> responses = null;
       try {
-         responses = connection.runStage(stageId, masterData, numSlaves);
+         responses = connection.runStage(stageId, masterData, numSlaves, stage::processProgressOnMaster);
       } catch (IOException e) {
          log.error("Error when communicating to slaves");
          return StageResult.EXIT;
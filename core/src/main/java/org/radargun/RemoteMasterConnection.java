@@ -24,6 +24,8 @@ public class RemoteMasterConnection {
    private int masterPort;
    private SocketChannel socketChannel;
    private ByteBuffer buffer;
+   // direct buffer for the chunks sent to master
+   private final ByteBuffer writeBuffer;
 
    public RemoteMasterConnection(String masterHost, int masterPort) {
       this.masterHost = masterHost;
@@ -35,6 +37,7 @@ public class RemoteMasterConnection {
          log.error("Couldn't parse byte buffer size, keeping default", e);
       }
       this.buffer = ByteBuffer.allocate(byteBufferSize);
+      this.writeBuffer = ByteBuffer.allocateDirect(byteBufferSize);
    }
 
    /**
@@ -150,27 +153,39 @@ public class RemoteMasterConnection {
    }
 
    /**
-    * Send any serializable object to the master node.
+    * Send any serializable object to the master node. The object is streamed in chunks,
+    * so its serialized form does not have to fit into memory at once.
     * @param obj
     * @param nextUuid UUID of the next generation of slaves, or null if this slave will continue
     * @throws IOException
     */
-   public void sendObject(Serializable obj, UUID nextUuid) throws IOException {
-      buffer.clear();
-      buffer = SerializationHelper.serializeObjectWithLength(obj, buffer);
+   public synchronized void sendObject(Serializable obj, UUID nextUuid) throws IOException {
+      log.trace("Sending a message to the master");
+      SerializationHelper.serializeObjectChunked(obj, socketChannel, writeBuffer);
+      writeBuffer.clear();
       if (nextUuid == null) {
-         buffer = SerializationHelper.appendLong(0, buffer);
-         buffer = SerializationHelper.appendLong(0, buffer);
+         writeBuffer.putLong(0);
+         writeBuffer.putLong(0);
       } else {
-         buffer = SerializationHelper.appendLong(nextUuid.getMostSignificantBits(), buffer);
-         buffer = SerializationHelper.appendLong(nextUuid.getLeastSignificantBits(), buffer);
+         writeBuffer.putLong(nextUuid.getMostSignificantBits());
+         writeBuffer.putLong(nextUuid.getLeastSignificantBits());
       }
-      log.trace("Sending a message to the master, message has " + buffer.position() + " bytes.");
-      buffer.flip();
-      while (buffer.hasRemaining()) socketChannel.write(buffer);
+      writeBuffer.flip();
+      while (writeBuffer.hasRemaining()) socketChannel.write(writeBuffer);
       log.info("Message successfully sent to the master");
    }
 
+   /**
+    * Send intermediate results of currently executed stage and wait for master's decision.
+    * @param progress
+    * @return False if the stage should be aborted.
+    * @throws IOException
+    */
+   public synchronized boolean sendProgress(StageProgress progress) throws IOException {
+      sendObject(progress, null);
+      return readInt() != 0;
+   }
+
    public void release() throws IOException {
       socketChannel.close();
       socketChannel = null;
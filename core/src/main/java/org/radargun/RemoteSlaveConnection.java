@@ -40,7 +40,7 @@ public class RemoteSlaveConnection {
    private static final int UUID_BYTES = 16;
    private static final int EXPECTED_SIZE_BYTES = 4;
    private static final int DEFAULT_WRITE_BUFF_CAPACITY = 1024;
-   private static final int DEFAULT_READ_BUFF_CAPACITY = 1024;
+   private static final int DEFAULT_READ_BUFF_CAPACITY = 65536;
 
    public static final int DEFAULT_PORT = 2103;
 
@@ -50,12 +50,13 @@ public class RemoteSlaveConnection {
 
    private ByteBuffer mcastBuffer;
    private Map<SocketChannel, ByteBuffer> writeBufferMap = new HashMap<SocketChannel, ByteBuffer>();
-   private Map<SocketChannel, ByteBuffer> readBufferMap = new HashMap<SocketChannel, ByteBuffer>();
+   private Map<SocketChannel, Inbound> readBufferMap = new HashMap<SocketChannel, Inbound>();
    private List<Object> responses = new ArrayList<Object>();
    private Selector communicationSelector;
    private Selector discoverySelector;
    private Map<SocketChannel, Integer> channel2Index = new HashMap<>();
    private int reconnections = 0;
+   private StageProgress.Listener progressListener;
 
    private String host;
    private int port;
@@ -70,6 +71,15 @@ public class RemoteSlaveConnection {
       }
    }
 
+   /**
+    * Reading state of the channel; the buffer is reused for all responses from given slave.
+    */
+   private static class Inbound {
+      private final ByteBuffer buffer = ByteBuffer.allocateDirect(DEFAULT_READ_BUFF_CAPACITY);
+      private final SerializationHelper.ChunkedInput input = new SerializationHelper.ChunkedInput();
+      private boolean payloadComplete;
+   }
+
    /**
     * Holds information about interfaces and IP addresses of individual slaves.
     * This information is collected from individual slaves and re-distributed to the other
@@ -167,7 +177,7 @@ public class RemoteSlaveConnection {
 
          slaveCount++;
          channel2Index.put(socketChannel, slaveIndex);
-         readBufferMap.put(socketChannel, ByteBuffer.allocate(DEFAULT_READ_BUFF_CAPACITY));
+         readBufferMap.put(socketChannel, new Inbound());
          socketChannel.configureBlocking(false);
          log.trace("Added new slave connection " + slaveIndex + " from: " + socketChannel.socket().getInetAddress());
       }
@@ -212,12 +222,26 @@ public class RemoteSlaveConnection {
    }
 
    public List<DistStageAck> runStage(int stageId, Map<String, Object> masterData, int numSlaves) throws IOException {
+      return runStage(stageId, masterData, numSlaves, null);
+   }
+
+   /**
+    * @param progressListener Handles {@link StageProgress} sent by slaves while the stage executes; its result
+    *                         is sent back to the slave. When null, the slaves are always told to continue.
+    */
+   public List<DistStageAck> runStage(int stageId, Map<String, Object> masterData, int numSlaves,
+                                      StageProgress.Listener progressListener) throws IOException {
       responses.clear();
       clearBuffer();
       mcastBuffer.putInt(stageId);
       mcastBuffer = SerializationHelper.serializeObjectWithLength((Serializable) masterData, mcastBuffer);
       mcastBuffer(numSlaves);
-      flushBuffers(numSlaves);
+      this.progressListener = progressListener;
+      try {
+         flushBuffers(numSlaves);
+      } finally {
+         this.progressListener = null;
+      }
       ArrayList<DistStageAck> list = new ArrayList<>(responses.size());
       for (Object o : responses) {
          list.add((DistStageAck) o);
@@ -294,44 +318,46 @@ public class RemoteSlaveConnection {
    private void readResponse(SelectionKey key) throws IOException {
       SocketChannel socketChannel = (SocketChannel) key.channel();
 
-      ByteBuffer byteBuffer = readBufferMap.get(socketChannel);
+      Inbound inbound = readBufferMap.get(socketChannel);
+      ByteBuffer byteBuffer = inbound.buffer;
       int value = socketChannel.read(byteBuffer);
 
-      if (byteBuffer.position() >= EXPECTED_SIZE_BYTES) {
-         int expectedSize = byteBuffer.getInt(0);
-         if ((expectedSize + EXPECTED_SIZE_BYTES + UUID_BYTES) > byteBuffer.capacity()) {
-            ByteBuffer replacer = ByteBuffer.allocate(expectedSize + EXPECTED_SIZE_BYTES + UUID_BYTES);
-            replacer.put(byteBuffer.array(), 0, byteBuffer.position());
-            readBufferMap.put(socketChannel, replacer);
+      byteBuffer.flip();
+      while (true) {
+         if (!inbound.payloadComplete) {
+            inbound.payloadComplete = inbound.input.read(byteBuffer);
             if (log.isTraceEnabled())
-               log.trace("Expected size(" + expectedSize + ")" + " is > ByteBuffer's capacity(" +
-                  byteBuffer.capacity() + ")" + ".Replacing " + byteBuffer + " with " + replacer);
-            byteBuffer = replacer;
+               log.trace("Received " + inbound.input.size() + " bytes, complete: " + inbound.payloadComplete);
          }
-         if (log.isTraceEnabled())
-            log.trace("Expected size: " + expectedSize + ". byteBuffer.position() == " + byteBuffer.position());
-         if (byteBuffer.position() >= expectedSize + EXPECTED_SIZE_BYTES + UUID_BYTES) {
-            log.trace("Received response from " + socketChannel.getRemoteAddress());
-            Object response = SerializationHelper.deserialize(byteBuffer.array(), EXPECTED_SIZE_BYTES, expectedSize);
-            long uuidMsb = byteBuffer.getLong(EXPECTED_SIZE_BYTES + expectedSize);
-            long uuidLsb = byteBuffer.getLong(EXPECTED_SIZE_BYTES + expectedSize + 8);
-            if (uuidMsb != 0 && uuidLsb != 0) {
-               // we should expect reconnection
-               int index = channel2Index.get(socketChannel);
-               UUID uuid = new UUID(uuidMsb, uuidLsb);
-               log.tracef("Slave %d (%s) is going to restart with UUID %s", index, socketChannel.getRemoteAddress(), uuid);
-               SlaveRecord record = slaves[index];
-               record.uuid = uuid;
-               record.channel.close();
-               record.channel = null;
-               channel2Index.remove(socketChannel);
-               readBufferMap.remove(socketChannel);
-               reconnections++;
-            }
-            byteBuffer.clear();
-            responses.add(response);
+         if (!inbound.payloadComplete || byteBuffer.remaining() < UUID_BYTES) {
+            break;
+         }
+         log.trace("Received response from " + socketChannel.getRemoteAddress());
+         Object response = inbound.input.deserialize();
+         inbound.payloadComplete = false;
+         long uuidMsb = byteBuffer.getLong();
+         long uuidLsb = byteBuffer.getLong();
+         if (response instanceof StageProgress) {
+            replyToProgress(key, (StageProgress) response);
+            continue;
+         }
+         responses.add(response);
+         if (uuidMsb != 0 && uuidLsb != 0) {
+            // we should expect reconnection
+            int index = channel2Index.get(socketChannel);
+            UUID uuid = new UUID(uuidMsb, uuidLsb);
+            log.tracef("Slave %d (%s) is going to restart with UUID %s", index, socketChannel.getRemoteAddress(), uuid);
+            SlaveRecord record = slaves[index];
+            record.uuid = uuid;
+            record.channel.close();
+            record.channel = null;
+            channel2Index.remove(socketChannel);
+            readBufferMap.remove(socketChannel);
+            reconnections++;
+            break;
          }
       }
+      byteBuffer.compact();
       if (value < 0) {
          Integer slaveIndex = channel2Index.get(socketChannel);
          key.cancel();
@@ -351,6 +377,22 @@ public class RemoteSlaveConnection {
       }
    }
 
+   private void replyToProgress(SelectionKey key, StageProgress progress) {
+      boolean proceed = true;
+      if (progressListener != null) {
+         try {
+            proceed = progressListener.onProgress(progress);
+         } catch (Exception e) {
+            log.error("Failed to process progress from slave " + progress.getSlaveIndex(), e);
+         }
+      }
+      ByteBuffer reply = ByteBuffer.allocate(EXPECTED_SIZE_BYTES);
+      reply.putInt(proceed ? 1 : 0);
+      reply.flip();
+      writeBufferMap.put((SocketChannel) key.channel(), reply);
+      key.interestOps(SelectionKey.OP_WRITE);
+   }
+
    public void release() {
       if (mcastBuffer != null) {
          try {
@@ -2,15 +2,24 @@ package org.radargun;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Helper class holding serialization logic.
  *
+ * The payload starts with a byte identifying the {@link Codec} used for the rest of the data.
+ *
+ * Large messages can be sent in chunks: each chunk is prefixed by its length (4 byte integer),
+ * and the message is terminated by zero length.
+ *
  * @author Mircea Markus &lt;Mircea.Markus@jboss.com&gt;
  */
 public final class SerializationHelper {
@@ -31,12 +40,43 @@ public final class SerializationHelper {
     * @throws IOException
     */
    public static ByteBuffer serializeObject(Serializable serializable, ByteBuffer buffer) throws IOException {
-      try (ByteBufferOutputStream out = new ByteBufferOutputStream(buffer); ObjectOutputStream oos = new ObjectOutputStream(out)) {
+      ByteBufferOutputStream out = new ByteBufferOutputStream(buffer);
+      serializeObject(serializable, out);
+      return out.getBuffer();
+   }
+
+   /**
+    * Write serialized representation of given object into the stream, using the {@link Codec#getDefault() default codec}.
+    * The stream is closed afterwards.
+    *
+    * @param serializable
+    * @param out
+    * @throws IOException
+    */
+   public static void serializeObject(Serializable serializable, OutputStream out) throws IOException {
+      serializeObject(serializable, out, Codec.getDefault());
+   }
+
+   static void serializeObject(Serializable serializable, OutputStream out, Codec codec) throws IOException {
+      out.write(codec.ordinal());
+      try (ObjectOutputStream oos = new ObjectOutputStream(codec.wrap(out))) {
          oos.writeObject(serializable);
-         return out.getBuffer();
       }
    }
 
+   /**
+    * Write serialized representation of given object into the channel in chunks, using the buffer
+    * for the chunk being written. Therefore, the whole serialized form does not need to be held in memory.
+    *
+    * @param serializable
+    * @param channel Blocking channel
+    * @param buffer Buffer for the chunk, its capacity limits the chunk size.
+    * @throws IOException
+    */
+   public static void serializeObjectChunked(Serializable serializable, WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+      serializeObject(serializable, new ChunkedOutputStream(channel, buffer));
+   }
+
    /**
     * Write length of serialized representation of given object and the serialized representation
     * to the buffer on the current position. The length is represented as 4 byte integer in current byte order.
@@ -56,12 +96,9 @@ public final class SerializationHelper {
       }
       int sizePosition = buffer.position();
       buffer.position(sizePosition + 4);
-      try (ByteBufferOutputStream out = new ByteBufferOutputStream(buffer); ObjectOutputStream oos = new ObjectOutputStream(out)) {
-         oos.writeObject(serializable);
-         buffer = out.getBuffer();
-         buffer.putInt(sizePosition, buffer.position() - sizePosition - 4);
-         return buffer;
-      }
+      buffer = serializeObject(serializable, buffer);
+      buffer.putInt(sizePosition, buffer.position() - sizePosition - 4);
+      return buffer;
    }
 
    /**
@@ -87,7 +124,19 @@ public final class SerializationHelper {
     * @throws IOException
     */
    public static Object deserialize(byte[] serializedData, int startPos, int length) throws IOException {
-      try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serializedData, startPos, length))) {
+      return deserialize(new ByteArrayInputStream(serializedData, startPos, length));
+   }
+
+   /**
+    * Deserialize object from given stream, decoding it with the codec written in the first byte.
+    *
+    * @param in
+    * @return
+    * @throws IOException
+    */
+   public static Object deserialize(InputStream in) throws IOException {
+      Codec codec = Codec.fromHeader(in.read());
+      try (ObjectInputStream ois = new ObjectInputStream(codec.wrap(in))) {
          return ois.readObject();
       } catch (ClassNotFoundException e) {
          throw new IllegalStateException("Unmarshalling exception", e);
@@ -133,4 +182,178 @@ public final class SerializationHelper {
          return buffer;
       }
    }
+
+   /**
+    * Writes the data into the channel whenever the buffer is full, prefixing each chunk with its length.
+    * Closing the stream writes the last chunk and zero length as a terminator.
+    */
+   private static class ChunkedOutputStream extends OutputStream {
+      private final WritableByteChannel channel;
+      private final ByteBuffer buffer;
+
+      private ChunkedOutputStream(WritableByteChannel channel, ByteBuffer buffer) {
+         this.channel = channel;
+         this.buffer = buffer;
+         buffer.clear();
+         buffer.position(4);
+      }
+
+      @Override
+      public void write(int b) throws IOException {
+         if (!buffer.hasRemaining()) {
+            writeChunk();
+         }
+         buffer.put((byte) b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+         while (len > 0) {
+            if (!buffer.hasRemaining()) {
+               writeChunk();
+            }
+            int written = Math.min(len, buffer.remaining());
+            buffer.put(b, off, written);
+            off += written;
+            len -= written;
+         }
+      }
+
+      private void writeChunk() throws IOException {
+         buffer.putInt(0, buffer.position() - 4);
+         buffer.flip();
+         while (buffer.hasRemaining()) channel.write(buffer);
+         buffer.clear();
+         buffer.position(4);
+      }
+
+      @Override
+      public void close() throws IOException {
+         if (buffer.position() > 4) {
+            writeChunk();
+         }
+         buffer.putInt(0, 0);
+         buffer.flip();
+         while (buffer.hasRemaining()) channel.write(buffer);
+         buffer.clear();
+      }
+   }
+
+   /**
+    * Collects chunks of a message written by {@link #serializeObjectChunked(Serializable, WritableByteChannel, ByteBuffer)}
+    * from a non-blocking channel. The payload is copied into fixed-size segments that are reused for subsequent
+    * messages, so the receiver neither allocates a buffer for each chunk nor reallocates and copies the data received
+    * so far as the message grows. Segments beyond {@link #RETAINED_SEGMENTS} are released after each message.
+    */
+   public static class ChunkedInput {
+      private static final int SEGMENT_SIZE = 64 * 1024;
+      private static final int RETAINED_SEGMENTS = 16;
+
+      private final List<byte[]> segments = new ArrayList<>();
+      private int chunkRemaining = -1;
+      private boolean complete;
+      private long size;
+
+      /**
+       * Consume the data from the buffer, stopping when the message is complete.
+       *
+       * @param buffer Buffer in read mode
+       * @return True if the message is complete.
+       */
+      public boolean read(ByteBuffer buffer) {
+         while (!complete) {
+            if (chunkRemaining < 0) {
+               if (buffer.remaining() < 4) {
+                  return false;
+               }
+               int length = buffer.getInt();
+               if (length < 0) {
+                  throw new IllegalStateException("Invalid chunk length " + length);
+               } else if (length == 0) {
+                  complete = true;
+               } else {
+                  chunkRemaining = length;
+               }
+            } else {
+               int segmentOffset = (int) (size % SEGMENT_SIZE);
+               int segmentIndex = (int) (size / SEGMENT_SIZE);
+               if (segmentIndex == segments.size()) {
+                  segments.add(new byte[SEGMENT_SIZE]);
+               }
+               int read = Math.min(Math.min(buffer.remaining(), chunkRemaining), SEGMENT_SIZE - segmentOffset);
+               if (read == 0) {
+                  return false;
+               }
+               buffer.get(segments.get(segmentIndex), segmentOffset, read);
+               size += read;
+               chunkRemaining -= read;
+               if (chunkRemaining == 0) {
+                  chunkRemaining = -1;
+               }
+            }
+         }
+         return true;
+      }
+
+      /**
+       * @return Number of bytes received so far.
+       */
+      public long size() {
+         return size;
+      }
+
+      /**
+       * Deserialize the completed message and prepare for the next one.
+       */
+      public Object deserialize() throws IOException {
+         if (!complete) {
+            throw new IllegalStateException("The message is not complete");
+         }
+         try {
+            return SerializationHelper.deserialize(new SegmentInputStream());
+         } finally {
+            while (segments.size() > RETAINED_SEGMENTS) {
+               segments.remove(segments.size() - 1);
+            }
+            size = 0;
+            complete = false;
+         }
+      }
+
+      /**
+       * Reads the received payload directly from the segments.
+       */
+      private class SegmentInputStream extends InputStream {
+         private long position;
+
+         @Override
+         public int read() {
+            if (position >= size) {
+               return -1;
+            }
+            int b = segments.get((int) (position / SEGMENT_SIZE))[(int) (position % SEGMENT_SIZE)] & 0xFF;
+            position++;
+            return b;
+         }
+
+         @Override
+         public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+               return 0;
+            } else if (position >= size) {
+               return -1;
+            }
+            int segmentOffset = (int) (position % SEGMENT_SIZE);
+            int read = (int) Math.min(Math.min(len, SEGMENT_SIZE - segmentOffset), size - position);
+            System.arraycopy(segments.get((int) (position / SEGMENT_SIZE)), segmentOffset, b, off, read);
+            position += read;
+            return read;
+         }
+
+         @Override
+         public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, size - position);
+         }
+      }
+   }
 }
@@ -41,6 +41,7 @@ public class Slave extends SlaveBase {
       state.setMaxClusterSize(connection.receiveSlaveCount());
       log.info("Received slave count " + state.getMaxClusterSize());
       state.setLocalAddress(address);
+      state.setProgressReporter(connection::sendProgress);
       while (true) {
          Object object = connection.receiveObject();
          log.trace("Received " + object);
@@ -0,0 +1,46 @@
+package org.radargun;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Intermediate result sent from slave to the master while the stage is still executing.
+ * Master replies whether the stage should continue.
+ */
+public class StageProgress implements Serializable {
+   private final int slaveIndex;
+   private final Serializable data;
+
+   public StageProgress(int slaveIndex, Serializable data) {
+      this.slaveIndex = slaveIndex;
+      this.data = data;
+   }
+
+   public int getSlaveIndex() {
+      return slaveIndex;
+   }
+
+   public Serializable getData() {
+      return data;
+   }
+
+   /**
+    * Sends the progress to the master.
+    */
+   public interface Reporter {
+      /**
+       * @return False if the master requests the stage to be aborted.
+       */
+      boolean report(StageProgress progress) throws IOException;
+   }
+
+   /**
+    * Handles the progress on master.
+    */
+   public interface Listener {
+      /**
+       * @return False if the stage should be aborted on the slave.
+       */
+      boolean onProgress(StageProgress progress);
+   }
+}
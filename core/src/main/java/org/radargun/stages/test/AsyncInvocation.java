@@ -0,0 +1,27 @@
+package org.radargun.stages.test;
+
+import java.util.concurrent.CompletionStage;
+
+import org.radargun.Operation;
+
+/**
+ * Represents an asynchronous operation that the {@link Stressor} should execute
+ * and record its duration when the returned stage completes.
+ *
+ * @see Stressor#makeRequestAsync(AsyncInvocation)
+ */
+public interface AsyncInvocation<T> {
+   /**
+    * Start the operation. This method should not block until the operation completes.
+    *
+    * @return Stage completed with the result of the operation, or completed exceptionally if the operation fails.
+    */
+   CompletionStage<T> invoke();
+
+   /**
+    * Called after the stage returned from {@link #invoke()} completes.
+    *
+    * @return Operation that was executed.
+    */
+   Operation operation();
+}
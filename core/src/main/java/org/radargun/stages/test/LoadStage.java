@@ -1,22 +1,35 @@
 package org.radargun.stages.test;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.radargun.DistStageAck;
+import org.radargun.StageResult;
 import org.radargun.config.Property;
 import org.radargun.config.Stage;
+import org.radargun.reporting.Report;
 import org.radargun.stages.AbstractDistStage;
+import org.radargun.state.SlaveState;
+import org.radargun.stats.BasicStatistics;
+import org.radargun.stats.Statistics;
 import org.radargun.utils.TimeConverter;
+import org.radargun.utils.TimeService;
+import org.radargun.utils.Utils;
 
 /**
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 @Stage(doc = "Manages thread for data loading")
 public abstract class LoadStage extends AbstractDistStage {
+   public static final String LOAD_THROUGHPUT = "Load throughput";
+
    @Property(doc = "Number of loaded entries after which a log entry should be written. Default is 10000.")
    protected long logPeriod = 10000;
 
@@ -34,6 +47,14 @@ public abstract class LoadStage extends AbstractDistStage {
       converter = TimeConverter.class)
    protected long waitOnError = 1000;
 
+   @Property(doc = "Name of the test under which statistics of the loading operations and load throughput are reported. " +
+      "By default the throughput is only logged.")
+   protected String testName;
+
+   @Property(name = "statistics", doc = "Type of gathered statistics. Default are the 'default' statistics " +
+      "(fixed size memory footprint for each operation).", complexConverter = Statistics.Converter.class)
+   protected Statistics statisticsPrototype = new BasicStatistics();
+
    protected AtomicLong entryCounter = new AtomicLong(0);
    protected AtomicLong sizeSum = new AtomicLong(0);
 
@@ -68,6 +89,7 @@ public abstract class LoadStage extends AbstractDistStage {
          return successfulResponse();
       }
       prepare();
+      long startNanos = TimeService.nanoTime();
       List<Loader> loaders = startLoaders();
       try {
          stopLoaders(loaders);
@@ -76,8 +98,52 @@ public abstract class LoadStage extends AbstractDistStage {
       } catch (Exception e) {
          return errorResponse("Loader failed with exception", e);
       }
+      long durationNanos = TimeService.nanoTime() - startNanos;
       destroy();
-      return successfulResponse();
+      return createResponse(loaders, durationNanos);
+   }
+
+   /**
+    * Called after all loaders have finished. To be overridden in inheritors that do not wait for the loaders.
+    */
+   protected DistStageAck createResponse(List<Loader> loaders, long durationNanos) {
+      Statistics statistics = loaders.stream().map(loader -> loader.statistics).reduce(null, Statistics.MERGE);
+      LoadAck ack = new LoadAck(slaveState, entryCounter.get(), sizeSum.get(), durationNanos, statistics);
+      log.infof("This node loaded %d entries (~%d bytes) in %d ms, %.1f entries/s",
+         ack.entries, ack.bytes, TimeUnit.NANOSECONDS.toMillis(durationNanos), ack.getEntriesPerSecond());
+      return ack;
+   }
+
+   @Override
+   public StageResult processAckOnMaster(List<DistStageAck> acks) {
+      StageResult result = super.processAckOnMaster(acks);
+      if (result.isError()) return result;
+
+      List<LoadAck> loadAcks = instancesOf(acks, LoadAck.class);
+      long entries = 0, bytes = 0, durationNanos = 0;
+      Map<Integer, Report.SlaveResult> slaveThroughputs = new HashMap<>();
+      for (LoadAck ack : loadAcks) {
+         entries += ack.entries;
+         bytes += ack.bytes;
+         durationNanos = Math.max(durationNanos, ack.durationNanos);
+         slaveThroughputs.put(ack.getSlaveIndex(), new Report.SlaveResult(String.format("%.1f", ack.getEntriesPerSecond()), false));
+      }
+      // slaves load in parallel, therefore the cluster throughput is limited by the slowest one
+      double throughput = durationNanos > 0 ? entries * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos : 0;
+      log.infof("Loaded %d entries (%s) in %d ms, %.1f entries/s", entries, Utils.kbString(bytes),
+         TimeUnit.NANOSECONDS.toMillis(durationNanos), throughput);
+      if (testName != null && !loadAcks.isEmpty()) {
+         Report.Test test = masterState.getReport().createTest(testName, null, true);
+         int testIteration = test.getIterations().size();
+         for (LoadAck ack : loadAcks) {
+            if (ack.statistics != null) {
+               test.addStatistics(testIteration, ack.getSlaveIndex(), Collections.singletonList(ack.statistics));
+            }
+         }
+         test.addResult(testIteration, new Report.TestResult(LOAD_THROUGHPUT, slaveThroughputs,
+            String.format("%.1f entries/s", throughput), false));
+      }
+      return StageResult.SUCCESS;
    }
 
    /**
@@ -106,6 +172,10 @@ public abstract class LoadStage extends AbstractDistStage {
    protected abstract class Loader extends Thread {
       protected final Random random;
       protected final int threadIndex;
+      /**
+       * Statistics of the operations used for loading. Not thread-safe.
+       */
+      protected final Statistics statistics = statisticsPrototype.copy();
       protected Throwable throwable;
 
       protected Loader(int index) {
@@ -120,6 +190,7 @@ public abstract class LoadStage extends AbstractDistStage {
 
       @Override
       public void run() {
+         statistics.begin();
          try {
             for (; ; ) {
                if (!loadDataUnit()) return;
@@ -127,9 +198,30 @@ public abstract class LoadStage extends AbstractDistStage {
          } catch (Throwable t) {
             log.error("Exception in Loader", t);
             throwable = t;
+         } finally {
+            statistics.end();
          }
       }
 
       protected abstract boolean loadDataUnit();
    }
+
+   protected static class LoadAck extends DistStageAck {
+      final long entries;
+      final long bytes;
+      final long durationNanos;
+      final Statistics statistics;
+
+      protected LoadAck(SlaveState slaveState, long entries, long bytes, long durationNanos, Statistics statistics) {
+         super(slaveState);
+         this.entries = entries;
+         this.bytes = bytes;
+         this.durationNanos = durationNanos;
+         this.statistics = statistics;
+      }
+
+      double getEntriesPerSecond() {
+         return durationNanos > 0 ? entries * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos : 0;
+      }
+   }
 }
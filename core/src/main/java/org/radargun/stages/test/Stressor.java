@@ -1,16 +1,22 @@
 package org.radargun.stages.test;
 
 import java.util.Random;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import org.radargun.Operation;
 import org.radargun.logging.Log;
 import org.radargun.logging.LogFactory;
+import org.radargun.stats.ConcurrentStatistics;
 import org.radargun.stats.Request;
 import org.radargun.stats.RequestSet;
 import org.radargun.stats.Statistics;
 import org.radargun.traits.Transactional;
+import org.radargun.utils.TimeService;
 
 /**
  * Each stressor operates according to its {@link OperationLogic logic} - the instance is private to each thread.
@@ -18,9 +24,17 @@ import org.radargun.traits.Transactional;
  * execute logic's {@link OperationLogic#run(org.radargun.Operation) run} method until
  * the {@link Completion#moreToRun()} returns false.
  *
+ * When the stage sets {@link TestStage#getRequestPeriodNanos() request period}, each invocation of the logic
+ * is scheduled to a fixed time and the first request it executes is timed from this intended start.
+ *
+ * Logic may also execute {@link #makeRequestAsync(AsyncInvocation) asynchronous requests}; the stressor then keeps
+ * up to {@link TestStage#requestsInFlight} requests outstanding and records them when these complete.
+ *
+ * The stressor does not own its thread; the stage decides what {@link StressorThreads kind of thread} runs it.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
-public class Stressor extends Thread {
+public class Stressor implements Runnable {
    private static Log log = LogFactory.getLog(Stressor.class);
 
    private final TestStage stage;
@@ -32,17 +46,37 @@ public class Stressor extends Thread {
    private final Completion completion;
    private final boolean logTransactionExceptions;
    private long delayBetweenRequests;
+   private final long requestPeriod;
+   private long intendedStartTime = Long.MIN_VALUE;
+   private final int requestsInFlight;
+   private final Semaphore inFlightPermits;
+   private volatile boolean asyncRequests = false;
+   // set when the stressor stopped waiting for outstanding asynchronous requests
+   private volatile boolean asyncRequestsAbandoned = false;
+   // once asynchronous requests are used, the statistics may be updated from other threads
+   private volatile boolean lockStats = false;
 
    private boolean useTransactions;
    private int txRemainingOperations = 0;
    private RequestSet requests;
+   // instances reused for consecutive requests so that the measured path does not allocate
+   private Request reusableRequest;
+   private RequestSet reusableRequestSet;
+   // request of the synchronous invocation being executed
+   private Request currentRequest;
    private Transactional.Transaction ongoingTx;
    private Statistics stats;
+   // data recorded since the last progress report are moved here by the stressor thread
+   private final Object intervalLock = new Object();
+   private Statistics finishedInterval;
+   private volatile boolean intervalRequested = false;
    private boolean started = false;
    private CountDownLatch threadCountDown;
+   private final CountDownLatch done = new CountDownLatch(1);
+   private final String name;
 
    public Stressor(TestStage stage, OperationLogic logic, int globalThreadIndex, int threadIndex, boolean logTransactionExceptions, CountDownLatch threadCountDown, long delayBetweenRequests) {
-      super("Stressor-" + threadIndex);
+      this.name = "Stressor-" + threadIndex;
       this.stage = stage;
       this.threadIndex = threadIndex;
       this.globalThreadIndex = globalThreadIndex;
@@ -53,6 +87,9 @@ public class Stressor extends Thread {
       this.logTransactionExceptions = logTransactionExceptions;
       this.threadCountDown = threadCountDown;
       this.delayBetweenRequests = delayBetweenRequests;
+      this.requestPeriod = stage.getRequestPeriodNanos();
+      this.requestsInFlight = stage.requestsInFlight;
+      this.inFlightPermits = new Semaphore(requestsInFlight);
    }
 
    private boolean recording() {
@@ -66,18 +103,53 @@ public class Stressor extends Thread {
          stats = stage.createStatistics();
 
          runInternal();
-
+         if (asyncRequests) {
+            awaitAsyncRequests();
+         }
       } catch (Exception e) {
          log.error("Unexpected error in stressor!", e);
          stage.setTerminated();
       } finally {
          if (stats != null) {
-            stats.end();
+            synchronized (stats) {
+               stats.end();
+            }
+            // interval that was not reported yet is sent with the final results
+            synchronized (intervalLock) {
+               if (finishedInterval != null) {
+                  stats.merge(finishedInterval);
+                  finishedInterval = null;
+               }
+            }
+         }
+         try {
+            logic.destroy();
+         } finally {
+            done.countDown();
          }
-         logic.destroy();
       }
    }
 
+   /**
+    * Waits until the stressor finishes its execution.
+    */
+   public void join() throws InterruptedException {
+      done.await();
+   }
+
+   /**
+    * Waits at most given time until the stressor finishes its execution.
+    *
+    * @return True if the stressor has finished.
+    */
+   public boolean join(long millis) throws InterruptedException {
+      return done.await(millis, TimeUnit.MILLISECONDS);
+   }
+
+   public String getName() {
+      return name;
+   }
+
    private void runInternal() {
       boolean counted = false;
       try {
@@ -101,12 +173,12 @@ public class Stressor extends Thread {
                try {
                   logic.run(operation);
                   if (delayBetweenRequests > 0)
-                    sleep(delayBetweenRequests);
+                    Thread.sleep(delayBetweenRequests);
                } catch (OperationLogic.RequestException e) {
                   // the exception was already logged in makeRequest
                } catch (InterruptedException e) {
                   log.trace("Stressor interrupted.", e);
-                  interrupt();
+                  Thread.currentThread().interrupt();
                }
             }
          }
@@ -115,18 +187,30 @@ public class Stressor extends Thread {
          this.started = true;
          completion.start();
          int i = 0;
+         // spread the first requests of all threads over the period
+         long nextStartTime = requestPeriod > 0 ? TimeService.nanoTime() + (long) (random.nextDouble() * requestPeriod) : 0;
          while (!stage.isTerminated()) {
             Operation operation = operationSelector.next(random);
             if (!completion.moreToRun()) break;
+            // roll the interval before waiting for the next request, so that it is not recorded as part of its latency
+            if (intervalRequested) {
+               moveInterval();
+            }
+            if (requestPeriod > 0) {
+               waitUntil(nextStartTime);
+               intendedStartTime = nextStartTime;
+               // when we're late the next requests are started immediately, until we catch up with the schedule
+               nextStartTime += requestPeriod;
+            }
             try {
                logic.run(operation);
                if (delayBetweenRequests > 0)
-                  sleep(delayBetweenRequests);
+                  Thread.sleep(delayBetweenRequests);
             } catch (OperationLogic.RequestException e) {
                // the exception was already logged in makeRequest
             } catch (InterruptedException e) {
                log.trace("Stressor interrupted.", e);
-               interrupt();
+               Thread.currentThread().interrupt();
             }
             i++;
             completion.logProgress(i);
@@ -138,6 +222,66 @@ public class Stressor extends Thread {
       }
    }
 
+   /**
+    * Retrieves the statistics recorded since the previous call, to be reported as the test progress.
+    * Unless the statistics are recorded from multiple threads, the data are moved by the stressor thread
+    * before the next request (so that the recording does not need any locking) and returned on the next call.
+    *
+    * @return Statistics of the finished interval or null if there are none available.
+    */
+   public Statistics takeInterval() {
+      Statistics stats = this.stats;
+      if (stats == null) {
+         return null;
+      } else if (stats instanceof ConcurrentStatistics) {
+         return ((ConcurrentStatistics) stats).takeInterval();
+      } else if (lockStats) {
+         synchronized (stats) {
+            return nextInterval(stats);
+         }
+      }
+      intervalRequested = true;
+      synchronized (intervalLock) {
+         Statistics interval = finishedInterval;
+         finishedInterval = null;
+         return interval;
+      }
+   }
+
+   private void moveInterval() {
+      intervalRequested = false;
+      Statistics interval;
+      if (lockStats) {
+         synchronized (stats) {
+            interval = nextInterval(stats);
+         }
+      } else {
+         interval = nextInterval(stats);
+      }
+      synchronized (intervalLock) {
+         if (finishedInterval == null) {
+            finishedInterval = interval;
+         } else {
+            finishedInterval.merge(interval);
+         }
+      }
+   }
+
+   private static Statistics nextInterval(Statistics stats) {
+      stats.end();
+      Statistics interval = stats.copy();
+      stats.reset();
+      stats.begin();
+      return interval;
+   }
+
+   private void waitUntil(long nanoTime) {
+      long now;
+      while ((now = TimeService.nanoTime()) < nanoTime && !stage.isTerminated()) {
+         LockSupport.parkNanos(nanoTime - now);
+      }
+   }
+
    public <T> T wrap(T resource) {
       return ongoingTx.wrap(resource);
    }
@@ -152,7 +296,7 @@ public class Stressor extends Thread {
             ongoingTx = stage.transactional.getTransaction();
             logic.transactionStarted();
             if (recording()) {
-               requests = stats.requestSet();
+               requests = reusableRequestSet = stats.requestSet(reusableRequestSet);
             }
             Request beginRequest = startTransaction();
             if (requests != null && beginRequest != null) {
@@ -166,7 +310,7 @@ public class Stressor extends Thread {
 
       T result = null;
       Exception exception = null;
-      Request request = recording() ? stats.startRequest() : null;
+      Request request = currentRequest = startRequest();
       try {
          result = invocation.invoke();
          succeeded(request, invocation.operation());
@@ -182,6 +326,8 @@ public class Stressor extends Thread {
          log.warn("Error in request", e);
          txRemainingOperations = 0;
          exception = e;
+      } finally {
+         currentRequest = null;
       }
       if (requests != null && request != null && recording()) {
          requests.add(request);
@@ -196,7 +342,95 @@ public class Stressor extends Thread {
       return result;
    }
 
+   /**
+    * Record the time elapsed since the start of the currently executed request as given operation,
+    * e.g. the time until first part of the response is received. The request itself is recorded
+    * as usual once the invocation completes. Can be called only from {@link Invocation#invoke()}
+    * executed through {@link #makeRequest(Invocation)}.
+    */
+   public void recordIntermediate(Operation operation) {
+      if (currentRequest != null && recording()) {
+         succeeded(currentRequest, operation);
+      }
+   }
+
+   /**
+    * Start the invocation and record its duration once the returned stage completes. When there are already
+    * {@link TestStage#requestsInFlight} requests outstanding, this method blocks until one of them completes.
+    * Asynchronous requests cannot be used within transactions.
+    *
+    * @return The stage returned by the invocation.
+    */
+   public <T> CompletionStage<T> makeRequestAsync(AsyncInvocation<T> invocation) throws OperationLogic.RequestException {
+      if (useTransactions) {
+         throw new IllegalStateException("Asynchronous requests cannot be executed in transactions");
+      }
+      try {
+         inFlightPermits.acquire();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new OperationLogic.RequestException(e);
+      }
+      if (!asyncRequests) {
+         lockStats = !(stats instanceof ConcurrentStatistics);
+         asyncRequests = true;
+      }
+      // Request instances can't be reused as there are several of them in flight
+      Request request = recording() ? applyIntendedStartTime(stats.startRequest()) : null;
+      CompletionStage<T> stage;
+      try {
+         stage = invocation.invoke();
+      } catch (Exception e) {
+         inFlightPermits.release();
+         failed(request, invocation.operation());
+         log.warn("Error in request", e);
+         throw new OperationLogic.RequestException(e);
+      }
+      stage.whenComplete((result, throwable) -> {
+         try {
+            if (asyncRequestsAbandoned) {
+               // the statistics were already reported
+               log.debug("Asynchronous request completed after the stressor has finished");
+            } else if (throwable == null) {
+               succeeded(request, invocation.operation());
+               Blackhole.consume(result);
+            } else {
+               failed(request, invocation.operation());
+               log.warn("Error in request", throwable);
+            }
+         } finally {
+            inFlightPermits.release();
+         }
+      });
+      return stage;
+   }
+
+   /**
+    * Waits for outstanding asynchronous requests, at most for {@link TestStage#asyncRequestsTimeout}.
+    * Requests completed after that are not recorded.
+    */
+   private void awaitAsyncRequests() throws InterruptedException {
+      long timeout = stage.asyncRequestsTimeout;
+      if (inFlightPermits.tryAcquire(requestsInFlight, timeout, TimeUnit.MILLISECONDS)) {
+         inFlightPermits.release(requestsInFlight);
+      } else {
+         asyncRequestsAbandoned = true;
+         log.errorf("%d asynchronous requests have not completed within %d ms, giving up",
+            requestsInFlight - inFlightPermits.availablePermits(), timeout);
+      }
+   }
+
    public <T> void succeeded(Request request, Operation operation) {
+      if (lockStats) {
+         synchronized (stats) {
+            succeededInternal(request, operation);
+         }
+      } else {
+         succeededInternal(request, operation);
+      }
+   }
+
+   private void succeededInternal(Request request, Operation operation) {
       if (request != null) {
          if (recording()) {
             request.succeeded(operation);
@@ -207,6 +441,16 @@ public class Stressor extends Thread {
    }
 
    public <T> void failed(Request request, Operation operation) {
+      if (lockStats) {
+         synchronized (stats) {
+            failedInternal(request, operation);
+         }
+      } else {
+         failedInternal(request, operation);
+      }
+   }
+
+   private void failedInternal(Request request, Operation operation) {
       if (request != null) {
          if (recording()) {
             request.failed(operation);
@@ -217,7 +461,7 @@ public class Stressor extends Thread {
    }
 
    private void endTransactionAndRegisterStats(Operation singleTxOperation) {
-      Request commitRequest = recording() ? stats.startRequest() : null;
+      Request commitRequest = startRequest();
       try {
          if (stage.commitTransactions) {
             ongoingTx.commit();
@@ -234,9 +478,12 @@ public class Stressor extends Thread {
          if (requests != null) {
             if (recording()) {
                requests.add(commitRequest);
-               requests.finished(commitRequest.isSuccessful(), Transactional.DURATION);
-               if (singleTxOperation != null) {
-                  requests.finished(commitRequest.isSuccessful(), singleTxOperation);
+               if (lockStats) {
+                  synchronized (stats) {
+                     finishRequestSet(commitRequest.isSuccessful(), singleTxOperation);
+                  }
+               } else {
+                  finishRequestSet(commitRequest.isSuccessful(), singleTxOperation);
                }
             } else {
                requests.discard();
@@ -247,6 +494,13 @@ public class Stressor extends Thread {
       }
    }
 
+   private void finishRequestSet(boolean successful, Operation singleTxOperation) {
+      requests.finished(successful, Transactional.DURATION);
+      if (singleTxOperation != null) {
+         requests.finished(successful, singleTxOperation);
+      }
+   }
+
    public void setUseTransactions(boolean useTransactions) {
       this.useTransactions = useTransactions;
    }
@@ -280,18 +534,40 @@ public class Stressor extends Thread {
       return useTransactions;
    }
 
+   private Request startRequest() {
+      if (!recording()) {
+         return null;
+      }
+      // requests are always finished (and added to the request set) before the next one is started
+      return reusableRequest = applyIntendedStartTime(stats.startRequest(reusableRequest));
+   }
+
+   /**
+    * Sets the time (as in {@link TimeService#nanoTime()}) when the next request was scheduled to start,
+    * so that its response time includes the delay if it is started late. Used by logic which schedules
+    * the requests on its own.
+    */
+   public void setIntendedStartTime(long intendedStartTime) {
+      this.intendedStartTime = intendedStartTime;
+   }
+
+   private Request applyIntendedStartTime(Request request) {
+      if (intendedStartTime != Long.MIN_VALUE) {
+         // only the first request in scheduled invocation is delayed by previous requests
+         request.setIntendedStartTime(intendedStartTime);
+         intendedStartTime = Long.MIN_VALUE;
+      }
+      return request;
+   }
+
    private Request startTransaction() throws TransactionException {
-      Request request = recording() ? stats.startRequest() : null;
+      Request request = startRequest();
       try {
          ongoingTx.begin();
-         if (request != null) {
-            request.succeeded(Transactional.BEGIN);
-         }
+         succeeded(request, Transactional.BEGIN);
          return request;
       } catch (Exception e) {
-         if (request != null) {
-            request.failed(Transactional.BEGIN);
-         }
+         failed(request, Transactional.BEGIN);
          log.error("Failed to start transaction", e);
          throw new TransactionException(request, e);
       }
@@ -0,0 +1,70 @@
+package org.radargun.stages.test;
+
+import java.lang.reflect.Method;
+
+/**
+ * Defines what kind of threads should execute the {@link Stressor stressors}.
+ */
+public enum StressorThreads {
+   /**
+    * Each stressor runs in a dedicated platform thread.
+    */
+   PLATFORM {
+      @Override
+      public Thread newThread(Runnable runnable, String name) {
+         return new Thread(runnable, name);
+      }
+   },
+   /**
+    * Each stressor runs in a virtual thread. Requires JVM with virtual threads support (Java 21+).
+    */
+   VIRTUAL {
+      @Override
+      public Thread newThread(Runnable runnable, String name) {
+         try {
+            Object builder = VirtualThreads.OF_VIRTUAL.invoke(null);
+            builder = VirtualThreads.NAME.invoke(builder, name);
+            return (Thread) VirtualThreads.UNSTARTED.invoke(builder, runnable);
+         } catch (Exception e) {
+            throw new IllegalStateException("Cannot create virtual thread", e);
+         }
+      }
+
+      @Override
+      public void checkSupported() {
+         if (VirtualThreads.OF_VIRTUAL == null) {
+            throw new IllegalStateException("Virtual threads are not supported by this JVM: " + System.getProperty("java.version"));
+         }
+      }
+   };
+
+   public abstract Thread newThread(Runnable runnable, String name);
+
+   /**
+    * @throws IllegalStateException if the threads cannot be created in this JVM.
+    */
+   public void checkSupported() {
+   }
+
+   // the sources are compiled for older Java versions, therefore we have to access the API through reflection
+   private static class VirtualThreads {
+      private static final Method OF_VIRTUAL;
+      private static final Method NAME;
+      private static final Method UNSTARTED;
+
+      static {
+         Method ofVirtual = null, name = null, unstarted = null;
+         try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builderClass.getMethod("name", String.class);
+            unstarted = builderClass.getMethod("unstarted", Runnable.class);
+         } catch (ClassNotFoundException | NoSuchMethodException e) {
+            ofVirtual = null;
+         }
+         OF_VIRTUAL = ofVirtual;
+         NAME = name;
+         UNSTARTED = unstarted;
+      }
+   }
+}
@@ -1,7 +1,10 @@
 package org.radargun.stages.test;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -11,14 +14,18 @@ import java.util.stream.Collectors;
 
 import org.radargun.DistStageAck;
 import org.radargun.Operation;
+import org.radargun.StageProgress;
 import org.radargun.StageResult;
 import org.radargun.Version;
 import org.radargun.config.Init;
 import org.radargun.config.Property;
 import org.radargun.config.Stage;
 import org.radargun.reporting.Report;
+import org.radargun.state.MasterState;
 import org.radargun.state.SlaveState;
+import org.radargun.stats.ConcurrentStatistics;
 import org.radargun.stats.Statistics;
+import org.radargun.stats.representation.DefaultOutcome;
 import org.radargun.traits.InjectTrait;
 import org.radargun.traits.Transactional;
 import org.radargun.utils.TimeConverter;
@@ -64,14 +71,42 @@ public abstract class TestStage extends BaseTestStage {
    @Property(converter = TimeConverter.class, doc = "Time between consecutive requests of one stressor thread. Default is 0.")
    protected long delayBetweenRequests = 0;
 
+   @Property(doc = "Target throughput (operations per second) of all stressor threads in the cluster. When set, " +
+      "each thread starts its requests according to a fixed schedule instead of waiting for previous request " +
+      "to complete (open loop), and response times are measured from the intended start of the request " +
+      "in order to avoid coordinated omission. Default is 0 (closed loop).")
+   public double targetThroughput = 0;
+
+   @Property(doc = "Maximum number of asynchronous requests one stressor thread keeps outstanding. Applies only " +
+      "to tests executing asynchronous invocations. Default is 1.")
+   public int requestsInFlight = 1;
+
+   @Property(doc = "Maximum time to wait for outstanding asynchronous requests when the stressor finishes; requests " +
+      "completed later are not recorded. Default is 1 minute.", converter = TimeConverter.class)
+   public long asyncRequestsTimeout = 60000;
+
+   @Property(doc = "Kind of threads executing the stressors: PLATFORM (dedicated thread for each stressor) or VIRTUAL " +
+      "(requires Java 21+, allows tens of thousands of stressors per node). Default is PLATFORM.")
+   public StressorThreads stressorThreads = StressorThreads.PLATFORM;
+
    @Property(doc = "Whether an error from transaction commit/rollback should be logged as error. Default is true.")
    public boolean logTransactionExceptions = true;
 
+   @Property(doc = "Period of sending statistics recorded since the previous report from slaves to master during the test. " +
+      "Default is 0 (statistics are sent only after the test finishes).", converter = TimeConverter.class)
+   public long progressPeriod = 0;
+
+   @Property(doc = "Condition evaluated on master on the intermediate statistics (see 'progress-period') from all slaves. " +
+      "If the condition is not satisfied, the test is aborted on all slaves and the stage fails. Default is none.",
+      complexConverter = PerformanceCondition.Converter.class)
+   public PerformanceCondition progressCondition;
+
    @InjectTrait
    protected Transactional transactional;
 
    private Completion completion;
    private OperationSelector operationSelector;
+   private Statistics sharedStatistics;
 
    protected volatile boolean started = false;
    protected volatile boolean finished = false;
@@ -79,6 +114,13 @@ public abstract class TestStage extends BaseTestStage {
 
    protected StressorsManager stressorsManager;
 
+   // statistics reported by each slave during the test and their sum, used only on master
+   private transient Map<Integer, List<Statistics>> progressStatistics;
+   private transient Statistics progressAggregated;
+   private transient boolean aborted;
+   // set on slave when the statistics cannot be split into intervals
+   private transient boolean progressUnsupported;
+
    public StressorsManager getStressorsManager() {
       return stressorsManager;
    }
@@ -90,6 +132,22 @@ public abstract class TestStage extends BaseTestStage {
       if (totalThreads > 0 && numThreadsPerNode > 0)
          throw new IllegalStateException("You have to set only one ot total-threads, num-threads-per-node");
       if (totalThreads < 0 || numThreadsPerNode < 0) throw new IllegalStateException("Number of threads can't be < 0");
+      if (targetThroughput < 0) throw new IllegalStateException("Target throughput can't be < 0");
+      if (requestsInFlight <= 0) throw new IllegalStateException("Requests in flight must be > 0");
+      stressorThreads.checkSupported();
+      if (targetThroughput > 0 && delayBetweenRequests > 0)
+         throw new IllegalStateException("You have to set only one of target-throughput, delay-between-requests");
+      if (progressPeriod < 0) throw new IllegalStateException("Progress period can't be < 0");
+      if (progressCondition != null && progressPeriod == 0)
+         throw new IllegalStateException("You have to set progress-period in order to use progress-condition");
+   }
+
+   @Override
+   public void initOnMaster(MasterState masterState) {
+      super.initOnMaster(masterState);
+      progressStatistics = new HashMap<>();
+      progressAggregated = null;
+      aborted = false;
    }
 
    public DistStageAck executeOnSlave() {
@@ -127,6 +185,62 @@ public abstract class TestStage extends BaseTestStage {
       return processAckOnMaster(acks, testName);
    }
 
+   @Override
+   public boolean processProgressOnMaster(StageProgress progress) {
+      if (aborted) {
+         return false;
+      }
+      // slaves send only the statistics recorded since the previous report
+      List<Statistics> intervals = (List<Statistics>) progress.getData();
+      List<Statistics> slaveStatistics = progressStatistics.computeIfAbsent(progress.getSlaveIndex(), index -> new ArrayList<>());
+      for (int i = 0; i < intervals.size(); ++i) {
+         Statistics interval = intervals.get(i);
+         if (interval == null) {
+            continue;
+         }
+         if (progressAggregated == null) {
+            progressAggregated = interval.copy();
+         } else {
+            progressAggregated.merge(interval);
+         }
+         if (i >= slaveStatistics.size()) {
+            slaveStatistics.add(interval);
+         } else if (slaveStatistics.get(i) == null) {
+            slaveStatistics.set(i, interval);
+         } else {
+            slaveStatistics.get(i).merge(interval);
+         }
+      }
+      Statistics aggregated = progressAggregated;
+      if (aggregated == null) {
+         return true;
+      }
+      if (log.isDebugEnabled()) {
+         for (String operation : aggregated.getOperations()) {
+            DefaultOutcome outcome = aggregated.getRepresentation(operation, DefaultOutcome.class);
+            if (outcome != null) {
+               log.debugf("Progress of %s from %d slaves: %s requests %d, errors %d, mean response time %.2f us",
+                  testName, progressStatistics.size(), operation, outcome.requests, outcome.errors, outcome.responseTimeMean / 1000);
+            }
+         }
+      }
+      if (progressCondition == null || progressStatistics.size() < getExecutingSlaves().size()) {
+         return true;
+      }
+      boolean satisfied;
+      try {
+         satisfied = progressCondition.evaluate(aggregated);
+      } catch (Exception e) {
+         log.error("Progress condition has thrown exception, aborting the test", e);
+         satisfied = false;
+      }
+      if (!satisfied) {
+         log.warn("Progress condition " + progressCondition + " is not satisfied, aborting the test");
+         aborted = true;
+      }
+      return satisfied;
+   }
+
    protected StageResult processAckOnMaster(List<DistStageAck> acks, String testNameOverride) {
       StageResult result = super.processAckOnMaster(acks);
       if (result.isError()) return result;
@@ -135,9 +249,17 @@ public abstract class TestStage extends BaseTestStage {
       testIteration = test == null ? 0 : test.getIterations().size();
       // we cannot use aggregated = createStatistics() since with PeriodicStatistics the merge would fail
       List<StatisticsAck> statisticsAcks = instancesOf(acks, StatisticsAck.class);
-      Statistics aggregated = statisticsAcks.stream().flatMap(ack -> ack.statistics.stream()).reduce(null, Statistics.MERGE);
+      Map<Integer, List<Statistics>> slaveStatistics = new HashMap<>();
       for (StatisticsAck ack : statisticsAcks) {
-         if (ack.statistics != null) {
+         List<Statistics> statistics = withProgress(ack.getSlaveIndex(), ack.statistics);
+         if (statistics != null) {
+            slaveStatistics.put(ack.getSlaveIndex(), statistics);
+         }
+      }
+      Statistics aggregated = slaveStatistics.values().stream().flatMap(List::stream).reduce(null, Statistics.MERGE);
+      for (StatisticsAck ack : statisticsAcks) {
+         List<Statistics> statistics = slaveStatistics.get(ack.getSlaveIndex());
+         if (statistics != null) {
             if (test != null) {
                int testIteration = getTestIteration();
                String iterationValue = resolveIterationValue();
@@ -147,12 +269,16 @@ public abstract class TestStage extends BaseTestStage {
                if (test.getGroupOperationsMap() == null) {
                   test.setGroupOperationsMap(ack.getGroupOperationsMap());
                }
-               test.addStatistics(testIteration, ack.getSlaveIndex(), ack.statistics);
+               test.addStatistics(testIteration, ack.getSlaveIndex(), statistics);
             }
          } else {
             log.trace("No statistics received from slave: " + ack.getSlaveIndex());
          }
       }
+      if (aborted) {
+         log.error("Test " + testNameOverride + " was aborted as the progress condition was not satisfied.");
+         return StageResult.FAIL;
+      }
       if (checkRepeatCondition(aggregated)) {
          return StageResult.SUCCESS;
       } else {
@@ -160,6 +286,28 @@ public abstract class TestStage extends BaseTestStage {
       }
    }
 
+   /**
+    * The final results contain only the statistics recorded after the last progress report,
+    * therefore these have to be merged with the reported intervals.
+    */
+   private List<Statistics> withProgress(int slaveIndex, List<Statistics> statistics) {
+      List<Statistics> reported = progressStatistics == null ? null : progressStatistics.remove(slaveIndex);
+      if (reported == null) {
+         return statistics;
+      } else if (statistics == null) {
+         return reported;
+      }
+      List<Statistics> merged = new ArrayList<>(reported);
+      for (int i = 0; i < statistics.size(); ++i) {
+         if (i >= merged.size()) {
+            merged.add(statistics.get(i));
+         } else {
+            merged.set(i, Statistics.MERGE.apply(merged.get(i), statistics.get(i)));
+         }
+      }
+      return merged;
+   }
+
    protected StressorsManager setUpAndStartStressors() {
       long startTime = TimeService.currentTimeMillis();
       completion = createCompletion();
@@ -175,6 +323,7 @@ public abstract class TestStage extends BaseTestStage {
          }
       });
       operationSelector = wrapOperationSelector(createOperationSelector());
+      sharedStatistics = null;
 
       List<Stressor> stressors = startStressors();
       started = true;
@@ -191,29 +340,20 @@ public abstract class TestStage extends BaseTestStage {
 
    protected void waitForStressorsToFinish(StressorsManager manager) {
       try {
-         if (timeout > 0) {
-            long waitTime = getWaitTime(manager.getStartTime());
-            if (waitTime <= 0) {
-               throw new TestTimeoutException();
-            } else {
-               if (!manager.getFinishCountDown().await(waitTime, TimeUnit.MILLISECONDS)) {
-                  throw new TestTimeoutException();
-               }
-            }
-         } else {
-            manager.getFinishCountDown().await();
+         if (!awaitFinish(manager)) {
+            throw new TestTimeoutException();
          }
       } catch (InterruptedException e) {
          throw new IllegalStateException("Unexpected interruption", e);
       }
-      for (Thread stressorThread : manager.getStressors()) {
+      for (Stressor stressor : manager.getStressors()) {
          try {
             if (timeout > 0) {
                long waitTime = getWaitTime(manager.getStartTime());
                if (waitTime <= 0) throw new TestTimeoutException();
-               stressorThread.join(waitTime);
+               stressor.join(waitTime);
             } else {
-               stressorThread.join();
+               stressor.join();
             }
          } catch (InterruptedException e) {
             throw new TestTimeoutException(e);
@@ -221,6 +361,67 @@ public abstract class TestStage extends BaseTestStage {
       }
    }
 
+   /**
+    * Waits until the test is finished, reporting the progress to the master in the meantime.
+    *
+    * @return False if the test has timed out.
+    */
+   private boolean awaitFinish(StressorsManager manager) throws InterruptedException {
+      CountDownLatch finishCountDown = manager.getFinishCountDown();
+      while (true) {
+         long waitTime = timeout > 0 ? getWaitTime(manager.getStartTime()) : Long.MAX_VALUE;
+         if (waitTime <= 0) {
+            return false;
+         }
+         if (progressPeriod > 0) {
+            waitTime = Math.min(waitTime, progressPeriod);
+         }
+         if (waitTime == Long.MAX_VALUE) {
+            finishCountDown.await();
+            return true;
+         } else if (finishCountDown.await(waitTime, TimeUnit.MILLISECONDS)) {
+            return true;
+         } else if (progressPeriod > 0) {
+            reportProgress(manager.getStressors());
+         }
+      }
+   }
+
+   protected void reportProgress(List<Stressor> stressors) {
+      if (progressUnsupported) {
+         return;
+      }
+      // send only the data recorded since the last report, in the same order as the final results
+      Set<Statistics> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+      ArrayList<Statistics> intervals = new ArrayList<>();
+      try {
+         for (Stressor stressor : stressors) {
+            Statistics stats = stressor.getStats();
+            if (stats == null || !distinct.add(stats)) {
+               continue;
+            }
+            intervals.add(stressor.takeInterval());
+         }
+      } catch (UnsupportedOperationException e) {
+         log.error("Progress cannot be reported, the statistics will be sent after the test finishes", e);
+         progressUnsupported = true;
+         return;
+      }
+      if (mergeThreadStats && intervals.size() > 1) {
+         Statistics merged = intervals.stream().reduce(null, Statistics.MERGE);
+         intervals.clear();
+         intervals.add(merged);
+      }
+      try {
+         if (!slaveState.reportProgress(intervals)) {
+            log.warn("Master requested to abort the test.");
+            setTerminated();
+         }
+      } catch (IOException e) {
+         log.error("Failed to report progress to master", e);
+      }
+   }
+
    protected Completion createCompletion() {
       if (numOperations > 0) {
          long countPerNode = numOperations / getExecutingSlaves().size();
@@ -254,7 +455,7 @@ public abstract class TestStage extends BaseTestStage {
       for (int threadIndex = stressors.size(); threadIndex < myNumThreads; threadIndex++) {
          Stressor stressor = new Stressor(this, getLogic(), myFirstThread + threadIndex, threadIndex, logTransactionExceptions, threadCountDown, delayBetweenRequests);
          stressors.add(stressor);
-         stressor.start();
+         stressorThreads.newThread(stressor, stressor.getName()).start();
       }
       try {
          threadCountDown.await();
@@ -271,15 +472,18 @@ public abstract class TestStage extends BaseTestStage {
    }
 
    protected <T> List<T> gatherResults(List<Stressor> stressors, ResultRetriever<T> retriever) {
+      // shared results (e.g. concurrent statistics) must not be accounted multiple times
+      Set<T> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
       if (mergeThreadStats) {
          return stressors.stream()
             .map(retriever::getResult)
+            .filter(r -> r == null || distinct.add(r))
             .reduce(retriever::merge)
             .map(Collections::singletonList).orElse(Collections.emptyList());
       } else {
          return stressors.stream()
             .map(retriever::getResult)
-            .filter(r -> r != null)
+            .filter(r -> r != null && distinct.add(r))
             .collect(Collectors.toList());
       }
    }
@@ -320,7 +524,26 @@ public abstract class TestStage extends BaseTestStage {
       }
    }
 
+   /**
+    * @return Interval between intended starts of two consecutive requests of a single stressor thread,
+    *         or 0 if the stressors should run in closed loop.
+    */
+   public long getRequestPeriodNanos() {
+      if (targetThroughput <= 0) {
+         return 0;
+      }
+      return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) * getTotalThreads() / targetThroughput));
+   }
+
    protected Statistics createStatistics() {
+      if (statisticsPrototype instanceof ConcurrentStatistics) {
+         synchronized (this) {
+            if (sharedStatistics == null) {
+               sharedStatistics = statisticsPrototype.copy();
+            }
+            return sharedStatistics;
+         }
+      }
       return statisticsPrototype.copy();
    }
 
@@ -0,0 +1,199 @@
+package org.radargun.stages.test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.radargun.DistStageAck;
+import org.radargun.StageResult;
+import org.radargun.config.Init;
+import org.radargun.config.Property;
+import org.radargun.config.Stage;
+import org.radargun.reporting.Report;
+import org.radargun.stages.AbstractDistStage;
+import org.radargun.state.MasterListener;
+import org.radargun.stats.Statistics;
+
+/**
+ * Drives search for the maximum sustainable throughput across iterations of a repeat. In each iteration
+ * it evaluates the last iteration of the test and stores the target throughput for the next one;
+ * when the search converges it breaks out of the repeat.
+ */
+@Stage(doc = "Searches for the maximum throughput where the test still satisfies given condition. " +
+   "Place this stage into a repeat, followed by the test stage with amend-test=true and target-throughput " +
+   "set to the property stored by this stage. The throughput is first raised (or lowered) by ramp-factor " +
+   "until both sustainable and unsustainable throughput are found, then the interval is halved " +
+   "until the required precision is reached; at that point the repeat is exited. The stage fails when not even " +
+   "min-throughput is sustainable.")
+public class ThroughputSearchStage extends AbstractDistStage {
+   public static final String RESULT_NAME = "Max sustainable throughput";
+   private static final String SEARCH_PREFIX = "throughput-search.";
+
+   @Property(doc = "Name of the test executed with the target throughput.", optional = false)
+   protected String testName;
+
+   @Property(doc = "Condition that an iteration of the test has to satisfy in order to consider the throughput " +
+      "sustainable, e.g. response time percentile and errors.", optional = false,
+      complexConverter = PerformanceCondition.Converter.class)
+   protected PerformanceCondition condition;
+
+   @Property(doc = "Name of the property where the target throughput for the next iteration is stored.", optional = false)
+   protected String storeTargetTo;
+
+   @Property(doc = "Name of the property where the highest sustainable throughput found so far is stored. Default is none.")
+   protected String storeResultTo;
+
+   @Property(doc = "Target throughput (operations per second) of the first iteration.", optional = false)
+   protected double initialThroughput;
+
+   @Property(doc = "Factor used to raise (lower) the throughput until first unsustainable (sustainable) " +
+      "throughput is found. Default is 2.")
+   protected double rampFactor = 2;
+
+   @Property(doc = "Minimum throughput that should be tested. When it is not sustainable either, the search fails. " +
+      "Default is 1/1000 of the initial throughput.")
+   protected double minThroughput = 0;
+
+   @Property(doc = "Maximum throughput that should be tested. Default is unlimited.")
+   protected double maxThroughput = Double.POSITIVE_INFINITY;
+
+   @Property(doc = "Relative difference between the highest sustainable and lowest unsustainable throughput " +
+      "when the search ends. Default is 0.05.")
+   protected double precision = 0.05;
+
+   private transient boolean finished;
+   private transient boolean failed;
+
+   @Init
+   public void init() {
+      if (initialThroughput <= 0) throw new IllegalStateException("Initial throughput must be > 0");
+      if (rampFactor <= 1) throw new IllegalStateException("Ramp factor must be > 1");
+      if (precision <= 0 || precision >= 1) throw new IllegalStateException("Precision must be between 0 and 1");
+      if (maxThroughput < initialThroughput) throw new IllegalStateException("Max throughput must be >= initial throughput");
+      if (minThroughput < 0 || minThroughput > initialThroughput) throw new IllegalStateException("Min throughput must be between 0 and initial throughput");
+   }
+
+   @Override
+   public DistStageAck executeOnSlave() {
+      return successfulResponse();
+   }
+
+   @Override
+   public Map<String, Object> createMasterData() {
+      String searchKey = SEARCH_PREFIX + storeTargetTo;
+      Report.Test test = masterState.getReport().getTest(testName);
+      int iterations = test == null ? 0 : test.getIterations().size();
+      Search search = (Search) masterState.get(searchKey);
+      if (search == null) {
+         search = new Search(initialThroughput, iterations);
+         masterState.put(searchKey, search);
+         masterState.addListener(new MasterListener() {
+            @Override
+            public void afterCluster() {
+               masterState.remove(searchKey);
+               masterState.removeListener(this);
+            }
+         });
+      } else {
+         if (iterations <= search.iterations) {
+            throw new IllegalStateException("Test '" + testName + "' has not been executed since the last search step.");
+         }
+         Report.TestIteration iteration = test.getIterations().get(iterations - 1);
+         search.iterations = iterations;
+         search.update(isSustainable(iteration), iteration.id, rampFactor, getMinThroughput(), maxThroughput);
+         failed = search.failed(getMinThroughput());
+         finished = !failed && search.converged(precision, maxThroughput);
+      }
+      Map<String, Object> masterData = new HashMap<>();
+      if (search.low > 0 && storeResultTo != null) {
+         masterData.put(storeResultTo, search.low);
+      }
+      if (failed) {
+         masterState.remove(searchKey);
+         log.errorf("Test '%s' is not sustainable even with the minimum throughput %.1f ops/s", testName, search.high);
+      } else if (finished) {
+         masterState.remove(searchKey);
+         log.infof("Max sustainable throughput of test '%s' is %.1f ops/s (lowest unsustainable %.1f ops/s)",
+            testName, search.low, search.high);
+         test.addResult(search.lowIteration, new Report.TestResult(RESULT_NAME, Collections.emptyMap(),
+            String.format("%.1f ops/s", search.low), false));
+      } else {
+         log.infof("Next iteration of test '%s' will target %.1f ops/s", testName, search.target);
+         masterData.put(storeTargetTo, search.target);
+      }
+      for (Map.Entry<String, Object> entry : masterData.entrySet()) {
+         masterState.put(entry.getKey(), entry.getValue());
+      }
+      return masterData;
+   }
+
+   private boolean isSustainable(Report.TestIteration iteration) {
+      Statistics aggregated = iteration.getStatistics().stream()
+         .flatMap(entry -> entry.getValue().stream()).reduce(null, Statistics.MERGE);
+      if (aggregated == null) {
+         log.warn("No statistics in iteration " + iteration.id + " of test '" + testName + "'");
+         return false;
+      }
+      try {
+         return condition.evaluate(aggregated);
+      } catch (Exception e) {
+         log.warn("Condition has thrown exception, considering the throughput unsustainable", e);
+         return false;
+      }
+   }
+
+   @Override
+   public StageResult processAckOnMaster(List<DistStageAck> acks) {
+      StageResult result = super.processAckOnMaster(acks);
+      if (result.isError()) return result;
+      if (failed) return StageResult.FAIL;
+      return finished ? StageResult.BREAK : StageResult.SUCCESS;
+   }
+
+   private double getMinThroughput() {
+      return minThroughput > 0 ? minThroughput : initialThroughput / 1000;
+   }
+
+   /**
+    * State of the search kept in master state between iterations.
+    */
+   static class Search {
+      double target;
+      double low = 0;
+      double high = Double.POSITIVE_INFINITY;
+      int lowIteration = -1;
+      int iterations;
+
+      Search(double target, int iterations) {
+         this.target = target;
+         this.iterations = iterations;
+      }
+
+      void update(boolean sustainable, int iteration, double rampFactor, double minThroughput, double maxThroughput) {
+         if (sustainable) {
+            if (target > low) {
+               low = target;
+               lowIteration = iteration;
+            }
+         } else {
+            high = Math.min(high, target);
+         }
+         if (high == Double.POSITIVE_INFINITY) {
+            target = Math.min(target * rampFactor, maxThroughput);
+         } else if (low == 0) {
+            target = Math.max(target / rampFactor, minThroughput);
+         } else {
+            target = (low + high) / 2;
+         }
+      }
+
+      boolean failed(double minThroughput) {
+         return low == 0 && high <= minThroughput;
+      }
+
+      boolean converged(double precision, double maxThroughput) {
+         return low >= maxThroughput || (low > 0 && high < Double.POSITIVE_INFINITY && high - low <= precision * high);
+      }
+   }
+}
@@ -1,10 +1,13 @@
 package org.radargun.state;
 
+import java.io.IOException;
+import java.io.Serializable;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Map;
 
 import org.radargun.RemoteSlaveConnection;
+import org.radargun.StageProgress;
 import org.radargun.config.Cluster;
 import org.radargun.reporting.Timeline;
 import org.radargun.utils.SlaveConnectionInfo;
@@ -29,6 +32,25 @@ public class SlaveState extends StateBase<ServiceListener> {
 
    private Map<Class<?>, Object> traits;
    private Timeline timeline;
+   private StageProgress.Reporter progressReporter;
+
+   public void setProgressReporter(StageProgress.Reporter progressReporter) {
+      this.progressReporter = progressReporter;
+   }
+
+   /**
+    * Sends intermediate results of currently executed stage to the master.
+    *
+    * @param data
+    * @return False if master requests the stage to be aborted.
+    * @throws IOException
+    */
+   public boolean reportProgress(Serializable data) throws IOException {
+      if (progressReporter == null) {
+         return true;
+      }
+      return progressReporter.report(new StageProgress(slaveIndex, data));
+   }
 
    public void setLocalAddress(InetAddress localAddress) {
       this.localAddress = localAddress;
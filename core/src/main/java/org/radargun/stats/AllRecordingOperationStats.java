@@ -1,5 +1,8 @@
 package org.radargun.stats;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -220,4 +223,27 @@ public class AllRecordingOperationStats implements OperationStats {
          return durationSum / requests;
       }
    }
+
+   // only the recorded values are written, in compact form
+   private void writeObject(ObjectOutputStream out) throws IOException {
+      int size = full ? responseTimes.length : pos;
+      out.writeInt(responseTimes.length);
+      out.writeInt(pos);
+      out.writeBoolean(full);
+      out.writeLong(errors);
+      for (int i = 0; i < size; ++i) {
+         StatsUtils.writeSignedVarLong(out, responseTimes[i]);
+      }
+   }
+
+   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      responseTimes = new long[in.readInt()];
+      pos = in.readInt();
+      full = in.readBoolean();
+      errors = in.readLong();
+      int size = full ? responseTimes.length : pos;
+      for (int i = 0; i < size; ++i) {
+         responseTimes[i] = StatsUtils.readSignedVarLong(in);
+      }
+   }
 }
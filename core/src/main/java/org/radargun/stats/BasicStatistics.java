@@ -99,6 +99,17 @@ public class BasicStatistics extends IntervalStatistics {
       stats.record(requestSet);
    }
 
+   /**
+    * Adds data from the operation statistics (not necessarily recorded by this instance) to this instance.
+    *
+    * @param operation
+    * @param stats Must be compatible with the operation stats prototype.
+    */
+   public void mergeOperationStats(Operation operation, OperationStats stats) {
+      ensure(operation.id);
+      operationStats[operation.id].merge(stats);
+   }
+
    /**
     * Ensures that there is entry in operationStats with this ID
     * If there isn't create it
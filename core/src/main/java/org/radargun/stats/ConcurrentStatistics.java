@@ -0,0 +1,19 @@
+package org.radargun.stats;
+
+/**
+ * Marks {@link Statistics} implementations that support concurrent recording from many threads.
+ * Test stages create single instance of these statistics and share it among all stressors on the node,
+ * instead of creating one instance for each stressor thread.
+ */
+public interface ConcurrentStatistics extends Statistics {
+   /**
+    * Moves the data recorded since the previous call (or since the beginning) into new statistics
+    * and starts a new interval, without blocking the recording threads.
+    *
+    * @return Statistics recorded in the finished interval.
+    * @throws UnsupportedOperationException If these statistics cannot be split into intervals.
+    */
+   default Statistics takeInterval() {
+      throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be split into intervals");
+   }
+}
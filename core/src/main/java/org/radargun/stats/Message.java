@@ -6,7 +6,7 @@ import org.radargun.Operation;
 
 /**
  * Tracks time for operations with different origin and destination nodes.
- * The time can be tracked only using wall-clock time.
+ * The time can be tracked only using wall-clock time; the times are kept in nanoseconds.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -21,14 +21,29 @@ public final class Message {
       this.statistics = statistics;
    }
 
+   /**
+    * @param sendStartTime Epoch time in milliseconds.
+    * @param receiveCompleteTime Epoch time in milliseconds.
+    */
    public Message times(long sendStartTime, long receiveCompleteTime) {
-      this.sendStartTime = sendStartTime;
-      this.receiveCompleteTime = receiveCompleteTime;
+      return times(sendStartTime, receiveCompleteTime, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * @param sendStartTime Epoch time in given unit.
+    * @param receiveCompleteTime Epoch time in given unit.
+    */
+   public Message times(long sendStartTime, long receiveCompleteTime, TimeUnit unit) {
+      this.sendStartTime = unit.toNanos(sendStartTime);
+      this.receiveCompleteTime = unit.toNanos(receiveCompleteTime);
       return this;
    }
 
+   /**
+    * @return Epoch time in milliseconds.
+    */
    public long getSendStartTime() {
-      return sendStartTime;
+      return TimeUnit.NANOSECONDS.toMillis(sendStartTime);
    }
 
    public void record(Operation operation) {
@@ -39,11 +54,15 @@ public final class Message {
       statistics.discard(this);
    }
 
+   /**
+    * @return True if both times were set and the message was not received before it was sent. When the times
+    *         have millisecond granularity, message received in the same millisecond is recorded as 0 ms.
+    */
    public boolean isValid() {
-      return sendStartTime < receiveCompleteTime;
+      return sendStartTime <= receiveCompleteTime;
    }
 
    public long totalTime() {
-      return TimeUnit.MILLISECONDS.toNanos(receiveCompleteTime - sendStartTime);
+      return receiveCompleteTime - sendStartTime;
    }
 }
@@ -14,7 +14,10 @@ import org.radargun.utils.TimeService;
  */
 public final class Request {
    private final Statistics statistics;
-   private final long requestStartTime;
+   private long requestStartTime;
+   // when the request was supposed to start in open-loop (fixed rate) tests
+   private long intendedStartTime;
+   private boolean scheduled = false;
 //   This is for async:
 //   private long requestCompleteTime;
 //   private long responseStartedTime;
@@ -24,6 +27,7 @@ public final class Request {
    public Request(Statistics statistics) {
       this.statistics = statistics;
       this.requestStartTime = TimeService.nanoTime();
+      this.intendedStartTime = requestStartTime;
    }
 
    public void exec(Operation operation, Runnable runnable) {
@@ -87,6 +91,25 @@ public final class Request {
       statistics.discard(this);
    }
 
+   /**
+    * Start tracking another request with this instance, forgetting the outcome of the previous one.
+    * The caller must not keep any reference to the previous request after calling this.
+    *
+    * @return This instance.
+    */
+   public Request restart() {
+      requestStartTime = TimeService.nanoTime();
+      intendedStartTime = requestStartTime;
+      scheduled = false;
+      responseCompleteTime = Long.MIN_VALUE;
+      successful = true;
+      return this;
+   }
+
+   Statistics getStatistics() {
+      return statistics;
+   }
+
    public boolean isSuccessful() {
       return successful;
    }
@@ -104,9 +127,39 @@ public final class Request {
    }
 
    /**
-    * @return Total duration in nanoseconds.
+    * Set the time when this request should have been started according to the schedule. When the request
+    * is started late (e.g. because previous request was stalled), the delay is accounted in {@link #duration()}
+    * in order to avoid coordinated omission.
+    *
+    * @param intendedStartTime Timestamp as returned by {@link TimeService#nanoTime()}.
+    */
+   public void setIntendedStartTime(long intendedStartTime) {
+      this.intendedStartTime = Math.min(intendedStartTime, requestStartTime);
+      this.scheduled = true;
+   }
+
+   public long getIntendedStartTime() {
+      return intendedStartTime;
+   }
+
+   /**
+    * @return True if the intended start time was set for this request.
+    */
+   public boolean isScheduled() {
+      return scheduled;
+   }
+
+   /**
+    * @return Total duration in nanoseconds, measured from the intended start time.
     */
    public long duration() {
+      return responseCompleteTime - intendedStartTime;
+   }
+
+   /**
+    * @return Duration in nanoseconds measured from the actual start, not accounting the schedule delay.
+    */
+   public long serviceTime() {
       return responseCompleteTime - requestStartTime;
    }
 }
@@ -20,7 +20,7 @@ public final class RequestSet {
       if (!request.isFinished()) {
          throw new IllegalArgumentException();
       }
-      begin = Math.min(begin, request.getRequestStartTime());
+      begin = Math.min(begin, request.getIntendedStartTime());
       end = Math.max(end, request.getResponseCompleteTime());
       sumDurations += request.duration();
    }
@@ -43,6 +43,23 @@ public final class RequestSet {
       statistics.discard(this);
    }
 
+   /**
+    * Clear all requests added so far in order to reuse this instance for another set.
+    *
+    * @return This instance.
+    */
+   public RequestSet restart() {
+      begin = Long.MAX_VALUE;
+      end = Long.MIN_VALUE;
+      sumDurations = 0;
+      successful = true;
+      return this;
+   }
+
+   Statistics getStatistics() {
+      return statistics;
+   }
+
    public long sumDurations() {
       return sumDurations;
    }
@@ -74,6 +74,19 @@ public interface Statistics extends Serializable {
       return new Request(this);
    }
 
+   /**
+    * Same as {@link #startRequest()} but reuses the passed instance if it was created by these statistics,
+    * avoiding allocation on the hot path. The previous request must be already finished or discarded.
+    *
+    * @param request Previously used request, or null.
+    */
+   default Request startRequest(Request request) {
+      if (request == null || request.getStatistics() != this) {
+         return startRequest();
+      }
+      return request.restart();
+   }
+
    /**
     * Create an object for tracking non-rpc-like operations.
     */
@@ -85,6 +98,18 @@ public interface Statistics extends Serializable {
       return new RequestSet(this);
    }
 
+   /**
+    * Same as {@link #requestSet()} but reuses the passed instance if it was created by these statistics.
+    *
+    * @param requestSet Previously used request set, or null.
+    */
+   default RequestSet requestSet(RequestSet requestSet) {
+      if (requestSet == null || requestSet.getStatistics() != this) {
+         return requestSet();
+      }
+      return requestSet.restart();
+   }
+
    /**
     * Should be called only from {@link Request#succeeded(Operation)} and {@link Request#failed(Operation)}.
     *
@@ -1,5 +1,8 @@
 package org.radargun.stats;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -37,4 +40,40 @@ public class StatsUtils {
       }
       return sum / values.size();
    }
+
+   /**
+    * Writes the value in variable-length format, using 1 byte for values 0 - 127, 2 bytes up to 16383 etc.
+    * Negative values always take 10 bytes, use {@link #writeSignedVarLong(DataOutput, long)} for these.
+    */
+   public static void writeVarLong(DataOutput out, long value) throws IOException {
+      while ((value & ~0x7FL) != 0) {
+         out.writeByte((int) (value & 0x7F) | 0x80);
+         value >>>= 7;
+      }
+      out.writeByte((int) value);
+   }
+
+   public static long readVarLong(DataInput in) throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+         byte b = in.readByte();
+         value |= (long) (b & 0x7F) << shift;
+         if ((b & 0x80) == 0) {
+            return value;
+         }
+      }
+      throw new IOException("Malformed variable-length long");
+   }
+
+   /**
+    * Writes the value in variable-length format, with small absolute values using less bytes (zig-zag encoding).
+    */
+   public static void writeSignedVarLong(DataOutput out, long value) throws IOException {
+      writeVarLong(out, (value << 1) ^ (value >> 63));
+   }
+
+   public static long readSignedVarLong(DataInput in) throws IOException {
+      long value = readVarLong(in);
+      return (value >>> 1) ^ -(value & 1);
+   }
 }
@@ -0,0 +1,32 @@
+package org.radargun.stats.representation;
+
+import org.radargun.config.DefinitionElement;
+import org.radargun.config.Property;
+import org.radargun.stats.Statistics;
+
+/**
+ * Same as {@link Percentile} but computed from the service time, i.e. measured from the moment when
+ * the request was actually started, rather than from the intended start in open-loop tests.
+ * The difference between these two shows how much of the response time was spent waiting
+ * for previous (stalled) requests. In closed-loop tests both values are identical.
+ */
+public class UncorrectedPercentile {
+   public final double responseTimeMax;
+
+   public UncorrectedPercentile(double responseTimeMax) {
+      this.responseTimeMax = responseTimeMax;
+   }
+
+   @DefinitionElement(name = "uncorrected-percentile", doc = "Retrieve max service time (not corrected for coordinated omission) at given percentile.")
+   public static class UncorrectedPercentileAt extends RepresentationType {
+      @Property(doc = "Percentile value, between 0 and 100.", optional = false)
+      protected double value;
+
+      @Override
+      public double getValue(Statistics statistics, String operation, long duration) {
+         UncorrectedPercentile percentile = statistics.getRepresentation(operation, UncorrectedPercentile.class, value);
+         if (percentile == null) throw new IllegalArgumentException("Cannot retrieve uncorrected percentile from " + operation);
+         return percentile.responseTimeMax;
+      }
+   }
+}
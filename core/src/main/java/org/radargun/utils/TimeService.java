@@ -1,15 +1,39 @@
 package org.radargun.utils;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Global service providing time operations.
  *
  * @author Matej Cimbora
  */
 public final class TimeService {
+   private static final long MAX_ANCHOR_ERROR = TimeUnit.MICROSECONDS.toNanos(20);
+   private static final int MAX_ANCHOR_ATTEMPTS = 100;
+   private static final long EPOCH_NANOS_OFFSET = epochNanosOffset();
 
    private TimeService() {
    }
 
+   private static long epochNanosOffset() {
+      // Anchor the offset on the millisecond tick to avoid error up to one millisecond. The tick happened
+      // between two reads of the wall-clock time; use the nanoTime before the first read, so that this clock
+      // is never behind the wall-clock time, and retry when the thread was delayed between the reads.
+      long previousNanos = System.nanoTime();
+      long millis = System.currentTimeMillis();
+      for (int attempts = 0; ; ) {
+         long nanos = System.nanoTime();
+         long tick = System.currentTimeMillis();
+         if (tick != millis) {
+            if (System.nanoTime() - previousNanos < MAX_ANCHOR_ERROR || ++attempts >= MAX_ANCHOR_ATTEMPTS) {
+               return TimeUnit.MILLISECONDS.toNanos(tick) - previousNanos;
+            }
+            millis = tick;
+         }
+         previousNanos = nanos;
+      }
+   }
+
    public static long currentTimeMillis() {
       return System.currentTimeMillis();
    }
@@ -17,4 +41,14 @@ public final class TimeService {
    public static long nanoTime() {
       return System.nanoTime();
    }
+
+   /**
+    * Wall-clock time with nanosecond resolution: epoch time captured once when this class is initialized,
+    * advanced by {@link #nanoTime()}. Later adjustments of the system clock are not reflected.
+    *
+    * @return Nanoseconds since epoch.
+    */
+   public static long currentTimeNanos() {
+      return EPOCH_NANOS_OFFSET + nanoTime();
+   }
 }
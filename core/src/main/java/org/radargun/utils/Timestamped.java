@@ -1,5 +1,7 @@
 package org.radargun.utils;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Class that stores timestamp.
  *
@@ -10,4 +12,11 @@ public interface Timestamped {
     * @return Stored (epoch time) timestamp, in milliseconds.
     */
    long getTimestamp();
+
+   /**
+    * @return Stored (epoch time) timestamp, in nanoseconds. The resolution depends on the implementation.
+    */
+   default long getTimestampNanos() {
+      return TimeUnit.MILLISECONDS.toNanos(getTimestamp());
+   }
 }
@@ -0,0 +1,85 @@
+package org.radargun;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.radargun.stats.AllRecordingOperationStats;
+import org.radargun.stats.BasicStatistics;
+import org.radargun.stats.Statistics;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class SerializationHelperTest {
+   private static final Operation OPERATION = Operation.register("SerializationHelperTest.Op");
+
+   public void testChunked() throws IOException {
+      List<String> list = new ArrayList<>();
+      for (int i = 0; i < 1000; ++i) {
+         list.add("item" + i);
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      SerializationHelper.serializeObjectChunked((ArrayList<String>) list, Channels.newChannel(bytes), ByteBuffer.allocateDirect(64));
+      // append bytes of the next message which should not be consumed
+      bytes.write(new byte[] { 1, 2, 3 });
+
+      SerializationHelper.ChunkedInput input = new SerializationHelper.ChunkedInput();
+      ByteBuffer received = ByteBuffer.wrap(bytes.toByteArray());
+      // feed the data in small pieces, as these arrive from the channel
+      boolean complete = false;
+      for (int limit = 0; !complete; limit = Math.min(limit + 7, received.capacity())) {
+         received.limit(limit);
+         complete = input.read(received);
+      }
+      Assert.assertEquals(received.position(), received.capacity() - 3);
+      Assert.assertEquals(input.deserialize(), list);
+   }
+
+   public void testChunkedReusesInput() throws IOException {
+      // larger than a single segment of the input
+      byte[] payload = new byte[200000];
+      for (int i = 0; i < payload.length; ++i) {
+         payload[i] = (byte) i;
+      }
+      SerializationHelper.ChunkedInput input = new SerializationHelper.ChunkedInput();
+      for (int i = 0; i < 3; ++i) {
+         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+         SerializationHelper.serializeObjectChunked(payload, Channels.newChannel(bytes), ByteBuffer.allocateDirect(8192));
+         Assert.assertTrue(input.read(ByteBuffer.wrap(bytes.toByteArray())));
+         Assert.assertTrue(input.size() > payload.length);
+         Assert.assertEquals((byte[]) input.deserialize(), payload);
+         Assert.assertEquals(input.size(), 0);
+      }
+   }
+
+   public void testParseCodec() {
+      Assert.assertEquals(Codec.parse(null), Codec.JAVA);
+      Assert.assertEquals(Codec.parse("deflate"), Codec.DEFLATE);
+      Assert.assertEquals(Codec.parse(" Deflate "), Codec.DEFLATE);
+      Assert.assertEquals(Codec.parse("deflat"), Codec.JAVA);
+   }
+
+   public void testCodecs() throws IOException {
+      BasicStatistics statistics = new BasicStatistics(new AllRecordingOperationStats());
+      statistics.begin();
+      for (int i = 0; i < 100; ++i) {
+         statistics.startRequest().succeeded(OPERATION);
+      }
+      statistics.startRequest().failed(OPERATION);
+      statistics.end();
+      for (Codec codec : Codec.values()) {
+         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+         SerializationHelper.serializeObject(statistics, bytes, codec);
+         Statistics deserialized = (Statistics) SerializationHelper.deserialize(new ByteArrayInputStream(bytes.toByteArray()));
+         DefaultOutcome outcome = deserialized.getRepresentation(OPERATION.name, DefaultOutcome.class);
+         Assert.assertEquals(outcome.requests, 101, codec.name());
+         Assert.assertEquals(outcome.errors, 1, codec.name());
+      }
+   }
+}
@@ -0,0 +1,109 @@
+package org.radargun.stages.test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.radargun.DistStageAck;
+import org.radargun.Operation;
+import org.radargun.stats.Statistics;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.radargun.traits.Lifecycle;
+import org.radargun.util.CoreStageRunner;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that stressor keeps the configured number of asynchronous requests in flight
+ * and records all of them.
+ */
+@Test(timeOut = 30000)
+public class AsyncStressorTest {
+   private static final Operation ASYNC_OP = Operation.register("AsyncStressorTest.Op");
+   private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+
+   @AfterClass
+   public void shutdown() {
+      executor.shutdownNow();
+   }
+
+   public void testRequestsInFlight() throws Exception {
+      CoreStageRunner stageRunner = new CoreStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      AsyncTestStage stage = new AsyncTestStage();
+      stage.numThreadsPerNode = 2;
+      stage.numOperations = 200;
+      stage.requestsInFlight = 4;
+      stage.mergeThreadStats = true;
+
+      DistStageAck ack = stageRunner.executeOnSlave(stage);
+      Assert.assertFalse(ack.isError(), String.valueOf(ack));
+      Assert.assertTrue(stage.maxInFlight.get() > 1, "Max in flight: " + stage.maxInFlight.get());
+      Assert.assertTrue(stage.maxInFlight.get() <= 2 * 4, "Max in flight: " + stage.maxInFlight.get());
+      Assert.assertEquals(stage.inFlight.get(), 0);
+
+      Statistics statistics = ((TestStage.StatisticsAck) ack).statistics.get(0);
+      DefaultOutcome outcome = statistics.getRepresentation(ASYNC_OP.name, DefaultOutcome.class);
+      Assert.assertEquals(outcome.requests, 200);
+      Assert.assertEquals(outcome.errors, 0);
+   }
+
+   public void testLostCompletion() throws Exception {
+      CoreStageRunner stageRunner = new CoreStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      AsyncTestStage stage = new AsyncTestStage();
+      stage.loseCompletion.set(true);
+      stage.numThreadsPerNode = 1;
+      stage.numOperations = 100;
+      stage.requestsInFlight = 4;
+      stage.asyncRequestsTimeout = 500;
+
+      DistStageAck ack = stageRunner.executeOnSlave(stage);
+      Assert.assertFalse(ack.isError(), String.valueOf(ack));
+      Assert.assertEquals(stage.inFlight.get(), 1);
+      Statistics statistics = ((TestStage.StatisticsAck) ack).statistics.get(0);
+      long requests = statistics.getRepresentation(ASYNC_OP.name, DefaultOutcome.class).requests;
+      // the lost request might have been executed before the measurement started
+      Assert.assertTrue(requests == 99 || requests == 100, String.valueOf(requests));
+   }
+
+   private class AsyncTestStage extends TestStage {
+      private final AtomicInteger inFlight = new AtomicInteger();
+      private final AtomicInteger maxInFlight = new AtomicInteger();
+      private final AtomicBoolean loseCompletion = new AtomicBoolean();
+
+      @Override
+      public OperationLogic getLogic() {
+         return new OperationLogic() {
+            @Override
+            public void run(Operation operation) throws RequestException {
+               stressor.makeRequestAsync(new AsyncInvocation<Object>() {
+                  @Override
+                  public CompletableFuture<Object> invoke() {
+                     int current = inFlight.incrementAndGet();
+                     maxInFlight.accumulateAndGet(current, Math::max);
+                     CompletableFuture<Object> future = new CompletableFuture<>();
+                     if (loseCompletion.compareAndSet(true, false)) {
+                        return future;
+                     }
+                     executor.schedule(() -> {
+                        inFlight.decrementAndGet();
+                        future.complete(operation);
+                     }, 1, TimeUnit.MILLISECONDS);
+                     return future;
+                  }
+
+                  @Override
+                  public Operation operation() {
+                     return ASYNC_OP;
+                  }
+               });
+            }
+         };
+      }
+   }
+}
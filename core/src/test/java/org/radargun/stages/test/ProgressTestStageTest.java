@@ -0,0 +1,118 @@
+package org.radargun.stages.test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.radargun.DistStageAck;
+import org.radargun.Operation;
+import org.radargun.StageResult;
+import org.radargun.stats.Statistics;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.radargun.traits.Lifecycle;
+import org.radargun.util.CoreStageRunner;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that intermediate statistics are reported during the test and that the test
+ * is aborted when the progress condition is not satisfied.
+ */
+@Test(timeOut = 30000)
+public class ProgressTestStageTest {
+   private static final Operation OPERATION = Operation.register("ProgressTestStageTest.Op");
+
+   public void testAbort() throws Exception {
+      CoreStageRunner stageRunner = new CoreStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      SleepingTestStage stage = new SleepingTestStage();
+      stage.numThreadsPerNode = 2;
+      stage.duration = TimeUnit.MINUTES.toMillis(1);
+      stage.progressPeriod = 100;
+      AtomicInteger reports = new AtomicInteger();
+      stage.progressCondition = new PerformanceCondition() {
+         @Override
+         public boolean evaluate(Statistics statistics) {
+            reports.incrementAndGet();
+            DefaultOutcome outcome = statistics.getRepresentation(OPERATION.name, DefaultOutcome.class);
+            return outcome == null || outcome.requests < 10;
+         }
+      };
+      // deliver the progress directly to the master part of the stage
+      stageRunner.getSlaveState().setProgressReporter(stage::processProgressOnMaster);
+
+      long start = System.currentTimeMillis();
+      DistStageAck ack = stageRunner.executeOnSlave(stage);
+      Assert.assertFalse(ack.isError(), String.valueOf(ack));
+      Assert.assertTrue(System.currentTimeMillis() - start < stage.duration);
+      Assert.assertTrue(reports.get() > 0);
+
+      Assert.assertEquals(stageRunner.processAckOnMaster(stage, Collections.singletonList(ack)), StageResult.FAIL);
+   }
+
+   public void testIntervals() throws Exception {
+      CoreStageRunner stageRunner = new CoreStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      SleepingTestStage stage = new SleepingTestStage();
+      stage.numThreadsPerNode = 2;
+      stage.duration = 0;
+      stage.numOperations = 400;
+      stage.progressPeriod = 20;
+      AtomicLong reported = new AtomicLong();
+      stageRunner.getSlaveState().setProgressReporter(progress -> {
+         for (Statistics interval : (List<Statistics>) progress.getData()) {
+            if (interval != null) {
+               DefaultOutcome outcome = interval.getRepresentation(OPERATION.name, DefaultOutcome.class);
+               reported.addAndGet(outcome == null ? 0 : outcome.requests);
+            }
+         }
+         return stage.processProgressOnMaster(progress);
+      });
+
+      DistStageAck ack = stageRunner.executeOnSlave(stage);
+      Assert.assertFalse(ack.isError(), String.valueOf(ack));
+      Assert.assertTrue(reported.get() > 0);
+
+      // the final results contain only the remaining requests
+      long remaining = 0;
+      for (Statistics statistics : ((TestStage.StatisticsAck) ack).statistics) {
+         remaining += statistics.getRepresentation(OPERATION.name, DefaultOutcome.class).requests;
+      }
+      Assert.assertEquals(reported.get() + remaining, stage.numOperations);
+      Assert.assertEquals(stageRunner.processAckOnMaster(stage, Collections.singletonList(ack)), StageResult.SUCCESS);
+   }
+
+   private static class SleepingTestStage extends TestStage {
+      @Override
+      public OperationLogic getLogic() {
+         return new OperationLogic() {
+            @Override
+            public void run(Operation operation) throws RequestException {
+               stressor.makeRequest(new Invocation<Object>() {
+                  @Override
+                  public Object invoke() {
+                     try {
+                        Thread.sleep(1);
+                     } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                     }
+                     return null;
+                  }
+
+                  @Override
+                  public Operation operation() {
+                     return OPERATION;
+                  }
+
+                  @Override
+                  public Operation txOperation() {
+                     return OPERATION;
+                  }
+               });
+            }
+         };
+      }
+   }
+}
@@ -0,0 +1,37 @@
+package org.radargun.stages.test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(timeOut = 10000)
+public class StressorThreadsTest {
+
+   public void testPlatform() throws InterruptedException {
+      checkRuns(StressorThreads.PLATFORM);
+   }
+
+   public void testVirtual() throws InterruptedException {
+      try {
+         StressorThreads.VIRTUAL.checkSupported();
+      } catch (IllegalStateException e) {
+         // running on older JVM
+         return;
+      }
+      checkRuns(StressorThreads.VIRTUAL);
+   }
+
+   private void checkRuns(StressorThreads stressorThreads) throws InterruptedException {
+      CountDownLatch latch = new CountDownLatch(1);
+      String[] name = new String[1];
+      Thread thread = stressorThreads.newThread(() -> {
+         name[0] = Thread.currentThread().getName();
+         latch.countDown();
+      }, "Stressor-0");
+      thread.start();
+      Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+      Assert.assertEquals(name[0], "Stressor-0");
+   }
+}
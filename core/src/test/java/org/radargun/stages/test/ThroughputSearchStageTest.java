@@ -0,0 +1,111 @@
+package org.radargun.stages.test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.radargun.Operation;
+import org.radargun.StageResult;
+import org.radargun.config.Cluster;
+import org.radargun.config.Configuration;
+import org.radargun.config.MasterConfig;
+import org.radargun.reporting.Report;
+import org.radargun.state.MasterState;
+import org.radargun.stats.BasicStatistics;
+import org.radargun.stats.Statistics;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class ThroughputSearchStageTest {
+   private static final Operation OPERATION = Operation.register("ThroughputSearchStageTest.Op");
+   private static final int CAPACITY = 1000;
+
+   public void testSearch() {
+      Cluster cluster = new Cluster();
+      cluster.setSize(1);
+      MasterState masterState = new MasterState(new MasterConfig(0, null));
+      masterState.setCluster(cluster);
+      masterState.setReport(new Report(new Configuration("configuration"), cluster));
+
+      Report.Test test = null;
+      int iteration = 0;
+      for (; iteration < 30; ++iteration) {
+         ThroughputSearchStage stage = createStage();
+         stage.initOnMaster(masterState);
+         Map<String, Object> masterData = stage.createMasterData();
+         if (stage.processAckOnMaster(Collections.emptyList()) == StageResult.BREAK) {
+            Assert.assertFalse(masterData.containsKey("target"));
+            break;
+         }
+         double target = (Double) masterData.get("target");
+         Assert.assertEquals(masterState.get("target"), target);
+         // simulate the test: every request executed above capacity is late
+         test = masterState.getReport().createTest("test", "target-throughput", true);
+         BasicStatistics statistics = new BasicStatistics();
+         statistics.begin();
+         for (int i = 0; i < target / 100; ++i) {
+            statistics.startRequest().succeeded(OPERATION);
+         }
+         statistics.end();
+         test.addStatistics(iteration, 0, Collections.singletonList(statistics));
+      }
+      Assert.assertTrue(iteration < 30, "Search has not converged");
+      double result = (Double) masterState.get("result");
+      Assert.assertTrue(result <= CAPACITY && result >= CAPACITY * 0.95, String.valueOf(result));
+      Assert.assertTrue(test.getIterations().stream().anyMatch(it -> it.getResults().containsKey(ThroughputSearchStage.RESULT_NAME)));
+   }
+
+   public void testNothingSustainable() {
+      Cluster cluster = new Cluster();
+      cluster.setSize(1);
+      MasterState masterState = new MasterState(new MasterConfig(0, null));
+      masterState.setCluster(cluster);
+      masterState.setReport(new Report(new Configuration("configuration"), cluster));
+
+      int iteration = 0;
+      StageResult result = StageResult.SUCCESS;
+      for (; iteration < 30 && result == StageResult.SUCCESS; ++iteration) {
+         ThroughputSearchStage stage = createStage();
+         stage.minThroughput = 10;
+         stage.condition = new PerformanceCondition() {
+            @Override
+            public boolean evaluate(Statistics statistics) {
+               return false;
+            }
+         };
+         stage.initOnMaster(masterState);
+         Map<String, Object> masterData = stage.createMasterData();
+         result = stage.processAckOnMaster(Collections.emptyList());
+         if (result == StageResult.SUCCESS) {
+            Report.Test test = masterState.getReport().createTest("test", "target-throughput", true);
+            BasicStatistics statistics = new BasicStatistics();
+            statistics.begin();
+            statistics.startRequest().succeeded(OPERATION);
+            statistics.end();
+            test.addStatistics(iteration, 0, Collections.singletonList(statistics));
+            Assert.assertTrue((Double) masterData.get("target") >= 10);
+         }
+      }
+      Assert.assertEquals(result, StageResult.FAIL);
+      // 100, 50, 25, 12.5, 10
+      Assert.assertEquals(iteration, 6);
+      Assert.assertNull(masterState.get("result"));
+   }
+
+   private ThroughputSearchStage createStage() {
+      ThroughputSearchStage stage = new ThroughputSearchStage();
+      stage.testName = "test";
+      stage.storeTargetTo = "target";
+      stage.storeResultTo = "result";
+      stage.initialThroughput = 100;
+      stage.condition = new PerformanceCondition() {
+         @Override
+         public boolean evaluate(Statistics statistics) {
+            return statistics.getRepresentation(OPERATION.name, DefaultOutcome.class).requests <= CAPACITY / 100;
+         }
+      };
+      stage.init();
+      return stage;
+   }
+}
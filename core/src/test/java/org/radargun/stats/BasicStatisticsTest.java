@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.radargun.Operation;
+import org.radargun.stats.representation.DefaultOutcome;
 import org.testng.Assert;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.Test;
@@ -73,4 +74,51 @@ public class BasicStatisticsTest {
       Assert.assertTrue(operationStatsForGroups.stream().anyMatch(m -> m.containsKey("testGroup1")));
       Assert.assertTrue(operationStatsForGroups.stream().anyMatch(m -> m.containsKey("testGroup2")));
    }
+
+   public void testReuseRequest() {
+      BasicStatistics statistics = new BasicStatistics(new BasicOperationStats());
+      BasicStatistics other = new BasicStatistics(new BasicOperationStats());
+      Operation operation = Operation.register("testOp1");
+
+      Request request = statistics.startRequest(null);
+      request.failed(operation);
+      Assert.assertFalse(request.isSuccessful());
+      Request reused = statistics.startRequest(request);
+      Assert.assertSame(reused, request);
+      Assert.assertTrue(reused.isSuccessful());
+      Assert.assertFalse(reused.isFinished());
+      reused.succeeded(operation);
+      Assert.assertNotSame(other.startRequest(request), request);
+
+      DefaultOutcome outcome = statistics.getRepresentation("testOp1", DefaultOutcome.class);
+      Assert.assertEquals(outcome.requests, 2);
+      Assert.assertEquals(outcome.errors, 1);
+
+      RequestSet requestSet = statistics.requestSet(null);
+      requestSet.add(request);
+      requestSet.failed(operation);
+      RequestSet reusedSet = statistics.requestSet(requestSet);
+      Assert.assertSame(reusedSet, requestSet);
+      Assert.assertTrue(reusedSet.isSuccessful());
+      Assert.assertEquals(reusedSet.sumDurations(), 0);
+   }
+
+   public void testScheduledRequest() {
+      BasicStatistics statistics = new BasicStatistics(new BasicOperationStats());
+      Operation operation = Operation.register("testOp1");
+
+      Request request = statistics.startRequest();
+      Assert.assertFalse(request.isScheduled());
+      request.setIntendedStartTime(request.getRequestStartTime() - 1000);
+      request.succeeded(operation);
+      Assert.assertTrue(request.isScheduled());
+      Assert.assertEquals(request.duration(), request.serviceTime() + 1000);
+
+      // intended start in the future does not make the duration shorter
+      request = statistics.startRequest(request);
+      request.setIntendedStartTime(request.getRequestStartTime() + 1000);
+      request.succeeded(operation);
+      Assert.assertEquals(request.duration(), request.serviceTime());
+      Assert.assertFalse(statistics.startRequest(request).isScheduled());
+   }
 }
@@ -5,8 +5,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.radargun.DistStageAck;
@@ -28,6 +33,7 @@ import org.radargun.utils.Utils;
  */
 @Stage(doc = "Loads the contents of a file into the cache.")
 public class LoadFileStage extends AbstractDistStage {
+   private static final long MAP_WINDOW_SIZE = 256 * 1024 * 1024;
 
    @Property(optional = false, doc = "Full pathname to the file.")
    private String filePath;
@@ -45,6 +51,19 @@ public class LoadFileStage extends AbstractDistStage {
    @Property(doc = "If true, then String objects are written to the cache. The default is false.")
    private boolean stringData = false;
 
+   @Property(doc = "If true, the file is memory-mapped and the values are sliced from the mapping instead of " +
+      "reading the file through a stream. The default is false.")
+   private boolean memoryMapped = false;
+
+   @Property(doc = "Number of threads loading the data on each slave when the file is memory-mapped; " +
+      "each thread loads a contiguous region of the file. The default is 1.")
+   private int numThreads = 1;
+
+   @Property(doc = "If true (and the file is memory-mapped), read-only ByteBuffer views of the mapping are " +
+      "written to the cache instead of byte arrays, avoiding any copy. Suitable only for services that store " +
+      "or serialize ByteBuffer values. The default is false.")
+   private boolean bufferValues = false;
+
    @InjectTrait(dependency = InjectTrait.Dependency.MANDATORY)
    private BasicOperations basicOperations;
 
@@ -68,6 +87,9 @@ public class LoadFileStage extends AbstractDistStage {
 
    @Override
    public DistStageAck executeOnSlave() {
+      if (memoryMapped) {
+         return loadMapped();
+      }
       int totalWriters = slaveState.getClusterSize();
       long fileOffset = valueSize * slaveState.getSlaveIndex(); // index starts at 0
 
@@ -110,6 +132,8 @@ public class LoadFileStage extends AbstractDistStage {
                   cache.put(key, cacheData);
                } else {
                   cache.put(key, buffer.array());
+                  // the array is stored in the cache, it cannot be reused for the next value
+                  buffer = ByteBuffer.allocate(valueSize);
                }
                if (printWriteStatistics) {
                   log.info("Put on slave-" + slaveState.getSlaveIndex() + " took "
@@ -140,6 +164,96 @@ public class LoadFileStage extends AbstractDistStage {
       }
    }
 
+   private DistStageAck loadMapped() {
+      if (numThreads <= 0) {
+         return errorResponse("Number of threads must be > 0");
+      }
+      int totalWriters = slaveState.getClusterSize();
+      int slaveIndex = slaveState.getSlaveIndex();
+      try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+         FileChannel fileChannel = file.getChannel();
+         long fileSize = fileChannel.size();
+         // values are distributed round-robin among slaves, as in the non-mapped mode
+         long totalValues = (fileSize + valueSize - 1) / valueSize;
+         long slaveValues = totalValues <= slaveIndex ? 0 : (totalValues - slaveIndex + totalWriters - 1) / totalWriters;
+         ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+         try {
+            List<Future<long[]>> futures = new ArrayList<>(numThreads);
+            for (int i = 0; i < numThreads; ++i) {
+               long from = slaveValues * i / numThreads;
+               long to = slaveValues * (i + 1) / numThreads;
+               futures.add(executor.submit(() -> loadRegion(fileChannel, fileSize, from, to)));
+            }
+            long putCount = 0, totalBytesRead = 0;
+            for (Future<long[]> future : futures) {
+               long[] result = future.get();
+               putCount += result[0];
+               totalBytesRead += result[1];
+            }
+            return new ResultAck(slaveState, putCount, totalBytesRead);
+         } finally {
+            executor.shutdownNow();
+         }
+      } catch (FileNotFoundException e) {
+         return errorResponse("File not find at path: " + filePath, e);
+      } catch (Exception e) {
+         return errorResponse("An exception occurred", e);
+      }
+   }
+
+   /**
+    * Loads values with indices [from, to) out of those that belong to this slave.
+    *
+    * @return Number of written values and number of bytes.
+    */
+   private long[] loadRegion(FileChannel fileChannel, long fileSize, long from, long to) throws IOException {
+      int totalWriters = slaveState.getClusterSize();
+      int slaveIndex = slaveState.getSlaveIndex();
+      long stride = (long) valueSize * totalWriters;
+      // map larger windows to reduce number of mappings; the window is released by GC
+      long windowSize = Math.min(Integer.MAX_VALUE, Math.max(valueSize, MAP_WINDOW_SIZE / stride * stride));
+      BasicOperations.Cache cache = basicOperations.getCache(bucket);
+      MappedByteBuffer window = null;
+      long windowStart = 0;
+      long putCount = 0, totalBytesRead = 0;
+      for (long i = from; i < to; ++i) {
+         long position = (i * totalWriters + slaveIndex) * valueSize;
+         int length = (int) Math.min(valueSize, fileSize - position);
+         if (window == null || position + length > windowStart + window.capacity()) {
+            windowStart = position;
+            window = fileChannel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(windowSize, fileSize - windowStart));
+         }
+         ByteBuffer slice = window.duplicate();
+         slice.position((int) (position - windowStart));
+         slice.limit(slice.position() + length);
+         slice = slice.slice();
+
+         String key = Integer.toString(slaveIndex) + "-" + Long.toString(position);
+         Object value;
+         if (stringData) {
+            value = slice.asCharBuffer().toString();
+         } else if (bufferValues) {
+            value = slice.asReadOnlyBuffer();
+         } else {
+            byte[] array = new byte[length];
+            slice.get(array);
+            value = array;
+         }
+         if (putCount % 5000 == 0) {
+            log.info("Writing " + length + " bytes to cache key: " + key + " at position " + position);
+         }
+         long start = TimeService.nanoTime();
+         cache.put(key, value);
+         if (printWriteStatistics) {
+            log.info("Put on slave-" + slaveIndex + " took "
+               + Utils.prettyPrintTime(TimeService.nanoTime() - start, TimeUnit.NANOSECONDS));
+         }
+         putCount++;
+         totalBytesRead += length;
+      }
+      return new long[] {putCount, totalBytesRead};
+   }
+
    private static class ResultAck extends DistStageAck {
       final long putCount;
       final long totalBytesRead;
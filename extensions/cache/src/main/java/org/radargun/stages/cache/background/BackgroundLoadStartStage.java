@@ -2,6 +2,7 @@ package org.radargun.stages.cache.background;
 
 import java.util.List;
 
+import org.radargun.DistStageAck;
 import org.radargun.config.Stage;
 import org.radargun.stages.cache.test.LoadStage;
 
@@ -30,4 +31,10 @@ public class BackgroundLoadStartStage extends LoadStage {
    protected void stopLoaders(List<Loader> loaders) throws Exception {
       // do nothing
    }
+
+   @Override
+   protected DistStageAck createResponse(List<Loader> loaders, long durationNanos) {
+      // loaders are still running
+      return successfulResponse();
+   }
 }
@@ -0,0 +1,14 @@
+package org.radargun.stages.cache.generators;
+
+import org.radargun.config.DefinitionElement;
+
+/**
+ * Keys are the key indices themselves, which allows caches specialized for primitive keys to avoid any conversion.
+ */
+@DefinitionElement(name = "long", doc = "Uses the key index as key (java.lang.Long).")
+public class LongKeyGenerator implements KeyGenerator {
+   @Override
+   public Object generateKey(long keyIndex) {
+      return keyIndex;
+   }
+}
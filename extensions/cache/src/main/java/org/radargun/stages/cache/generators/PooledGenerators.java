@@ -0,0 +1,30 @@
+package org.radargun.stages.cache.generators;
+
+import org.radargun.state.ServiceListener;
+import org.radargun.state.SlaveState;
+
+/**
+ * Releases the pools of {@link PooledKeyGenerator} and {@link PooledValueGenerator} when the service is destroyed,
+ * as these are shared by all stages and would be otherwise held until the slave exits.
+ */
+public final class PooledGenerators implements ServiceListener {
+   private static final PooledGenerators INSTANCE = new PooledGenerators();
+
+   private PooledGenerators() {}
+
+   /**
+    * Registers the cleanup if any of the generators is pooled.
+    */
+   public static void registerCleanup(SlaveState slaveState, KeyGenerator keyGenerator, ValueGenerator valueGenerator) {
+      if ((keyGenerator instanceof PooledKeyGenerator || valueGenerator instanceof PooledValueGenerator)
+         && !slaveState.getListeners().contains(INSTANCE)) {
+         slaveState.addListener(INSTANCE);
+      }
+   }
+
+   @Override
+   public void serviceDestroyed() {
+      PooledKeyGenerator.releasePools();
+      PooledValueGenerator.releasePools();
+   }
+}
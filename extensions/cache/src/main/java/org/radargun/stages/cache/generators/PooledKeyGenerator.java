@@ -0,0 +1,76 @@
+package org.radargun.stages.cache.generators;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.radargun.config.DefinitionElement;
+import org.radargun.config.Init;
+import org.radargun.config.Property;
+import org.radargun.config.PropertyHelper;
+
+/**
+ * Keeps keys produced by another generator in a pool indexed by key ID, so that the key object
+ * is created only once and the same instance is returned in all subsequent calls. The pool is shared
+ * by all generators with the same configuration within the JVM, therefore keys created during
+ * the load stage are reused by the following test stages. The pools are released by {@link PooledGenerators}
+ * when the service is destroyed.
+ */
+@DefinitionElement(name = "pooled-key", doc = "Creates keys through another generator only once and reuses them afterwards. " +
+   "Keys with index below pool-size are kept in memory for the lifetime of the slave.")
+public class PooledKeyGenerator implements KeyGenerator {
+   private static final ConcurrentMap<String, AtomicReferenceArray<Object>> POOLS = new ConcurrentHashMap<>();
+
+   @Property(doc = "Generator used to create the keys. Default is string key generator.",
+      complexConverter = KeyGenerator.ComplexConverter.class)
+   protected KeyGenerator generator = new StringKeyGenerator();
+
+   @Property(doc = "Number of keys kept in the pool; usually equal to the number of entries. Keys with higher index " +
+      "are generated on each call.", optional = false)
+   protected int poolSize;
+
+   private transient String poolId;
+
+   @Init
+   public void init() {
+      if (poolSize <= 0) throw new IllegalArgumentException("Pool size must be > 0");
+      poolId = poolId(generator, poolSize);
+   }
+
+   @Override
+   public Object generateKey(long keyIndex) {
+      if (keyIndex < 0 || keyIndex >= poolSize) {
+         return generator.generateKey(keyIndex);
+      }
+      AtomicReferenceArray<Object> pool = POOLS.get(poolId);
+      if (pool == null) {
+         pool = POOLS.computeIfAbsent(poolId, id -> new AtomicReferenceArray<>(poolSize));
+      }
+      int index = (int) keyIndex;
+      Object key = pool.get(index);
+      if (key == null) {
+         key = generator.generateKey(keyIndex);
+         // concurrent generation is harmless as the keys are equal; make sure everyone uses the same instance
+         if (!pool.compareAndSet(index, null, key)) {
+            key = pool.get(index);
+         }
+      }
+      return key;
+   }
+
+   static void releasePools() {
+      POOLS.clear();
+   }
+
+   /**
+    * Generators with equal configuration produce equal objects, therefore these can share the pool.
+    */
+   static String poolId(Object generator, int poolSize) {
+      return PropertyHelper.getDefinitionElementName(generator.getClass()) + PropertyHelper.toString(generator) + "/" + poolSize;
+   }
+
+   @Override
+   public String toString() {
+      return PropertyHelper.getDefinitionElementName(getClass()) + PropertyHelper.toString(this);
+   }
+}
@@ -0,0 +1,100 @@
+package org.radargun.stages.cache.generators;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.radargun.config.DefinitionElement;
+import org.radargun.config.Init;
+import org.radargun.config.Property;
+import org.radargun.config.PropertyHelper;
+
+/**
+ * Keeps a pool of values produced by another generator for each requested size and returns
+ * the value selected by hash of the key, instead of creating new value in each call.
+ * The pooled values are created with fixed seed, therefore all slaves use the same values
+ * and a key is always associated with the same value (as long as the size does not change).
+ *
+ * At most {@link #maxSizes} distinct sizes are pooled for each configuration, values of other sizes are created
+ * in each call. The pools are shared by all generators with equal configuration and released
+ * by {@link PooledGenerators} when the service is destroyed.
+ *
+ * Only generators that do not encode the key into the value can be pooled.
+ */
+@DefinitionElement(name = "pooled-value", doc = "Pre-generates pool of values through another generator and reuses them " +
+   "for all keys. The value is selected deterministically by the key. Use only with generators that do not depend on the key; " +
+   "note that the cache may hold references to the same instance in multiple entries.")
+public class PooledValueGenerator implements ValueGenerator {
+   private static final ConcurrentMap<String, ConcurrentMap<Integer, AtomicReferenceArray<Object>>> POOLS = new ConcurrentHashMap<>();
+
+   @Property(doc = "Generator used to create the values. Default is byte-array generator.",
+      complexConverter = ValueGenerator.ComplexConverter.class)
+   protected ValueGenerator generator = new ByteArrayValueGenerator();
+
+   @Property(doc = "Number of distinct values for each size. Default is 1024.")
+   protected int poolSize = 1024;
+
+   @Property(doc = "Maximum number of distinct sizes with pooled values. Values of other sizes are generated " +
+      "in each call. Default is 32.")
+   protected int maxSizes = 32;
+
+   private transient String poolId;
+
+   @Init
+   public void init() {
+      if (poolSize <= 0) throw new IllegalArgumentException("Pool size must be > 0");
+      if (maxSizes <= 0) throw new IllegalArgumentException("Max sizes must be > 0");
+      poolId = PooledKeyGenerator.poolId(generator, poolSize);
+   }
+
+   @Override
+   public Object generateValue(Object key, int size, Random random) {
+      ConcurrentMap<Integer, AtomicReferenceArray<Object>> pools = POOLS.get(poolId);
+      if (pools == null) {
+         pools = POOLS.computeIfAbsent(poolId, id -> new ConcurrentHashMap<>());
+      }
+      AtomicReferenceArray<Object> pool = pools.get(size);
+      if (pool == null) {
+         if (pools.size() >= maxSizes) {
+            return generator.generateValue(key, size, random);
+         }
+         pool = pools.computeIfAbsent(size, s -> new AtomicReferenceArray<>(poolSize));
+      }
+      int index = key == null ? random.nextInt(poolSize) : Math.floorMod(hash(key), poolSize);
+      Object value = pool.get(index);
+      if (value == null) {
+         value = generator.generateValue(key, size, new Random(31L * size + index));
+         if (!pool.compareAndSet(index, null, value)) {
+            value = pool.get(index);
+         }
+      }
+      return value;
+   }
+
+   static void releasePools() {
+      POOLS.clear();
+   }
+
+   private static int hash(Object key) {
+      // arrays do not override hashCode(), use contents instead to keep the selection deterministic
+      int h = (key instanceof byte[] ? Arrays.hashCode((byte[]) key) : key.hashCode()) * 0x9E3779B9;
+      return h ^ (h >>> 16);
+   }
+
+   @Override
+   public int sizeOf(Object value) {
+      return generator.sizeOf(value);
+   }
+
+   @Override
+   public boolean checkValue(Object value, Object key, int expectedSize) {
+      return generator.checkValue(value, key, expectedSize);
+   }
+
+   @Override
+   public String toString() {
+      return PropertyHelper.getDefinitionElementName(getClass()) + PropertyHelper.toString(this);
+   }
+}
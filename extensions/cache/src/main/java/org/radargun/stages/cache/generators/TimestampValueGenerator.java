@@ -0,0 +1,63 @@
+package org.radargun.stages.cache.generators;
+
+import java.io.Serializable;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.radargun.config.DefinitionElement;
+import org.radargun.utils.TimeService;
+import org.radargun.utils.Timestamped;
+
+/**
+ * Values carry the time of their creation, so that listeners (e.g. continuous queries) can record
+ * the delay between the write and the notification. The timestamp has nanosecond resolution,
+ * see {@link TimeService#currentTimeNanos()}.
+ */
+@DefinitionElement(name = "timestamp", doc = "Generates values with random byte array payload and timestamp when the value was created.")
+public class TimestampValueGenerator implements ValueGenerator {
+
+   @Override
+   public Object generateValue(Object key, int size, Random random) {
+      return new TimestampValue(TimeService.currentTimeNanos(), ByteArrayValueGenerator.generateArray(size, random));
+   }
+
+   @Override
+   public int sizeOf(Object value) {
+      return ((TimestampValue) value).payload.length;
+   }
+
+   @Override
+   public boolean checkValue(Object value, Object key, int expectedSize) {
+      return value instanceof TimestampValue && (expectedSize <= 0 || ((TimestampValue) value).payload.length == expectedSize);
+   }
+
+   public static class TimestampValue implements Timestamped, Serializable {
+
+      private static final long serialVersionUID = 2L;
+
+      private final long timestampNanos;
+      private final byte[] payload;
+
+      /**
+       * @param timestampNanos Epoch time in nanoseconds.
+       */
+      public TimestampValue(long timestampNanos, byte[] payload) {
+         this.timestampNanos = timestampNanos;
+         this.payload = payload;
+      }
+
+      @Override
+      public long getTimestamp() {
+         return TimeUnit.NANOSECONDS.toMillis(timestampNanos);
+      }
+
+      @Override
+      public long getTimestampNanos() {
+         return timestampNanos;
+      }
+
+      public byte[] getPayload() {
+         return payload;
+      }
+   }
+}
@@ -1,23 +1,26 @@
 package org.radargun.stages.cache.listeners.cluster;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import org.radargun.DistStageAck;
+import org.radargun.Operation;
 import org.radargun.StageResult;
 import org.radargun.config.Property;
 import org.radargun.config.Stage;
 import org.radargun.reporting.Report;
 import org.radargun.stages.AbstractDistStage;
-import org.radargun.stages.cache.generators.TimestampKeyGenerator.TimestampKey;
 import org.radargun.state.SlaveState;
 import org.radargun.stats.BasicOperationStats;
+import org.radargun.stats.OperationStats;
 import org.radargun.stats.Statistics;
 import org.radargun.stats.SynchronizedStatistics;
 import org.radargun.traits.CacheListeners;
 import org.radargun.traits.InjectTrait;
 import org.radargun.utils.TimeConverter;
 import org.radargun.utils.TimeService;
+import org.radargun.utils.Timestamped;
 import org.radargun.utils.Utils;
 
 import static org.radargun.traits.CacheListeners.*;
@@ -49,6 +52,15 @@ public class RegisterListenersStage extends AbstractDistStage {
    @Property(doc = "Allows to reset statistics at the begining of the stage. Default is false.")
    private boolean resetStats = false;
 
+   @Property(doc = "Number of listeners of each type registered on the cache. Run a test stage between registering " +
+      "and unregistering the listeners to see how the listeners affect the operations. Note that the service may " +
+      "dispatch the events to all these through single native listener (see the service configuration). Default is 1.")
+   protected int numListeners = 1;
+
+   @Property(doc = "Operation statistics prototype used for the notifications, delay is measured from the timestamp " +
+      "in value or key. Default is basic (fixed memory footprint).", complexConverter = OperationStats.Converter.class)
+   protected OperationStats operationStats = new BasicOperationStats();
+
    @InjectTrait // with infinispan70 plugin
    private CacheListeners listenersTrait;
 
@@ -60,7 +72,7 @@ public class RegisterListenersStage extends AbstractDistStage {
 
       statistics = (SynchronizedStatistics) slaveState.get(statsKey);
       if (statistics == null) {
-         statistics = new SynchronizedStatistics(new BasicOperationStats());
+         statistics = new SynchronizedStatistics(operationStats);
          slaveState.put(statsKey, statistics);
       } else if (resetStats) {
          statistics.reset();
@@ -106,114 +118,96 @@ public class RegisterListenersStage extends AbstractDistStage {
    }
 
    private void initListenersOnSlave(SlaveState slaveState) {
-      CreatedListener createdListener = new CreatedListener() {
-         @Override
-         public void created(Object key, Object value) {
-            if (sleepTime > 0) Utils.sleep(sleepTime);
-            if (key instanceof TimestampKey) {
-               statistics.message().times(((TimestampKey) key).getTimestamp(), TimeService.currentTimeMillis()).record(CREATED);
-            }
+      List<CreatedListener> createdListeners = new ArrayList<>(numListeners);
+      List<EvictedListener> evictedListeners = new ArrayList<>(numListeners);
+      List<RemovedListener> removedListeners = new ArrayList<>(numListeners);
+      List<UpdatedListener> updatedListeners = new ArrayList<>(numListeners);
+      List<ExpiredListener> expiredListeners = new ArrayList<>(numListeners);
+      for (int i = 0; i < numListeners; ++i) {
+         createdListeners.add((key, value) -> {
+            notified(key, value, CREATED);
             log.trace("Created " + key + " -> " + value);
-         }
-      };
-      slaveState.put(CREATED.name, createdListener);
-
-      EvictedListener evictedListener = new EvictedListener() {
-         @Override
-         public void evicted(Object key, Object value) {
-            if (sleepTime > 0) Utils.sleep(sleepTime);
-            if (key instanceof TimestampKey) {
-               statistics.message().times(((TimestampKey) key).getTimestamp(), TimeService.currentTimeMillis()).record(EVICTED);
-            }
+         });
+         evictedListeners.add((key, value) -> {
+            notified(key, value, EVICTED);
             log.trace("Evicted " + key + " -> " + value);
-         }
-      };
-      slaveState.put(EVICTED.name, evictedListener);
-
-      RemovedListener removedListener = new RemovedListener() {
-         @Override
-         public void removed(Object key, Object value) {
-            if (sleepTime > 0) Utils.sleep(sleepTime);
-            if (key instanceof TimestampKey) {
-               statistics.message().times(((TimestampKey) key).getTimestamp(), TimeService.currentTimeMillis()).record(REMOVED);
-            }
+         });
+         removedListeners.add((key, value) -> {
+            notified(key, value, REMOVED);
             log.trace("Removed " + key + " -> " + value);
-         }
-      };
-      slaveState.put(REMOVED.name, removedListener);
-
-      UpdatedListener updatedListener = new UpdatedListener() {
-         @Override
-         public void updated(Object key, Object value) {
-            if (sleepTime > 0) Utils.sleep(sleepTime);
-            if (key instanceof TimestampKey) {
-               statistics.message().times(((TimestampKey) key).getTimestamp(), TimeService.currentTimeMillis()).record(UPDATED);
-            }
+         });
+         updatedListeners.add((key, value) -> {
+            notified(key, value, UPDATED);
             log.trace("Updated " + key + " -> " + value);
-         }
-      };
-      slaveState.put(UPDATED.name, updatedListener);
-
-      ExpiredListener expiredListener = new ExpiredListener() {
-         @Override
-         public void expired(Object key, Object value) {
-            if (sleepTime > 0) Utils.sleep(sleepTime);
-            if (key instanceof TimestampKey) {
-               statistics.message().times(((TimestampKey) key).getTimestamp(), TimeService.currentTimeMillis()).record(EXPIRED);
-            }
+         });
+         expiredListeners.add((key, value) -> {
+            notified(key, value, EXPIRED);
             log.trace("Expired " + key + " -> " + value);
-         }
-      };
-      slaveState.put(EXPIRED.name, expiredListener);
+         });
+      }
+      slaveState.put(CREATED.name, createdListeners);
+      slaveState.put(EVICTED.name, evictedListeners);
+      slaveState.put(REMOVED.name, removedListeners);
+      slaveState.put(UPDATED.name, updatedListeners);
+      slaveState.put(EXPIRED.name, expiredListeners);
+   }
+
+   private void notified(Object key, Object value, Operation operation) {
+      if (sleepTime > 0) Utils.sleep(sleepTime);
+      // value is written with each update, while timestamped key is usually created only once
+      Object timestamped = value instanceof Timestamped ? value : key;
+      if (timestamped instanceof Timestamped) {
+         statistics.message().times(((Timestamped) timestamped).getTimestamp(), TimeService.currentTimeMillis()).record(operation);
+      }
    }
 
    public void registerListeners() {
-      CreatedListener createdListener = (CreatedListener) slaveState.get(CREATED.name);
-      if (createdListener != null && isSupported(Type.CREATED)) {
-         listenersTrait.addCreatedListener(null, createdListener, sync);
+      List<CreatedListener> createdListeners = (List<CreatedListener>) slaveState.get(CREATED.name);
+      if (createdListeners != null && isSupported(Type.CREATED)) {
+         createdListeners.forEach(listener -> listenersTrait.addCreatedListener(null, listener, sync));
       }
-      EvictedListener evictedListener = (EvictedListener) slaveState.get(EVICTED.name);
-      if (evictedListener != null && isSupported(Type.EVICTED)) {
-         listenersTrait.addEvictedListener(null, evictedListener, sync);
+      List<EvictedListener> evictedListeners = (List<EvictedListener>) slaveState.get(EVICTED.name);
+      if (evictedListeners != null && isSupported(Type.EVICTED)) {
+         evictedListeners.forEach(listener -> listenersTrait.addEvictedListener(null, listener, sync));
       }
-      RemovedListener removedListener = (RemovedListener) slaveState.get(REMOVED.name);
-      if (removedListener != null && isSupported(Type.REMOVED)) {
-         listenersTrait.addRemovedListener(null, removedListener, sync);
+      List<RemovedListener> removedListeners = (List<RemovedListener>) slaveState.get(REMOVED.name);
+      if (removedListeners != null && isSupported(Type.REMOVED)) {
+         removedListeners.forEach(listener -> listenersTrait.addRemovedListener(null, listener, sync));
       }
-      UpdatedListener updatedListener = (UpdatedListener) slaveState.get(UPDATED.name);
-      if (updatedListener != null && isSupported(Type.UPDATED)) {
-         listenersTrait.addUpdatedListener(null, updatedListener, sync);
+      List<UpdatedListener> updatedListeners = (List<UpdatedListener>) slaveState.get(UPDATED.name);
+      if (updatedListeners != null && isSupported(Type.UPDATED)) {
+         updatedListeners.forEach(listener -> listenersTrait.addUpdatedListener(null, listener, sync));
       }
-      ExpiredListener expiredListener = (ExpiredListener) slaveState.get(EXPIRED.name);
-      if (expiredListener != null && isSupported(Type.EXPIRED)) {
-         listenersTrait.addExpiredListener(null, expiredListener, sync);
+      List<ExpiredListener> expiredListeners = (List<ExpiredListener>) slaveState.get(EXPIRED.name);
+      if (expiredListeners != null && isSupported(Type.EXPIRED)) {
+         expiredListeners.forEach(listener -> listenersTrait.addExpiredListener(null, listener, sync));
       }
    }
 
    public void unregisterListeners() {
-      CreatedListener createdListener = (CreatedListener) slaveState.get(CREATED.name);
-      if (createdListener != null && isSupported(Type.CREATED)) {
-         listenersTrait.removeCreatedListener(null, createdListener, sync);
+      List<CreatedListener> createdListeners = (List<CreatedListener>) slaveState.get(CREATED.name);
+      if (createdListeners != null && isSupported(Type.CREATED)) {
+         createdListeners.forEach(listener -> listenersTrait.removeCreatedListener(null, listener, sync));
       }
       slaveState.remove(CREATED.name);
-      EvictedListener evictedListener = (EvictedListener) slaveState.get(EVICTED.name);
-      if (evictedListener != null && isSupported(Type.EVICTED)) {
-         listenersTrait.removeEvictedListener(null, evictedListener, sync);
+      List<EvictedListener> evictedListeners = (List<EvictedListener>) slaveState.get(EVICTED.name);
+      if (evictedListeners != null && isSupported(Type.EVICTED)) {
+         evictedListeners.forEach(listener -> listenersTrait.removeEvictedListener(null, listener, sync));
       }
       slaveState.remove(EVICTED.name);
-      RemovedListener removedListener = (RemovedListener) slaveState.get(REMOVED.name);
-      if (removedListener != null && isSupported(Type.REMOVED)) {
-         listenersTrait.removeRemovedListener(null, removedListener, sync);
+      List<RemovedListener> removedListeners = (List<RemovedListener>) slaveState.get(REMOVED.name);
+      if (removedListeners != null && isSupported(Type.REMOVED)) {
+         removedListeners.forEach(listener -> listenersTrait.removeRemovedListener(null, listener, sync));
       }
       slaveState.remove(REMOVED.name);
-      UpdatedListener updatedListener = (UpdatedListener) slaveState.get(UPDATED.name);
-      if (updatedListener != null && isSupported(Type.UPDATED)) {
-         listenersTrait.removeUpdatedListener(null, updatedListener, sync);
+      List<UpdatedListener> updatedListeners = (List<UpdatedListener>) slaveState.get(UPDATED.name);
+      if (updatedListeners != null && isSupported(Type.UPDATED)) {
+         updatedListeners.forEach(listener -> listenersTrait.removeUpdatedListener(null, listener, sync));
       }
       slaveState.remove(UPDATED.name);
-      ExpiredListener expiredListener = (ExpiredListener) slaveState.get(EXPIRED.name);
-      if (expiredListener != null && isSupported(Type.EXPIRED)) {
-         listenersTrait.removeExpiredListener(null, expiredListener, sync);
+      List<ExpiredListener> expiredListeners = (List<ExpiredListener>) slaveState.get(EXPIRED.name);
+      if (expiredListeners != null && isSupported(Type.EXPIRED)) {
+         expiredListeners.forEach(listener -> listenersTrait.removeExpiredListener(null, listener, sync));
       }
       slaveState.remove(EXPIRED.name);
    }
@@ -0,0 +1,96 @@
+package org.radargun.stages.cache.test;
+
+import java.util.concurrent.CompletionStage;
+
+import org.radargun.Operation;
+import org.radargun.stages.test.AsyncInvocation;
+import org.radargun.traits.AsyncOperations;
+
+/**
+ * Provides {@link AsyncInvocation} implementations for operations from trait {@link AsyncOperations}.
+ */
+public class AsyncCacheInvocations {
+   public static final class Get<K, V> implements AsyncInvocation<V> {
+      public static final Operation GET_NULL = AsyncOperations.GET.derive("Null");
+      private final AsyncOperations.Cache<K, V> cache;
+      private final K key;
+      private V value;
+
+      public Get(AsyncOperations.Cache cache, K key) {
+         this.cache = cache;
+         this.key = key;
+      }
+
+      @Override
+      public CompletionStage<V> invoke() {
+         return cache.get(key).thenApply(v -> value = v);
+      }
+
+      @Override
+      public Operation operation() {
+         return value == null ? GET_NULL : AsyncOperations.GET;
+      }
+   }
+
+   public static final class ContainsKey<K, V> implements AsyncInvocation<Boolean> {
+      private final AsyncOperations.Cache<K, V> cache;
+      private final K key;
+
+      public ContainsKey(AsyncOperations.Cache cache, K key) {
+         this.cache = cache;
+         this.key = key;
+      }
+
+      @Override
+      public CompletionStage<Boolean> invoke() {
+         return cache.containsKey(key);
+      }
+
+      @Override
+      public Operation operation() {
+         return AsyncOperations.CONTAINS_KEY;
+      }
+   }
+
+   public static final class Put<K, V> implements AsyncInvocation<Void> {
+      private final AsyncOperations.Cache<K, V> cache;
+      private final K key;
+      private final V value;
+
+      public Put(AsyncOperations.Cache cache, K key, V value) {
+         this.cache = cache;
+         this.key = key;
+         this.value = value;
+      }
+
+      @Override
+      public CompletionStage<Void> invoke() {
+         return cache.put(key, value);
+      }
+
+      @Override
+      public Operation operation() {
+         return AsyncOperations.PUT;
+      }
+   }
+
+   public static final class Remove<K, V> implements AsyncInvocation<Boolean> {
+      private final AsyncOperations.Cache<K, V> cache;
+      private final K key;
+
+      public Remove(AsyncOperations.Cache cache, K key) {
+         this.cache = cache;
+         this.key = key;
+      }
+
+      @Override
+      public CompletionStage<Boolean> invoke() {
+         return cache.remove(key);
+      }
+
+      @Override
+      public Operation operation() {
+         return AsyncOperations.REMOVE;
+      }
+   }
+}
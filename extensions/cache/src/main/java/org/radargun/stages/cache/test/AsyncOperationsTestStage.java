@@ -0,0 +1,102 @@
+package org.radargun.stages.cache.test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.radargun.Operation;
+import org.radargun.config.Init;
+import org.radargun.config.Namespace;
+import org.radargun.config.Property;
+import org.radargun.config.Stage;
+import org.radargun.stages.test.AsyncInvocation;
+import org.radargun.stages.test.OperationLogic;
+import org.radargun.stages.test.OperationSelector;
+import org.radargun.stages.test.RatioOperationSelector;
+import org.radargun.stages.test.Stressor;
+import org.radargun.stages.test.TestStage;
+import org.radargun.stages.test.TransactionMode;
+import org.radargun.traits.AsyncOperations;
+import org.radargun.traits.InjectTrait;
+
+@Namespace(name = TestStage.NAMESPACE, deprecatedName = TestStage.DEPRECATED_NAMESPACE)
+@Stage(doc = "Test using AsyncOperations. Each stressor thread keeps up to 'requests-in-flight' requests outstanding.")
+public class AsyncOperationsTestStage extends CacheOperationsTestStage {
+   @Property(doc = "Ratio of GET requests. Default is 4.")
+   protected int getRatio = 4;
+
+   @Property(doc = "Ratio of CONTAINS requests. Default is 0.")
+   protected int containsRatio = 0;
+
+   @Property(doc = "Ratio of PUT requests. Default is 1.")
+   protected int putRatio = 1;
+
+   @Property(doc = "Ratio of REMOVE requests. Default is 0.")
+   protected int removeRatio = 0;
+
+   @InjectTrait
+   protected AsyncOperations asyncOperations;
+
+   @Init
+   @Override
+   public void init() {
+      super.init();
+      if (useTransactions == TransactionMode.ALWAYS) {
+         throw new IllegalStateException("Asynchronous operations cannot be executed in transactions");
+      }
+      statisticsPrototype.registerOperationsGroup(AsyncOperations.class.getSimpleName() + ".Total",
+         new HashSet<>(Arrays.asList(
+            AsyncOperations.GET,
+            AsyncCacheInvocations.Get.GET_NULL,
+            AsyncOperations.CONTAINS_KEY,
+            AsyncOperations.PUT,
+            AsyncOperations.REMOVE)));
+   }
+
+   @Override
+   protected OperationSelector createOperationSelector() {
+      return new RatioOperationSelector.Builder()
+         .add(AsyncOperations.GET, getRatio)
+         .add(AsyncOperations.CONTAINS_KEY, containsRatio)
+         .add(AsyncOperations.PUT, putRatio)
+         .add(AsyncOperations.REMOVE, removeRatio)
+         .build();
+   }
+
+   @Override
+   public OperationLogic getLogic() {
+      return new Logic();
+   }
+
+   protected class Logic extends OperationLogic {
+      protected AsyncOperations.Cache cache;
+      protected KeySelector keySelector;
+
+      @Override
+      public void init(Stressor stressor) {
+         super.init(stressor);
+         String cacheName = cacheSelector.getCacheName(stressor.getGlobalThreadIndex());
+         cache = asyncOperations.getCache(cacheName);
+         stressor.setUseTransactions(false);
+         keySelector = getKeySelector(stressor);
+      }
+
+      @Override
+      public void run(Operation operation) throws RequestException {
+         Object key = keyGenerator.generateKey(keySelector.next());
+         Random random = stressor.getRandom();
+
+         AsyncInvocation invocation;
+         if (operation == AsyncOperations.GET) {
+            invocation = new AsyncCacheInvocations.Get(cache, key);
+         } else if (operation == AsyncOperations.PUT) {
+            invocation = new AsyncCacheInvocations.Put(cache, key, valueGenerator.generateValue(key, entrySize.next(random), random));
+         } else if (operation == AsyncOperations.REMOVE) {
+            invocation = new AsyncCacheInvocations.Remove(cache, key);
+         } else if (operation == AsyncOperations.CONTAINS_KEY) {
+            invocation = new AsyncCacheInvocations.ContainsKey(cache, key);
+         } else throw new IllegalArgumentException(operation.name);
+         stressor.makeRequestAsync(invocation);
+      }
+   }
+}
@@ -5,6 +5,7 @@ import org.radargun.config.Property;
 import org.radargun.config.PropertyHelper;
 import org.radargun.config.Stage;
 import org.radargun.stages.cache.generators.KeyGenerator;
+import org.radargun.stages.cache.generators.PooledGenerators;
 import org.radargun.stages.cache.generators.ValueGenerator;
 import org.radargun.stages.helpers.CacheSelector;
 import org.radargun.stages.test.TestStage;
@@ -58,6 +59,7 @@ public abstract class CacheTestStage extends TestStage {
          slaveState.put(ValueGenerator.VALUE_GENERATOR, valueGenerator);
       }
       log.info("Using value generator " + valueGenerator.getClass().getName() + PropertyHelper.toString(valueGenerator));
+      PooledGenerators.registerCleanup(slaveState, keyGenerator, valueGenerator);
 
       if (cacheSelector == null) {
          cacheSelector = (CacheSelector) slaveState.get(CacheSelector.CACHE_SELECTOR);
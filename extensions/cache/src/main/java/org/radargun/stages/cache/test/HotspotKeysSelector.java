@@ -0,0 +1,75 @@
+package org.radargun.stages.cache.test;
+
+import java.util.Random;
+
+import org.radargun.config.DefinitionElement;
+import org.radargun.config.Init;
+import org.radargun.config.Namespace;
+import org.radargun.config.Property;
+import org.radargun.config.PropertyHelper;
+import org.radargun.stages.test.TestStage;
+
+/**
+ * Selects keys from the hot set (the first part of the key space) with given probability,
+ * other keys are selected uniformly from the rest of the entries.
+ */
+public class HotspotKeysSelector implements KeySelector {
+   private final Random random;
+   private final long numEntries;
+   private final long hotEntries;
+   private final double hotOperations;
+
+   public HotspotKeysSelector(Random random, long numEntries, long hotEntries, double hotOperations) {
+      this.random = random;
+      this.numEntries = numEntries;
+      this.hotEntries = hotEntries;
+      this.hotOperations = hotOperations;
+   }
+
+   @Override
+   public long next() {
+      if (hotEntries == numEntries || random.nextDouble() < hotOperations) {
+         return (random.nextLong() & Long.MAX_VALUE) % hotEntries;
+      } else {
+         return hotEntries + (random.nextLong() & Long.MAX_VALUE) % (numEntries - hotEntries);
+      }
+   }
+
+   @Namespace(name = TestStage.NAMESPACE, deprecatedName = TestStage.DEPRECATED_NAMESPACE)
+   @DefinitionElement(name = "hotspot-keys", doc = "Fixed set of entries is shared among all stressor threads, given fraction " +
+      "of operations targets small hot set of keys (with the lowest IDs).")
+   public static class Factory implements KeySelectorFactory {
+      @Property(doc = "Total number of key-value entries.", optional = false)
+      private long numEntries = 0;
+
+      @Property(doc = "Fraction of entries that form the hot set. Default is 0.2.")
+      private double hotEntriesFraction = 0.2;
+
+      @Property(doc = "Fraction of operations that target the hot set. Default is 0.8.")
+      private double hotOperationsFraction = 0.8;
+
+      @Init
+      public void init() {
+         if (numEntries <= 0) {
+            throw new IllegalStateException("Number of entries must be positive.");
+         }
+         if (hotEntriesFraction <= 0 || hotEntriesFraction > 1) {
+            throw new IllegalStateException("Hot entries fraction must be within (0, 1].");
+         }
+         if (hotOperationsFraction < 0 || hotOperationsFraction > 1) {
+            throw new IllegalStateException("Hot operations fraction must be within [0, 1].");
+         }
+      }
+
+      @Override
+      public KeySelector newInstance(CacheOperationsTestStage stage, Random random, int globalThreadId, int threadId) {
+         long hotEntries = Math.max(1, Math.min(numEntries, (long) (numEntries * hotEntriesFraction)));
+         return new HotspotKeysSelector(random, numEntries, hotEntries, hotOperationsFraction);
+      }
+
+      @Override
+      public String toString() {
+         return HotspotKeysSelector.class.getSimpleName() + PropertyHelper.toString(this);
+      }
+   }
+}
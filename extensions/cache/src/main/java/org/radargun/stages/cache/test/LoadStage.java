@@ -1,17 +1,28 @@
 package org.radargun.stages.cache.test;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.radargun.Operation;
 import org.radargun.config.Property;
 import org.radargun.config.Stage;
 import org.radargun.stages.cache.generators.ByteArrayValueGenerator;
 import org.radargun.stages.cache.generators.KeyGenerator;
+import org.radargun.stages.cache.generators.PooledGenerators;
 import org.radargun.stages.cache.generators.StringKeyGenerator;
 import org.radargun.stages.cache.generators.ValueGenerator;
 import org.radargun.stages.helpers.CacheSelector;
 import org.radargun.stages.test.TransactionMode;
+import org.radargun.stats.Request;
 import org.radargun.traits.BasicOperations;
 import org.radargun.traits.BulkOperations;
 import org.radargun.traits.InjectTrait;
@@ -72,6 +83,10 @@ public class LoadStage extends org.radargun.stages.test.LoadStage {
    @Property(doc = "Controls whether batch insertion is performed in asychronous way. Default is false (prefer synchronous operations).")
    protected boolean useAsyncBatchLoading = false;
 
+   @Property(doc = "Number of batches each loader thread may have in flight while it generates the next one. " +
+      "Applies only to non-transactional batch loading. Default is 0 (batches are stored synchronously by the loader thread).")
+   protected int pipelineDepth = 0;
+
    @InjectTrait(dependency = InjectTrait.Dependency.MANDATORY)
    protected BasicOperations basicOperations;
 
@@ -81,6 +96,8 @@ public class LoadStage extends org.radargun.stages.test.LoadStage {
    @InjectTrait
    protected Transactional transactional;
 
+   private ExecutorService batchExecutor;
+
    @Override
    protected void prepare() {
       if (useTransactions == TransactionMode.ALWAYS) {
@@ -94,6 +111,35 @@ public class LoadStage extends org.radargun.stages.test.LoadStage {
       slaveState.put(KeyGenerator.KEY_GENERATOR, keyGenerator);
       slaveState.put(ValueGenerator.VALUE_GENERATOR, valueGenerator);
       slaveState.put(CacheSelector.CACHE_SELECTOR, cacheSelector);
+      PooledGenerators.registerCleanup(slaveState, keyGenerator, valueGenerator);
+      if (batchSize > 0 && pipelineDepth > 0) {
+         batchExecutor = Executors.newFixedThreadPool(numThreads * pipelineDepth, new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+               Thread thread = new Thread(r, "BatchLoader-" + counter.getAndIncrement());
+               thread.setDaemon(true);
+               return thread;
+            }
+         });
+      }
+   }
+
+   @Override
+   protected void destroy() {
+      if (batchExecutor != null) {
+         batchExecutor.shutdownNow();
+         batchExecutor = null;
+      }
+   }
+
+   private Operation getBulkOperation() {
+      if (remove) {
+         return useAsyncBatchLoading ? BulkOperations.REMOVE_ALL_ASYNC : BulkOperations.REMOVE_ALL_NATIVE;
+      } else {
+         return useAsyncBatchLoading ? BulkOperations.PUT_ALL_ASYNC : BulkOperations.PUT_ALL_NATIVE;
+      }
    }
 
    protected Loader createLoader(int threadBase, int threadIndex) {
@@ -268,15 +314,19 @@ public class LoadStage extends org.radargun.stages.test.LoadStage {
          Object value = valueGenerator.generateValue(key, size, random);
          boolean success = false;
          for (int i = 0; i < maxLoadAttempts; ++i) {
+            Request request = statistics.startRequest();
             try {
                if (remove) {
                   cache.remove(key);
+                  request.succeeded(BasicOperations.REMOVE);
                } else {
                   cache.put(key, value);
+                  request.succeeded(BasicOperations.PUT);
                }
                success = true;
                break;
             } catch (Exception e) {
+               request.failed(remove ? BasicOperations.REMOVE : BasicOperations.PUT);
                log.warnf(e, "Attempt %d/%d to %s cache failed, waiting %d ms before next attempt",
                   i + 1, maxLoadAttempts, remove ? "remove entry from" : "insert entry into", waitOnError);
                try {
@@ -298,6 +348,7 @@ public class LoadStage extends org.radargun.stages.test.LoadStage {
 
    private class BulkNonTxLoader extends CacheLoader {
       private final BulkOperations.Cache<Object, Object> cache;
+      private final Deque<Future<?>> pendingBatches = new ArrayDeque<>();
 
       public BulkNonTxLoader(int index, LoaderIds loaderIds) {
          super(index, loaderIds);
@@ -309,51 +360,90 @@ public class LoadStage extends org.radargun.stages.test.LoadStage {
       protected boolean loadDataUnit() {
          Map<Object, Object> entryMap = new HashMap<>(batchSize);
          long keyId = 0;
-         int totalSize = 0;
+         long totalSize = 0;
          for (int i = 0; i < batchSize; i++) {
             int size = entrySize.next(random);
-            totalSize += size;
             long currentKeyIndex = loaderIds.currentKeyIndex();
             delayRequest(start, TimeService.nanoTime(), currentKeyIndex);
             keyId = loaderIds.next();
             if (keyId < 0) {
-               if (entryMap.isEmpty()) {
-                  log.info(String.format("Finished %s entries", remove ? "removing" : "loading"));
-                  return false;
-               }
                break;
             }
             Object key = keyGenerator.generateKey(keyId);
             Object value = valueGenerator.generateValue(key, size, random);
             entryMap.put(key, value);
+            totalSize += size;
+         }
+         if (!entryMap.isEmpty()) {
+            if (batchExecutor == null) {
+               storeBatch(entryMap, totalSize);
+            } else {
+               // generate next batch while the previous ones are being stored
+               long batchValuesSize = totalSize;
+               pendingBatches.add(batchExecutor.submit(() -> storeBatch(entryMap, batchValuesSize)));
+               while (pendingBatches.size() > pipelineDepth || (keyId < 0 && !pendingBatches.isEmpty())) {
+                  awaitBatch(pendingBatches.poll());
+               }
+            }
+         }
+         if (keyId < 0) {
+            log.info(String.format("Finished %s entries", remove ? "removing" : "loading"));
+            return false;
          }
+         return true;
+      }
+
+      private void storeBatch(Map<Object, Object> entryMap, long totalSize) {
+         Operation operation = getBulkOperation();
          for (int i = 0; i < maxLoadAttempts; i++) {
+            Request request = statistics.startRequest();
+            boolean success = false;
             try {
                if (remove) {
                   cache.removeAll(entryMap.keySet());
                } else {
                   cache.putAll(entryMap);
                }
-               if (keyId < 0) {
-                  log.info(String.format("Finished %s entries", remove ? "removing" : "loading"));
-                  return false;
-               }
-               return true;
+               success = true;
             } catch (Exception e) {
                log.warnf(e, "Attempt %d/%d to %s cache failed, waiting %d ms before next attempt",
                   i + 1, maxLoadAttempts, remove ? "remove entry from" : "insert entry into", waitOnError);
-               try {
-                  Thread.sleep(waitOnError);
-               } catch (InterruptedException e1) {
-                  log.warn("Interrupted when waiting after failed operation", e1);
+            }
+            // with pipelining the requests are recorded from executor threads
+            synchronized (statistics) {
+               if (success) {
+                  request.succeeded(operation);
+               } else {
+                  request.failed(operation);
                }
             }
+            if (success) {
+               logLoaded(entryMap.size(), totalSize, remove);
+               return;
+            }
+            try {
+               Thread.sleep(waitOnError);
+            } catch (InterruptedException e1) {
+               log.warn("Interrupted when waiting after failed operation", e1);
+            }
          }
          // Reached only when maxLoadAttempts attempts have been attained
-         String message = String.format("Failed to %s batch entries %d times.",
-            remove ? "remove" : "insert", maxLoadAttempts);
-         logLoaded(batchSize, totalSize, remove);
-         throw new RuntimeException(message);
+         throw new RuntimeException(String.format("Failed to %s batch entries %d times.",
+            remove ? "remove" : "insert", maxLoadAttempts));
+      }
+
+      private void awaitBatch(Future<?> batch) {
+         try {
+            batch.get();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted when waiting for batch to be stored", e);
+         } catch (ExecutionException e) {
+            for (Future<?> pending : pendingBatches) {
+               pending.cancel(false);
+            }
+            throw new RuntimeException(e.getCause());
+         }
       }
    }
 
@@ -377,15 +467,19 @@ public class LoadStage extends org.radargun.stages.test.LoadStage {
          if (keyId >= 0) {
             Object key = keyGenerator.generateKey(keyId);
             Object value = valueGenerator.generateValue(key, size, random);
+            Request request = statistics.startRequest();
             try {
                if (remove) {
                   cache.remove(key);
+                  request.succeeded(BasicOperations.REMOVE);
                } else {
                   cache.put(key, value);
+                  request.succeeded(BasicOperations.PUT);
                }
                txCurrentSize++;
                txValuesSize += size;
             } catch (Exception e) {
+               request.failed(remove ? BasicOperations.REMOVE : BasicOperations.PUT);
                log.warnf(e, "Attempt %d/%d to %s cache failed, waiting %d ms before next attempt",
                   txAttempts + 1, maxLoadAttempts, remove ? "remove entry from" : "insert entry into", waitOnError);
                try {
@@ -456,15 +550,19 @@ public class LoadStage extends org.radargun.stages.test.LoadStage {
                break;
             }
          }
+         Operation operation = getBulkOperation();
+         Request request = statistics.startRequest();
          try {
             if (remove) {
                cache.removeAll(entryMap.keySet());
             } else {
                cache.putAll(entryMap);
             }
+            request.succeeded(operation);
             txCurrentSize++;
             txValuesSize += totalSize;
          } catch (Exception e) {
+            request.failed(operation);
             log.warnf(e, "Attempt %d/%d to %s cache failed, waiting %d ms before next attempt",
                txAttempts + 1, maxLoadAttempts, remove ? "remove entry from" : "insert entry into", waitOnError);
             try {
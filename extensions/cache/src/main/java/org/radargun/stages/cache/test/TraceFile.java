@@ -0,0 +1,194 @@
+package org.radargun.stages.cache.test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compact binary format of recorded cache access trace. The file starts with magic number and version,
+ * followed by fixed-size records: operation (1 byte), timestamp in microseconds (8 bytes),
+ * key ID (8 bytes) and value size (4 bytes). Records are expected to be sorted by timestamp.
+ */
+public final class TraceFile {
+   private static final int MAGIC = 0x52475452; // RGTR
+   private static final int VERSION = 1;
+   private static final int BUFFER_SIZE = 1 << 16;
+
+   public enum Op {
+      GET,
+      PUT,
+      REMOVE,
+      CONTAINS_KEY
+   }
+
+   private TraceFile() {}
+
+   /**
+    * Trace records are partitioned by key, so that all accesses to one key are replayed by the same thread
+    * in the original order.
+    */
+   public static int partition(long keyId, int partitions) {
+      long h = keyId * 0x9E3779B97F4A7C15L;
+      return Math.floorMod((int) (h ^ (h >>> 32)), partitions);
+   }
+
+   /**
+    * Mutable record, can be reused by the reader to avoid allocations.
+    */
+   public static class Record {
+      public Op op;
+      public long timestamp;
+      public long keyId;
+      public int valueSize;
+      public int partition;
+   }
+
+   /**
+    * Streams records belonging to a range of partitions from the file. Not thread-safe.
+    */
+   public static class Reader implements Closeable {
+      private static final Op[] OPS = Op.values();
+      private final DataInputStream input;
+      private final int partitions;
+      private final int firstPartition;
+      private final int numPartitions;
+      private long baseTimestamp = Long.MIN_VALUE;
+
+      public Reader(String path, int partitions, int partition) throws IOException {
+         this(path, partitions, partition, 1);
+      }
+
+      public Reader(String path, int partitions, int firstPartition, int numPartitions) throws IOException {
+         this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(path), BUFFER_SIZE));
+         this.partitions = partitions;
+         this.firstPartition = firstPartition;
+         this.numPartitions = numPartitions;
+         try {
+            if (input.readInt() != MAGIC) {
+               throw new IOException("File " + path + " is not a trace file");
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+               throw new IOException("Unsupported trace file version " + version);
+            }
+         } catch (IOException e) {
+            input.close();
+            throw e;
+         }
+      }
+
+      /**
+       * @return False if there are no more records in these partitions.
+       */
+      public boolean next(Record record) throws IOException {
+         for (;;) {
+            int op = input.read();
+            if (op < 0) {
+               return false;
+            }
+            try {
+               record.timestamp = input.readLong();
+               record.keyId = input.readLong();
+               record.valueSize = input.readInt();
+            } catch (EOFException e) {
+               throw new IOException("Truncated trace record", e);
+            }
+            if (op >= OPS.length) {
+               throw new IOException("Unknown operation " + op);
+            }
+            if (baseTimestamp == Long.MIN_VALUE) {
+               baseTimestamp = record.timestamp;
+            }
+            int partition = partitions <= 1 ? 0 : partition(record.keyId, partitions);
+            if (partition >= firstPartition && partition < firstPartition + numPartitions) {
+               record.op = OPS[op];
+               record.partition = partition;
+               return true;
+            }
+         }
+      }
+
+      /**
+       * @return Timestamp of the first record in the file (in any partition).
+       */
+      public long getBaseTimestamp() {
+         return baseTimestamp;
+      }
+
+      @Override
+      public void close() throws IOException {
+         input.close();
+      }
+   }
+
+   public static class Writer implements Closeable {
+      private final DataOutputStream output;
+
+      public Writer(String path) throws IOException {
+         output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path), BUFFER_SIZE));
+         output.writeInt(MAGIC);
+         output.writeInt(VERSION);
+      }
+
+      public void write(Op op, long timestamp, long keyId, int valueSize) throws IOException {
+         output.writeByte(op.ordinal());
+         output.writeLong(timestamp);
+         output.writeLong(keyId);
+         output.writeInt(valueSize);
+      }
+
+      @Override
+      public void close() throws IOException {
+         output.close();
+      }
+   }
+
+   /**
+    * Converts text trace with lines in format <code>timestamp,operation,key,valueSize</code>
+    * (timestamp in microseconds, operation one of GET, PUT, REMOVE, CONTAINS_KEY) into the binary format.
+    * Numeric keys are used as key IDs directly, other keys are assigned IDs in order of first appearance
+    * (therefore the two should not be mixed in one trace).
+    */
+   public static void main(String[] args) throws IOException {
+      if (args.length != 2) {
+         System.err.println("Usage: TraceFile <input.csv> <output.trace>");
+         System.exit(1);
+      }
+      Map<String, Long> keyIds = new HashMap<>();
+      long records = 0;
+      try (BufferedReader reader = new BufferedReader(new FileReader(args[0]), BUFFER_SIZE);
+           Writer writer = new Writer(args[1])) {
+         String line;
+         while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split(",");
+            if (parts.length != 4) {
+               throw new IllegalArgumentException("Invalid line: " + line);
+            }
+            String key = parts[2].trim();
+            long keyId;
+            try {
+               keyId = Long.parseLong(key);
+            } catch (NumberFormatException e) {
+               keyId = keyIds.computeIfAbsent(key, k -> (long) keyIds.size());
+            }
+            writer.write(Op.valueOf(parts[1].trim().toUpperCase(Locale.ENGLISH)), Long.parseLong(parts[0].trim()),
+               keyId, Integer.parseInt(parts[3].trim()));
+            records++;
+         }
+      }
+      System.out.printf("Converted %d records%n", records);
+   }
+}
@@ -0,0 +1,344 @@
+package org.radargun.stages.cache.test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.radargun.Operation;
+import org.radargun.config.Init;
+import org.radargun.config.Namespace;
+import org.radargun.config.Property;
+import org.radargun.config.Stage;
+import org.radargun.stages.test.AbstractCompletion;
+import org.radargun.stages.test.Completion;
+import org.radargun.stages.test.Invocation;
+import org.radargun.stages.test.OperationLogic;
+import org.radargun.stages.test.Stressor;
+import org.radargun.stages.test.TestStage;
+import org.radargun.traits.BasicOperations;
+import org.radargun.traits.InjectTrait;
+import org.radargun.utils.TimeService;
+
+/**
+ * Replays recorded trace (see {@link TraceFile}) through {@link BasicOperations}. The trace is read once
+ * on each node and the records are dispatched to the stressor threads according to the key partition,
+ * therefore operations on the same key are executed in the original order. The test ends when all stressors
+ * reach the end of the trace.
+ */
+@Namespace(name = TestStage.NAMESPACE, deprecatedName = TestStage.DEPRECATED_NAMESPACE)
+@Stage(doc = "Replays recorded access trace (operation, key ID, value size, timestamp) using BasicOperations. " +
+   "Records are partitioned among all stressor threads in the cluster by key. The test ends when the trace is replayed, " +
+   "or when the duration elapses.")
+public class TraceReplayTestStage extends CacheTestStage {
+   @Property(doc = "Path to the trace file in binary format (use org.radargun.stages.cache.test.TraceFile to convert " +
+      "trace in CSV format).", optional = false)
+   protected String tracePath;
+
+   @Property(doc = "Speed of replay relative to the recorded timestamps: 1 replays the trace with original timing, " +
+      "2 twice as fast etc. When the service cannot keep up, the requests are executed as soon as possible. " +
+      "Default is 0 (ignore timestamps and replay as fast as possible).")
+   protected double replaySpeed = 0;
+
+   @InjectTrait
+   protected BasicOperations basicOperations;
+
+   private static final int QUEUE_CAPACITY = 1024;
+   private static final TraceFile.Record END = new TraceFile.Record();
+
+   private transient ThreadLocal<Logic> currentLogic;
+   private transient TraceCompletion traceCompletion;
+   private transient TraceDispatcher traceDispatcher;
+
+   @Init
+   @Override
+   public void check() {
+      if (duration < 0) {
+         throw new IllegalArgumentException("Test duration must be positive.");
+      }
+      if (numOperations > 0) {
+         throw new IllegalArgumentException("Number of operations is given by the trace.");
+      }
+      if (replaySpeed < 0) {
+         throw new IllegalArgumentException("Replay speed must be >= 0");
+      }
+   }
+
+   @Init
+   @Override
+   public void init() {
+      super.init();
+      statisticsPrototype.registerOperationsGroup(BasicOperations.class.getSimpleName() + ".Total",
+         new HashSet<>(Arrays.asList(
+            BasicOperations.GET,
+            CacheInvocations.Get.GET_NULL,
+            BasicOperations.CONTAINS_KEY,
+            BasicOperations.PUT,
+            BasicOperations.REMOVE)));
+   }
+
+   @Override
+   protected void prepare() {
+      super.prepare();
+      currentLogic = new ThreadLocal<>();
+   }
+
+   @Override
+   protected void destroy() {
+      if (traceDispatcher != null) {
+         traceDispatcher.close();
+         traceDispatcher = null;
+      }
+      super.destroy();
+   }
+
+   @Override
+   protected Completion createCompletion() {
+      int firstThread = getFirstThreadOn(slaveState.getSlaveIndex());
+      int numThreads = getNumThreadsOn(slaveState.getSlaveIndex());
+      try {
+         traceDispatcher = new TraceDispatcher(new TraceFile.Reader(tracePath, getTotalThreads(), firstThread, numThreads), firstThread, numThreads);
+      } catch (IOException e) {
+         throw new UncheckedIOException(e);
+      }
+      traceDispatcher.start();
+      traceCompletion = new TraceCompletion(numThreads, duration);
+      return traceCompletion;
+   }
+
+   @Override
+   public OperationLogic getLogic() {
+      return new Logic();
+   }
+
+   /**
+    * Completes when all stressors on this node have replayed their part of the trace.
+    */
+   private class TraceCompletion extends AbstractCompletion {
+      private final AtomicInteger activeStressors;
+      private final long duration;
+
+      TraceCompletion(int stressors, long duration) {
+         this.activeStressors = new AtomicInteger(stressors);
+         this.duration = TimeUnit.MILLISECONDS.toNanos(duration);
+      }
+
+      @Override
+      public boolean moreToRun() {
+         if (duration > 0 && TimeService.nanoTime() >= startTime + duration) {
+            runCompletionHandler();
+            return false;
+         }
+         Logic logic = currentLogic.get();
+         logic.replaying = true;
+         if (logic.hasNext()) {
+            return true;
+         }
+         if (!logic.finished) {
+            logic.finished = true;
+            if (activeStressors.decrementAndGet() == 0) {
+               runCompletionHandler();
+            }
+         }
+         return false;
+      }
+
+      @Override
+      public void logProgress(int executedOps) {
+      }
+
+      long getStartTime() {
+         return startTime;
+      }
+   }
+
+   /**
+    * Reads the trace and dispatches the records to queues of stressor threads on this node. When a queue is full
+    * the dispatcher waits for its stressor, so that the records in memory are bounded.
+    */
+   private class TraceDispatcher implements Runnable {
+      private final TraceFile.Reader reader;
+      private final int firstThread;
+      private final BlockingQueue<TraceFile.Record>[] queues;
+      private final Thread thread;
+      private volatile boolean closed;
+      private volatile IOException exception;
+
+      TraceDispatcher(TraceFile.Reader reader, int firstThread, int numThreads) {
+         this.reader = reader;
+         this.firstThread = firstThread;
+         this.queues = new BlockingQueue[numThreads];
+         for (int i = 0; i < numThreads; ++i) {
+            queues[i] = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+         }
+         this.thread = new Thread(this, "TraceDispatcher");
+         this.thread.setDaemon(true);
+      }
+
+      void start() {
+         thread.start();
+      }
+
+      @Override
+      public void run() {
+         try {
+            TraceFile.Record record = new TraceFile.Record();
+            while (reader.next(record)) {
+               if (!dispatch(queues[record.partition - firstThread], record)) {
+                  return;
+               }
+               record = new TraceFile.Record();
+            }
+         } catch (IOException e) {
+            exception = e;
+         } catch (InterruptedException e) {
+            return;
+         } finally {
+            try {
+               reader.close();
+            } catch (IOException e) {
+               log.error("Failed to close trace file", e);
+            }
+         }
+         try {
+            for (BlockingQueue<TraceFile.Record> queue : queues) {
+               if (!dispatch(queue, END)) {
+                  return;
+               }
+            }
+         } catch (InterruptedException e) {
+            // closed
+         }
+      }
+
+      private boolean dispatch(BlockingQueue<TraceFile.Record> queue, TraceFile.Record record) throws InterruptedException {
+         while (!queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+            if (closed || isTerminated()) {
+               return false;
+            }
+         }
+         return true;
+      }
+
+      /**
+       * @return Next record for the thread or {@link #END}.
+       */
+      TraceFile.Record next(int threadIndex) {
+         BlockingQueue<TraceFile.Record> queue = queues[threadIndex];
+         try {
+            TraceFile.Record record;
+            while ((record = queue.poll(100, TimeUnit.MILLISECONDS)) == null) {
+               if (closed || isTerminated()) {
+                  return END;
+               }
+            }
+            if (record == END && exception != null) {
+               throw new UncheckedIOException("Failed to read the trace", exception);
+            }
+            return record;
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return END;
+         }
+      }
+
+      long getBaseTimestamp() {
+         return reader.getBaseTimestamp();
+      }
+
+      void close() {
+         closed = true;
+         thread.interrupt();
+      }
+   }
+
+   protected class Logic extends OperationLogic {
+      protected BasicOperations.Cache nonTxCache;
+      protected BasicOperations.Cache cache;
+      protected TraceDispatcher dispatcher;
+      protected TraceFile.Record record;
+      protected boolean replaying;
+      protected boolean finished;
+
+      @Override
+      public void init(Stressor stressor) {
+         super.init(stressor);
+         String cacheName = cacheSelector.getCacheName(stressor.getGlobalThreadIndex());
+         this.nonTxCache = basicOperations.getCache(cacheName);
+         if (useTransactions(cacheName)) {
+            cache = new Delegates.BasicOperationsCache<>();
+         } else {
+            cache = nonTxCache;
+         }
+         stressor.setUseTransactions(useTransactions(cacheName));
+         dispatcher = traceDispatcher;
+         currentLogic.set(this);
+      }
+
+      @Override
+      public void destroy() {
+         currentLogic.remove();
+      }
+
+      @Override
+      public void transactionStarted() {
+         ((Delegates.BasicOperationsCache) cache).setDelegate(stressor.wrap(nonTxCache));
+      }
+
+      @Override
+      public void transactionEnded() {
+         ((Delegates.BasicOperationsCache) cache).setDelegate(null);
+      }
+
+      protected boolean hasNext() {
+         if (record == null) {
+            record = dispatcher.next(stressor.getThreadIndex());
+         }
+         return record != END;
+      }
+
+      @Override
+      public void run(Operation operation) throws RequestException {
+         // do not consume the trace in the warm-up phase, when the requests are not recorded
+         if (!replaying || !hasNext()) {
+            return;
+         }
+         TraceFile.Record record = this.record;
+         this.record = null;
+         if (replaySpeed > 0) {
+            long offset = (long) (TimeUnit.MICROSECONDS.toNanos(record.timestamp - dispatcher.getBaseTimestamp()) / replaySpeed);
+            long scheduled = traceCompletion.getStartTime() + offset;
+            long now;
+            while ((now = TimeService.nanoTime()) < scheduled && !isTerminated()) {
+               LockSupport.parkNanos(scheduled - now);
+            }
+            // the response time is measured from the original schedule when the replay falls behind
+            stressor.setIntendedStartTime(scheduled);
+         }
+         Object key = keyGenerator.generateKey(record.keyId);
+         Invocation invocation;
+         switch (record.op) {
+            case GET:
+               invocation = new CacheInvocations.Get(cache, key);
+               break;
+            case PUT:
+               invocation = new CacheInvocations.Put(cache, key, valueGenerator.generateValue(key, record.valueSize, stressor.getRandom()));
+               break;
+            case REMOVE:
+               invocation = new CacheInvocations.Remove(cache, key);
+               break;
+            case CONTAINS_KEY:
+               invocation = new CacheInvocations.ContainsKey(cache, key);
+               break;
+            default:
+               throw new IllegalArgumentException(String.valueOf(record.op));
+         }
+         stressor.makeRequest(invocation);
+      }
+   }
+}
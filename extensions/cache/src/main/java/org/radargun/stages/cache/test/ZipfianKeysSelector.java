@@ -0,0 +1,178 @@
+package org.radargun.stages.cache.test;
+
+import java.util.Random;
+
+import org.radargun.config.DefinitionElement;
+import org.radargun.config.Init;
+import org.radargun.config.Namespace;
+import org.radargun.config.Property;
+import org.radargun.config.PropertyHelper;
+import org.radargun.stages.test.TestStage;
+
+/**
+ * Selects keys with Zipfian distribution: the probability of key with rank k (0-based) is proportional
+ * to 1 / (k + 1)^theta. Sampling uses the rejection-inversion method (W. Hörmann, G. Derflinger:
+ * Rejection-inversion to generate variates from monotone discrete distributions), therefore it does not
+ * need any tables, does not allocate and runs in (expected) constant time regardless of the number of entries.
+ *
+ * With scrambling the ranks are mapped to key IDs through a pseudo-random permutation, so that the popular
+ * keys are spread over the whole key space instead of being clustered at its beginning.
+ */
+public class ZipfianKeysSelector implements KeySelector {
+   private final Random random;
+   private final long numEntries;
+   private final double theta;
+   private final boolean scrambled;
+   private final double hIntegralX1;
+   private final double hIntegralNumEntries;
+   private final double s;
+   // permutation is computed in the smallest power-of-two range containing all keys
+   private final int bits;
+   private final long mask;
+
+   public ZipfianKeysSelector(Random random, long numEntries, double theta, boolean scrambled) {
+      this.random = random;
+      this.numEntries = numEntries;
+      this.theta = theta;
+      this.scrambled = scrambled;
+      this.hIntegralX1 = hIntegral(1.5) - 1d;
+      this.hIntegralNumEntries = hIntegral(numEntries + 0.5);
+      this.s = 2d - hIntegralInverse(hIntegral(2.5) - h(2));
+      this.bits = Math.max(1, 64 - Long.numberOfLeadingZeros(numEntries - 1));
+      this.mask = bits == 64 ? -1L : (1L << bits) - 1;
+   }
+
+   @Override
+   public long next() {
+      long rank = sample() - 1;
+      return scrambled ? permute(rank) : rank;
+   }
+
+   /**
+    * @return Rank in range [1, numEntries]
+    */
+   private long sample() {
+      for (;;) {
+         double u = hIntegralNumEntries + random.nextDouble() * (hIntegralX1 - hIntegralNumEntries);
+         double x = hIntegralInverse(u);
+         long k = (long) (x + 0.5);
+         if (k < 1) {
+            k = 1;
+         } else if (k > numEntries) {
+            k = numEntries;
+         }
+         // the first condition accepts most of the samples without evaluating the costly hIntegral
+         if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+            return k;
+         }
+      }
+   }
+
+   /**
+    * Bijection on [0, numEntries): each round is a bijection on [0, 2^bits) and we repeat it until
+    * the value falls into the range (cycle-walking), which takes less than two rounds on average.
+    */
+   private long permute(long value) {
+      do {
+         value = mix(value);
+      } while (value >= numEntries);
+      return value;
+   }
+
+   private long mix(long x) {
+      int shift = Math.max(1, bits / 2);
+      x = ((x + 0x632BE59BD9B4E019L) * 0x9E3779B97F4A7C15L) & mask;
+      x ^= x >>> shift;
+      x = (x * 0xBF58476D1CE4E5B9L) & mask;
+      x ^= x >>> shift;
+      return x;
+   }
+
+   /**
+    * Integral of {@link #h(double)} (up to an additive constant), H(x) = ((x)^(1 - theta) - 1) / (1 - theta)
+    */
+   private double hIntegral(double x) {
+      double logX = Math.log(x);
+      return helper2((1d - theta) * logX) * logX;
+   }
+
+   private double h(double x) {
+      return Math.exp(-theta * Math.log(x));
+   }
+
+   private double hIntegralInverse(double x) {
+      double t = x * (1d - theta);
+      if (t < -1d) {
+         // limit value to the range [-1, +inf), the result is correct anyway
+         t = -1d;
+      }
+      return Math.exp(helper1(t) * x);
+   }
+
+   /**
+    * @return log(1 + x) / x, numerically stable around 0
+    */
+   private static double helper1(double x) {
+      if (Math.abs(x) > 1e-8) {
+         return Math.log1p(x) / x;
+      } else {
+         return 1d - x * (0.5 - x * (1d / 3d - 0.25 * x));
+      }
+   }
+
+   /**
+    * @return (exp(x) - 1) / x, numerically stable around 0
+    */
+   private static double helper2(double x) {
+      if (Math.abs(x) > 1e-8) {
+         return Math.expm1(x) / x;
+      } else {
+         return 1d + x * 0.5 * (1d + x * (1d / 3d) * (1d + 0.25 * x));
+      }
+   }
+
+   @Namespace(name = TestStage.NAMESPACE, deprecatedName = TestStage.DEPRECATED_NAMESPACE)
+   @DefinitionElement(name = "zipfian-keys", doc = "Fixed set of entries is shared among all stressor threads, the keys are selected " +
+      "using Zipfian distribution. Key with ID 0 is the most popular one, followed by ID 1 etc.")
+   public static class Factory implements KeySelectorFactory {
+      @Property(doc = "Total number of key-value entries.", optional = false)
+      protected long numEntries = 0;
+
+      @Property(doc = "Skew of the distribution; probability of k-th most popular key is proportional to 1/k^theta. Default is 0.99.")
+      protected double theta = 0.99;
+
+      @Init
+      public void init() {
+         if (numEntries <= 0) {
+            throw new IllegalStateException("Number of entries must be positive.");
+         }
+         if (theta <= 0) {
+            throw new IllegalStateException("Theta must be positive.");
+         }
+      }
+
+      protected boolean isScrambled() {
+         return false;
+      }
+
+      @Override
+      public KeySelector newInstance(CacheOperationsTestStage stage, Random random, int globalThreadId, int threadId) {
+         return new ZipfianKeysSelector(random, numEntries, theta, isScrambled());
+      }
+
+      @Override
+      public String toString() {
+         return ZipfianKeysSelector.class.getSimpleName() + PropertyHelper.toString(this);
+      }
+   }
+
+   @Namespace(name = TestStage.NAMESPACE, deprecatedName = TestStage.DEPRECATED_NAMESPACE)
+   @DefinitionElement(name = "scrambled-zipfian-keys", doc = "Fixed set of entries is shared among all stressor threads, the keys are selected " +
+      "using Zipfian distribution. The popular keys are scattered over the whole key space.")
+   public static class ScrambledFactory extends Factory {
+      @Override
+      protected boolean isScrambled() {
+         return true;
+      }
+   }
+}
@@ -67,6 +67,8 @@ public class IterateStage extends TestStage {
    @Override
    public void init() {
       super.init();
+      // the iteration results are not merged with the reported progress
+      if (progressPeriod > 0) throw new IllegalStateException("Progress period is not supported by this stage");
       failOnNotTotalSize = (filterClass == null);
    }
 
@@ -0,0 +1,47 @@
+package org.radargun.traits;
+
+import java.util.concurrent.CompletionStage;
+
+import org.radargun.Operation;
+
+/**
+ * Non-blocking variant of {@link BasicOperations}, allowing one thread to keep multiple requests outstanding.
+ */
+@Trait(doc = "Basic operations on cache which do not block until the operation completes.")
+public interface AsyncOperations {
+   String TRAIT = AsyncOperations.class.getSimpleName();
+   Operation GET = Operation.register(TRAIT + ".Get");
+   Operation CONTAINS_KEY = Operation.register(TRAIT + ".ContainsKey");
+   Operation PUT = Operation.register(TRAIT + ".Put");
+   Operation REMOVE = Operation.register(TRAIT + ".Remove");
+
+   <K, V> Cache<K, V> getCache(String cacheName);
+
+   interface Cache<K, V> {
+      /**
+       * Gets an entry from the cache.
+       *
+       * @return Stage completed with the element, or null, if it does not exist.
+       */
+      CompletionStage<V> get(K key);
+
+      /**
+       * Determines if the Cache contains an entry for the specified key.
+       */
+      CompletionStage<Boolean> containsKey(K key);
+
+      /**
+       * Associates the specified value with the specified key in the cache.
+       *
+       * @return Stage completed when the value is stored.
+       */
+      CompletionStage<Void> put(K key, V value);
+
+      /**
+       * Removes the mapping for a key from this cache if it is present.
+       *
+       * @return Stage completed with true if the cache contained the specified key.
+       */
+      CompletionStage<Boolean> remove(K key);
+   }
+}
@@ -0,0 +1,68 @@
+package org.radargun.stages.cache;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.radargun.DistStageAck;
+import org.radargun.StageResult;
+import org.radargun.traits.BasicOperations;
+import org.radargun.traits.Lifecycle;
+import org.radargun.util.CacheStageRunner;
+import org.radargun.util.CacheTraitRepository;
+import org.radargun.utils.Utils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(timeOut = 30000)
+public class LoadFileStageTest {
+   private static final int VALUE_SIZE = 1000;
+
+   public void testMemoryMapped() throws Exception {
+      testMemoryMapped(false);
+   }
+
+   public void testBufferValues() throws Exception {
+      testMemoryMapped(true);
+   }
+
+   private void testMemoryMapped(boolean bufferValues) throws Exception {
+      byte[] data = new byte[VALUE_SIZE * 10 + 7];
+      new Random(42).nextBytes(data);
+      File file = File.createTempFile("LoadFileStageTest", ".dat");
+      try {
+         Files.write(file.toPath(), data);
+         CacheStageRunner stageRunner = new CacheStageRunner(1);
+         stageRunner.getTraitImpl(Lifecycle.class).start();
+
+         LoadFileStage stage = new LoadFileStage();
+         Utils.setField(LoadFileStage.class, "filePath", stage, file.getAbsolutePath());
+         Utils.setField(LoadFileStage.class, "valueSize", stage, VALUE_SIZE);
+         Utils.setField(LoadFileStage.class, "memoryMapped", stage, true);
+         Utils.setField(LoadFileStage.class, "numThreads", stage, 3);
+         Utils.setField(LoadFileStage.class, "bufferValues", stage, bufferValues);
+         List<DistStageAck> acks = new ArrayList<>(1);
+         acks.add(stageRunner.executeOnSlave(stage, 0));
+         Assert.assertEquals(stageRunner.processAckOnMaster(stage, acks), StageResult.SUCCESS);
+
+         BasicOperations basicOperations = stageRunner.getTraitImpl(BasicOperations.class);
+         CacheTraitRepository.BasicOperationsCache cache = (CacheTraitRepository.BasicOperationsCache) basicOperations.getCache(null);
+         Assert.assertEquals(cache.size(), 11);
+         for (int position = 0; position < data.length; position += VALUE_SIZE) {
+            Object value = cache.get("0-" + position);
+            byte[] expected = Arrays.copyOfRange(data, position, Math.min(data.length, position + VALUE_SIZE));
+            if (bufferValues) {
+               Assert.assertEquals(value, ByteBuffer.wrap(expected));
+            } else {
+               Assert.assertEquals((byte[]) value, expected);
+            }
+         }
+      } finally {
+         file.delete();
+      }
+   }
+}
@@ -0,0 +1,71 @@
+package org.radargun.stages.cache.generators;
+
+import java.util.Random;
+
+import org.radargun.state.ServiceListener;
+import org.radargun.state.SlaveState;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class PooledGeneratorsTest {
+
+   public void testKeys() {
+      PooledKeyGenerator generator = createKeyGenerator();
+      Object key = generator.generateKey(42);
+      Assert.assertEquals(key, "key_000000000000002A");
+      Assert.assertSame(generator.generateKey(42), key);
+      // another instance with the same configuration shares the pool
+      Assert.assertSame(createKeyGenerator().generateKey(42), key);
+      // keys outside of the pool are still generated
+      Assert.assertEquals(generator.generateKey(100), "key_0000000000000064");
+      Assert.assertNotSame(generator.generateKey(100), generator.generateKey(100));
+   }
+
+   public void testValues() {
+      PooledValueGenerator generator = new PooledValueGenerator();
+      generator.poolSize = 16;
+      generator.init();
+      Random random = new Random();
+      Object value = generator.generateValue("key", 100, random);
+      Assert.assertTrue(generator.checkValue(value, "key", 100));
+      Assert.assertEquals(generator.sizeOf(value), 100);
+      Assert.assertSame(generator.generateValue("key", 100, random), value);
+      Assert.assertSame(generator.generateValue(new byte[] {1, 2, 3}, 100, random), generator.generateValue(new byte[] {1, 2, 3}, 100, random));
+      Assert.assertEquals(generator.sizeOf(generator.generateValue("key", 200, random)), 200);
+   }
+
+   public void testMaxSizes() {
+      PooledValueGenerator generator = new PooledValueGenerator();
+      generator.poolSize = 4;
+      generator.maxSizes = 2;
+      generator.init();
+      Random random = new Random();
+      Assert.assertSame(generator.generateValue("key", 10, random), generator.generateValue("key", 10, random));
+      Assert.assertSame(generator.generateValue("key", 11, random), generator.generateValue("key", 11, random));
+      // third size is not pooled anymore
+      Object value = generator.generateValue("key", 12, random);
+      Assert.assertEquals(generator.sizeOf(value), 12);
+      Assert.assertNotSame(generator.generateValue("key", 12, random), value);
+   }
+
+   public void testRelease() {
+      PooledKeyGenerator keyGenerator = createKeyGenerator();
+      Object key = keyGenerator.generateKey(7);
+      SlaveState slaveState = new SlaveState();
+      PooledGenerators.registerCleanup(slaveState, keyGenerator, new ByteArrayValueGenerator());
+      PooledGenerators.registerCleanup(slaveState, keyGenerator, new ByteArrayValueGenerator());
+      Assert.assertEquals(slaveState.getListeners().size(), 1);
+      slaveState.getListeners().forEach(ServiceListener::serviceDestroyed);
+      Object newKey = keyGenerator.generateKey(7);
+      Assert.assertEquals(newKey, key);
+      Assert.assertNotSame(newKey, key);
+   }
+
+   private PooledKeyGenerator createKeyGenerator() {
+      PooledKeyGenerator generator = new PooledKeyGenerator();
+      generator.poolSize = 100;
+      generator.init();
+      return generator;
+   }
+}
@@ -6,9 +6,14 @@ import java.util.List;
 import org.radargun.DistStageAck;
 import org.radargun.StageResult;
 import org.radargun.state.SlaveState;
+import org.radargun.stats.SynchronizedStatistics;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.radargun.traits.CacheListeners;
 import org.radargun.traits.Lifecycle;
 import org.radargun.util.CacheStageRunner;
 import org.radargun.util.CacheTraitRepository;
+import org.radargun.utils.TimeService;
+import org.radargun.utils.Timestamped;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -59,4 +64,32 @@ public class RegisterListenersStageTest {
       Assert.assertEquals(stageRunner.processAckOnMaster(registerListenersStage, acks), StageResult.SUCCESS);
 
    }
+
+   public void testMultipleListeners() throws Exception {
+      CacheStageRunner stageRunner = new CacheStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      CacheTraitRepository.CacheListeners listeners = (CacheTraitRepository.CacheListeners) stageRunner.getTraitImpl(CacheListeners.class);
+      RegisterListenersStage registerListenersStage = new RegisterListenersStage();
+      registerListenersStage.registerListeners = true;
+      registerListenersStage.numListeners = 3;
+
+      Assert.assertFalse(stageRunner.executeOnSlave(registerListenersStage, 0).isError());
+      Assert.assertEquals(listeners.getCreatedListeners().size(), 3);
+      Assert.assertEquals(listeners.getUpdatedListeners().size(), 3);
+      Timestamped value = () -> TimeService.currentTimeMillis() - 1;
+      for (CacheListeners.UpdatedListener listener : listeners.getUpdatedListeners()) {
+         listener.updated("key", value);
+      }
+      // each listener records its notification
+      SynchronizedStatistics statistics = (SynchronizedStatistics) stageRunner.getSlaveState().get(RegisterListenersStage.class.getName() + ".Stats");
+      DefaultOutcome outcome = statistics.snapshot(false).getRepresentation(CacheListeners.UPDATED.name, DefaultOutcome.class);
+      Assert.assertEquals(outcome.requests, 3);
+      Assert.assertEquals(outcome.errors, 0);
+
+      registerListenersStage.registerListeners = false;
+      registerListenersStage.unregisterListeners = true;
+      Assert.assertFalse(stageRunner.executeOnSlave(registerListenersStage, 0).isError());
+      Assert.assertTrue(listeners.getCreatedListeners().isEmpty());
+      Assert.assertTrue(listeners.getUpdatedListeners().isEmpty());
+   }
 }
@@ -0,0 +1,68 @@
+package org.radargun.stages.cache.test;
+
+import java.util.Collections;
+
+import org.radargun.DistStageAck;
+import org.radargun.Operation;
+import org.radargun.StageResult;
+import org.radargun.reporting.Report;
+import org.radargun.stages.cache.generators.ByteArrayValueGenerator;
+import org.radargun.stages.cache.generators.KeyGenerator;
+import org.radargun.stages.cache.generators.StringKeyGenerator;
+import org.radargun.stages.cache.generators.ValueGenerator;
+import org.radargun.stages.helpers.CacheSelector;
+import org.radargun.state.SlaveState;
+import org.radargun.stats.Statistics;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.radargun.traits.AsyncOperations;
+import org.radargun.traits.BasicOperations;
+import org.radargun.traits.Lifecycle;
+import org.radargun.util.CacheStageRunner;
+import org.radargun.util.CacheTraitRepository;
+import org.radargun.utils.Utils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(timeOut = 30000)
+public class AsyncOperationsTestStageTest {
+   private static final int OPERATIONS = 2000;
+
+   public void testRequestsInFlight() throws Exception {
+      CacheStageRunner stageRunner = new CacheStageRunner(1);
+      SlaveState slaveState = stageRunner.getSlaveState();
+      slaveState.put(KeyGenerator.KEY_GENERATOR, new StringKeyGenerator());
+      slaveState.put(ValueGenerator.VALUE_GENERATOR, new ByteArrayValueGenerator());
+      slaveState.put(CacheSelector.CACHE_SELECTOR, new CacheSelector.Default());
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+
+      AsyncOperationsTestStage stage = new AsyncOperationsTestStage();
+      CollidingKeysSelector.Factory keySelectorFactory = new CollidingKeysSelector.Factory();
+      Utils.setField(CollidingKeysSelector.Factory.class, "numEntries", keySelectorFactory, 100);
+      stage.keySelectorFactory = keySelectorFactory;
+      stage.getRatio = 1;
+      stage.putRatio = 1;
+      stage.numThreadsPerNode = 2;
+      stage.requestsInFlight = 16;
+      stage.numOperations = OPERATIONS;
+
+      DistStageAck ack = stageRunner.executeOnSlave(stage, 0);
+      Assert.assertFalse(ack.isError(), String.valueOf(ack));
+      Assert.assertEquals(stageRunner.processAckOnMaster(stage, Collections.singletonList(ack)), StageResult.SUCCESS);
+
+      Report.TestIteration iteration = stageRunner.getMasterState().getReport().getTest(stage.testName).getIterations().get(0);
+      Statistics merged = iteration.getStatistics().stream().flatMap(entry -> entry.getValue().stream()).reduce(null, Statistics.MERGE);
+      long requests = 0;
+      for (Operation operation : new Operation[] {AsyncOperations.GET, AsyncCacheInvocations.Get.GET_NULL, AsyncOperations.PUT}) {
+         DefaultOutcome outcome = merged.getRepresentation(operation.name, DefaultOutcome.class);
+         if (outcome != null) {
+            Assert.assertEquals(outcome.errors, 0);
+            requests += outcome.requests;
+         }
+      }
+      Assert.assertEquals(requests, OPERATIONS);
+
+      BasicOperations basicOperations = stageRunner.getTraitImpl(BasicOperations.class);
+      CacheTraitRepository.BasicOperationsCache cache = (CacheTraitRepository.BasicOperationsCache) basicOperations.getCache(null);
+      Assert.assertTrue(cache.size() > 0);
+   }
+}
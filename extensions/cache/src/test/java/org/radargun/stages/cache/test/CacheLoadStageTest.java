@@ -5,10 +5,15 @@ import java.util.List;
 
 import org.radargun.DistStageAck;
 import org.radargun.StageResult;
+import org.radargun.reporting.Report;
+import org.radargun.stats.Statistics;
+import org.radargun.stats.representation.DefaultOutcome;
 import org.radargun.traits.BasicOperations;
+import org.radargun.traits.BulkOperations;
 import org.radargun.traits.Lifecycle;
 import org.radargun.util.CacheStageRunner;
 import org.radargun.util.CacheTraitRepository;
+import org.radargun.utils.Utils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -33,4 +38,29 @@ public class CacheLoadStageTest {
       Assert.assertEquals(cache.size(), 100);
       Assert.assertEquals(stageRunner.processAckOnMaster(cacheLoadStage, acks), StageResult.SUCCESS);
    }
+
+   public void pipelinedBatchTest() throws Exception {
+      CacheStageRunner stageRunner = new CacheStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+
+      List<DistStageAck> acks = new ArrayList<>(1);
+      LoadStage cacheLoadStage = new LoadStage();
+      cacheLoadStage.numEntries = 10007;
+      Utils.setField(org.radargun.stages.test.LoadStage.class, "numThreads", cacheLoadStage, 4);
+      cacheLoadStage.batchSize = 100;
+      cacheLoadStage.pipelineDepth = 3;
+      Utils.setField(org.radargun.stages.test.LoadStage.class, "testName", cacheLoadStage, "load");
+      acks.add(stageRunner.executeOnSlave(cacheLoadStage, 0));
+      BasicOperations basicOperations = stageRunner.getTraitImpl(BasicOperations.class);
+      CacheTraitRepository.BasicOperationsCache cache = (CacheTraitRepository.BasicOperationsCache) basicOperations.getCache(null);
+
+      Assert.assertEquals(cache.size(), 10007);
+      Assert.assertEquals(stageRunner.processAckOnMaster(cacheLoadStage, acks), StageResult.SUCCESS);
+      Report.Test test = stageRunner.getMasterState().getReport().getTest("load");
+      Report.TestIteration iteration = test.getIterations().get(0);
+      Assert.assertTrue(iteration.getResults().containsKey(org.radargun.stages.test.LoadStage.LOAD_THROUGHPUT));
+      Statistics statistics = iteration.getStatistics().iterator().next().getValue().get(0);
+      // 4 threads with 2501 or 2502 entries each
+      Assert.assertEquals(statistics.getRepresentation(BulkOperations.PUT_ALL_NATIVE.name, DefaultOutcome.class).requests, 4 * 26);
+   }
 }
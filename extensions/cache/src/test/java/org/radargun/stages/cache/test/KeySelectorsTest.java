@@ -0,0 +1,78 @@
+package org.radargun.stages.cache.test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class KeySelectorsTest {
+   private static final int SAMPLES = 1000000;
+
+   public void testZipfian() {
+      int numEntries = 100;
+      double theta = 0.99;
+      long[] counts = sample(new ZipfianKeysSelector(new Random(42), numEntries, theta, false), numEntries);
+      double norm = 0;
+      for (int k = 1; k <= numEntries; ++k) {
+         norm += 1 / Math.pow(k, theta);
+      }
+      for (int k = 1; k <= 10; ++k) {
+         double expected = SAMPLES / Math.pow(k, theta) / norm;
+         Assert.assertEquals(counts[k - 1], expected, expected * 0.05, "Rank " + k);
+      }
+   }
+
+   public void testZipfianLarge() {
+      // sampling does not depend on the number of entries
+      long numEntries = 1L << 40;
+      KeySelector selector = new ZipfianKeysSelector(new Random(42), numEntries, 1.2, true);
+      for (int i = 0; i < SAMPLES; ++i) {
+         long key = selector.next();
+         Assert.assertTrue(key >= 0 && key < numEntries);
+      }
+   }
+
+   public void testScrambledIsPermutation() {
+      int numEntries = 1000;
+      // with theta close to 0 the distribution is almost uniform, all keys should be hit
+      ZipfianKeysSelector selector = new ZipfianKeysSelector(new Random(42), numEntries, 0.01, true);
+      BitSet hit = new BitSet(numEntries);
+      for (int i = 0; i < SAMPLES; ++i) {
+         long key = selector.next();
+         Assert.assertTrue(key >= 0 && key < numEntries);
+         hit.set((int) key);
+      }
+      Assert.assertEquals(hit.cardinality(), numEntries);
+
+      long[] counts = sample(new ZipfianKeysSelector(new Random(42), numEntries, 0.99, true), numEntries);
+      long max = 0;
+      int hottest = -1;
+      for (int i = 0; i < numEntries; ++i) {
+         if (counts[i] > max) {
+            max = counts[i];
+            hottest = i;
+         }
+      }
+      Assert.assertNotEquals(hottest, 0);
+   }
+
+   public void testHotspot() {
+      int numEntries = 1000;
+      long[] counts = sample(new HotspotKeysSelector(new Random(42), numEntries, 100, 0.9), numEntries);
+      long hot = 0;
+      for (int i = 0; i < 100; ++i) {
+         hot += counts[i];
+      }
+      Assert.assertEquals(hot, SAMPLES * 0.9, SAMPLES * 0.01);
+   }
+
+   private static long[] sample(KeySelector selector, int numEntries) {
+      long[] counts = new long[numEntries];
+      for (int i = 0; i < SAMPLES; ++i) {
+         counts[(int) selector.next()]++;
+      }
+      return counts;
+   }
+}
@@ -0,0 +1,112 @@
+package org.radargun.stages.cache.test;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.radargun.DistStageAck;
+import org.radargun.StageResult;
+import org.radargun.reporting.Report;
+import org.radargun.stages.cache.generators.ByteArrayValueGenerator;
+import org.radargun.stages.cache.generators.KeyGenerator;
+import org.radargun.stages.cache.generators.StringKeyGenerator;
+import org.radargun.stages.cache.generators.ValueGenerator;
+import org.radargun.stages.helpers.CacheSelector;
+import org.radargun.stages.test.TestStage;
+import org.radargun.stages.test.TransactionMode;
+import org.radargun.state.SlaveState;
+import org.radargun.stats.Statistics;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.radargun.traits.BasicOperations;
+import org.radargun.traits.Lifecycle;
+import org.radargun.util.CacheStageRunner;
+import org.radargun.util.CacheTraitRepository;
+import org.radargun.utils.Utils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(timeOut = 30000)
+public class TraceReplayTestStageTest {
+   private static final int KEYS = 500;
+
+   public void testAsFastAsPossible() throws Exception {
+      File trace = createTrace();
+      try {
+         CacheStageRunner stageRunner = createStageRunner();
+         TraceReplayTestStage stage = createStage(trace, 0);
+         DistStageAck ack = stageRunner.executeOnSlave(stage, 0);
+         checkResults(stageRunner, stage, ack);
+      } finally {
+         trace.delete();
+      }
+   }
+
+   public void testOriginalTiming() throws Exception {
+      File trace = createTrace();
+      try {
+         CacheStageRunner stageRunner = createStageRunner();
+         // the trace spans 1 second, replayed twice as fast
+         TraceReplayTestStage stage = createStage(trace, 2);
+         long start = System.currentTimeMillis();
+         DistStageAck ack = stageRunner.executeOnSlave(stage, 0);
+         Assert.assertTrue(System.currentTimeMillis() - start >= 500);
+         checkResults(stageRunner, stage, ack);
+      } finally {
+         trace.delete();
+      }
+   }
+
+   private void checkResults(CacheStageRunner stageRunner, TraceReplayTestStage stage, DistStageAck ack) {
+      Assert.assertFalse(ack.isError(), String.valueOf(ack));
+      Assert.assertEquals(stageRunner.processAckOnMaster(stage, Collections.singletonList(ack)), StageResult.SUCCESS);
+      Report.TestIteration iteration = stageRunner.getMasterState().getReport().getTest(stage.testName).getIterations().get(0);
+      Statistics merged = iteration.getStatistics().stream().flatMap(entry -> entry.getValue().stream()).reduce(null, Statistics.MERGE);
+      Assert.assertEquals(merged.getRepresentation(BasicOperations.PUT.name, DefaultOutcome.class).requests, KEYS);
+      // the keys are partitioned, therefore all gets follow the put of the same key
+      Assert.assertEquals(merged.getRepresentation(BasicOperations.GET.name, DefaultOutcome.class).requests, KEYS);
+      Assert.assertEquals(merged.getRepresentation(BasicOperations.REMOVE.name, DefaultOutcome.class).requests, (KEYS + 2) / 3);
+
+      BasicOperations basicOperations = stageRunner.getTraitImpl(BasicOperations.class);
+      CacheTraitRepository.BasicOperationsCache cache = (CacheTraitRepository.BasicOperationsCache) basicOperations.getCache(null);
+      // every third key was removed after being read
+      Assert.assertEquals(cache.size(), KEYS - (KEYS + 2) / 3);
+   }
+
+   private File createTrace() throws Exception {
+      File file = File.createTempFile("TraceReplayTestStageTest", ".trace");
+      try (TraceFile.Writer writer = new TraceFile.Writer(file.getAbsolutePath())) {
+         long timestamp = 1000000;
+         int records = KEYS * 2 + (KEYS + 2) / 3;
+         long step = 1000000 / records;
+         for (int i = 0; i < KEYS; ++i) {
+            writer.write(TraceFile.Op.PUT, timestamp += step, i, 100);
+         }
+         for (int i = 0; i < KEYS; ++i) {
+            writer.write(TraceFile.Op.GET, timestamp += step, i, 0);
+            if (i % 3 == 0) {
+               writer.write(TraceFile.Op.REMOVE, timestamp += step, i, 0);
+            }
+         }
+      }
+      return file;
+   }
+
+   private CacheStageRunner createStageRunner() {
+      CacheStageRunner stageRunner = new CacheStageRunner(1);
+      SlaveState slaveState = stageRunner.getSlaveState();
+      slaveState.put(KeyGenerator.KEY_GENERATOR, new StringKeyGenerator());
+      slaveState.put(ValueGenerator.VALUE_GENERATOR, new ByteArrayValueGenerator());
+      slaveState.put(CacheSelector.CACHE_SELECTOR, new CacheSelector.Default());
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      return stageRunner;
+   }
+
+   private TraceReplayTestStage createStage(File trace, double replaySpeed) throws Exception {
+      TraceReplayTestStage stage = new TraceReplayTestStage();
+      stage.tracePath = trace.getAbsolutePath();
+      stage.replaySpeed = replaySpeed;
+      Utils.setField(TestStage.class, "numThreadsPerNode", stage, 4);
+      // removes in the mock transactional cache are not applied on commit
+      stage.useTransactions = TransactionMode.NEVER;
+      return stage;
+   }
+}
@@ -5,6 +5,8 @@ import org.radargun.traits.Debugable;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
@@ -23,6 +25,7 @@ public class CacheTraitRepository extends CoreTraitRepository {
       ConcurrentHashMap concurrentHashMap = new ConcurrentHashMap();
       traitMap.put(org.radargun.traits.BasicOperations.class, new BasicOperations(new BasicOperationsCache(concurrentHashMap)));
       traitMap.put(org.radargun.traits.BulkOperations.class, new BulkOperations(new BulkOperationsCache(concurrentHashMap)));
+      traitMap.put(org.radargun.traits.AsyncOperations.class, new AsyncOperations(concurrentHashMap));
       traitMap.put(org.radargun.traits.ConditionalOperations.class, new ConditionalOperations(new ConditionalOperations.ConditionalOperationsCache(concurrentHashMap)));
       traitMap.put(org.radargun.traits.Iterable.class, new Iterable<>(concurrentHashMap));
       traitMap.put(org.radargun.traits.CacheInformation.class, new CacheInformation(new CacheInformation.Cache(concurrentHashMap)));
@@ -301,6 +304,48 @@ public class CacheTraitRepository extends CoreTraitRepository {
    }
 
    // TODO just a dummy implementation to satisfy mandatory dependencies, needs to work with existing cache instances (BasicOperationsCache etc)
+   public static class AsyncOperations implements org.radargun.traits.AsyncOperations {
+
+      private final ConcurrentHashMap cache;
+
+      public AsyncOperations(ConcurrentHashMap cache) {
+         this.cache = cache;
+      }
+
+      @Override
+      public <K, V> Cache<K, V> getCache(String cacheName) {
+         return new AsyncOperationsCache<>(cache);
+      }
+
+      private static class AsyncOperationsCache<K, V> implements org.radargun.traits.AsyncOperations.Cache<K, V> {
+         private final ConcurrentHashMap<K, V> cache;
+
+         AsyncOperationsCache(ConcurrentHashMap<K, V> cache) {
+            this.cache = cache;
+         }
+
+         @Override
+         public CompletionStage<V> get(K key) {
+            return CompletableFuture.supplyAsync(() -> cache.get(key));
+         }
+
+         @Override
+         public CompletionStage<Boolean> containsKey(K key) {
+            return CompletableFuture.supplyAsync(() -> cache.containsKey(key));
+         }
+
+         @Override
+         public CompletionStage<Void> put(K key, V value) {
+            return CompletableFuture.runAsync(() -> cache.put(key, value));
+         }
+
+         @Override
+         public CompletionStage<Boolean> remove(K key) {
+            return CompletableFuture.supplyAsync(() -> cache.remove(key) != null);
+         }
+      }
+   }
+
    public static class CacheInformation implements org.radargun.traits.CacheInformation {
 
       private static final String DEFAULT_CACHE_NAME = "default";
@@ -757,5 +802,13 @@ public class CacheTraitRepository extends CoreTraitRepository {
       public void removeExpiredListener(String cacheName, ExpiredListener listener, boolean sync) {
          expiredListeners.remove(listener);
       }
+
+      public List<CreatedListener> getCreatedListeners() {
+         return Collections.unmodifiableList(createdListeners);
+      }
+
+      public List<UpdatedListener> getUpdatedListeners() {
+         return Collections.unmodifiableList(updatedListeners);
+      }
    }
 }
@@ -0,0 +1,149 @@
+package org.radargun.stats;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.HdrHistogram.HistogramLogWriter;
+
+/**
+ * Merges several HdrHistogram interval logs (e.g. written by different slaves) into series of histograms
+ * where each histogram covers one period. Intervals are assigned to the period closest to their start,
+ * reading the logs sequentially, so only one histogram per log is held in memory.
+ *
+ * Can be run from command line to merge the logs into single HdrHistogram log:
+ * <pre>HistogramLogMerger &lt;period-millis&gt; &lt;output.hlog&gt; &lt;input.hlog&gt;...</pre>
+ */
+public class HistogramLogMerger implements Closeable {
+   private final List<Input> inputs = new ArrayList<>();
+   private final long period;
+   private long begin;
+   private int index = 0;
+
+   /**
+    * @param files Log files to merge
+    * @param begin Timestamp (in milliseconds since epoch) of the start of first period,
+    *              or {@link Long#MAX_VALUE} to start with the earliest interval.
+    * @param period Duration of the period in milliseconds
+    */
+   public HistogramLogMerger(Collection<String> files, long begin, long period) throws FileNotFoundException {
+      this.period = period;
+      try {
+         for (String file : files) {
+            inputs.add(new Input(new FileInputStream(file)));
+         }
+      } catch (FileNotFoundException e) {
+         close();
+         throw e;
+      }
+      if (begin == Long.MAX_VALUE) {
+         for (Input input : inputs) {
+            if (input.next != null) {
+               begin = Math.min(begin, input.next.getStartTimeStamp());
+            }
+         }
+      }
+      this.begin = begin;
+   }
+
+   /**
+    * @return Timestamp of the first period.
+    */
+   public long getBegin() {
+      return begin;
+   }
+
+   /**
+    * @return True if any of the logs contains further intervals.
+    */
+   public boolean hasNext() {
+      for (Input input : inputs) {
+         if (input.next != null) return true;
+      }
+      return false;
+   }
+
+   /**
+    * @return Histogram merged from all intervals belonging to the next period, or null if there are none.
+    */
+   public Histogram next() {
+      Histogram merged = null;
+      for (Input input : inputs) {
+         while (input.next != null && periodOf(input.next) <= index) {
+            if (merged == null) {
+               merged = input.next.copy();
+            } else {
+               merged.add(input.next);
+            }
+            input.advance();
+         }
+      }
+      if (merged != null) {
+         merged.setStartTimeStamp(begin + index * period);
+         merged.setEndTimeStamp(begin + (index + 1) * period);
+      }
+      index++;
+      return merged;
+   }
+
+   private long periodOf(Histogram histogram) {
+      return Math.round((double) (histogram.getStartTimeStamp() - begin) / period);
+   }
+
+   @Override
+   public void close() {
+      for (Input input : inputs) {
+         try {
+            input.stream.close();
+         } catch (IOException e) {
+            // nothing to do, we have only read the file
+         }
+      }
+   }
+
+   public static void main(String[] args) throws IOException {
+      if (args.length < 3) {
+         System.err.println("Usage: HistogramLogMerger <period-millis> <output.hlog> <input.hlog>...");
+         System.exit(1);
+      }
+      long period = Long.parseLong(args[0]);
+      try (HistogramLogMerger merger = new HistogramLogMerger(Arrays.asList(args).subList(2, args.length), Long.MAX_VALUE, period);
+           PrintStream output = new PrintStream(args[1])) {
+         HistogramLogWriter writer = new HistogramLogWriter(output);
+         writer.outputLogFormatVersion();
+         writer.outputStartTime(merger.getBegin());
+         writer.outputLegend();
+         while (merger.hasNext()) {
+            Histogram histogram = merger.next();
+            if (histogram != null) {
+               writer.outputIntervalHistogram((histogram.getStartTimeStamp() - merger.getBegin()) / 1000d,
+                  (histogram.getEndTimeStamp() - merger.getBegin()) / 1000d, histogram);
+            }
+         }
+      }
+   }
+
+   private static class Input {
+      private final FileInputStream stream;
+      private final HistogramLogReader reader;
+      private Histogram next;
+
+      private Input(FileInputStream stream) {
+         this.stream = stream;
+         this.reader = new HistogramLogReader(stream);
+         advance();
+      }
+
+      private void advance() {
+         next = (Histogram) reader.nextIntervalHistogram();
+      }
+   }
+}
@@ -17,12 +17,17 @@ import org.radargun.stats.representation.Histogram;
 import org.radargun.stats.representation.MeanAndDev;
 import org.radargun.stats.representation.OperationThroughput;
 import org.radargun.stats.representation.Percentile;
+import org.radargun.stats.representation.UncorrectedPercentile;
 import org.radargun.utils.NanoTimeConverter;
 
 /**
  * Keeps several buckets for response time ranges and stores number of requests falling into this range.
  * Does not differentiate between successful and error requests.
  *
+ * When the requests are {@link Request#isScheduled() scheduled} (open-loop test), the main histogram
+ * records response times corrected for coordinated omission and another histogram records the uncorrected
+ * service times, available through {@link UncorrectedPercentile} representation.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 @DefinitionElement(name = "histogram", doc = "Stores data required for producing histogram or percentiles.")
@@ -34,6 +39,8 @@ public final class HistogramOperationStats implements OperationStats {
    private int digits = 2;
 
    private AbstractHistogram histogram;
+   // service times not accounting the schedule delay, recorded only for scheduled requests
+   private AbstractHistogram uncorrected;
    private SoftReference<AbstractHistogram> soft;
    private long errors = 0;
    private Histogram compacted;
@@ -47,6 +54,16 @@ public final class HistogramOperationStats implements OperationStats {
       this.digits = digits;
    }
 
+   HistogramOperationStats(AbstractHistogram histogram, long errors, long maxValue, int digits) {
+      this(histogram, maxValue, digits);
+      this.errors = errors;
+   }
+
+   HistogramOperationStats(AbstractHistogram histogram, AbstractHistogram uncorrected, long errors, long maxValue, int digits) {
+      this(histogram, errors, maxValue, digits);
+      this.uncorrected = uncorrected;
+   }
+
    @Init
    public void init() {
       if (histogram != null) throw new IllegalStateException("This histogram was already initialized!");
@@ -70,15 +87,27 @@ public final class HistogramOperationStats implements OperationStats {
 
    @Override
    public OperationStats copy() {
-      return new HistogramOperationStats(getHistogram().copy(), maxValue, digits);
+      HistogramOperationStats copy = new HistogramOperationStats(getHistogram().copy(), maxValue, digits);
+      copy.errors = errors;
+      if (uncorrected != null) {
+         copy.uncorrected = uncorrected.copy();
+      }
+      return copy;
    }
 
    @Override
    public void merge(OperationStats other) {
       if (other instanceof HistogramOperationStats) {
          HistogramOperationStats otherStats = (HistogramOperationStats) other;
+         if (uncorrected != null || otherStats.uncorrected != null) {
+            // without scheduled requests the service time equals to the response time
+            AbstractHistogram merged = uncorrected != null ? uncorrected : getHistogram().copy();
+            merged.add(otherStats.uncorrected != null ? otherStats.uncorrected : otherStats.getHistogram());
+            uncorrected = merged;
+         }
          histogram = getHistogram();
          histogram.add(otherStats.getHistogram());
+         errors += otherStats.errors;
          compact();
       } else {
          throw new IllegalArgumentException(String.valueOf(other));
@@ -88,6 +117,14 @@ public final class HistogramOperationStats implements OperationStats {
    @Override
    public void record(Request request) {
       histogram.recordValue(request.duration());
+      if (request.isScheduled()) {
+         if (uncorrected == null) {
+            uncorrected = new org.HdrHistogram.Histogram(maxValue, digits);
+         }
+         uncorrected.recordValue(request.serviceTime());
+      } else if (uncorrected != null) {
+         uncorrected.recordValue(request.duration());
+      }
       if (!request.isSuccessful()) {
          errors++;
       }
@@ -122,6 +159,10 @@ public final class HistogramOperationStats implements OperationStats {
       } else if (clazz == Percentile.class) {
          double percentile = Percentile.getPercentile(args);
          return (T) new Percentile(histogram.getValueAtPercentile(percentile));
+      } else if (clazz == UncorrectedPercentile.class) {
+         double percentile = Percentile.getPercentile(args);
+         AbstractHistogram source = uncorrected != null ? uncorrected : histogram;
+         return (T) new UncorrectedPercentile(source.getValueAtPercentile(percentile));
       } else if (clazz == Histogram.class) {
          if (args.length == 0) {
             return (T) getFullHistogram(histogram);
@@ -230,10 +271,35 @@ public final class HistogramOperationStats implements OperationStats {
       s.writeInt(digits);
       s.writeLong(errors);
       compact();
-      s.writeInt(compacted.ranges.length);
-      for (int i = 0; i < compacted.ranges.length; ++i) {
-         s.writeLong(compacted.ranges[i]);
-         s.writeLong(compacted.counts[i]);
+      writeValues(s, compacted.ranges, compacted.counts);
+      if (uncorrected == null) {
+         s.writeInt(-1);
+      } else {
+         // the iteration value instance is reused by the iterator, we have to copy the data
+         int size = 0;
+         for (HistogramIterationValue value : uncorrected.recordedValues()) {
+            ++size;
+         }
+         long[] values = new long[size];
+         long[] counts = new long[size];
+         int i = 0;
+         for (HistogramIterationValue value : uncorrected.recordedValues()) {
+            values[i] = value.getValueIteratedTo();
+            counts[i] = value.getCountAtValueIteratedTo();
+            ++i;
+         }
+         writeValues(s, values, counts);
+      }
+   }
+
+   // values are ascending, therefore we can write only the (small) differences
+   private static void writeValues(ObjectOutputStream s, long[] values, long[] counts) throws IOException {
+      s.writeInt(values.length);
+      long last = 0;
+      for (int i = 0; i < values.length; ++i) {
+         StatsUtils.writeSignedVarLong(s, values[i] - last);
+         StatsUtils.writeVarLong(s, counts[i]);
+         last = values[i];
       }
    }
 
@@ -244,10 +310,20 @@ public final class HistogramOperationStats implements OperationStats {
       int length = s.readInt();
       long[] ranges = new long[length];
       long[] counts = new long[length];
+      long last = 0;
       for (int i = 0; i < length; ++i) {
-         ranges[i] = s.readLong();
-         counts[i] = s.readLong();
+         ranges[i] = last += StatsUtils.readSignedVarLong(s);
+         counts[i] = StatsUtils.readVarLong(s);
       }
       compacted = new Histogram(ranges, counts);
+      int uncorrectedLength = s.readInt();
+      if (uncorrectedLength >= 0) {
+         uncorrected = new org.HdrHistogram.Histogram(maxValue, digits);
+         last = 0;
+         for (int i = 0; i < uncorrectedLength; ++i) {
+            long value = last += StatsUtils.readSignedVarLong(s);
+            uncorrected.recordValueWithCount(value, StatsUtils.readVarLong(s));
+         }
+      }
    }
 }
@@ -0,0 +1,616 @@
+package org.radargun.stats;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.radargun.Operation;
+import org.radargun.config.DefinitionElement;
+import org.radargun.config.Init;
+import org.radargun.config.Property;
+import org.radargun.logging.Log;
+import org.radargun.logging.LogFactory;
+import org.radargun.stats.representation.AbstractSeries;
+import org.radargun.utils.NanoTimeConverter;
+import org.radargun.utils.TimeConverter;
+import org.radargun.utils.TimeService;
+
+/**
+ * Periodic statistics based on the interval histogram pattern: operations are recorded into double-buffered
+ * {@link Recorder recorders}, which are flipped by a background thread at the end of each period. The finished
+ * interval is then kept only in compressed form, therefore the memory footprint of long running tests is much
+ * lower than with {@link PeriodicStatistics} holding full histogram for each period.
+ *
+ * Both the series (per-period) representations and representations of the whole test are supported.
+ *
+ * When the log directory is set, the intervals are not kept in memory at all but appended to HdrHistogram
+ * log files (one per operation, as the log format does not distinguish multiple histograms), which can be
+ * processed by standard HdrHistogram tools or merged by {@link HistogramLogMerger}. As the master cannot access
+ * the slave's filesystem, the intervals are read back from the logs when the statistics are serialized
+ * and sent to the master in compressed form.
+ *
+ * Single instance is shared by all stressors on the node.
+ */
+@DefinitionElement(name = "periodic-histogram", doc = "Periodically flips histogram recorders and keeps the intervals compressed.")
+public class IntervalHistogramStatistics extends IntervalStatistics implements ConcurrentStatistics {
+   private static final Log log = LogFactory.getLog(IntervalHistogramStatistics.class);
+   private static final ScheduledExecutorService FLIPPER = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "HistogramFlipper");
+      thread.setDaemon(true);
+      return thread;
+   });
+
+   @Property(doc = "Duration of one sample.", optional = false, converter = TimeConverter.class)
+   private long period;
+
+   @Property(doc = "Maximum value that could be recorded. Default is one hour.", converter = NanoTimeConverter.class)
+   private long maxValue = TimeUnit.HOURS.toNanos(1);
+
+   @Property(doc = "Number of significant digits. Default is 2.")
+   private int digits = 2;
+
+   @Property(doc = "Directory where the intervals are appended in HdrHistogram log format instead of keeping them "
+      + "in memory. Use ${slave.index} in the path if the directory is shared by several slaves. By default the "
+      + "intervals are kept in memory.")
+   private String logDirectory;
+
+   private transient volatile OperationRecorder[] recorders = new OperationRecorder[0];
+   private transient ScheduledFuture<?> flipTask;
+   // threads that have begun recording and have not ended yet
+   private transient Set<Thread> participants = Collections.newSetFromMap(new IdentityHashMap<>());
+   private transient Map<String, PrintStream> logStreams = new HashMap<>();
+   // finished intervals, indexed by the period number; null means no data in that period
+   private final Map<String, List<Interval>> intervals = new HashMap<>();
+   // all data recorded for given operation
+   private final Map<String, Interval> totals = new HashMap<>();
+   // intervals written to logs instead of being kept in memory
+   private final Map<String, Set<String>> logFiles = new HashMap<>();
+   private final Map<String, Set<Operation>> groupOperationsMap = new HashMap<>();
+   private int periods;
+   private transient BasicStatistics total;
+
+   public IntervalHistogramStatistics() {
+   }
+
+   IntervalHistogramStatistics(long period, long maxValue, int digits, String logDirectory) {
+      this.period = period;
+      this.maxValue = maxValue;
+      this.digits = digits;
+      this.logDirectory = logDirectory;
+   }
+
+   @Init
+   public void init() {
+      if (period <= 0) throw new IllegalArgumentException("Period must be positive: " + period);
+   }
+
+   @Override
+   public synchronized void begin() {
+      // all threads call begin, the first one marks the start of measurement
+      boolean first = participants.isEmpty();
+      participants.add(Thread.currentThread());
+      if (first && flipTask == null) {
+         super.begin();
+         flipTask = FLIPPER.scheduleAtFixedRate(this::periodElapsed, period, period, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   @Override
+   public synchronized void end() {
+      // the last thread to end finishes the measurement, threads that did not begin cannot finish it
+      participants.remove(Thread.currentThread());
+      if (!participants.isEmpty()) {
+         return;
+      }
+      participants.clear();
+      super.end();
+      if (flipTask != null) {
+         flipTask.cancel(false);
+         flipTask = null;
+      }
+      // Discard last interval if it contains < 5% of the period, as those data are usually
+      // just some leftovers that screw the charts; these are still included in the totals
+      flip(getEnd() - (getBegin() + periods * period) >= period / 20);
+      closeLogs();
+   }
+
+   @Override
+   public synchronized void reset() {
+      for (OperationRecorder recorder : recorders) {
+         if (recorder != null) {
+            recorder.reset();
+         }
+      }
+      closeLogs();
+      intervals.clear();
+      totals.clear();
+      logFiles.clear();
+      periods = 0;
+      total = null;
+   }
+
+   @Override
+   public void record(Request request, Operation operation) {
+      getRecorder(operation).record(request.duration(), request.isSuccessful());
+   }
+
+   @Override
+   public void record(Message message, Operation operation) {
+      OperationRecorder recorder = getRecorder(operation);
+      if (message.isValid()) {
+         recorder.record(message.totalTime(), true);
+      } else {
+         recorder.errors.incrementAndGet();
+      }
+   }
+
+   @Override
+   public void record(RequestSet requestSet, Operation operation) {
+      getRecorder(operation).record(requestSet.sumDurations(), requestSet.isSuccessful());
+   }
+
+   private OperationRecorder getRecorder(Operation operation) {
+      OperationRecorder[] recorders = this.recorders;
+      OperationRecorder recorder;
+      if (operation.id < recorders.length && (recorder = recorders[operation.id]) != null) {
+         return recorder;
+      }
+      return createRecorder(operation);
+   }
+
+   private synchronized OperationRecorder createRecorder(Operation operation) {
+      OperationRecorder[] recorders = this.recorders;
+      if (operation.id >= recorders.length) {
+         OperationRecorder[] temp = new OperationRecorder[operation.id + 1];
+         System.arraycopy(recorders, 0, temp, 0, recorders.length);
+         recorders = temp;
+      }
+      if (recorders[operation.id] == null) {
+         recorders[operation.id] = new OperationRecorder(operation.name);
+      }
+      // publish the array only after it is populated
+      this.recorders = recorders;
+      return recorders[operation.id];
+   }
+
+   private synchronized void periodElapsed() {
+      // the task could fire concurrently with end()
+      if (flipTask != null) {
+         flip(true);
+      }
+   }
+
+   /**
+    * Finishes current period: takes the interval histograms from the recorders and stores them compressed
+    * or writes them to the log.
+    */
+   synchronized void flip(boolean keepInterval) {
+      long intervalBegin = getBegin() + periods * period;
+      long intervalEnd = Math.min(intervalBegin + period, Math.max(getEnd(), TimeService.currentTimeMillis()));
+      for (OperationRecorder recorder : recorders) {
+         if (recorder == null) {
+            continue;
+         }
+         Histogram histogram = recorder.flip();
+         long errors = recorder.errors.getAndSet(0);
+         if (histogram.getTotalCount() == 0 && errors == 0) {
+            continue;
+         }
+         Interval interval = new Interval(histogram, errors, intervalBegin, intervalEnd);
+         totals.merge(recorder.operation, interval, Interval::merge);
+         if (keepInterval && !writeToLog(recorder.operation, histogram, intervalBegin, intervalEnd)) {
+            getIntervals(recorder.operation).add(interval);
+         }
+      }
+      if (keepInterval) {
+         periods++;
+      }
+      total = null;
+   }
+
+   private boolean writeToLog(String operation, Histogram histogram, long intervalBegin, long intervalEnd) {
+      if (logDirectory == null) {
+         return false;
+      }
+      PrintStream stream = logStreams.get(operation);
+      if (stream == null) {
+         File file = new File(logDirectory, operation + "-" + getBegin() + ".hlog");
+         // several statistics could have started at the same time
+         for (int i = 1; file.exists(); ++i) {
+            file = new File(logDirectory, operation + "-" + getBegin() + "-" + i + ".hlog");
+         }
+         try {
+            file.getParentFile().mkdirs();
+            stream = new PrintStream(new FileOutputStream(file), true);
+         } catch (FileNotFoundException e) {
+            log.error("Cannot write histogram log " + file + ", keeping the intervals in memory", e);
+            return false;
+         }
+         HistogramLogWriter writer = new HistogramLogWriter(stream);
+         writer.outputLogFormatVersion();
+         writer.outputStartTime(getBegin());
+         writer.outputLegend();
+         logStreams.put(operation, stream);
+         logFiles.computeIfAbsent(operation, o -> new TreeSet<>()).add(file.getAbsolutePath());
+      }
+      new HistogramLogWriter(stream).outputIntervalHistogram((intervalBegin - getBegin()) / 1000d,
+         (intervalEnd - getBegin()) / 1000d, histogram);
+      return true;
+   }
+
+   private void closeLogs() {
+      logStreams.values().forEach(PrintStream::close);
+      logStreams.clear();
+   }
+
+   private List<Interval> getIntervals(String operation) {
+      List<Interval> list = intervals.computeIfAbsent(operation, o -> new ArrayList<>());
+      while (list.size() < periods) {
+         list.add(null);
+      }
+      return list;
+   }
+
+   /**
+    * @return Number of finished periods.
+    */
+   public synchronized int getPeriods() {
+      return periods;
+   }
+
+   @Override
+   public synchronized void registerOperationsGroup(String name, Set<Operation> operations) {
+      groupOperationsMap.putIfAbsent(name, new HashSet<>(operations));
+      total = null;
+   }
+
+   @Override
+   public synchronized String getOperationsGroup(Operation operation) {
+      for (Map.Entry<String, Set<Operation>> entry : groupOperationsMap.entrySet()) {
+         if (entry.getValue().contains(operation)) {
+            return entry.getKey();
+         }
+      }
+      return null;
+   }
+
+   @Override
+   public synchronized Map<String, Set<Operation>> getGroupOperationsMap() {
+      return groupOperationsMap;
+   }
+
+   /**
+    * Sums all finished intervals into statistics covering the whole test.
+    */
+   private synchronized BasicStatistics total() {
+      if (total != null) {
+         return total;
+      }
+      BasicStatistics total = newBucket();
+      total.setBegin(getBegin());
+      total.setEnd(getEnd());
+      for (Map.Entry<String, Interval> entry : totals.entrySet()) {
+         total.mergeOperationStats(Operation.getByName(entry.getKey()), entry.getValue().toOperationStats());
+      }
+      return this.total = total;
+   }
+
+   private BasicStatistics newBucket() {
+      HistogramOperationStats prototype = new HistogramOperationStats();
+      prototype.init(maxValue, digits);
+      BasicStatistics bucket = new BasicStatistics(prototype);
+      for (Map.Entry<String, Set<Operation>> entry : groupOperationsMap.entrySet()) {
+         bucket.registerOperationsGroup(entry.getKey(), entry.getValue());
+      }
+      return bucket;
+   }
+
+   @Override
+   public List<Map<String, OperationStats>> getOperationStatsForGroups() {
+      return total().getOperationStatsForGroups();
+   }
+
+   @Override
+   public List<Map<String, OperationStats>> getOperationsStats() {
+      return total().getOperationsStats();
+   }
+
+   @Override
+   public synchronized Set<String> getOperations() {
+      return new HashSet<>(totals.keySet());
+   }
+
+   @Override
+   public OperationStats getOperationStats(String operation) {
+      return total().getOperationStats(operation);
+   }
+
+   @Override
+   public <T> T getRepresentation(String operation, Class<T> clazz, Object... args) {
+      if (AbstractSeries.class.isAssignableFrom(clazz)) {
+         return (T) getRepresentationSeries(operation, (Class<? extends AbstractSeries>) clazz, args);
+      } else {
+         return total().getRepresentation(operation, clazz, args);
+      }
+   }
+
+   private synchronized <T extends AbstractSeries<R>, R> T getRepresentationSeries(String operation, Class<T> clazz, Object[] args) {
+      try {
+         // force the class being initialized, otherwise it wouldn't be registered
+         Class.forName(clazz.getName(), true, clazz.getClassLoader());
+      } catch (ClassNotFoundException e) {
+         throw new IllegalStateException("No kidding!", e);
+      }
+      Class<R> representationClass = AbstractSeries.representation(clazz);
+      if (representationClass == null) {
+         throw new IllegalStateException(clazz.getName());
+      }
+      List<Interval> operationIntervals = intervals.get(operation);
+      Set<String> operationLogs = logFiles.get(operation);
+      R[] data = (R[]) Array.newInstance(representationClass, periods);
+      HistogramLogMerger merger = null;
+      try {
+         if (operationLogs != null) {
+            merger = new HistogramLogMerger(operationLogs, getBegin(), period);
+         }
+         for (int i = 0; i < periods; ++i) {
+            // decompress only one interval at a time
+            BasicStatistics bucket = newBucket();
+            bucket.setBegin(getBegin() + i * period);
+            bucket.setEnd(getBegin() + (i + 1) * period);
+            Interval interval = get(operationIntervals, i);
+            if (interval != null) {
+               bucket.setEnd(interval.end);
+               bucket.mergeOperationStats(Operation.getByName(operation), interval.toOperationStats());
+            }
+            Histogram logged = merger != null ? merger.next() : null;
+            if (logged != null) {
+               // the log does not contain number of errors
+               bucket.mergeOperationStats(Operation.getByName(operation), new HistogramOperationStats(logged, 0, maxValue, digits));
+            }
+            data[i] = bucket.getRepresentation(operation, representationClass, args);
+         }
+      } catch (FileNotFoundException e) {
+         log.error("Cannot read histogram logs " + operationLogs + " for " + operation, e);
+         return null;
+      } finally {
+         if (merger != null) {
+            merger.close();
+         }
+      }
+      Constructor<T> seriesCtor;
+      try {
+         seriesCtor = clazz.getConstructor(long.class, long.class, data.getClass());
+      } catch (NoSuchMethodException e) {
+         throw new IllegalStateException(clazz.getName() + " does not have long, long, " + data.getClass().getName() + " constructor", e);
+      }
+      try {
+         return seriesCtor.newInstance(getBegin(), period, data);
+      } catch (Exception e) {
+         throw new IllegalStateException("Cannot instantiate series " + clazz.getName(), e);
+      }
+   }
+
+   @Override
+   public Statistics newInstance() {
+      IntervalHistogramStatistics newInstance = new IntervalHistogramStatistics(period, maxValue, digits, logDirectory);
+      newInstance.groupOperationsMap.putAll(groupOperationsMap);
+      return newInstance;
+   }
+
+   @Override
+   public synchronized Statistics copy() {
+      IntervalHistogramStatistics copy = (IntervalHistogramStatistics) newInstance();
+      copy.setBegin(getBegin());
+      copy.setEnd(getEnd());
+      copy.periods = periods;
+      // intervals are immutable
+      intervals.forEach((operation, list) -> copy.intervals.put(operation, new ArrayList<>(list)));
+      copy.totals.putAll(totals);
+      logFiles.forEach((operation, files) -> copy.logFiles.put(operation, new TreeSet<>(files)));
+      return copy;
+   }
+
+   @Override
+   public void merge(Statistics otherStats) {
+      if (!(otherStats instanceof IntervalHistogramStatistics)) {
+         throw new IllegalArgumentException(String.valueOf(otherStats));
+      }
+      IntervalHistogramStatistics other = (IntervalHistogramStatistics) otherStats.copy();
+      if (other.period != period) {
+         throw new IllegalArgumentException("Different periods: " + period + " vs. " + other.period);
+      }
+      synchronized (this) {
+         if (getBegin() > getEnd()) {
+            // nothing recorded yet, just take the other intervals
+            if (periods == 0 && totals.isEmpty()) {
+               super.merge(other);
+               periods = other.periods;
+               intervals.putAll(other.intervals);
+               totals.putAll(other.totals);
+               logFiles.putAll(other.logFiles);
+               other.groupOperationsMap.forEach(groupOperationsMap::putIfAbsent);
+               total = null;
+               return;
+            }
+            throw new IllegalArgumentException("This stats don't have begin/end set correctly: " + this);
+         }
+         if (other.getBegin() > other.getEnd()) {
+            throw new IllegalArgumentException("Other stats don't have begin/end set correctly: " + other);
+         }
+         long distance = Math.abs(other.getBegin() - getBegin());
+         int offset = (int) (distance / period);
+         if (2 * (distance - offset * period) > period) {
+            ++offset;
+         }
+         // shift the intervals of the stats that started later
+         int thisOffset = other.getBegin() < getBegin() ? offset : 0;
+         int otherOffset = other.getBegin() < getBegin() ? 0 : offset;
+         Map<String, List<Interval>> merged = new HashMap<>();
+         Set<String> operations = new HashSet<>(intervals.keySet());
+         operations.addAll(other.intervals.keySet());
+         for (String operation : operations) {
+            List<Interval> mine = intervals.get(operation);
+            List<Interval> theirs = other.intervals.get(operation);
+            List<Interval> list = new ArrayList<>();
+            for (int i = 0; i < Math.max(periods + thisOffset, other.periods + otherOffset); ++i) {
+               list.add(Interval.merge(get(mine, i - thisOffset), get(theirs, i - otherOffset)));
+            }
+            merged.put(operation, list);
+         }
+         periods = Math.max(periods + thisOffset, other.periods + otherOffset);
+         intervals.clear();
+         intervals.putAll(merged);
+         other.totals.forEach((operation, interval) -> totals.merge(operation, interval, Interval::merge));
+         other.logFiles.forEach((operation, files) -> logFiles.computeIfAbsent(operation, o -> new TreeSet<>()).addAll(files));
+         other.groupOperationsMap.forEach(groupOperationsMap::putIfAbsent);
+         total = null;
+         // update beginTime/endTime after intervals
+         super.merge(other);
+      }
+   }
+
+   /**
+    * Replaces the log files, which are local to this node, with the intervals read from these.
+    */
+   private synchronized Object writeReplace() throws ObjectStreamException {
+      if (logFiles.isEmpty()) {
+         return this;
+      }
+      IntervalHistogramStatistics copy = (IntervalHistogramStatistics) copy();
+      copy.logFiles.clear();
+      for (Map.Entry<String, Set<String>> entry : logFiles.entrySet()) {
+         List<Interval> operationIntervals = copy.getIntervals(entry.getKey());
+         try (HistogramLogMerger merger = new HistogramLogMerger(entry.getValue(), getBegin(), period)) {
+            for (int i = 0; i < periods; ++i) {
+               Histogram logged = merger.next();
+               if (logged != null) {
+                  // the log does not contain number of errors
+                  Interval interval = new Interval(logged, 0, logged.getStartTimeStamp(), logged.getEndTimeStamp());
+                  operationIntervals.set(i, Interval.merge(operationIntervals.get(i), interval));
+               }
+            }
+         } catch (FileNotFoundException e) {
+            log.error("Cannot read histogram logs " + entry.getValue() + " for " + entry.getKey(), e);
+         }
+      }
+      return copy;
+   }
+
+   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      recorders = new OperationRecorder[0];
+      participants = Collections.newSetFromMap(new IdentityHashMap<>());
+      logStreams = new HashMap<>();
+   }
+
+   private static Interval get(List<Interval> list, int index) {
+      return list == null || index < 0 || index >= list.size() ? null : list.get(index);
+   }
+
+   @Override
+   public String toString() {
+      return super.toString() + "{period=" + period + ", periods=" + periods + "}";
+   }
+
+   private class OperationRecorder {
+      private final String operation;
+      private final Recorder recorder = new Recorder(maxValue, digits);
+      private final AtomicLong errors = new AtomicLong();
+      private Histogram recycled;
+
+      private OperationRecorder(String operation) {
+         this.operation = operation;
+      }
+
+      private void record(long duration, boolean successful) {
+         recorder.recordValue(duration);
+         if (!successful) {
+            errors.incrementAndGet();
+         }
+      }
+
+      // has to be called with the IntervalHistogramStatistics lock held
+      private Histogram flip() {
+         recycled = recorder.getIntervalHistogram(recycled);
+         return recycled;
+      }
+
+      private void reset() {
+         recorder.reset();
+         errors.set(0);
+      }
+   }
+
+   /**
+    * Data recorded for single operation in one period.
+    */
+   private static class Interval implements Serializable {
+      private final byte[] histogram;
+      private final long errors;
+      private final long begin;
+      private final long end;
+      private final long maxValue;
+      private final int digits;
+
+      private Interval(AbstractHistogram histogram, long errors, long begin, long end) {
+         ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+         int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+         this.histogram = new byte[length];
+         buffer.flip();
+         buffer.get(this.histogram);
+         this.errors = errors;
+         this.begin = begin;
+         this.end = end;
+         this.maxValue = histogram.getHighestTrackableValue();
+         this.digits = histogram.getNumberOfSignificantValueDigits();
+      }
+
+      private Histogram decode() {
+         try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(histogram), maxValue);
+         } catch (DataFormatException e) {
+            throw new IllegalStateException("Cannot decode interval histogram", e);
+         }
+      }
+
+      private HistogramOperationStats toOperationStats() {
+         return new HistogramOperationStats(decode(), errors, maxValue, digits);
+      }
+
+      private static Interval merge(Interval i1, Interval i2) {
+         if (i1 == null) return i2;
+         if (i2 == null) return i1;
+         Histogram histogram = i1.decode();
+         histogram.add(i2.decode());
+         return new Interval(histogram, i1.errors + i2.errors, Math.min(i1.begin, i2.begin), Math.max(i1.end, i2.end));
+      }
+   }
+}
@@ -0,0 +1,416 @@
+package org.radargun.stats;
+
+import java.io.ObjectStreamException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.radargun.Operation;
+import org.radargun.config.DefinitionElement;
+import org.radargun.config.Init;
+import org.radargun.config.Property;
+import org.radargun.utils.NanoTimeConverter;
+import org.radargun.utils.TimeService;
+
+/**
+ * Statistics shared by all threads on the node. Each operation is recorded into one of several stripes
+ * (selected according to the recording thread), where each stripe holds a wait-free histogram recorder
+ * and errors are counted in {@link LongAdder}s, so that the threads don't contend and the memory footprint
+ * does not depend on the number of threads.
+ *
+ * Readers work with a snapshot in the form of {@link BasicStatistics} with {@link HistogramOperationStats},
+ * which is also what gets serialized, therefore these statistics can be merged with other snapshots.
+ * The snapshot is cached until new data are recorded.
+ */
+@DefinitionElement(name = "striped", doc = "Statistics with histograms, shared by all threads on the node without contention.")
+public class StripedStatistics extends IntervalStatistics implements ConcurrentStatistics {
+   @Property(doc = "Number of stripes. Default is number of available processors.")
+   private int stripes = Runtime.getRuntime().availableProcessors();
+
+   @Property(doc = "Maximum value that could be recorded. Default is one hour.", converter = NanoTimeConverter.class)
+   private long maxValue = TimeUnit.HOURS.toNanos(1);
+
+   @Property(doc = "Number of significant digits. Default is 2.")
+   private int digits = 2;
+
+   private volatile OperationRecorder[] recorders = new OperationRecorder[0];
+   // data already drained from the recorders, keyed by operation name
+   private final Map<String, AbstractHistogram> histograms = new HashMap<>();
+   private final Map<String, AbstractHistogram> uncorrectedHistograms = new HashMap<>();
+   private final Map<String, Long> errors = new HashMap<>();
+   private final Map<String, Set<Operation>> groupOperationsMap = new HashMap<>();
+   private BasicStatistics snapshot;
+
+   public StripedStatistics() {
+   }
+
+   private StripedStatistics(int stripes, long maxValue, int digits) {
+      this.stripes = stripes;
+      this.maxValue = maxValue;
+      this.digits = digits;
+   }
+
+   @Init
+   public void init() {
+      if (stripes <= 0) throw new IllegalArgumentException("Number of stripes must be positive: " + stripes);
+   }
+
+   @Override
+   public synchronized void begin() {
+      // all threads call begin, the first one marks the start of measurement
+      if (getBegin() == Long.MAX_VALUE) {
+         super.begin();
+         snapshot = null;
+      }
+   }
+
+   @Override
+   public synchronized void end() {
+      setEnd(Math.max(getEnd(), TimeService.currentTimeMillis()));
+      snapshot = null;
+   }
+
+   @Override
+   public synchronized void reset() {
+      for (OperationRecorder recorder : recorders) {
+         if (recorder != null) {
+            recorder.reset();
+         }
+      }
+      histograms.clear();
+      uncorrectedHistograms.clear();
+      errors.clear();
+      snapshot = null;
+      setBegin(Long.MAX_VALUE);
+      setEnd(Long.MIN_VALUE);
+      begin();
+   }
+
+   @Override
+   public void record(Request request, Operation operation) {
+      OperationRecorder recorder = getRecorder(operation);
+      recorder.record(request.duration(), request.isSuccessful());
+      if (request.isScheduled()) {
+         recorder.recordUncorrected(request.serviceTime());
+      } else if (recorder.uncorrectedRecorders != null) {
+         recorder.recordUncorrected(request.duration());
+      }
+   }
+
+   @Override
+   public void record(Message message, Operation operation) {
+      OperationRecorder recorder = getRecorder(operation);
+      if (message.isValid()) {
+         recorder.record(message.totalTime(), true);
+      } else {
+         recorder.errors.increment();
+      }
+   }
+
+   @Override
+   public void record(RequestSet requestSet, Operation operation) {
+      getRecorder(operation).record(requestSet.sumDurations(), requestSet.isSuccessful());
+   }
+
+   private OperationRecorder getRecorder(Operation operation) {
+      OperationRecorder[] recorders = this.recorders;
+      OperationRecorder recorder;
+      if (operation.id < recorders.length && (recorder = recorders[operation.id]) != null) {
+         return recorder;
+      }
+      return createRecorder(operation);
+   }
+
+   private synchronized OperationRecorder createRecorder(Operation operation) {
+      OperationRecorder[] recorders = this.recorders;
+      if (operation.id >= recorders.length) {
+         OperationRecorder[] temp = new OperationRecorder[operation.id + 1];
+         System.arraycopy(recorders, 0, temp, 0, recorders.length);
+         recorders = temp;
+      }
+      if (recorders[operation.id] == null) {
+         recorders[operation.id] = new OperationRecorder(operation.name);
+      }
+      // publish the array only after it is populated
+      this.recorders = recorders;
+      return recorders[operation.id];
+   }
+
+   /**
+    * Moves the data recorded so far into the accumulated histograms and creates a snapshot of these,
+    * or returns the previous snapshot if nothing was recorded since. The snapshot must not be modified.
+    */
+   public synchronized BasicStatistics snapshot() {
+      boolean changed = false;
+      for (OperationRecorder recorder : recorders) {
+         if (recorder != null) {
+            changed |= recorder.drain();
+         }
+      }
+      if (snapshot != null && !changed) {
+         return snapshot;
+      }
+      HistogramOperationStats prototype = new HistogramOperationStats();
+      prototype.init(maxValue, digits);
+      BasicStatistics snapshot = new BasicStatistics(prototype);
+      snapshot.setBegin(getBegin());
+      snapshot.setEnd(getEnd());
+      for (Map.Entry<String, AbstractHistogram> entry : histograms.entrySet()) {
+         snapshot.mergeOperationStats(Operation.getByName(entry.getKey()), new HistogramOperationStats(entry.getValue(),
+            uncorrectedHistograms.get(entry.getKey()), errors.getOrDefault(entry.getKey(), 0L), maxValue, digits));
+      }
+      for (Map.Entry<String, Set<Operation>> entry : groupOperationsMap.entrySet()) {
+         snapshot.registerOperationsGroup(entry.getKey(), entry.getValue());
+      }
+      this.snapshot = snapshot;
+      return snapshot;
+   }
+
+   @Override
+   public synchronized Statistics takeInterval() {
+      BasicStatistics interval = snapshot();
+      long now = TimeService.currentTimeMillis();
+      interval.setEnd(now);
+      // the snapshot holds copies of the accumulated histograms
+      histograms.clear();
+      uncorrectedHistograms.clear();
+      errors.clear();
+      snapshot = null;
+      setBegin(now);
+      return interval;
+   }
+
+   @Override
+   public synchronized void registerOperationsGroup(String name, Set<Operation> operations) {
+      if (groupOperationsMap.putIfAbsent(name, new HashSet<>(operations)) == null) {
+         snapshot = null;
+      }
+   }
+
+   @Override
+   public synchronized String getOperationsGroup(Operation operation) {
+      for (Map.Entry<String, Set<Operation>> entry : groupOperationsMap.entrySet()) {
+         if (entry.getValue().contains(operation)) {
+            return entry.getKey();
+         }
+      }
+      return null;
+   }
+
+   @Override
+   public synchronized Map<String, Set<Operation>> getGroupOperationsMap() {
+      return groupOperationsMap;
+   }
+
+   @Override
+   public List<Map<String, OperationStats>> getOperationStatsForGroups() {
+      return snapshot().getOperationStatsForGroups();
+   }
+
+   @Override
+   public List<Map<String, OperationStats>> getOperationsStats() {
+      return snapshot().getOperationsStats();
+   }
+
+   @Override
+   public Set<String> getOperations() {
+      return snapshot().getOperations();
+   }
+
+   @Override
+   public OperationStats getOperationStats(String operation) {
+      return snapshot().getOperationStats(operation);
+   }
+
+   @Override
+   public <T> T getRepresentation(String operation, Class<T> clazz, Object... args) {
+      return snapshot().getRepresentation(operation, clazz, args);
+   }
+
+   @Override
+   public Statistics newInstance() {
+      StripedStatistics newInstance = new StripedStatistics(stripes, maxValue, digits);
+      newInstance.groupOperationsMap.putAll(groupOperationsMap);
+      return newInstance;
+   }
+
+   @Override
+   public synchronized Statistics copy() {
+      Statistics copy = newInstance();
+      copy.merge(this);
+      return copy;
+   }
+
+   @Override
+   public void merge(Statistics otherStats) {
+      if (!(otherStats instanceof StripedStatistics)) {
+         throw new IllegalArgumentException(String.valueOf(otherStats));
+      }
+      StripedStatistics other = (StripedStatistics) otherStats;
+      Map<String, AbstractHistogram> otherHistograms;
+      Map<String, AbstractHistogram> otherUncorrected;
+      Map<String, Long> otherErrors;
+      Map<String, Set<Operation>> otherGroups;
+      synchronized (other) {
+         other.snapshot();
+         otherHistograms = copyHistograms(other.histograms);
+         otherUncorrected = copyHistograms(other.uncorrectedHistograms);
+         otherErrors = new HashMap<>(other.errors);
+         otherGroups = new HashMap<>(other.groupOperationsMap);
+      }
+      synchronized (this) {
+         super.merge(other);
+         // drain first so that the uncorrected histograms are complete when merging
+         snapshot();
+         for (String operation : otherUncorrected.keySet()) {
+            // without scheduled requests the service time equals to the response time
+            uncorrectedHistograms.computeIfAbsent(operation, o -> {
+               AbstractHistogram histogram = histograms.get(o);
+               return histogram == null ? new Histogram(maxValue, digits) : histogram.copy();
+            });
+         }
+         for (Map.Entry<String, AbstractHistogram> entry : otherHistograms.entrySet()) {
+            AbstractHistogram uncorrected = uncorrectedHistograms.get(entry.getKey());
+            if (uncorrected != null && !otherUncorrected.containsKey(entry.getKey())) {
+               uncorrected.add(entry.getValue());
+            }
+            addHistogram(histograms, entry.getKey(), entry.getValue());
+         }
+         otherUncorrected.forEach((operation, histogram) -> addHistogram(uncorrectedHistograms, operation, histogram));
+         otherErrors.forEach((operation, count) -> errors.merge(operation, count, Long::sum));
+         otherGroups.forEach((name, operations) -> groupOperationsMap.putIfAbsent(name, new HashSet<>(operations)));
+         snapshot = null;
+      }
+   }
+
+   private static Map<String, AbstractHistogram> copyHistograms(Map<String, AbstractHistogram> histograms) {
+      Map<String, AbstractHistogram> copies = new HashMap<>();
+      for (Map.Entry<String, AbstractHistogram> entry : histograms.entrySet()) {
+         copies.put(entry.getKey(), entry.getValue().copy());
+      }
+      return copies;
+   }
+
+   private static void addHistogram(Map<String, AbstractHistogram> histograms, String operation, AbstractHistogram histogram) {
+      histograms.merge(operation, histogram, (h1, h2) -> {
+         h1.add(h2);
+         return h1;
+      });
+   }
+
+   /**
+    * Replace this instance with snapshot during serialization.
+    */
+   private Object writeReplace() throws ObjectStreamException {
+      return snapshot();
+   }
+
+   @Override
+   public String toString() {
+      return super.toString() + "{stripes=" + stripes + "}";
+   }
+
+   private class OperationRecorder {
+      private final String operation;
+      private final Recorder[] recorders = new Recorder[stripes];
+      // interval histograms returned by the recorders, reused in next drain
+      private final Histogram[] recycled = new Histogram[stripes];
+      private final LongAdder errors = new LongAdder();
+      // service times of scheduled requests, created on first scheduled request
+      private volatile Recorder[] uncorrectedRecorders;
+      private Histogram[] uncorrectedRecycled;
+
+      private OperationRecorder(String operation) {
+         this.operation = operation;
+         for (int i = 0; i < recorders.length; ++i) {
+            recorders[i] = new Recorder(maxValue, digits);
+         }
+      }
+
+      private void record(long duration, boolean successful) {
+         recorders[stripe()].recordValue(duration);
+         if (!successful) {
+            errors.increment();
+         }
+      }
+
+      private void recordUncorrected(long serviceTime) {
+         Recorder[] uncorrectedRecorders = this.uncorrectedRecorders;
+         if (uncorrectedRecorders == null) {
+            uncorrectedRecorders = createUncorrectedRecorders();
+         }
+         uncorrectedRecorders[stripe()].recordValue(serviceTime);
+      }
+
+      private synchronized Recorder[] createUncorrectedRecorders() {
+         if (uncorrectedRecorders == null) {
+            Recorder[] uncorrectedRecorders = new Recorder[stripes];
+            for (int i = 0; i < uncorrectedRecorders.length; ++i) {
+               uncorrectedRecorders[i] = new Recorder(maxValue, digits);
+            }
+            this.uncorrectedRecorders = uncorrectedRecorders;
+         }
+         return uncorrectedRecorders;
+      }
+
+      private int stripe() {
+         return (int) (Thread.currentThread().getId() % recorders.length);
+      }
+
+      // has to be called with the StripedStatistics lock held, returns true if any data were drained
+      private boolean drain() {
+         boolean changed = false;
+         if (!histograms.containsKey(operation)) {
+            // operations are reported even without any successful request
+            histograms.put(operation, new Histogram(maxValue, digits));
+            changed = true;
+         }
+         changed |= drain(recorders, recycled, histograms);
+         Recorder[] uncorrectedRecorders = this.uncorrectedRecorders;
+         if (uncorrectedRecorders != null) {
+            if (uncorrectedRecycled == null) {
+               uncorrectedRecycled = new Histogram[uncorrectedRecorders.length];
+            }
+            changed |= drain(uncorrectedRecorders, uncorrectedRecycled, uncorrectedHistograms);
+         }
+         long errorCount = this.errors.sumThenReset();
+         if (errorCount > 0) {
+            StripedStatistics.this.errors.merge(operation, errorCount, Long::sum);
+            changed = true;
+         }
+         return changed;
+      }
+
+      private boolean drain(Recorder[] recorders, Histogram[] recycled, Map<String, AbstractHistogram> histograms) {
+         boolean changed = false;
+         for (int i = 0; i < recorders.length; ++i) {
+            recycled[i] = recorders[i].getIntervalHistogram(recycled[i]);
+            if (recycled[i].getTotalCount() > 0) {
+               histograms.computeIfAbsent(operation, o -> new Histogram(maxValue, digits)).add(recycled[i]);
+               changed = true;
+            }
+         }
+         return changed;
+      }
+
+      private void reset() {
+         for (Recorder recorder : recorders) {
+            recorder.reset();
+         }
+         Recorder[] uncorrectedRecorders = this.uncorrectedRecorders;
+         if (uncorrectedRecorders != null) {
+            for (Recorder recorder : uncorrectedRecorders) {
+               recorder.reset();
+            }
+         }
+         errors.reset();
+      }
+   }
+}
@@ -0,0 +1,50 @@
+package org.radargun.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.radargun.Operation;
+import org.radargun.stats.representation.UncorrectedPercentile;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(timeOut = 30000)
+public class HistogramOperationStatsTest {
+   private static final Operation OPERATION = Operation.register("HistogramOperationStatsTest.Op");
+
+   public void testSerializeUncorrected() throws Exception {
+      HistogramOperationStats prototype = new HistogramOperationStats();
+      prototype.init();
+      HistogramOperationStats stats = (HistogramOperationStats) prototype.newInstance();
+      Statistics statistics = new BasicStatistics(prototype).copy();
+      statistics.begin();
+      for (int i = 1; i <= 20; ++i) {
+         Request request = new Request(statistics);
+         request.setIntendedStartTime(request.getRequestStartTime() - TimeUnit.MILLISECONDS.toNanos(10));
+         LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(i));
+         request.succeeded(OPERATION);
+         stats.record(request);
+      }
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+         oos.writeObject(stats);
+      }
+      HistogramOperationStats deserialized;
+      try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+         deserialized = (HistogramOperationStats) ois.readObject();
+      }
+
+      for (double percentile : new double[] {10d, 50d, 90d, 100d}) {
+         UncorrectedPercentile expected = stats.getRepresentation(UncorrectedPercentile.class, null, percentile);
+         UncorrectedPercentile actual = deserialized.getRepresentation(UncorrectedPercentile.class, null, percentile);
+         Assert.assertEquals(actual.responseTimeMax, expected.responseTimeMax, "Percentile " + percentile);
+      }
+      Assert.assertTrue(stats.getRepresentation(UncorrectedPercentile.class, null, 10d).responseTimeMax
+         < stats.getRepresentation(UncorrectedPercentile.class, null, 100d).responseTimeMax);
+   }
+}
@@ -0,0 +1,146 @@
+package org.radargun.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.radargun.Operation;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.radargun.stats.representation.OperationThroughput;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(timeOut = 30000)
+public class IntervalHistogramStatisticsTest {
+   private static final Operation OPERATION = Operation.register("IntervalHistogramStatisticsTest.Op");
+
+   public void testIntervals() throws Exception {
+      IntervalHistogramStatistics statistics = recordTwoPeriods();
+
+      Assert.assertEquals(statistics.getPeriods(), 2);
+      DefaultOutcome.Series series = statistics.getRepresentation(OPERATION.name, DefaultOutcome.Series.class);
+      Assert.assertEquals(series.samples.length, 2);
+      Assert.assertEquals(series.samples[0].requests, 3);
+      Assert.assertEquals(series.samples[0].errors, 1);
+      Assert.assertEquals(series.samples[1].requests, 1);
+      Assert.assertEquals(series.samples[1].errors, 0);
+      Assert.assertNotNull(statistics.getRepresentation(OPERATION.name, OperationThroughput.Series.class));
+
+      DefaultOutcome total = statistics.getRepresentation(OPERATION.name, DefaultOutcome.class);
+      Assert.assertEquals(total.requests, 4);
+      Assert.assertEquals(total.errors, 1);
+   }
+
+   public void testMergeAndSerialize() throws Exception {
+      IntervalHistogramStatistics statistics = recordTwoPeriods();
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+         oos.writeObject(statistics);
+      }
+      Statistics deserialized = (Statistics) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+      Statistics merged = deserialized.newInstance();
+      merged.merge(deserialized);
+      merged.merge(statistics);
+
+      DefaultOutcome.Series series = merged.getRepresentation(OPERATION.name, DefaultOutcome.Series.class);
+      Assert.assertEquals(series.samples.length, 2);
+      Assert.assertEquals(series.samples[0].requests, 6);
+      Assert.assertEquals(series.samples[0].errors, 2);
+      Assert.assertEquals(series.samples[1].requests, 2);
+      Assert.assertEquals(merged.getRepresentation(OPERATION.name, DefaultOutcome.class).requests, 8);
+      Assert.assertEquals(merged.getBegin(), statistics.getBegin());
+   }
+
+   public void testEndByNonParticipant() throws Exception {
+      IntervalHistogramStatistics statistics = (IntervalHistogramStatistics)
+         new IntervalHistogramStatistics(TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toNanos(1), 2, null).copy();
+      statistics.begin();
+      Thread other = new Thread(statistics::end);
+      other.start();
+      other.join();
+      Assert.assertEquals(statistics.getEnd(), Long.MIN_VALUE);
+      statistics.end();
+      Assert.assertNotEquals(statistics.getEnd(), Long.MIN_VALUE);
+   }
+
+   public void testLog() throws Exception {
+      File directory = Files.createTempDirectory("hlog").toFile();
+      try {
+         IntervalHistogramStatistics statistics = recordTwoPeriods(directory.getPath());
+         statistics.end();
+         IntervalHistogramStatistics other = recordTwoPeriods(directory.getPath());
+         other.end();
+         File[] logs = directory.listFiles();
+         Assert.assertEquals(logs.length, 2);
+         for (File log : logs) {
+            Assert.assertTrue(log.getName().startsWith(OPERATION.name), log.getName());
+         }
+
+         // the intervals are read from the logs
+         Statistics merged = statistics.copy();
+         merged.merge(other);
+         DefaultOutcome.Series series = merged.getRepresentation(OPERATION.name, DefaultOutcome.Series.class);
+         Assert.assertEquals(series.samples.length, 2);
+         Assert.assertEquals(series.samples[0].requests, 6);
+         Assert.assertEquals(series.samples[1].requests, 2);
+         DefaultOutcome total = merged.getRepresentation(OPERATION.name, DefaultOutcome.class);
+         Assert.assertEquals(total.requests, 8);
+         Assert.assertEquals(total.errors, 2);
+
+         File output = new File(directory, "merged.hlog.out");
+         HistogramLogMerger.main(new String[] { String.valueOf(TimeUnit.HOURS.toMillis(1)), output.getPath(),
+            logs[0].getPath(), logs[1].getPath() });
+         try (HistogramLogMerger merger = new HistogramLogMerger(Collections.singleton(output.getPath()), Long.MAX_VALUE, TimeUnit.HOURS.toMillis(1))) {
+            Assert.assertEquals(merger.getBegin(), Math.min(statistics.getBegin(), other.getBegin()));
+            Assert.assertEquals(merger.next().getTotalCount(), 6);
+            Assert.assertEquals(merger.next().getTotalCount(), 2);
+            Assert.assertFalse(merger.hasNext());
+         }
+
+         // the intervals are sent to the master instead of the log paths
+         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+         try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(merged);
+         }
+         for (File file : directory.listFiles()) {
+            file.delete();
+         }
+         Statistics deserialized = (Statistics) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+         series = deserialized.getRepresentation(OPERATION.name, DefaultOutcome.Series.class);
+         Assert.assertEquals(series.samples.length, 2);
+         Assert.assertEquals(series.samples[0].requests, 6);
+         Assert.assertEquals(series.samples[1].requests, 2);
+         Assert.assertEquals(deserialized.getRepresentation(OPERATION.name, DefaultOutcome.class).requests, 8);
+      } finally {
+         for (File file : directory.listFiles()) {
+            file.delete();
+         }
+         directory.delete();
+      }
+   }
+
+   private IntervalHistogramStatistics recordTwoPeriods() {
+      return recordTwoPeriods(null);
+   }
+
+   private IntervalHistogramStatistics recordTwoPeriods(String logDirectory) {
+      // the period is long enough to never flip automatically during the test
+      IntervalHistogramStatistics statistics = (IntervalHistogramStatistics)
+         new IntervalHistogramStatistics(TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toNanos(1), 2, logDirectory).copy();
+      statistics.begin();
+      statistics.startRequest().succeeded(OPERATION);
+      statistics.startRequest().succeeded(OPERATION);
+      statistics.startRequest().failed(OPERATION);
+      statistics.flip(true);
+      statistics.startRequest().succeeded(OPERATION);
+      statistics.flip(true);
+      statistics.setEnd(statistics.getBegin() + TimeUnit.HOURS.toMillis(2));
+      return statistics;
+   }
+}
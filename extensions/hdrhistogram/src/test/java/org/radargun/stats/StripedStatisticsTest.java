@@ -0,0 +1,117 @@
+package org.radargun.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.radargun.Operation;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.radargun.stats.representation.Percentile;
+import org.radargun.stats.representation.UncorrectedPercentile;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(timeOut = 30000)
+public class StripedStatisticsTest {
+   private static final Operation OPERATION = Operation.register("StripedStatisticsTest.Op");
+
+   public void testConcurrentRecording() throws Exception {
+      StripedStatistics statistics = (StripedStatistics) new StripedStatistics().copy();
+      statistics.begin();
+      List<Thread> threads = new ArrayList<>();
+      for (int i = 0; i < 8; ++i) {
+         threads.add(new Thread(() -> {
+            for (int j = 0; j < 10000; ++j) {
+               Request request = statistics.startRequest();
+               if (j % 100 == 0) {
+                  request.failed(OPERATION);
+               } else {
+                  request.succeeded(OPERATION);
+               }
+            }
+         }));
+      }
+      threads.forEach(Thread::start);
+      for (Thread thread : threads) {
+         thread.join();
+      }
+      statistics.end();
+
+      DefaultOutcome outcome = statistics.getRepresentation(OPERATION.name, DefaultOutcome.class);
+      Assert.assertEquals(outcome.requests, 80000);
+      Assert.assertEquals(outcome.errors, 800);
+      // reading is repeatable
+      outcome = statistics.getRepresentation(OPERATION.name, DefaultOutcome.class);
+      Assert.assertEquals(outcome.requests, 80000);
+
+      Statistics copy = statistics.with(statistics);
+      Assert.assertEquals(copy.getRepresentation(OPERATION.name, DefaultOutcome.class).requests, 160000);
+   }
+
+   public void testSerializedAsSnapshot() throws Exception {
+      StripedStatistics statistics = (StripedStatistics) new StripedStatistics().copy();
+      statistics.begin();
+      statistics.startRequest().succeeded(OPERATION);
+      statistics.startRequest().failed(OPERATION);
+      statistics.end();
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+         oos.writeObject(statistics);
+      }
+      Object deserialized = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+      Assert.assertTrue(deserialized instanceof BasicStatistics, String.valueOf(deserialized));
+      Statistics merged = ((Statistics) deserialized).with((Statistics) deserialized);
+      DefaultOutcome outcome = merged.getRepresentation(OPERATION.name, DefaultOutcome.class);
+      Assert.assertEquals(outcome.requests, 4);
+      Assert.assertEquals(outcome.errors, 2);
+      Assert.assertEquals(merged.getBegin(), statistics.getBegin());
+   }
+
+   public void testSnapshotCached() {
+      StripedStatistics statistics = (StripedStatistics) new StripedStatistics().copy();
+      statistics.begin();
+      statistics.startRequest().succeeded(OPERATION);
+      BasicStatistics snapshot = statistics.snapshot();
+      Assert.assertSame(statistics.snapshot(), snapshot);
+      statistics.startRequest().succeeded(OPERATION);
+      BasicStatistics next = statistics.snapshot();
+      Assert.assertNotSame(next, snapshot);
+      Assert.assertEquals(next.getRepresentation(OPERATION.name, DefaultOutcome.class).requests, 2);
+      Assert.assertEquals(snapshot.getRepresentation(OPERATION.name, DefaultOutcome.class).requests, 1);
+      Assert.assertSame(statistics.snapshot(), next);
+   }
+
+   public void testScheduledRequests() {
+      StripedStatistics statistics = (StripedStatistics) new StripedStatistics().copy();
+      statistics.begin();
+      for (int i = 0; i < 10; ++i) {
+         Request request = statistics.startRequest();
+         request.setIntendedStartTime(request.getRequestStartTime() - TimeUnit.SECONDS.toNanos(1));
+         request.succeeded(OPERATION);
+      }
+      statistics.end();
+      Assert.assertTrue(statistics.getRepresentation(OPERATION.name, Percentile.class, 50d).responseTimeMax
+         >= TimeUnit.SECONDS.toNanos(1));
+      Assert.assertTrue(statistics.getRepresentation(OPERATION.name, UncorrectedPercentile.class, 100d).responseTimeMax
+         < TimeUnit.SECONDS.toNanos(1));
+
+      Statistics merged = statistics.copy();
+      Assert.assertTrue(merged.getRepresentation(OPERATION.name, UncorrectedPercentile.class, 100d).responseTimeMax
+         < TimeUnit.SECONDS.toNanos(1));
+   }
+
+   public void testMergeGroups() {
+      StripedStatistics statistics = (StripedStatistics) new StripedStatistics().copy();
+      StripedStatistics other = (StripedStatistics) new StripedStatistics().copy();
+      other.registerOperationsGroup("group", Collections.singleton(OPERATION));
+      statistics.merge(other);
+      Assert.assertEquals(statistics.getOperationsGroup(OPERATION), "group");
+      Assert.assertTrue(statistics.snapshot().getGroupOperationsMap().containsKey("group"));
+   }
+}
@@ -25,7 +25,24 @@ public abstract class Condition {
    protected static final Class<? extends SelectExpressionElement>[] SELECT_EXPRESSIONS = new Class[]{Attribute.class, Count.class, Sum.class, Avg.class, Min.class, Max.class};
    protected static final Class<? extends OrderedSelectExpressionElement>[]  ORDERED_SELECT_EXPRESSIONS = new Class[] {OrderedAttribute.class, OrderedCount.class, OrderedSum.class, OrderedAvg.class, OrderedMin.class, OrderedMax.class};
 
-   public abstract void apply(Query.Builder builder);
+   public void apply(Query.Builder builder) {
+      apply(builder, null);
+   }
+
+   /**
+    * @param parameters When set, random values are not generated but added as parameters of prepared query.
+    */
+   public abstract void apply(Query.Builder builder, QueryParameters parameters);
+
+   protected static Object getValue(Object value, RandomValue<?> random, QueryParameters parameters) {
+      if (value != null) {
+         return value;
+      } else if (parameters != null) {
+         return parameters.add(random);
+      } else {
+         return random.nextValue(ThreadLocalRandom.current());
+      }
+   }
 
    public String toString() {
       return PropertyHelper.getDefinitionElementName(getClass()) + PropertyHelper.toString(this);
@@ -40,7 +57,7 @@ public abstract class Condition {
 
       Query.SelectExpression resolvedPath;
 
-      public void apply(Query.Builder builder) {
+      public void apply(Query.Builder builder, QueryParameters parameters) {
          if (path != null) {
             resolvedPath = new Query.SelectExpression(path);
          }
@@ -72,9 +89,9 @@ public abstract class Condition {
       }
 
       @Override
-      public void apply(Query.Builder builder) {
-         super.apply(builder);
-         builder.eq(resolvedPath, value != null ? value : random.nextValue(ThreadLocalRandom.current()));
+      public void apply(Query.Builder builder, QueryParameters parameters) {
+         super.apply(builder, parameters);
+         builder.eq(resolvedPath, getValue(value, random, parameters));
       }
    }
 
@@ -91,44 +108,44 @@ public abstract class Condition {
          if (value != null && random != null) throw new IllegalStateException("Define one of: value, random");
       }
 
-      protected Number getValue() {
-         return value != null ? value : random.nextValue(ThreadLocalRandom.current());
+      protected Object getValue(QueryParameters parameters) {
+         return getValue(value, random, parameters);
       }
    }
 
    @DefinitionElement(name = "lt", doc = "Target is < than value")
    public static class Lt extends PathNumberCondition {
       @Override
-      public void apply(Query.Builder builder) {
-         super.apply(builder);
-         builder.lt(resolvedPath, getValue());
+      public void apply(Query.Builder builder, QueryParameters parameters) {
+         super.apply(builder, parameters);
+         builder.lt(resolvedPath, getValue(parameters));
       }
    }
 
    @DefinitionElement(name = "le", doc = "Target is <= than value")
    public static class Le extends PathNumberCondition {
       @Override
-      public void apply(Query.Builder builder) {
-         super.apply(builder);
-         builder.le(resolvedPath, getValue());
+      public void apply(Query.Builder builder, QueryParameters parameters) {
+         super.apply(builder, parameters);
+         builder.le(resolvedPath, getValue(parameters));
       }
    }
 
    @DefinitionElement(name = "gt", doc = "Target is > than value")
    public static class Gt extends PathNumberCondition {
       @Override
-      public void apply(Query.Builder builder) {
-         super.apply(builder);
-         builder.gt(resolvedPath, getValue());
+      public void apply(Query.Builder builder, QueryParameters parameters) {
+         super.apply(builder, parameters);
+         builder.gt(resolvedPath, getValue(parameters));
       }
    }
 
    @DefinitionElement(name = "ge", doc = "Target is >= than value")
    public static class Ge extends PathNumberCondition {
       @Override
-      public void apply(Query.Builder builder) {
-         super.apply(builder);
-         builder.ge(resolvedPath, getValue());
+      public void apply(Query.Builder builder, QueryParameters parameters) {
+         super.apply(builder, parameters);
+         builder.ge(resolvedPath, getValue(parameters));
       }
    }
 
@@ -165,10 +182,10 @@ public abstract class Condition {
       }
 
       @Override
-      public void apply(Query.Builder builder) {
-         super.apply(builder);
-         Number lowerBound = this.lowerBound != null ? this.lowerBound : randomLowerBound.nextValue(ThreadLocalRandom.current());
-         Number upperBound = this.upperBound != null ? this.upperBound : randomUpperBound.nextValue(ThreadLocalRandom.current());
+      public void apply(Query.Builder builder, QueryParameters parameters) {
+         super.apply(builder, parameters);
+         Object lowerBound = getValue(this.lowerBound, randomLowerBound, parameters);
+         Object upperBound = getValue(this.upperBound, randomUpperBound, parameters);
          builder.between(resolvedPath, lowerBound, lowerInclusive, upperBound, upperInclusive);
       }
    }
@@ -188,8 +205,12 @@ public abstract class Condition {
       }
 
       @Override
-      public void apply(Query.Builder builder) {
-         super.apply(builder);
+      public void apply(Query.Builder builder, QueryParameters parameters) {
+         super.apply(builder, parameters);
+         if (value == null && parameters != null) {
+            // the pattern is not a value that could be replaced by a parameter
+            throw new IllegalStateException("Random pattern cannot be used in prepared query");
+         }
          builder.like(resolvedPath, value != null ? value : random.nextValue(ThreadLocalRandom.current()));
       }
    }
@@ -209,17 +230,17 @@ public abstract class Condition {
       }
 
       @Override
-      public void apply(Query.Builder builder) {
-         super.apply(builder);
-         builder.contains(resolvedPath, value != null ? value : random.nextValue(ThreadLocalRandom.current()));
+      public void apply(Query.Builder builder, QueryParameters parameters) {
+         super.apply(builder, parameters);
+         builder.contains(resolvedPath, getValue(value, random, parameters));
       }
    }
 
    @DefinitionElement(name = "is-null", doc = "Target is not defined (null)")
    public static class IsNull extends PathCondition {
       @Override
-      public void apply(Query.Builder builder) {
-         super.apply(builder);
+      public void apply(Query.Builder builder, QueryParameters parameters) {
+         super.apply(builder, parameters);
          builder.isNull(resolvedPath);
       }
    }
@@ -230,10 +251,10 @@ public abstract class Condition {
       public final List<Condition> subs = new ArrayList<>();
 
       @Override
-      public void apply(Query.Builder builder) {
+      public void apply(Query.Builder builder, QueryParameters parameters) {
          Query.Builder subBuilder = builder.subquery();
          for (Condition sub : subs) {
-            sub.apply(subBuilder);
+            sub.apply(subBuilder, parameters);
          }
          builder.not(subBuilder);
       }
@@ -245,12 +266,12 @@ public abstract class Condition {
       public final List<Condition> subs = new ArrayList<>();
 
       @Override
-      public void apply(Query.Builder builder) {
+      public void apply(Query.Builder builder, QueryParameters parameters) {
          Query.Builder[] subBuilders = new Query.Builder[subs.size()];
          int i = 0;
          for (Condition sub : subs) {
             Query.Builder subBuilder = builder.subquery();
-            sub.apply(subBuilder);
+            sub.apply(subBuilder, parameters);
             subBuilders[i++] = subBuilder;
          }
          builder.any(subBuilders);
@@ -263,9 +284,9 @@ public abstract class Condition {
       public final List<Condition> subs = new ArrayList<>();
 
       @Override
-      public void apply(Query.Builder builder) {
+      public void apply(Query.Builder builder, QueryParameters parameters) {
          for (Condition sub : subs) {
-            sub.apply(builder);
+            sub.apply(builder, parameters);
          }
       }
    }
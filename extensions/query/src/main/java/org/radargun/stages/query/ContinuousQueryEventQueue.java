@@ -0,0 +1,59 @@
+package org.radargun.stages.query;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.radargun.reporting.Timeline;
+import org.radargun.utils.TimeService;
+
+/**
+ * Hands the continuous query notifications over to a single processing thread through a bounded queue.
+ * Notifications that do not fit into the queue are dropped. Size of the queue (backlog) and number
+ * of notifications dropped since the last sample are periodically recorded in the timeline.
+ */
+class ContinuousQueryEventQueue {
+   private final ThreadPoolExecutor processor;
+   private final ScheduledExecutorService sampler;
+   private final AtomicLong dropped = new AtomicLong();
+   private final Timeline timeline;
+   private final Timeline.Category backlogCategory;
+   private final Timeline.Category droppedCategory;
+
+   ContinuousQueryEventQueue(String name, int capacity, long samplePeriod, Timeline timeline) {
+      this.timeline = timeline;
+      this.backlogCategory = Timeline.Category.customCategory(name + " CQ backlog");
+      this.droppedCategory = Timeline.Category.customCategory(name + " CQ dropped");
+      processor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity),
+         r -> {
+            Thread thread = new Thread(r, "CQProcessor-" + name);
+            thread.setDaemon(true);
+            return thread;
+         }, (r, executor) -> dropped.incrementAndGet());
+      sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+         Thread thread = new Thread(r, "CQSampler-" + name);
+         thread.setDaemon(true);
+         return thread;
+      });
+      sampler.scheduleAtFixedRate(this::sample, samplePeriod, samplePeriod, TimeUnit.MILLISECONDS);
+   }
+
+   void offer(Runnable notification) {
+      processor.execute(notification);
+   }
+
+   private void sample() {
+      long now = TimeService.currentTimeMillis();
+      timeline.addValue(backlogCategory, new Timeline.Value(now, processor.getQueue().size()));
+      timeline.addValue(droppedCategory, new Timeline.Value(now, dropped.getAndSet(0)));
+   }
+
+   void stop() {
+      sampler.shutdownNow();
+      sample();
+      processor.shutdownNow();
+   }
+}
@@ -4,6 +4,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.radargun.DistStageAck;
 import org.radargun.Operation;
@@ -15,12 +16,14 @@ import org.radargun.reporting.Report;
 import org.radargun.stages.AbstractDistStage;
 import org.radargun.state.SlaveState;
 import org.radargun.stats.BasicOperationStats;
+import org.radargun.stats.OperationStats;
 import org.radargun.stats.Statistics;
 import org.radargun.stats.SynchronizedStatistics;
 import org.radargun.traits.ContinuousQuery;
 import org.radargun.traits.InjectTrait;
 import org.radargun.traits.Query;
 import org.radargun.traits.Queryable;
+import org.radargun.utils.TimeConverter;
 import org.radargun.utils.TimeService;
 import org.radargun.utils.Timestamped;
 
@@ -33,6 +36,7 @@ import org.radargun.utils.Timestamped;
 public class ContinuousQueryStage extends AbstractDistStage {
 
    private static final String CQ_TEST_NAME = "ContinuousQueryTest";
+   private static final String EVENT_QUEUES = ContinuousQuery.TRAIT + ".EventQueues";
 
    @Property(doc = "Name of the test as used for reporting. Default is 'Test'.")
    public String testName = "Test";
@@ -49,6 +53,20 @@ public class ContinuousQueryStage extends AbstractDistStage {
    @Property(doc = "Allows to remove continuous query. Default is false.")
    public boolean remove = false;
 
+   @Property(doc = "Operation statistics prototype used for the notifications. Use histogram to get distribution of " +
+      "the delay between write and notification. Default is basic (fixed memory footprint).",
+      complexConverter = OperationStats.Converter.class)
+   public OperationStats operationStats = new BasicOperationStats();
+
+   @Property(doc = "Process the notifications in a single thread, passing them through a queue of given capacity. " +
+      "Notifications that do not fit into the queue are dropped. Backlog and dropped notifications are recorded " +
+      "in the timeline. Default is 0 (notifications are processed in the notifying thread).")
+   public int queueCapacity = 0;
+
+   @Property(doc = "Period of recording backlog and dropped notifications in the timeline. Default is 1 second.",
+      converter = TimeConverter.class)
+   public long samplePeriod = 1000;
+
    @PropertyDelegate
    public QueryConfiguration query = new QueryConfiguration();
 
@@ -70,7 +88,7 @@ public class ContinuousQueryStage extends AbstractDistStage {
          slaveState.put(statsKey, statistics);
       }
       if (!statistics.containsKey(statsKey)) {
-         statistics.put(statsKey, new SynchronizedStatistics(new BasicOperationStats()));
+         statistics.put(statsKey, new SynchronizedStatistics(operationStats));
       } else if (resetStats) {
          statistics.get(statsKey).reset();
       }
@@ -122,26 +140,37 @@ public class ContinuousQueryStage extends AbstractDistStage {
       Query q = QueryBase.constructBuilder(queryable, query).build();
       slaveState.put(ContinuousQuery.QUERY, q);
 
+      ContinuousQueryEventQueue eventQueue = queueCapacity > 0 ?
+         new ContinuousQueryEventQueue(testName, queueCapacity, samplePeriod, slaveState.getTimeline()) : null;
       ContinuousQuery.Listener cqListener = new ContinuousQuery.Listener() {
          private final String statsKey = mergeCq ? CQ_TEST_NAME + ".Stats" : testName + ".Stats";
 
          @Override
          public void onEntryJoined(Object key, Object value) {
-            record(key, ContinuousQuery.ENTRY_JOINED);
+            // timestamp in value is updated with each write, the key's only on creation
+            notify(value instanceof Timestamped ? value : key, ContinuousQuery.ENTRY_JOINED);
             log.trace("Entry joined " + key + " -> " + value);
          }
 
          @Override
          public void onEntryLeft(Object key) {
-            record(key, ContinuousQuery.ENTRY_LEFT);
+            notify(key, ContinuousQuery.ENTRY_LEFT);
             log.trace("Entry left " + key);
          }
 
-         private void record(Object key, Operation operation) {
-            if (key instanceof Timestamped) {
+         private void notify(Object timestamped, Operation operation) {
+            if (eventQueue != null) {
+               eventQueue.offer(() -> record(timestamped, operation));
+            } else {
+               record(timestamped, operation);
+            }
+         }
+
+         private void record(Object timestamped, Operation operation) {
+            if (timestamped instanceof Timestamped) {
                SynchronizedStatistics stats = statistics.get(statsKey);
                stats.message()
-                     .times(((Timestamped) key).getTimestamp(), TimeService.currentTimeMillis())
+                     .times(((Timestamped) timestamped).getTimestampNanos(), TimeService.currentTimeNanos(), TimeUnit.NANOSECONDS)
                      .record(operation);
             }
          }
@@ -155,6 +184,14 @@ public class ContinuousQueryStage extends AbstractDistStage {
       }
       ContinuousQuery.ListenerReference ref = continuousQueryTrait.createContinuousQuery(cacheName, q, cqListener);
       listeners.put(testName, ref);
+      if (eventQueue != null) {
+         Map<String, ContinuousQueryEventQueue> eventQueues = (Map<String, ContinuousQueryEventQueue>) slaveState.get(EVENT_QUEUES);
+         if (eventQueues == null) {
+            eventQueues = new HashMap<>();
+            slaveState.put(EVENT_QUEUES, eventQueues);
+         }
+         eventQueues.put(testName, eventQueue);
+      }
    }
 
    public void unregisterCQ(SlaveState slaveState) {
@@ -164,6 +201,10 @@ public class ContinuousQueryStage extends AbstractDistStage {
          ContinuousQuery.ListenerReference ref = listeners.remove(testName);
          continuousQueryTrait.removeContinuousQuery(cacheName, ref);
       }
+      Map<String, ContinuousQueryEventQueue> eventQueues = (Map<String, ContinuousQueryEventQueue>) slaveState.get(EVENT_QUEUES);
+      if (eventQueues != null && eventQueues.containsKey(testName)) {
+         eventQueues.remove(testName).stop();
+      }
    }
 
    private static class ContinuousQueryAck extends DistStageAck {
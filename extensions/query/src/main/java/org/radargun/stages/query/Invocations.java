@@ -1,7 +1,12 @@
 package org.radargun.stages.query;
 
+import java.util.Iterator;
+import java.util.function.IntFunction;
+
 import org.radargun.Operation;
+import org.radargun.stages.test.Blackhole;
 import org.radargun.stages.test.Invocation;
+import org.radargun.stages.test.Stressor;
 import org.radargun.traits.Queryable;
 
 /**
@@ -33,4 +38,61 @@ public class Invocations {
          return TX;
       }
    }
+
+   /**
+    * Executes the query and iterates through the results, possibly fetched in several pages.
+    * Returns number of retrieved rows.
+    */
+   public static final class StreamingQuery implements Invocation<Integer> {
+      public static final Operation FIRST_ROW = Queryable.QUERY.derive("FirstRow");
+      private final Stressor stressor;
+      private final IntFunction<org.radargun.traits.Query> pages;
+      private final int pageSize;
+      private final org.radargun.traits.Query.Context context;
+
+      /**
+       * @param pages Provides query for given page, or null when there are no more pages.
+       * @param pageSize Number of rows in full page; when lower than 1 only the first page is executed.
+       */
+      public StreamingQuery(Stressor stressor, IntFunction<org.radargun.traits.Query> pages, int pageSize, org.radargun.traits.Query.Context context) {
+         this.stressor = stressor;
+         this.pages = pages;
+         this.pageSize = pageSize;
+         this.context = context;
+      }
+
+      @Override
+      public Integer invoke() {
+         int rows = 0;
+         for (int page = 0; ; ++page) {
+            org.radargun.traits.Query query = pages.apply(page);
+            if (query == null) {
+               return rows;
+            }
+            int pageRows = 0;
+            for (Iterator iterator = query.execute(context).iterator(); iterator.hasNext(); ) {
+               Object row = iterator.next();
+               if (rows == 0) {
+                  stressor.recordIntermediate(FIRST_ROW);
+               }
+               Blackhole.consume(row);
+               ++rows;
+               ++pageRows;
+            }
+            if (pageSize < 1 || pageRows < pageSize) {
+               return rows;
+            }
+         }
+      }
+
+      @Override
+      public Operation operation() {
+         return Queryable.QUERY;
+      }
+
+      @Override
+      public Operation txOperation() {
+         return Query.TX;
+      }
+   }
 }
@@ -33,15 +33,47 @@ public class QueryBase {
    @Property(doc = "Full names of the attribute queried from InternalsExposition. Expecting values parse-able as long values. Default are none.")
    private List<String> exposedAttributes = Collections.EMPTY_LIST;
 
+   @Property(doc = "Build the query only once in each stressor and before each execution just set new values " +
+      "for the random data in conditions. This requires support for query parameters in the plugin. " +
+      "Default is false (new query is built for each execution).")
+   private boolean prepared = false;
+
+   @Property(doc = "Iterate through the results as a part of the measured request. The time until the first row " +
+      "is received is recorded as a separate operation (Query.FirstRow); this is lower than the query time only " +
+      "when the service fetches the results lazily (e.g. Hazelcast with query-fetch-size). Default is false " +
+      "(only the result object is retrieved).")
+   private boolean streaming = false;
+
+   @Property(doc = "Retrieve the results in pages of given size: the query is executed with increasing offset until " +
+      "all results are received, all pages within one request. Implies streaming. Sorting should be used to get " +
+      "consistent results. Default is 0 (results are not paged).")
+   private int pageSize = 0;
+
    protected Query.Builder[] builders;
+   private Queryable queryable;
+   private QueryConfiguration query;
 
    private AtomicInteger minResultSize = new AtomicInteger(-1);
    private AtomicInteger maxResultSize = new AtomicInteger(-1);
 
    public void init(Queryable queryable, QueryConfiguration query) {
+      if (prepared && numQueries != 1) {
+         throw new IllegalStateException("Prepared query generates random values for each execution, num-queries cannot be set.");
+      }
+      if (prepared && pageSize > 0) {
+         throw new IllegalStateException("Prepared query cannot be paged.");
+      }
       if (queryable == null) {
          return; // called from master, ignore
       }
+      this.queryable = queryable;
+      this.query = query;
+      if (prepared) {
+         if (!queryable.supportsParameters()) {
+            throw new IllegalStateException("The service does not support query parameters, cannot use prepared queries.");
+         }
+         return;
+      }
       builders = new Query.Builder[numQueries];
       for (int i = 0; i < numQueries; ++i) {
          builders[i] = constructBuilder(queryable, query);
@@ -49,6 +81,13 @@ public class QueryBase {
    }
 
    public static Query.Builder constructBuilder(Queryable queryable, QueryConfiguration query) {
+      return constructBuilder(queryable, query, null);
+   }
+
+   /**
+    * @param parameters If not null, random values in conditions are added here instead of being generated.
+    */
+   public static Query.Builder constructBuilder(Queryable queryable, QueryConfiguration query, QueryParameters parameters) {
       Class<?> clazz;
       try {
          clazz = Class.forName(query.clazz);
@@ -58,7 +97,7 @@ public class QueryBase {
       Query.Builder builder = queryable.getBuilder(null, clazz);
       if (query.conditions != null) {
          for (Condition condition : query.conditions) {
-            condition.apply(builder);
+            condition.apply(builder, parameters);
          }
       }
       if (query.orderBy != null) {
@@ -87,7 +126,7 @@ public class QueryBase {
          builder.groupBy(query.groupBy);
          if (query.having != null) {
             for (Condition condition : query.having) {
-               condition.apply(builder);
+               condition.apply(builder, parameters);
             }
          }
       }
@@ -194,10 +233,55 @@ public class QueryBase {
       return numQueries;
    }
 
+   public boolean isPrepared() {
+      return prepared;
+   }
+
+   public boolean isStreaming() {
+      return streaming || pageSize > 0;
+   }
+
+   public int getPageSize() {
+      return pageSize;
+   }
+
    public Query buildQuery(int queryNumber) {
       return builders[queryNumber].build();
    }
 
+   /**
+    * The query for given page does not change, therefore it should be built once and executed repeatedly.
+    *
+    * @return Query retrieving given page of the results, or null if the page is out of configured limit.
+    */
+   public Query buildPage(int queryNumber, int page) {
+      long pageOffset = (long) page * pageSize;
+      long pageLimit = pageSize;
+      if (query.limit >= 0) {
+         pageLimit = Math.min(pageLimit, query.limit - pageOffset);
+         if (pageLimit <= 0) {
+            return null;
+         }
+      }
+      if (query.offset > 0) {
+         pageOffset += query.offset;
+      }
+      Query.Builder builder = builders[queryNumber];
+      // builders are shared by all stressors; each stressor builds the page only once
+      synchronized (builder) {
+         return builder.offset(pageOffset).limit(pageLimit).build();
+      }
+   }
+
+   /**
+    * Build query that can be executed repeatedly, after binding the parameters.
+    *
+    * @param parameters Collects the random values used in the query.
+    */
+   public Query prepareQuery(QueryParameters parameters) {
+      return constructBuilder(queryable, query, parameters).build();
+   }
+
    public static class Data implements Serializable {
       public final int minResultSize;
       public final int maxResultSize;
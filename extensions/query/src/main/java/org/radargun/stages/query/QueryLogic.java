@@ -1,6 +1,9 @@
 package org.radargun.stages.query;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntFunction;
 
 import org.radargun.Operation;
 import org.radargun.logging.Log;
@@ -19,8 +22,13 @@ public class QueryLogic extends OperationLogic {
    protected final Log log = LogFactory.getLog(getClass());
    protected final Queryable queryable;
    protected final boolean useTransactions;
-   protected Query.Result previousQueryResult = null;
+   protected int previousResultSize = -1;
    protected Query.Context context;
+   // used only with prepared queries
+   protected Query preparedQuery;
+   protected QueryParameters parameters;
+   // used only with paged queries: pages are built by this stressor once and reused in the following requests
+   protected List<List<Query>> pageQueries;
 
    AtomicIntegerArray queryInvocations;
 
@@ -50,28 +58,63 @@ public class QueryLogic extends OperationLogic {
    public void init(Stressor stressor) {
       super.init(stressor);
       stressor.setUseTransactions(useTransactions);
+      if (queryBase.isPrepared()) {
+         parameters = new QueryParameters();
+         preparedQuery = queryBase.prepareQuery(parameters);
+      } else if (queryBase.getPageSize() > 0) {
+         pageQueries = new ArrayList<>(queryBase.getNumQueries());
+         for (int i = 0; i < queryBase.getNumQueries(); ++i) {
+            pageQueries.add(new ArrayList<>());
+            getPage(i, 0);
+         }
+      }
+   }
+
+   private Query getPage(int queryNumber, int page) {
+      List<Query> pages = pageQueries.get(queryNumber);
+      // pages beyond the ones received in previous requests are built within the request, but only once
+      while (pages.size() <= page) {
+         pages.add(queryBase.buildPage(queryNumber, pages.size()));
+      }
+      return pages.get(page);
    }
 
    @Override
    public void run(Operation ignored) throws RequestException {
       int randomQueryNumber = stressor.getRandom().nextInt(queryBase.getNumQueries());
-      Query query = queryBase.buildQuery(randomQueryNumber);
+      Query query;
+      if (preparedQuery != null) {
+         parameters.bind(preparedQuery, stressor.getRandom());
+         query = preparedQuery;
+      } else if (queryBase.getPageSize() > 0) {
+         // pages are retrieved when the invocation asks for them
+         query = null;
+      } else {
+         query = queryBase.buildQuery(randomQueryNumber);
+      }
 
-      Query.Result queryResult;
+      Query.Result queryResult = null;
+      int size;
       context = queryable.createContext(null);
       long start = TimeService.nanoTime();
-      queryResult = stressor.makeRequest(new Invocations.Query(query, context));
+      if (queryBase.isStreaming()) {
+         IntFunction<Query> pages = query != null ?
+            page -> page == 0 ? query : null : page -> getPage(randomQueryNumber, page);
+         size = stressor.makeRequest(new Invocations.StreamingQuery(stressor, pages, queryBase.getPageSize(), context));
+      } else {
+         queryResult = stressor.makeRequest(new Invocations.Query(query, context));
+         size = queryResult.size();
+      }
       long end = TimeService.nanoTime();
       log.tracef("Invoked query %d (%dth) in %d us", randomQueryNumber, queryInvocations.incrementAndGet(randomQueryNumber), (end - start) / 1000);
 
-      int size = queryResult.size();
-      if (previousQueryResult != null) {
-         if (queryBase.isCheckSameResult() && size != previousQueryResult.size()) {
+      if (previousResultSize >= 0) {
+         if (queryBase.isCheckSameResult() && size != previousResultSize) {
             throw new IllegalStateException("The query result is different from the previous one. All results should be the same when executing the same query");
          }
       } else {
          log.info("First result has " + size + " entries");
-         if (log.isTraceEnabled()) {
+         if (queryResult != null && log.isTraceEnabled()) {
             for (Object entry : queryResult.values()) {
                log.trace(String.valueOf(entry));
             }
@@ -87,6 +130,6 @@ public class QueryLogic extends OperationLogic {
          }
          queryBase.updateMaxResultSize(size);
       }
-      previousQueryResult = queryResult;
+      previousResultSize = size;
    }
 }
@@ -0,0 +1,41 @@
+package org.radargun.stages.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.radargun.traits.Query;
+import org.radargun.utils.RandomValue;
+
+/**
+ * Random values of {@link Condition conditions} in a prepared query. The conditions pass
+ * {@link Query.Parameter placeholders} to the builder instead of the values, and new values
+ * are bound to the built query before each execution.
+ */
+public class QueryParameters {
+   private final List<String> names = new ArrayList<>();
+   private final List<RandomValue<?>> values = new ArrayList<>();
+
+   /**
+    * @return Placeholder for value generated by given random value.
+    */
+   public Query.Parameter add(RandomValue<?> value) {
+      String name = "p" + names.size();
+      names.add(name);
+      values.add(value);
+      return new Query.Parameter(name);
+   }
+
+   public boolean isEmpty() {
+      return names.isEmpty();
+   }
+
+   /**
+    * Generate new values for all parameters and set them on the query.
+    */
+   public void bind(Query query, Random random) {
+      for (int i = 0; i < names.size(); ++i) {
+         query.setParameter(names.get(i), values.get(i).nextValue(random));
+      }
+   }
+}
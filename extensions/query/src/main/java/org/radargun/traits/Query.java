@@ -1,9 +1,10 @@
 package org.radargun.traits;
 
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
- * Non-reusable and non-thread-safe query object.
+ * Non-thread-safe query object. Unless it was built with {@link Parameter parameters}, it should not be reused.
  */
 public interface Query {
    /**
@@ -14,6 +15,18 @@ public interface Query {
     */
    Result execute(Context context);
 
+   /**
+    * Set value of the {@link Parameter} passed to the builder. The query can be then executed repeatedly,
+    * with new values of the parameters set before each execution.
+    * Supported only when {@link Queryable#supportsParameters()} returns true.
+    *
+    * @param name Name of the parameter
+    * @param value New value
+    */
+   default void setParameter(String name, Object value) {
+      throw new UnsupportedOperationException("Query parameters are not supported");
+   }
+
    enum AggregationFunction {
       NONE,
       COUNT,
@@ -30,6 +43,14 @@ public interface Query {
       int size();
 
       Collection values();
+
+      /**
+       * Iterate through the retrieved data. Implementations that can fetch the data lazily
+       * should override this in order to avoid materializing the whole result set.
+       */
+      default Iterator iterator() {
+         return values().iterator();
+      }
    }
 
    /**
@@ -44,6 +65,8 @@ public interface Query {
    /**
     * The instance should be reusable, but not thread-safe.
     * Conditions defined after groupBy call are meant to be part of the HAVING clause.
+    * When the {@link Queryable} {@link Queryable#supportsParameters() supports parameters}, the values
+    * in conditions (except for the like pattern) can be {@link Parameter} placeholders.
     */
    interface Builder {
       Builder subquery();
@@ -113,4 +136,20 @@ public interface Query {
          return attribute;
       }
    }
+
+   /**
+    * Placeholder for a value in condition, set by {@link Query#setParameter(String, Object)} later.
+    */
+   final class Parameter {
+      public final String name;
+
+      public Parameter(String name) {
+         this.name = name;
+      }
+
+      @Override
+      public String toString() {
+         return ":" + name;
+      }
+   }
 }
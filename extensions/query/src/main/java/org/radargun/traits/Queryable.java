@@ -33,4 +33,12 @@ public interface Queryable {
     */
    void reindex(String containerName);
 
+   /**
+    * @return True if the builder accepts {@link Query.Parameter parameters} as values in conditions,
+    *         and these can be set on the built query.
+    */
+   default boolean supportsParameters() {
+      return false;
+   }
+
 }
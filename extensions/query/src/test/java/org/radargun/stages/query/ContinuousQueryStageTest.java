@@ -3,13 +3,21 @@ package org.radargun.stages.query;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.radargun.DistStageAck;
 import org.radargun.StageResult;
+import org.radargun.reporting.Timeline;
+import org.radargun.stats.SynchronizedStatistics;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.radargun.stats.representation.MeanAndDev;
 import org.radargun.traits.ContinuousQuery;
 import org.radargun.traits.Lifecycle;
 import org.radargun.util.QueryStageRunner;
 import org.radargun.util.QueryTraitRepository;
+import org.radargun.utils.TimeService;
+import org.radargun.utils.Timestamped;
 import org.radargun.utils.Utils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -72,4 +80,89 @@ public class ContinuousQueryStageTest {
       Assert.assertNull(continuousQuery.getCacheCqMap().get("test"));
       Assert.assertEquals(stageRunner.processAckOnMaster(continuousQueryStage, acks), StageResult.SUCCESS);
    }
+
+   public void testNotificationInSameMillisecond() throws Exception {
+      QueryStageRunner stageRunner = new QueryStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      ContinuousQueryStage continuousQueryStage = new ContinuousQueryStage();
+      continuousQueryStage.cacheName = "test";
+      QueryConfiguration queryConfiguration = new QueryConfiguration();
+      queryConfiguration.clazz = "java.lang.Integer";
+      continuousQueryStage.query = queryConfiguration;
+
+      Assert.assertFalse(stageRunner.executeOnSlave(continuousQueryStage, 0).isError());
+      QueryTraitRepository.ContinuousQuery continuousQuery = (QueryTraitRepository.ContinuousQuery) stageRunner.getTraitImpl(ContinuousQuery.class);
+      ContinuousQuery.Listener listener = continuousQuery.getCacheCqMap().get("test");
+      // the timestamp is retrieved just before the notification is recorded, mostly in the same millisecond
+      Timestamped value = TimeService::currentTimeMillis;
+      for (int i = 0; i < 100; ++i) {
+         listener.onEntryJoined(i, value);
+      }
+
+      Map<String, SynchronizedStatistics> statistics = (Map<String, SynchronizedStatistics>) stageRunner.getSlaveState().get("Test.Stats");
+      DefaultOutcome outcome = statistics.get("Test.Stats").snapshot(false)
+         .getRepresentation(ContinuousQuery.ENTRY_JOINED.name, DefaultOutcome.class);
+      Assert.assertEquals(outcome.requests, 100);
+      Assert.assertEquals(outcome.errors, 0);
+   }
+
+   public void testSubMillisecondNotification() throws Exception {
+      QueryStageRunner stageRunner = new QueryStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      ContinuousQueryStage continuousQueryStage = new ContinuousQueryStage();
+      continuousQueryStage.cacheName = "test";
+      QueryConfiguration queryConfiguration = new QueryConfiguration();
+      queryConfiguration.clazz = "java.lang.Integer";
+      continuousQueryStage.query = queryConfiguration;
+
+      Assert.assertFalse(stageRunner.executeOnSlave(continuousQueryStage, 0).isError());
+      QueryTraitRepository.ContinuousQuery continuousQuery = (QueryTraitRepository.ContinuousQuery) stageRunner.getTraitImpl(ContinuousQuery.class);
+      ContinuousQuery.Listener listener = continuousQuery.getCacheCqMap().get("test");
+      for (int i = 0; i < 100; ++i) {
+         long written = TimeService.currentTimeNanos() - 200_000;
+         listener.onEntryJoined(i, new Timestamped() {
+            @Override
+            public long getTimestamp() {
+               return TimeUnit.NANOSECONDS.toMillis(written);
+            }
+
+            @Override
+            public long getTimestampNanos() {
+               return written;
+            }
+         });
+      }
+
+      Map<String, SynchronizedStatistics> statistics = (Map<String, SynchronizedStatistics>) stageRunner.getSlaveState().get("Test.Stats");
+      MeanAndDev meanAndDev = statistics.get("Test.Stats").snapshot(false)
+         .getRepresentation(ContinuousQuery.ENTRY_JOINED.name, MeanAndDev.class);
+      // with millisecond resolution the delays would be recorded as 0 or 1 ms
+      Assert.assertTrue(meanAndDev.mean >= 200_000 && meanAndDev.mean < 1_000_000, String.valueOf(meanAndDev.mean));
+   }
+
+   public void testQueuedNotifications() throws Exception {
+      QueryStageRunner stageRunner = new QueryStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      ContinuousQueryStage continuousQueryStage = new ContinuousQueryStage();
+      continuousQueryStage.queueCapacity = 10;
+      continuousQueryStage.samplePeriod = 10;
+      continuousQueryStage.cacheName = "test";
+      QueryConfiguration queryConfiguration = new QueryConfiguration();
+      queryConfiguration.clazz = "java.lang.Integer";
+      continuousQueryStage.query = queryConfiguration;
+
+      Assert.assertFalse(stageRunner.executeOnSlave(continuousQueryStage, 0).isError());
+      QueryTraitRepository.ContinuousQuery continuousQuery = (QueryTraitRepository.ContinuousQuery) stageRunner.getTraitImpl(ContinuousQuery.class);
+      ContinuousQuery.Listener listener = continuousQuery.getCacheCqMap().get("test");
+      for (int i = 0; i < 1000; ++i) {
+         Timestamped value = () -> TimeService.currentTimeMillis() - 1;
+         listener.onEntryJoined(i, value);
+      }
+      continuousQueryStage.remove = true;
+      Assert.assertFalse(stageRunner.executeOnSlave(continuousQueryStage, 0).isError());
+
+      Timeline timeline = stageRunner.getSlaveState().getTimeline();
+      Assert.assertNotNull(timeline.getValues(Timeline.Category.customCategory("Test CQ backlog")));
+      Assert.assertNotNull(timeline.getValues(Timeline.Category.customCategory("Test CQ dropped")));
+   }
 }
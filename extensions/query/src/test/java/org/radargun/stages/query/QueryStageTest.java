@@ -13,6 +13,7 @@ import org.radargun.traits.Lifecycle;
 import org.radargun.traits.Queryable;
 import org.radargun.util.QueryStageRunner;
 import org.radargun.util.QueryTraitRepository;
+import org.radargun.utils.RandomValue;
 import org.radargun.utils.Utils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -72,4 +73,59 @@ public class QueryStageTest {
 
       Assert.assertEquals(stageRunner.processAckOnMaster(queryStage, acks), StageResult.SUCCESS);
    }
+
+   public void testPreparedQuery() throws Exception {
+      QueryStageRunner stageRunner = new QueryStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      QueryStage queryStage = new QueryStage();
+      queryStage.totalThreads = 2;
+      queryStage.duration = 1000;
+      queryStage.useTransactions = TransactionMode.NEVER;
+      Utils.setField(QueryBase.class, "prepared", queryStage.base, true);
+
+      QueryConfiguration queryConfiguration = new QueryConfiguration();
+      queryConfiguration.clazz = "java.lang.Integer";
+      Condition.Eq eqCondition = new Condition.Eq();
+      eqCondition.random = new RandomValue.IntegerValue();
+      eqCondition.path = "path";
+      queryConfiguration.conditions = Arrays.asList(eqCondition);
+      queryStage.query = queryConfiguration;
+
+      QueryTraitRepository.Queryable queryable = (QueryTraitRepository.Queryable) stageRunner.getTraitImpl(Queryable.class);
+      queryable.setCache(new ConcurrentHashMap());
+
+      DistStageAck ack = stageRunner.executeOnSlave(queryStage, 0);
+      Assert.assertFalse(ack.isError(), String.valueOf(ack));
+      // single query built by each stressor, and random value bound before each execution
+      Assert.assertEquals(queryable.getBuiltQueries(), 2);
+      Assert.assertTrue(queryable.getBoundParameters() > 2, "Bound parameters: " + queryable.getBoundParameters());
+   }
+
+   public void testPagedQuery() throws Exception {
+      QueryStageRunner stageRunner = new QueryStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      QueryStage queryStage = new QueryStage();
+      queryStage.totalThreads = 2;
+      queryStage.duration = 1000;
+      queryStage.useTransactions = TransactionMode.NEVER;
+      Utils.setField(QueryBase.class, "pageSize", queryStage.base, 30);
+
+      QueryConfiguration queryConfiguration = new QueryConfiguration();
+      queryConfiguration.clazz = "java.lang.Integer";
+      queryConfiguration.offset = 10;
+      queryConfiguration.limit = 50;
+      queryStage.query = queryConfiguration;
+
+      QueryTraitRepository.Queryable queryable = (QueryTraitRepository.Queryable) stageRunner.getTraitImpl(Queryable.class);
+      ConcurrentHashMap cache = new ConcurrentHashMap();
+      IntStream.range(0, 100).forEach(i -> cache.put(i, i));
+      queryable.setCache(cache);
+
+      DistStageAck ack = stageRunner.executeOnSlave(queryStage, 0);
+      Assert.assertFalse(ack.isError(), String.valueOf(ack));
+      // each execution retrieves pages of 30 and 20 entries
+      Assert.assertEquals(queryable.getBuiltQueries() % 2, 0);
+      Assert.assertEquals(queryStage.base.getMinResultSize(), 50);
+      Assert.assertEquals(queryStage.base.getMaxResultSize(), 50);
+   }
 }
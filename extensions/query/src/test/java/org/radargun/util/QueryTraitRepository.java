@@ -2,11 +2,14 @@ package org.radargun.util;
 
 import org.radargun.traits.Query;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Matej Cimbora
@@ -24,6 +27,8 @@ public class QueryTraitRepository extends CoreTraitRepository {
    public static class Queryable implements org.radargun.traits.Queryable {
 
       private ConcurrentHashMap cache;
+      private final AtomicInteger builtQueries = new AtomicInteger();
+      private final AtomicInteger boundParameters = new AtomicInteger();
 
       public Queryable(ConcurrentHashMap cache) {
          this.cache = cache;
@@ -31,7 +36,7 @@ public class QueryTraitRepository extends CoreTraitRepository {
 
       @Override
       public Query.Builder getBuilder(String containerName, Class<?> clazz) {
-         return new Builder(cache);
+         return new Builder(this);
       }
 
       @Override
@@ -52,12 +57,27 @@ public class QueryTraitRepository extends CoreTraitRepository {
          this.cache = cache;
       }
 
+      @Override
+      public boolean supportsParameters() {
+         return true;
+      }
+
+      public int getBuiltQueries() {
+         return builtQueries.get();
+      }
+
+      public int getBoundParameters() {
+         return boundParameters.get();
+      }
+
       private static class Builder implements org.radargun.traits.Query.Builder {
 
-         private ConcurrentHashMap cache;
+         private Queryable queryable;
+         private long offset = -1;
+         private long limit = -1;
 
-         public Builder(ConcurrentHashMap cache) {
-            this.cache = cache;
+         public Builder(Queryable queryable) {
+            this.queryable = queryable;
          }
 
          @Override
@@ -137,50 +157,65 @@ public class QueryTraitRepository extends CoreTraitRepository {
 
          @Override
          public Query.Builder offset(long offset) {
+            this.offset = offset;
             return this;
          }
 
          @Override
          public Query.Builder limit(long limit) {
+            this.limit = limit;
             return this;
          }
 
          @Override
          public Query build() {
-            return new Query(cache);
+            queryable.builtQueries.incrementAndGet();
+            return new Query(queryable, offset, limit);
          }
       }
 
       private static class Query implements org.radargun.traits.Query {
 
-         private ConcurrentHashMap cache;
+         private Queryable queryable;
+         private long offset;
+         private long limit;
 
-         public Query(ConcurrentHashMap cache) {
-            this.cache = cache;
+         public Query(Queryable queryable, long offset, long limit) {
+            this.queryable = queryable;
+            this.offset = offset;
+            this.limit = limit;
          }
 
          @Override
          public Result execute(Context context) {
-            return new Queryable.Result(cache);
+            return new Queryable.Result(queryable.cache, offset, limit);
+         }
+
+         @Override
+         public void setParameter(String name, Object value) {
+            queryable.boundParameters.incrementAndGet();
          }
       }
 
       private static class Result implements org.radargun.traits.Query.Result {
 
-         private ConcurrentHashMap cache;
+         private List values;
 
-         public Result(ConcurrentHashMap cache) {
-            this.cache = cache;
+         public Result(ConcurrentHashMap cache, long offset, long limit) {
+            List all = new ArrayList(cache.values());
+            int from = offset < 0 ? 0 : (int) Math.min(offset, all.size());
+            int to = limit < 0 ? all.size() : (int) Math.min(from + limit, all.size());
+            this.values = all.subList(from, to);
          }
 
          @Override
          public int size() {
-            return cache.size();
+            return values.size();
          }
 
          @Override
          public Collection values() {
-            return Collections.unmodifiableCollection(cache.values());
+            return Collections.unmodifiableCollection(values);
          }
       }
 
@@ -1,9 +1,11 @@
 package org.radargun;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import javax.ws.rs.core.Cookie;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import org.radargun.stages.test.AsyncInvocation;
 import org.radargun.stages.test.Invocation;
 import org.radargun.traits.RESTOperations;
 
@@ -41,4 +43,26 @@ public class RESTOperationInvocations {
          return RESTOperations.GET;
       }
    }
+
+   public static final class AsyncGet implements AsyncInvocation<Response> {
+      private final RESTOperations.RESTOperationInvoker httpInvoker;
+      private List<Cookie> cookies;
+      private MultivaluedMap<String, Object> headers;
+
+      public AsyncGet(RESTOperations.RESTOperationInvoker httpInvoker, List<Cookie> cookies, MultivaluedMap<String, Object> headers) {
+         this.httpInvoker = httpInvoker;
+         this.cookies = cookies;
+         this.headers = headers;
+      }
+
+      @Override
+      public CompletionStage<Response> invoke() {
+         return httpInvoker.getAsync(cookies, headers);
+      }
+
+      @Override
+      public Operation operation() {
+         return RESTOperations.GET;
+      }
+   }
 }
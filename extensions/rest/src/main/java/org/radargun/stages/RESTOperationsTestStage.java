@@ -42,9 +42,24 @@ public class RESTOperationsTestStage extends TestStage {
    @Property(doc = "The context path for this REST stage. Defaults to empty string.")
    private String contextPath = "";
 
+   @Property(doc = "Send the requests asynchronously, each thread keeping up to requests-in-flight requests " +
+      "outstanding. The first request of each thread, which establishes the session, is synchronous. Default is false.")
+   private boolean async = false;
+
    @InjectTrait
    protected RESTOperations restOperations;
 
+   @Override
+   protected void prepare() {
+      super.prepare();
+      int maxInFlight = getNumThreadsOn(slaveState.getSlaveIndex()) * requestsInFlight;
+      if (async && maxInFlight > restOperations.getMaxAsyncRequests()) {
+         log.warn("Up to " + maxInFlight + " requests can be in flight but the service executes only "
+            + restOperations.getMaxAsyncRequests() + " asynchronous requests concurrently, the others will be queued "
+            + "and their response times will include the time spent in the queue.");
+      }
+   }
+
    @Override
    protected OperationSelector createOperationSelector() {
       return new RatioOperationSelector.Builder()
@@ -69,7 +84,7 @@ public class RESTOperationsTestStage extends TestStage {
 
       protected RESTOperations.RESTOperationInvoker restInvoker;
       private boolean isFirstRequest = true;
-      private Cookie jsessionid;
+      private volatile Cookie jsessionid;
 
       @Override
       public void init(Stressor stressor) {
@@ -84,6 +99,11 @@ public class RESTOperationsTestStage extends TestStage {
          Invocation invocation;
          if (operation == RESTOperations.GET) {
             List<Cookie> cookies = jsessionid == null ? Collections.EMPTY_LIST : Collections.singletonList(jsessionid);
+            if (async && !isFirstRequest) {
+               stressor.makeRequestAsync(new RESTOperationInvocations.AsyncGet(restInvoker, cookies, null))
+                  .thenAccept(this::validateAsyncSession);
+               return;
+            }
             invocation = new RESTOperationInvocations.Get(restInvoker, cookies, null);
          } else {
             throw new IllegalArgumentException(operation.name);
@@ -93,7 +113,16 @@ public class RESTOperationsTestStage extends TestStage {
          isFirstRequest = false;
       }
 
-      private void validateSession(Response response) throws RequestException {
+      private void validateAsyncSession(Response response) {
+         try {
+            validateSession(response);
+         } catch (IllegalStateException e) {
+            // there's no caller to propagate the exception to
+            log.error("Session lost!", e);
+         }
+      }
+
+      private void validateSession(Response response) {
          NewCookie newSessionId = response.getCookies().get(JSESSIONID);
          if (newSessionId != null) {
             jsessionid = newSessionId.toCookie();
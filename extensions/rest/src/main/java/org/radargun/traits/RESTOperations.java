@@ -1,6 +1,8 @@
 package org.radargun.traits;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import javax.ws.rs.core.Cookie;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
@@ -17,7 +19,22 @@ public interface RESTOperations {
 
    RESTOperationInvoker getRESTInvoker(String contextPath);
 
+   /**
+    * @return Maximum number of asynchronous requests executed concurrently, further requests are queued.
+    */
+   default int getMaxAsyncRequests() {
+      return Integer.MAX_VALUE;
+   }
+
    interface RESTOperationInvoker {
       Response get(List<Cookie> cookies, MultivaluedMap<String, Object> headers);
+
+      /**
+       * Send the request without waiting for the response. The default implementation
+       * blocks in {@link #get(List, MultivaluedMap)}.
+       */
+      default CompletionStage<Response> getAsync(List<Cookie> cookies, MultivaluedMap<String, Object> headers) {
+         return CompletableFuture.completedFuture(get(cookies, headers));
+      }
    }
 }
@@ -0,0 +1,84 @@
+package org.radargun.stages;
+
+import java.util.Collections;
+
+import org.radargun.DistStageAck;
+import org.radargun.StageResult;
+import org.radargun.reporting.Report;
+import org.radargun.stages.test.TestStage;
+import org.radargun.stats.Statistics;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.radargun.traits.Lifecycle;
+import org.radargun.traits.RESTOperations;
+import org.radargun.util.RESTStageRunner;
+import org.radargun.util.RESTTraitRepository;
+import org.radargun.utils.Utils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(timeOut = 30000)
+public class RESTOperationsTestStageTest {
+   private static final int THREADS = 2;
+   private static final int OPERATIONS = 200;
+
+   public void testSync() throws Exception {
+      RESTStageRunner stageRunner = createStageRunner();
+      RESTOperationsTestStage stage = createStage(false);
+      DistStageAck ack = stageRunner.executeOnSlave(stage, 0);
+      DefaultOutcome outcome = getOutcome(stageRunner, stage, ack);
+      Assert.assertEquals(outcome.requests, OPERATIONS);
+      Assert.assertEquals(outcome.errors, 0);
+      Assert.assertEquals(stub(stageRunner).getSessions(), THREADS);
+   }
+
+   public void testAsync() throws Exception {
+      RESTStageRunner stageRunner = createStageRunner();
+      // more requests in flight than the service executes concurrently are only warned about
+      stub(stageRunner).setMaxAsyncRequests(1);
+      RESTOperationsTestStage stage = createStage(true);
+      DistStageAck ack = stageRunner.executeOnSlave(stage, 0);
+      DefaultOutcome outcome = getOutcome(stageRunner, stage, ack);
+      Assert.assertEquals(outcome.requests, OPERATIONS);
+      Assert.assertEquals(outcome.errors, 0);
+      // the session established by the first synchronous request is kept
+      Assert.assertEquals(stub(stageRunner).getSessions(), THREADS);
+   }
+
+   public void testAsyncFailures() throws Exception {
+      RESTStageRunner stageRunner = createStageRunner();
+      stub(stageRunner).setFailAsync(true);
+      RESTOperationsTestStage stage = createStage(true);
+      DistStageAck ack = stageRunner.executeOnSlave(stage, 0);
+      DefaultOutcome outcome = getOutcome(stageRunner, stage, ack);
+      Assert.assertEquals(outcome.requests, OPERATIONS);
+      // the synchronous requests establishing the sessions are executed before the measurement starts
+      Assert.assertEquals(outcome.errors, OPERATIONS);
+   }
+
+   private RESTStageRunner createStageRunner() {
+      RESTStageRunner stageRunner = new RESTStageRunner(1);
+      stageRunner.getTraitImpl(Lifecycle.class).start();
+      return stageRunner;
+   }
+
+   private RESTOperationsTestStage createStage(boolean async) throws Exception {
+      RESTOperationsTestStage stage = new RESTOperationsTestStage();
+      Utils.setField(RESTOperationsTestStage.class, "async", stage, async);
+      Utils.setField(TestStage.class, "numThreadsPerNode", stage, THREADS);
+      stage.numOperations = OPERATIONS;
+      stage.requestsInFlight = 4;
+      return stage;
+   }
+
+   private RESTTraitRepository.RESTOperations stub(RESTStageRunner stageRunner) {
+      return (RESTTraitRepository.RESTOperations) stageRunner.getTraitImpl(RESTOperations.class);
+   }
+
+   private DefaultOutcome getOutcome(RESTStageRunner stageRunner, RESTOperationsTestStage stage, DistStageAck ack) {
+      Assert.assertFalse(ack.isError(), String.valueOf(ack));
+      Assert.assertEquals(stageRunner.processAckOnMaster(stage, Collections.singletonList(ack)), StageResult.SUCCESS);
+      Report.TestIteration iteration = stageRunner.getMasterState().getReport().getTest(stage.testName).getIterations().get(0);
+      Statistics merged = iteration.getStatistics().stream().flatMap(entry -> entry.getValue().stream()).reduce(null, Statistics.MERGE);
+      return merged.getRepresentation(RESTOperations.GET.name, DefaultOutcome.class);
+   }
+}
@@ -0,0 +1,15 @@
+package org.radargun.util;
+
+import java.util.Map;
+
+public class RESTStageRunner extends CoreStageRunner {
+
+   public RESTStageRunner(int clusterSize) {
+      super(clusterSize);
+   }
+
+   @Override
+   protected Map<Class<?>, Object> getDefaultTraitMap() {
+      return RESTTraitRepository.getAllTraits();
+   }
+}
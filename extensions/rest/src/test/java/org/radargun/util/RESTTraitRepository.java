@@ -0,0 +1,73 @@
+package org.radargun.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.core.Response;
+
+public class RESTTraitRepository {
+
+   public static Map<Class<?>, Object> getAllTraits() {
+      Map<Class<?>, Object> traitMap = CoreTraitRepository.getAllTraits();
+      traitMap.put(org.radargun.traits.RESTOperations.class, new RESTOperations());
+      return traitMap;
+   }
+
+   /**
+    * Stub operations, the first request of each invoker starts a new session. Asynchronous requests
+    * are completed from another thread.
+    */
+   public static class RESTOperations implements org.radargun.traits.RESTOperations {
+      private final AtomicInteger sessions = new AtomicInteger();
+      private volatile boolean failAsync;
+      private volatile int maxAsyncRequests = Integer.MAX_VALUE;
+
+      @Override
+      public RESTOperationInvoker getRESTInvoker(String contextPath) {
+         return new RESTOperationInvoker() {
+            private String session;
+
+            @Override
+            public Response get(List<Cookie> cookies, MultivaluedMap<String, Object> headers) {
+               if (session == null) {
+                  session = String.valueOf(sessions.incrementAndGet());
+                  return Response.ok().cookie(new NewCookie("JSESSIONID", session)).build();
+               }
+               return Response.ok().build();
+            }
+
+            @Override
+            public CompletionStage<Response> getAsync(List<Cookie> cookies, MultivaluedMap<String, Object> headers) {
+               if (failAsync) {
+                  return CompletableFuture.supplyAsync(() -> {
+                     throw new IllegalStateException("Service is not running");
+                  });
+               }
+               return CompletableFuture.supplyAsync(() -> get(cookies, headers));
+            }
+         };
+      }
+
+      @Override
+      public int getMaxAsyncRequests() {
+         return maxAsyncRequests;
+      }
+
+      public int getSessions() {
+         return sessions.get();
+      }
+
+      public void setFailAsync(boolean failAsync) {
+         this.failAsync = failAsync;
+      }
+
+      public void setMaxAsyncRequests(int maxAsyncRequests) {
+         this.maxAsyncRequests = maxAsyncRequests;
+      }
+   }
+}
@@ -0,0 +1,59 @@
+package org.radargun.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.radargun.traits.BasicOperations;
+import org.radargun.traits.CacheInformation;
+import org.radargun.traits.ConditionalOperations;
+
+/**
+ * Common base for the in-process caches: all entries are owned and stored locally.
+ */
+public abstract class AbstractLocalCache implements BasicOperations.Cache, ConditionalOperations.Cache, CacheInformation.Cache {
+   protected final String name;
+
+   protected AbstractLocalCache(String name) {
+      this.name = name;
+   }
+
+   /**
+    * @return Current number of entries.
+    */
+   public abstract long size();
+
+   @Override
+   public long getOwnedSize() {
+      return size();
+   }
+
+   @Override
+   public long getLocallyStoredSize() {
+      return size();
+   }
+
+   @Override
+   public long getMemoryStoredSize() {
+      return size();
+   }
+
+   @Override
+   public long getTotalSize() {
+      return size();
+   }
+
+   @Override
+   public Map<?, Long> getStructuredSize() {
+      return Collections.singletonMap(name, size());
+   }
+
+   @Override
+   public int getNumReplicas() {
+      return 1;
+   }
+
+   @Override
+   public int getEntryOverhead() {
+      return -1;
+   }
+}
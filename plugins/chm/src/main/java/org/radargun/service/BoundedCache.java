@@ -0,0 +1,206 @@
+package org.radargun.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache with bounded number of entries, split into independently locked segments, each keeping its entries
+ * in LRU order. With {@link Eviction#TINY_LFU} a new entry is admitted into a full segment only if it was
+ * accessed more frequently than the LRU victim, which protects popular entries from being flushed by one-off
+ * accesses.
+ */
+public class BoundedCache extends AbstractLocalCache {
+   public enum Eviction {
+      LRU,
+      TINY_LFU
+   }
+
+   private final Segment[] segments;
+   private final int segmentMask;
+
+   public BoundedCache(String name, int concurrencyLevel, long capacity, Eviction eviction) {
+      super(name);
+      if (capacity <= 0) {
+         throw new IllegalArgumentException("Capacity must be positive");
+      }
+      int numSegments = 1;
+      while (numSegments < concurrencyLevel && numSegments < capacity) {
+         numSegments <<= 1;
+      }
+      segments = new Segment[numSegments];
+      for (int i = 0; i < numSegments; ++i) {
+         long segmentCapacity = capacity / numSegments + (i < capacity % numSegments ? 1 : 0);
+         segments[i] = new Segment(segmentCapacity, eviction == Eviction.TINY_LFU ? new FrequencySketch(segmentCapacity) : null);
+      }
+      segmentMask = numSegments - 1;
+   }
+
+   private static int hash(Object key) {
+      int h = key.hashCode() * 0x9E3779B9;
+      return h ^ (h >>> 16);
+   }
+
+   private Segment segment(int hash) {
+      return segments[(hash >>> 16) & segmentMask];
+   }
+
+   @Override
+   public Object get(Object key) {
+      int hash = hash(key);
+      return segment(hash).get(key, hash);
+   }
+
+   @Override
+   public boolean containsKey(Object key) {
+      int hash = hash(key);
+      Segment segment = segment(hash);
+      synchronized (segment) {
+         return segment.map.containsKey(key);
+      }
+   }
+
+   @Override
+   public void put(Object key, Object value) {
+      getAndPut(key, value);
+   }
+
+   @Override
+   public Object getAndPut(Object key, Object value) {
+      Objects.requireNonNull(value);
+      int hash = hash(key);
+      return segment(hash).put(key, hash, value, false);
+   }
+
+   @Override
+   public boolean putIfAbsent(Object key, Object value) {
+      Objects.requireNonNull(value);
+      int hash = hash(key);
+      return segment(hash).put(key, hash, value, true) == null;
+   }
+
+   @Override
+   public boolean remove(Object key) {
+      return getAndRemove(key) != null;
+   }
+
+   @Override
+   public Object getAndRemove(Object key) {
+      int hash = hash(key);
+      Segment segment = segment(hash);
+      synchronized (segment) {
+         return segment.map.remove(key);
+      }
+   }
+
+   @Override
+   public boolean remove(Object key, Object oldValue) {
+      int hash = hash(key);
+      Segment segment = segment(hash);
+      synchronized (segment) {
+         return segment.map.remove(key, oldValue);
+      }
+   }
+
+   @Override
+   public boolean replace(Object key, Object value) {
+      return getAndReplace(key, value) != null;
+   }
+
+   @Override
+   public boolean replace(Object key, Object oldValue, Object newValue) {
+      Objects.requireNonNull(newValue);
+      int hash = hash(key);
+      Segment segment = segment(hash);
+      synchronized (segment) {
+         return segment.map.replace(key, oldValue, newValue);
+      }
+   }
+
+   @Override
+   public Object getAndReplace(Object key, Object value) {
+      Objects.requireNonNull(value);
+      int hash = hash(key);
+      Segment segment = segment(hash);
+      synchronized (segment) {
+         return segment.map.replace(key, value);
+      }
+   }
+
+   @Override
+   public void clear() {
+      for (Segment segment : segments) {
+         synchronized (segment) {
+            segment.map.clear();
+         }
+      }
+   }
+
+   @Override
+   public long size() {
+      long size = 0;
+      for (Segment segment : segments) {
+         synchronized (segment) {
+            size += segment.map.size();
+         }
+      }
+      return size;
+   }
+
+   /**
+    * @return Number of entries evicted or rejected since the cache was created.
+    */
+   public long getEvictions() {
+      long evictions = 0;
+      for (Segment segment : segments) {
+         synchronized (segment) {
+            evictions += segment.evictions;
+         }
+      }
+      return evictions;
+   }
+
+   private static final class Segment {
+      // access order: the first entry is the least recently used one
+      private final LinkedHashMap<Object, Object> map = new LinkedHashMap<>(16, 0.75f, true);
+      private final long capacity;
+      private final FrequencySketch sketch;
+      private long evictions;
+
+      Segment(long capacity, FrequencySketch sketch) {
+         this.capacity = capacity;
+         this.sketch = sketch;
+      }
+
+      synchronized Object get(Object key, int hash) {
+         if (sketch != null) {
+            sketch.increment(hash);
+         }
+         return map.get(key);
+      }
+
+      synchronized Object put(Object key, int hash, Object value, boolean onlyIfAbsent) {
+         if (sketch != null) {
+            sketch.increment(hash);
+         }
+         Object prev = onlyIfAbsent ? map.putIfAbsent(key, value) : map.put(key, value);
+         if (prev == null && map.size() > capacity) {
+            evict(key, hash);
+         }
+         return prev;
+      }
+
+      private void evict(Object candidate, int candidateHash) {
+         // the candidate was inserted last, therefore it is not the eldest entry
+         Iterator<Map.Entry<Object, Object>> iterator = map.entrySet().iterator();
+         Map.Entry<Object, Object> victim = iterator.next();
+         if (sketch != null && sketch.frequency(candidateHash) <= sketch.frequency(hash(victim.getKey()))) {
+            map.remove(candidate);
+         } else {
+            iterator.remove();
+         }
+         evictions++;
+      }
+   }
+}
@@ -1,22 +1,15 @@
 package org.radargun.service;
 
-import java.util.Collections;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import org.radargun.traits.BasicOperations;
-import org.radargun.traits.CacheInformation;
-import org.radargun.traits.ConditionalOperations;
-
 /**
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
-public class ChmCache implements BasicOperations.Cache, ConditionalOperations.Cache, CacheInformation.Cache {
+public class ChmCache extends AbstractLocalCache {
    private final ConcurrentHashMap chm = new ConcurrentHashMap();
-   private final String name;
 
    public ChmCache(String name) {
-      this.name = name;
+      super(name);
    }
 
    @Override
@@ -88,37 +81,7 @@ public class ChmCache implements BasicOperations.Cache, ConditionalOperations.Ca
    }
 
    @Override
-   public long getOwnedSize() {
-      return chm.size();
-   }
-
-   @Override
-   public long getLocallyStoredSize() {
-      return chm.size();
-   }
-
-   @Override
-   public long getMemoryStoredSize() {
-      return chm.size();
-   }
-
-   @Override
-   public long getTotalSize() {
+   public long size() {
       return chm.size();
    }
-
-   @Override
-   public Map<?, Long> getStructuredSize() {
-      return Collections.singletonMap(name, (long) chm.size());
-   }
-
-   @Override
-   public int getNumReplicas() {
-      return 1;
-   }
-
-   @Override
-   public int getEntryOverhead() {
-      return -1;
-   }
 }
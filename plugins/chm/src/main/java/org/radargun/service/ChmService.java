@@ -5,30 +5,75 @@ import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.radargun.Service;
+import org.radargun.config.Init;
+import org.radargun.config.Property;
 import org.radargun.traits.BasicOperations;
 import org.radargun.traits.CacheInformation;
 import org.radargun.traits.ConditionalOperations;
 import org.radargun.traits.ProvidesTrait;
 
-@Service(doc = "ConcurrentHashMap - not a distributed cache.")
+@Service(doc = "ConcurrentHashMap or another in-process cache - not a distributed cache.")
 public class ChmService {
+   protected static final String DEFAULT_CACHE_NAME = "default";
 
-   protected ConcurrentHashMap<String, ChmCache> caches = new ConcurrentHashMap<String, ChmCache>();
+   public enum CacheType {
+      CONCURRENT_HASH_MAP,
+      PRIMITIVE_LONG,
+      BOUNDED
+   }
+
+   @Property(doc = "Implementation of the caches: CONCURRENT_HASH_MAP, PRIMITIVE_LONG (open-addressing map with primitive keys, " +
+      "requires numeric keys, e.g. from the 'long' key generator) or BOUNDED (cache with bounded number of entries). " +
+      "Default is CONCURRENT_HASH_MAP.")
+   protected CacheType cacheType = CacheType.CONCURRENT_HASH_MAP;
+
+   @Property(doc = "Number of independently locked segments in PRIMITIVE_LONG and BOUNDED caches. Default is 64.")
+   protected int concurrencyLevel = 64;
+
+   @Property(doc = "Maximum number of entries in each BOUNDED cache. Default is 100000.")
+   protected long capacity = 100000;
+
+   @Property(doc = "Eviction policy of BOUNDED caches: LRU or TINY_LFU (LRU with admission of new entries based on access frequency). " +
+      "Default is TINY_LFU.")
+   protected BoundedCache.Eviction eviction = BoundedCache.Eviction.TINY_LFU;
+
+   protected ConcurrentHashMap<String, AbstractLocalCache> caches = new ConcurrentHashMap<>();
 
-   public ChmService() {
-      caches.put(null, new ChmCache(null));
+   @Init
+   public void init() {
+      if (concurrencyLevel <= 0) {
+         throw new IllegalArgumentException("Concurrency level must be positive");
+      }
+      if (capacity <= 0) {
+         throw new IllegalArgumentException("Capacity must be positive");
+      }
+      getCache(DEFAULT_CACHE_NAME);
    }
 
-   public ChmCache getCache(String cacheName) {
-      ChmCache cache = caches.get(cacheName);
+   public AbstractLocalCache getCache(String cacheName) {
+      if (cacheName == null) {
+         cacheName = DEFAULT_CACHE_NAME;
+      }
+      AbstractLocalCache cache = caches.get(cacheName);
       if (cache == null) {
-         cache = new ChmCache(cacheName);
-         ChmCache prev = caches.putIfAbsent(cacheName, cache);
+         cache = createCache(cacheName);
+         AbstractLocalCache prev = caches.putIfAbsent(cacheName, cache);
          if (prev != null) cache = prev;
       }
       return cache;
    }
 
+   protected AbstractLocalCache createCache(String cacheName) {
+      switch (cacheType) {
+         case PRIMITIVE_LONG:
+            return new PrimitiveLongCache(cacheName, concurrencyLevel);
+         case BOUNDED:
+            return new BoundedCache(cacheName, concurrencyLevel, capacity, eviction);
+         default:
+            return new ChmCache(cacheName);
+      }
+   }
+
    @ProvidesTrait
    public BasicOperations createBasicOperations() {
       return new BasicOperations() {
@@ -54,7 +99,7 @@ public class ChmService {
       return new CacheInformation() {
          @Override
          public String getDefaultCacheName() {
-            return null;
+            return DEFAULT_CACHE_NAME;
          }
 
          @Override
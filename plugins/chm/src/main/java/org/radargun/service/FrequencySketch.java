@@ -0,0 +1,69 @@
+package org.radargun.service;
+
+/**
+ * Count-min sketch with 4-bit counters estimating the access frequency of keys. All counters are halved
+ * after a number of increments, so that the estimates reflect recent history. Not thread-safe.
+ */
+final class FrequencySketch {
+   private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+   private static final long RESET_MASK = 0x7777777777777777L;
+
+   // each long holds 16 counters
+   private final long[] table;
+   private final int tableMask;
+   private final int sampleSize;
+   private int additions;
+
+   FrequencySketch(long capacity) {
+      int length = 1;
+      while (length < capacity && length < (1 << 30)) {
+         length <<= 1;
+      }
+      table = new long[length];
+      tableMask = length - 1;
+      sampleSize = (int) Math.min(Integer.MAX_VALUE, 10 * Math.max(capacity, 1));
+   }
+
+   int frequency(int hash) {
+      int frequency = 15;
+      for (int i = 0; i < SEEDS.length; ++i) {
+         frequency = Math.min(frequency, (int) ((table[index(hash, i)] >>> offset(hash, i)) & 15));
+      }
+      return frequency;
+   }
+
+   void increment(int hash) {
+      boolean added = false;
+      for (int i = 0; i < SEEDS.length; ++i) {
+         int index = index(hash, i);
+         int offset = offset(hash, i);
+         if (((table[index] >>> offset) & 15) < 15) {
+            table[index] += 1L << offset;
+            added = true;
+         }
+      }
+      if (added && ++additions >= sampleSize) {
+         reset();
+      }
+   }
+
+   private void reset() {
+      for (int i = 0; i < table.length; ++i) {
+         table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      additions >>>= 1;
+   }
+
+   private int index(int hash, int i) {
+      long h = (hash + SEEDS[i]) * SEEDS[i];
+      h += h >>> 32;
+      return (int) h & tableMask;
+   }
+
+   /**
+    * Each hash function uses different counter within the long.
+    */
+   private static int offset(int hash, int i) {
+      return ((((hash >>> (i << 3)) & 3) << 2) + i) << 2;
+   }
+}
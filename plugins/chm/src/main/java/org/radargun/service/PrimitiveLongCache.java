@@ -0,0 +1,317 @@
+package org.radargun.service;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash map with primitive long keys (linear probing with backward-shift deletion),
+ * split into independently locked segments. Entries are stored in parallel arrays, therefore there's
+ * no allocation per entry. Reads are optimistic and fall back to read lock only when they race with
+ * a modification in the same segment.
+ *
+ * The keys have to be numbers, e.g. from the 'long' key generator.
+ */
+public class PrimitiveLongCache extends AbstractLocalCache {
+   private static final int INITIAL_CAPACITY = 16;
+
+   private final Segment[] segments;
+   private final int segmentMask;
+
+   public PrimitiveLongCache(String name, int concurrencyLevel) {
+      super(name);
+      int numSegments = 1;
+      while (numSegments < concurrencyLevel) {
+         numSegments <<= 1;
+      }
+      segments = new Segment[numSegments];
+      for (int i = 0; i < numSegments; ++i) {
+         segments[i] = new Segment();
+      }
+      segmentMask = numSegments - 1;
+   }
+
+   private long toLong(Object key) {
+      if (key instanceof Number) {
+         return ((Number) key).longValue();
+      }
+      throw new IllegalArgumentException("Cache " + name + " supports only numeric keys, got "
+         + (key == null ? null : key.getClass().getName()));
+   }
+
+   private static long hash(long key) {
+      // MurmurHash3 finalizer, key indices are usually sequential
+      key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+      key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+      return key ^ (key >>> 33);
+   }
+
+   private Segment segment(long hash) {
+      // lower bits select the slot within segment
+      return segments[(int) (hash >>> 32) & segmentMask];
+   }
+
+   private static void checkValue(Object value) {
+      if (value == null) {
+         throw new NullPointerException("Null values are not supported");
+      }
+   }
+
+   @Override
+   public Object get(Object key) {
+      long k = toLong(key);
+      long hash = hash(k);
+      return segment(hash).get(k, hash);
+   }
+
+   @Override
+   public boolean containsKey(Object key) {
+      return get(key) != null;
+   }
+
+   @Override
+   public void put(Object key, Object value) {
+      getAndPut(key, value);
+   }
+
+   @Override
+   public Object getAndPut(Object key, Object value) {
+      checkValue(value);
+      long k = toLong(key);
+      long hash = hash(k);
+      return segment(hash).put(k, hash, value, false);
+   }
+
+   @Override
+   public boolean putIfAbsent(Object key, Object value) {
+      checkValue(value);
+      long k = toLong(key);
+      long hash = hash(k);
+      return segment(hash).put(k, hash, value, true) == null;
+   }
+
+   @Override
+   public boolean remove(Object key) {
+      return getAndRemove(key) != null;
+   }
+
+   @Override
+   public Object getAndRemove(Object key) {
+      long k = toLong(key);
+      long hash = hash(k);
+      return segment(hash).remove(k, hash, null);
+   }
+
+   @Override
+   public boolean remove(Object key, Object oldValue) {
+      checkValue(oldValue);
+      long k = toLong(key);
+      long hash = hash(k);
+      return segment(hash).remove(k, hash, oldValue) != null;
+   }
+
+   @Override
+   public boolean replace(Object key, Object value) {
+      return getAndReplace(key, value) != null;
+   }
+
+   @Override
+   public boolean replace(Object key, Object oldValue, Object newValue) {
+      checkValue(oldValue);
+      checkValue(newValue);
+      long k = toLong(key);
+      long hash = hash(k);
+      return segment(hash).replace(k, hash, oldValue, newValue) != null;
+   }
+
+   @Override
+   public Object getAndReplace(Object key, Object value) {
+      checkValue(value);
+      long k = toLong(key);
+      long hash = hash(k);
+      return segment(hash).replace(k, hash, null, value);
+   }
+
+   @Override
+   public void clear() {
+      for (Segment segment : segments) {
+         segment.clear();
+      }
+   }
+
+   @Override
+   public long size() {
+      long size = 0;
+      for (Segment segment : segments) {
+         size += segment.size;
+      }
+      return size;
+   }
+
+   /**
+    * Keys and values are swapped together on resize, so that optimistic readers see consistent arrays.
+    * Free slots are marked by null value.
+    */
+   private static final class Table {
+      final long[] keys;
+      final Object[] values;
+      final int mask;
+
+      Table(int capacity) {
+         keys = new long[capacity];
+         values = new Object[capacity];
+         mask = capacity - 1;
+      }
+
+      /**
+       * @return Index of the slot holding the key, or the free slot where it should be inserted.
+       */
+      int slot(long key, long hash) {
+         int i = (int) hash & mask;
+         while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+         }
+         return i;
+      }
+   }
+
+   private static final class Segment {
+      private final StampedLock lock = new StampedLock();
+      private volatile Table table = new Table(INITIAL_CAPACITY);
+      private volatile int size;
+
+      Object get(long key, long hash) {
+         long stamp = lock.tryOptimisticRead();
+         if (stamp != 0) {
+            Object value = find(table, key, hash);
+            if (lock.validate(stamp)) {
+               return value;
+            }
+         }
+         stamp = lock.readLock();
+         try {
+            return find(table, key, hash);
+         } finally {
+            lock.unlockRead(stamp);
+         }
+      }
+
+      /**
+       * Can run concurrently with a modification, therefore the number of probes is limited.
+       */
+      private static Object find(Table table, long key, long hash) {
+         long[] keys = table.keys;
+         Object[] values = table.values;
+         int mask = table.mask;
+         int i = (int) hash & mask;
+         for (int probes = 0; probes <= mask; ++probes) {
+            Object value = values[i];
+            if (value == null) {
+               return null;
+            } else if (keys[i] == key) {
+               return value;
+            }
+            i = (i + 1) & mask;
+         }
+         return null;
+      }
+
+      Object put(long key, long hash, Object value, boolean onlyIfAbsent) {
+         long stamp = lock.writeLock();
+         try {
+            Table t = table;
+            int i = t.slot(key, hash);
+            Object prev = t.values[i];
+            if (prev == null) {
+               // keep load factor at most 0.75
+               if (4 * (size + 1) > 3 * (t.mask + 1)) {
+                  t = resize(t);
+                  i = t.slot(key, hash);
+               }
+               t.keys[i] = key;
+               size++;
+            } else if (onlyIfAbsent) {
+               return prev;
+            }
+            t.values[i] = value;
+            return prev;
+         } finally {
+            lock.unlockWrite(stamp);
+         }
+      }
+
+      /**
+       * @param expected If not null, the value is replaced only if it is equal to this.
+       */
+      Object replace(long key, long hash, Object expected, Object value) {
+         long stamp = lock.writeLock();
+         try {
+            Table t = table;
+            int i = t.slot(key, hash);
+            Object prev = t.values[i];
+            if (prev == null || (expected != null && !expected.equals(prev))) {
+               return null;
+            }
+            t.values[i] = value;
+            return prev;
+         } finally {
+            lock.unlockWrite(stamp);
+         }
+      }
+
+      /**
+       * @param expected If not null, the entry is removed only if its value is equal to this.
+       */
+      Object remove(long key, long hash, Object expected) {
+         long stamp = lock.writeLock();
+         try {
+            Table t = table;
+            long[] keys = t.keys;
+            Object[] values = t.values;
+            int mask = t.mask;
+            int gap = t.slot(key, hash);
+            Object prev = values[gap];
+            if (prev == null || (expected != null && !expected.equals(prev))) {
+               return null;
+            }
+            // shift back following entries that would not be found across the gap
+            for (int i = (gap + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+               int ideal = (int) hash(keys[i]) & mask;
+               if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+                  keys[gap] = keys[i];
+                  values[gap] = values[i];
+                  gap = i;
+               }
+            }
+            values[gap] = null;
+            size--;
+            return prev;
+         } finally {
+            lock.unlockWrite(stamp);
+         }
+      }
+
+      void clear() {
+         long stamp = lock.writeLock();
+         try {
+            table = new Table(INITIAL_CAPACITY);
+            size = 0;
+         } finally {
+            lock.unlockWrite(stamp);
+         }
+      }
+
+      private Table resize(Table t) {
+         Table resized = new Table(2 * (t.mask + 1));
+         for (int i = 0; i <= t.mask; ++i) {
+            Object value = t.values[i];
+            if (value != null) {
+               long key = t.keys[i];
+               int slot = resized.slot(key, hash(key));
+               resized.keys[slot] = key;
+               resized.values[slot] = value;
+            }
+         }
+         table = resized;
+         return resized;
+      }
+   }
+}
@@ -0,0 +1,94 @@
+package org.radargun.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class LocalCachesTest {
+
+   public void testPrimitiveLongCache() {
+      PrimitiveLongCache cache = new PrimitiveLongCache("test", 4);
+      Map<Long, Object> expected = new HashMap<>();
+      Random random = new Random(42);
+      for (int i = 0; i < 200000; ++i) {
+         long key = random.nextInt(1000);
+         switch (random.nextInt(4)) {
+            case 0:
+            case 1:
+               Object value = random.nextInt();
+               Assert.assertEquals(cache.getAndPut(key, value), expected.put(key, value));
+               break;
+            case 2:
+               Assert.assertEquals(cache.getAndRemove(key), expected.remove(key));
+               break;
+            default:
+               Assert.assertEquals(cache.get(key), expected.get(key));
+         }
+      }
+      Assert.assertEquals(cache.size(), expected.size());
+      for (long key = 0; key < 1000; ++key) {
+         Assert.assertEquals(cache.get(key), expected.get(key));
+      }
+      Assert.assertTrue(cache.putIfAbsent(5000L, "a"));
+      Assert.assertFalse(cache.putIfAbsent(5000L, "b"));
+      Assert.assertFalse(cache.replace(5000L, "b", "c"));
+      Assert.assertTrue(cache.replace(5000L, "a", "c"));
+      Assert.assertFalse(cache.remove(5000L, "a"));
+      Assert.assertTrue(cache.remove(5000L, "c"));
+      cache.clear();
+      Assert.assertEquals(cache.size(), 0);
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testPrimitiveLongCacheRejectsStrings() {
+      new PrimitiveLongCache("test", 4).put("key", "value");
+   }
+
+   public void testBoundedCacheCapacity() {
+      for (BoundedCache.Eviction eviction : BoundedCache.Eviction.values()) {
+         BoundedCache cache = new BoundedCache("test", 8, 1000, eviction);
+         for (int i = 0; i < 10000; ++i) {
+            cache.put(i, i);
+         }
+         Assert.assertTrue(cache.size() <= 1000, eviction + ": " + cache.size());
+         Assert.assertEquals(cache.size() + cache.getEvictions(), 10000);
+      }
+   }
+
+   public void testTinyLfuProtectsPopularEntries() {
+      int hotKeys = 150;
+      Assert.assertTrue(hitRatio(BoundedCache.Eviction.TINY_LFU, hotKeys) > 0.9);
+      // with LRU the popular entries are flushed by the scan
+      Assert.assertTrue(hitRatio(BoundedCache.Eviction.LRU, hotKeys) < 0.5);
+   }
+
+   /**
+    * Popular keys (not fitting into LRU together with the scanned keys) are accessed while scanning through many other keys.
+    * @return Hit ratio for the popular keys.
+    */
+   private static double hitRatio(BoundedCache.Eviction eviction, int hotKeys) {
+      BoundedCache cache = new BoundedCache("test", 1, 200, eviction);
+      int hits = 0;
+      int requests = 0;
+      for (int i = 0; i < 1000 * hotKeys; ++i) {
+         access(cache, hotKeys + i);
+         if (access(cache, i % hotKeys)) {
+            hits++;
+         }
+         requests++;
+      }
+      return (double) hits / requests;
+   }
+
+   private static boolean access(BoundedCache cache, int key) {
+      if (cache.get(key) != null) {
+         return true;
+      }
+      cache.put(key, key);
+      return false;
+   }
+}
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -47,6 +48,8 @@ import org.radargun.traits.Query.Builder;
 import org.radargun.traits.Queryable;
 
 /**
+ * Query parameters are emulated: the filters are created again when the parameters are set.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 public class CoherenceQueryable implements Queryable {
@@ -71,6 +74,11 @@ public class CoherenceQueryable implements Queryable {
       // noop - indices should be in sync
    }
 
+   @Override
+   public boolean supportsParameters() {
+      return true;
+   }
+
    public void registerIndices(NamedCache cache, List<Coherence3Service.IndexedColumn> indexedColumns) {
       for (Coherence3Service.IndexedColumn c : service.indexedColumns) {
          if (cache.getCacheName().equals(c.cache)) {
@@ -80,8 +88,27 @@ public class CoherenceQueryable implements Queryable {
       }
    }
 
+   private static Object resolve(Object value, Map<String, Object> parameters) {
+      if (value instanceof Query.Parameter) {
+         String name = ((Query.Parameter) value).name;
+         if (!parameters.containsKey(name)) {
+            throw new IllegalStateException("Parameter " + name + " is not set");
+         }
+         return parameters.get(name);
+      }
+      return value;
+   }
+
+   /**
+    * Creates the filter with current values of the parameters.
+    */
+   private interface FilterFactory {
+      Filter create(Map<String, Object> parameters);
+   }
+
    private static class QueryBuilderImpl implements Query.Builder {
-      private final ArrayList<Filter> filters = new ArrayList<Filter>();
+      private final ArrayList<FilterFactory> filters = new ArrayList<FilterFactory>();
+      private boolean parametrized;
       private LinkedHashMap<String, Boolean> orderBy;
       private long offset = 0, limit = -1;
       private String[] projection;
@@ -91,74 +118,99 @@ public class CoherenceQueryable implements Queryable {
          return new QueryBuilderImpl();
       }
 
+      private void add(FilterFactory filterFactory, Object... values) {
+         for (Object value : values) {
+            if (value instanceof Query.Parameter) {
+               parametrized = true;
+            }
+         }
+         filters.add(filterFactory);
+      }
+
+      private void add(Filter filter) {
+         filters.add(parameters -> filter);
+      }
+
       @Override
       public Query.Builder eq(Query.SelectExpression expression, Object value) {
-         filters.add(new EqualsFilter(expression.attribute, value));
+         add(parameters -> new EqualsFilter(expression.attribute, resolve(value, parameters)), value);
          return this;
       }
 
       @Override
       public Query.Builder lt(Query.SelectExpression expression, Object value) {
-         filters.add(new LessFilter(expression.attribute, (Comparable) value));
+         add(parameters -> new LessFilter(expression.attribute, (Comparable) resolve(value, parameters)), value);
          return this;
       }
 
       @Override
       public Query.Builder le(Query.SelectExpression expression, Object value) {
-         filters.add(new LessEqualsFilter(expression.attribute, (Comparable) value));
+         add(parameters -> new LessEqualsFilter(expression.attribute, (Comparable) resolve(value, parameters)), value);
          return this;
       }
 
       @Override
       public Query.Builder gt(Query.SelectExpression expression, Object value) {
-         filters.add(new GreaterFilter(expression.attribute, (Comparable) value));
+         add(parameters -> new GreaterFilter(expression.attribute, (Comparable) resolve(value, parameters)), value);
          return this;
       }
 
       @Override
       public Query.Builder ge(Query.SelectExpression expression, Object value) {
-         filters.add(new GreaterEqualsFilter(expression.attribute, (Comparable) value));
+         add(parameters -> new GreaterEqualsFilter(expression.attribute, (Comparable) resolve(value, parameters)), value);
          return this;
       }
 
       @Override
       public Query.Builder between(Query.SelectExpression expression, Object lowerBound, boolean lowerInclusive, Object upperBound,
             boolean upperInclusive) {
-         filters.add(new BetweenFilter(expression.attribute, (Comparable) lowerBound, (Comparable) upperBound));
+         add(parameters -> new BetweenFilter(expression.attribute,
+            (Comparable) resolve(lowerBound, parameters), (Comparable) resolve(upperBound, parameters)), lowerBound, upperBound);
          return this;
       }
 
       @Override
       public Query.Builder isNull(Query.SelectExpression expression) {
-         filters.add(new IsNullFilter(expression.attribute));
+         add(new IsNullFilter(expression.attribute));
          return this;
       }
 
       @Override
       public Query.Builder like(Query.SelectExpression expression, String pattern) {
-         filters.add(new LikeFilter(expression.attribute, pattern));
+         add(new LikeFilter(expression.attribute, pattern));
          return this;
       }
 
       @Override
       public Query.Builder contains(Query.SelectExpression expression, Object value) {
-         filters.add(new ContainsFilter(expression.attribute, value));
+         add(parameters -> new ContainsFilter(expression.attribute, resolve(value, parameters)), value);
          return this;
       }
 
       @Override
       public Query.Builder not(Query.Builder subquery) {
-         filters.add(new NotFilter(((QueryBuilderImpl) subquery).getFilter()));
+         QueryBuilderImpl sub = (QueryBuilderImpl) subquery;
+         parametrized |= sub.parametrized;
+         FilterFactory subFilter = sub.getFilterFactory();
+         filters.add(parameters -> new NotFilter(subFilter.create(parameters)));
          return this;
       }
 
       @Override
       public Query.Builder any(Query.Builder... subqueries) {
-         Filter[] subs = new Filter[subqueries.length];
+         FilterFactory[] subs = new FilterFactory[subqueries.length];
          for (int i = 0; i < subqueries.length; ++i) {
-            subs[i] = ((QueryBuilderImpl) subqueries[i]).getFilter();
+            QueryBuilderImpl sub = (QueryBuilderImpl) subqueries[i];
+            parametrized |= sub.parametrized;
+            subs[i] = sub.getFilterFactory();
          }
-         filters.add(new AnyFilter(subs));
+         filters.add(parameters -> {
+            Filter[] subFilters = new Filter[subs.length];
+            for (int i = 0; i < subs.length; ++i) {
+               subFilters[i] = subs[i].create(parameters);
+            }
+            return new AnyFilter(subFilters);
+         });
          return this;
       }
 
@@ -200,15 +252,21 @@ public class CoherenceQueryable implements Queryable {
 
       @Override
       public Query build() {
-         return new QueryImpl(getFilter(), projection, orderBy, offset, limit);
+         return new QueryImpl(getFilterFactory(), parametrized, projection, orderBy, offset, limit);
       }
 
-      public Filter getFilter() {
+      public FilterFactory getFilterFactory() {
          if (filters.size() == 1) {
             return filters.get(0);
-         } else {
-            return new AllFilter(filters.toArray(new Filter[filters.size()]));
          }
+         FilterFactory[] factories = filters.toArray(new FilterFactory[filters.size()]);
+         return parameters -> {
+            Filter[] all = new Filter[factories.length];
+            for (int i = 0; i < factories.length; ++i) {
+               all[i] = factories[i].create(parameters);
+            }
+            return new AllFilter(all);
+         };
       }
 
       public Builder groupBy(String[] attribute) {
@@ -218,19 +276,27 @@ public class CoherenceQueryable implements Queryable {
    }
 
    private static class QueryImpl implements Query {
-      private final Filter filter;
+      private final FilterFactory filterFactory;
+      private final Map<String, Object> parameters = new HashMap<>();
       private final Comparator comparator;
       private final int skip;
       private final int limit;
+      // when >= 0 the filter is wrapped in LimitFilter
+      private final int pageSize;
+      private final int page;
       private final String[] projection;
+      // created again after parameters change
+      private Filter filter;
 
-      public QueryImpl(Filter filter, String[] projection, LinkedHashMap<String, Boolean> orderBy, long offset, long limit) {
+      public QueryImpl(FilterFactory filterFactory, boolean parametrized, String[] projection, LinkedHashMap<String, Boolean> orderBy, long offset, long limit) {
+         this.filterFactory = filterFactory;
          this.projection = projection;
          if (projection != null) {
             // we delay this to LimitAggregator
             this.skip = (int) offset;
             this.limit = (int) limit;
-            this.filter = filter;
+            this.pageSize = -1;
+            this.page = 0;
             if (orderBy == null) {
                comparator = null;
             } else {
@@ -290,28 +356,52 @@ public class CoherenceQueryable implements Queryable {
                }
                this.skip = (int) (offset % bestSize);
                this.limit = (int) limit;
-               LimitFilter lf = new LimitFilter(filter, (int) bestSize);
-               lf.setPage((int) (offset / bestSize));
-               this.filter = lf;
+               this.pageSize = (int) bestSize;
+               this.page = (int) (offset / bestSize);
             } else if (offset > 0) {
                this.skip = (int) offset;
                this.limit = Integer.MAX_VALUE;
-               this.filter = filter;
+               this.pageSize = -1;
+               this.page = 0;
             } else if (limit >= 0) {
                this.skip = 0;
                this.limit = (int) limit;
-               this.filter = new LimitFilter(filter, this.limit);
+               this.pageSize = this.limit;
+               this.page = 0;
             } else {
                this.skip = 0;
                this.limit = -1;
-               this.filter = filter;
+               this.pageSize = -1;
+               this.page = 0;
             }
          }
+         if (!parametrized) {
+            filter = createFilter();
+         }
+      }
+
+      private Filter createFilter() {
+         Filter filter = filterFactory.create(parameters);
+         if (pageSize >= 0) {
+            LimitFilter lf = new LimitFilter(filter, pageSize);
+            lf.setPage(page);
+            return lf;
+         }
+         return filter;
+      }
+
+      @Override
+      public void setParameter(String name, Object value) {
+         parameters.put(name, value);
+         filter = null;
       }
 
       @Override
       public Query.Result execute(Query.Context resource) {
          NamedCache cache = getCache(resource);
+         Filter filter = this.filter != null ? this.filter : createFilter();
+         // limit filter keeps state of the paging, repeated execution needs a new one
+         this.filter = filter instanceof LimitFilter ? null : filter;
          if (projection == null) {
             if (comparator == null) {
                return new QueryResultImpl(cache.entrySet(filter), skip, limit);
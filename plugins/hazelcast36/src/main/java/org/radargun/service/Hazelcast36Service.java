@@ -21,6 +21,10 @@ public class Hazelcast36Service extends HazelcastService {
    @Property(doc = "Indices that should be build.", complexConverter = IndexConverter.class)
    protected List<Index> indices = Collections.EMPTY_LIST;
 
+   @Property(doc = "When the query results are iterated, fetch these lazily in pages of given size. Queries executed "
+      + "in transactions always fetch all results at once. Default is 0 (all results are fetched at once).")
+   protected int queryFetchSize = 0;
+
    @ProvidesTrait
    @Override
    public Transactional createTransactional() {
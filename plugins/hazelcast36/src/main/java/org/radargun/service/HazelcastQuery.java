@@ -11,13 +11,17 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.hazelcast.core.IMap;
 import com.hazelcast.core.TransactionalMap;
+import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import org.radargun.logging.Log;
 import org.radargun.logging.LogFactory;
@@ -27,30 +31,91 @@ import org.radargun.utils.OptimizedMap;
 public class HazelcastQuery implements Query {
    private static final Log log = LogFactory.getLog(HazelcastQuery.class);
 
-   private final Predicate predicate;
+   private final PredicateFactory predicateFactory;
+   private final Comparator comparator;
+   private final int limit;
    private final int offset;
+   private final int fetchSize;
+   // offset aligned to the limit is applied as page of the paging predicate, otherwise the entries are skipped
+   private final int page;
+   private final int skip;
    private final String[] projection;
-
-   public HazelcastQuery(Predicate predicate, int offset, String[] projection) {
-      this.predicate = predicate;
-      this.offset = offset;
+   private final Map<String, Object> parameters = new HashMap<>();
+   // created again after parameters change
+   private Predicate predicate;
+
+   public HazelcastQuery(PredicateFactory predicateFactory, boolean parametrized, Comparator comparator, int limit, int offset, String[] projection, int fetchSize) {
+      this.predicateFactory = predicateFactory;
+      this.comparator = comparator;
+      this.limit = limit;
+      this.offset = Math.max(offset, 0);
+      this.fetchSize = fetchSize;
+      this.page = limit > 0 && offset > 0 && offset % limit == 0 ? offset / limit : 0;
+      this.skip = page > 0 ? 0 : Math.max(offset, 0);
       this.projection = projection;
+      if (!parametrized) {
+         predicate = createPredicate();
+      }
+   }
+
+   private Predicate createPredicate() {
+      Predicate predicate = predicateFactory == null ? null : predicateFactory.create(parameters);
+      if (comparator == null && limit < 0) {
+         return predicate;
+      }
+      // paging predicate returns only the first page by default, skipped entries have to fit into it
+      int pageSize = limit < 0 ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, (long) limit + skip);
+      PagingPredicate paging = comparator == null ? new PagingPredicate(predicate, pageSize) : new PagingPredicate(predicate, comparator, pageSize);
+      paging.setPage(page);
+      return paging;
+   }
+
+   static Object resolve(Object value, Map<String, Object> parameters) {
+      if (value instanceof Query.Parameter) {
+         String name = ((Query.Parameter) value).name;
+         if (!parameters.containsKey(name)) {
+            throw new IllegalStateException("Parameter " + name + " is not set");
+         }
+         return parameters.get(name);
+      }
+      return value;
+   }
+
+   @Override
+   public void setParameter(String name, Object value) {
+      parameters.put(name, value);
+      predicate = null;
    }
 
    @Override
    public Query.Result execute(Query.Context context) {
       Context impl = (Context) context;
+      if (fetchSize > 0 && impl.map != null) {
+         // paging predicates are not supported in transactional maps
+         return new LazyResult(impl.map, predicateFactory == null ? null : predicateFactory.create(parameters),
+            comparator, fetchSize, offset, limit, projection);
+      }
+      Predicate predicate = this.predicate != null ? this.predicate : createPredicate();
+      // paging predicate keeps state of the iteration, repeated execution needs a new one
+      this.predicate = predicate instanceof PagingPredicate ? null : predicate;
       Collection values;
       if (predicate == null) {
          values = impl.map != null ? impl.map.values() : impl.txMap.values();
       } else {
          values = impl.map != null ? impl.map.values(predicate) : impl.txMap.values(predicate);
       }
-      return new Result(values, offset, projection);
+      return new Result(values, skip, projection);
    }
 
    public Predicate getPredicate() {
-      return predicate;
+      return predicate != null ? predicate : createPredicate();
+   }
+
+   /**
+    * Creates the predicate with current values of the parameters.
+    */
+   interface PredicateFactory {
+      Predicate create(Map<String, Object> parameters);
    }
 
    public static class Context implements Query.Context {
@@ -96,6 +161,103 @@ public class HazelcastQuery implements Query {
       }
    }
 
+   /**
+    * Fetches the results in pages when iterated, so that the first rows are available before the whole
+    * result set is retrieved.
+    */
+   private static class LazyResult implements Query.Result {
+      private final IMap map;
+      private final Predicate predicate;
+      private final Comparator comparator;
+      private final int fetchSize;
+      private final int offset;
+      private final int limit;
+      private final String[] projection;
+      private List<Object> values;
+
+      private LazyResult(IMap map, Predicate predicate, Comparator comparator, int fetchSize, int offset, int limit, String[] projection) {
+         this.map = map;
+         this.predicate = predicate;
+         this.comparator = comparator;
+         this.fetchSize = fetchSize;
+         this.offset = offset;
+         this.limit = limit;
+         this.projection = projection;
+      }
+
+      @Override
+      public int size() {
+         return values().size();
+      }
+
+      @Override
+      public Collection values() {
+         if (values == null) {
+            List<Object> list = new ArrayList<>();
+            new PageIterator().forEachRemaining(list::add);
+            values = list;
+         }
+         return Collections.unmodifiableCollection(values);
+      }
+
+      @Override
+      public Iterator iterator() {
+         return values != null ? values().iterator() : new PageIterator();
+      }
+
+      private class PageIterator implements Iterator<Object> {
+         private final PagingPredicate paging = comparator == null ?
+            new PagingPredicate(predicate, fetchSize) : new PagingPredicate(predicate, comparator, fetchSize);
+         private final Function<Object, Object> projector = projection == null ? Function.identity() : new ReflectionProjector(projection);
+         private Iterator<Object> page = Collections.emptyIterator();
+         private boolean lastPage;
+         private int skipped;
+         private int returned;
+
+         private PageIterator() {
+            // skip whole pages on the server
+            paging.setPage(offset / fetchSize);
+            skipped = offset / fetchSize * fetchSize;
+         }
+
+         @Override
+         public boolean hasNext() {
+            if (limit >= 0 && returned >= limit) {
+               return false;
+            }
+            for (;;) {
+               while (!page.hasNext()) {
+                  if (lastPage) {
+                     return false;
+                  }
+                  fetchPage();
+               }
+               if (skipped >= offset) {
+                  return true;
+               }
+               page.next();
+               ++skipped;
+            }
+         }
+
+         @Override
+         public Object next() {
+            if (!hasNext()) {
+               throw new NoSuchElementException();
+            }
+            ++returned;
+            return projector.apply(page.next());
+         }
+
+         private void fetchPage() {
+            Collection<Object> values = map.values(paging);
+            lastPage = values.size() < fetchSize;
+            paging.nextPage();
+            page = values.iterator();
+         }
+      }
+   }
+
    private static class ReflectionProjector implements Function<Object, Object> {
       private final String[] projection;
       private transient Map<Class<?>, ArrayList<Accessor>> accessorMap = new OptimizedMap<>();
@@ -1,8 +1,8 @@
 package org.radargun.service;
 
+import java.util.Collections;
 import java.util.Comparator;
 
-import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.Predicates;
 import org.radargun.logging.Log;
@@ -16,6 +16,9 @@ import org.radargun.traits.Queryable;
  * http://stackoverflow.com/questions/29481508/hazelcast-aggregations-api-results-in-classcastexception-with-predicates
  * Additionaly, indexes are not used in aggregations.
  *
+ * Hazelcast does not have any native support for query parameters; queries with parameters create the predicates
+ * again when the parameters are set.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  * @author Jakub Markos &lt;jmarkos@redhat.com&gt;
  */
@@ -29,7 +32,7 @@ public class HazelcastQueryable implements Queryable {
 
    @Override
    public Query.Builder getBuilder(String mapName, Class<?> clazz) {
-      return new HazelcastQueryBuilder(clazz);
+      return new HazelcastQueryBuilder(clazz, service.queryFetchSize);
    }
 
    @Override
@@ -42,58 +45,79 @@ public class HazelcastQueryable implements Queryable {
       // noop
    }
 
+   @Override
+   public boolean supportsParameters() {
+      return true;
+   }
+
    private static class HazelcastQueryBuilder implements Query.Builder {
       private final Class<?> clazz;
-      private Predicate predicate;
+      private HazelcastQuery.PredicateFactory predicate;
+      private boolean parametrized;
       private Comparator comparator;
       private int limit = -1;
       private int offset = 0;
       private Query.SelectExpression[] projection;
+      private final int fetchSize;
 
-      private HazelcastQueryBuilder(Class<?> clazz) {
+      private HazelcastQueryBuilder(Class<?> clazz, int fetchSize) {
          this.clazz = clazz;
+         this.fetchSize = fetchSize;
       }
 
       @Override
       public Query.Builder subquery() {
-         return new HazelcastQueryBuilder(clazz);
+         return new HazelcastQueryBuilder(clazz, fetchSize);
       }
 
-      private void implicitAnd(Predicate p) {
+      private void implicitAnd(HazelcastQuery.PredicateFactory p) {
          if (predicate == null) {
             predicate = p;
          } else {
-            predicate = Predicates.and(predicate, p);
+            HazelcastQuery.PredicateFactory previous = predicate;
+            predicate = parameters -> Predicates.and(previous.create(parameters), p.create(parameters));
+         }
+      }
+
+      private Object checkParameter(Object value) {
+         if (value instanceof Query.Parameter) {
+            parametrized = true;
          }
+         return value;
       }
 
       @Override
       public Query.Builder eq(Query.SelectExpression selectExpression, Object value) {
-         implicitAnd(Predicates.equal(selectExpression.attribute, (Comparable) value));
+         checkParameter(value);
+         implicitAnd(parameters -> Predicates.equal(selectExpression.attribute, (Comparable) HazelcastQuery.resolve(value, parameters)));
          return this;
       }
 
       @Override
       public Query.Builder lt(Query.SelectExpression selectExpression, Object value) {
-         implicitAnd(Predicates.lessThan(selectExpression.attribute, (Comparable) value));
+         checkParameter(value);
+         implicitAnd(parameters -> Predicates.lessThan(selectExpression.attribute, (Comparable) HazelcastQuery.resolve(value, parameters)));
          return this;
       }
 
       @Override
       public Query.Builder le(Query.SelectExpression selectExpression, Object value) {
-         implicitAnd(Predicates.lessEqual(selectExpression.attribute, (Comparable) value));
+         checkParameter(value);
+         implicitAnd(parameters -> Predicates.lessEqual(selectExpression.attribute, (Comparable) HazelcastQuery.resolve(value, parameters)));
          return this;
       }
 
       @Override
       public Query.Builder gt(Query.SelectExpression selectExpression, Object value) {
-         implicitAnd(Predicates.greaterThan(selectExpression.attribute, (Comparable) value));
+         checkParameter(value);
+         implicitAnd(parameters -> Predicates.greaterThan(selectExpression.attribute, (Comparable) HazelcastQuery.resolve(value, parameters)));
          return this;
       }
 
       @Override
       public Query.Builder ge(Query.SelectExpression selectExpression, Object value) {
-         implicitAnd(Predicates.greaterEqual(selectExpression.attribute, (Comparable) value));
+         checkParameter(value);
+         implicitAnd(parameters -> Predicates.greaterEqual(selectExpression.attribute, (Comparable) HazelcastQuery.resolve(value, parameters)));
          return this;
       }
 
@@ -101,19 +125,24 @@ public class HazelcastQueryable implements Queryable {
       public Query.Builder between(Query.SelectExpression selectExpression, Object lowerBound, boolean lowerInclusive, Object upperBound, boolean upperInclusive) {
          if (!lowerInclusive || !upperInclusive)
             throw new IllegalArgumentException("Hazelcast supports only inclusive bounds");
-         implicitAnd(Predicates.between(selectExpression.attribute, (Comparable) lowerBound, (Comparable) upperBound));
+         checkParameter(lowerBound);
+         checkParameter(upperBound);
+         implicitAnd(parameters -> Predicates.between(selectExpression.attribute,
+            (Comparable) HazelcastQuery.resolve(lowerBound, parameters), (Comparable) HazelcastQuery.resolve(upperBound, parameters)));
          return this;
       }
 
       @Override
       public Query.Builder isNull(Query.SelectExpression selectExpression) {
-         implicitAnd(Predicates.equal(selectExpression.attribute, null));
+         Predicate isNull = Predicates.equal(selectExpression.attribute, null);
+         implicitAnd(parameters -> isNull);
          return this;
       }
 
       @Override
       public Query.Builder like(Query.SelectExpression selectExpression, String pattern) {
-         implicitAnd(Predicates.like(selectExpression.attribute, pattern));
+         Predicate like = Predicates.like(selectExpression.attribute, pattern);
+         implicitAnd(parameters -> like);
          return this;
       }
 
@@ -124,21 +153,31 @@ public class HazelcastQueryable implements Queryable {
 
       @Override
       public Query.Builder not(Query.Builder subquery) {
-         implicitAnd(Predicates.not(((HazelcastQueryBuilder) subquery).predicate));
+         HazelcastQueryBuilder sub = (HazelcastQueryBuilder) subquery;
+         parametrized |= sub.parametrized;
+         implicitAnd(parameters -> Predicates.not(sub.predicate.create(parameters)));
          return this;
       }
 
       @Override
       public Query.Builder any(Query.Builder... subqueries) {
-         Predicate p = null;
-         for (Query.Builder subquery : subqueries) {
-            if (p == null) {
-               p = ((HazelcastQueryBuilder) subquery).predicate;
-            } else {
-               p = Predicates.or(p, ((HazelcastQueryBuilder) subquery).predicate);
-            }
+         HazelcastQuery.PredicateFactory[] subs = new HazelcastQuery.PredicateFactory[subqueries.length];
+         for (int i = 0; i < subqueries.length; ++i) {
+            HazelcastQueryBuilder sub = (HazelcastQueryBuilder) subqueries[i];
+            parametrized |= sub.parametrized;
+            subs[i] = sub.predicate;
          }
-         implicitAnd(p);
+         implicitAnd(parameters -> {
+            Predicate p = null;
+            for (HazelcastQuery.PredicateFactory sub : subs) {
+               if (p == null) {
+                  p = sub.create(parameters);
+               } else {
+                  p = Predicates.or(p, sub.create(parameters));
+               }
+            }
+            return p;
+         });
          return this;
       }
 
@@ -184,21 +223,16 @@ public class HazelcastQueryable implements Queryable {
       @Override
       public Query build() {
          if (projection != null && projection.length == 1 && projection[0].function != Query.AggregationFunction.NONE) {
-            return new HazelcastAggregationQuery(clazz, predicate, projection[0]);
-         }
-         Predicate finalPredicate;
-         if (comparator == null) {
-            if (limit < 0) finalPredicate = predicate;
-            else finalPredicate = new PagingPredicate(predicate, limit);
-         } else {
-            if (limit < 0) finalPredicate = new PagingPredicate(predicate, comparator, Integer.MAX_VALUE);
-            else finalPredicate = new PagingPredicate(predicate, comparator, limit);
+            if (parametrized) {
+               throw new UnsupportedOperationException("Parameters are not supported in aggregation queries");
+            }
+            return new HazelcastAggregationQuery(clazz, predicate == null ? null : predicate.create(Collections.emptyMap()), projection[0]);
          }
          String[] stringProjection = new String[projection.length];
          for (int i = 0; i < projection.length; i++) {
             stringProjection[i] = projection[i].attribute;
          }
-         return new HazelcastQuery(finalPredicate, offset, stringProjection);
+         return new HazelcastQuery(predicate, parametrized, comparator, limit, offset, stringProjection, fetchSize);
       }
    }
 
@@ -42,6 +42,16 @@ public abstract class AbstractInfinispanQueryable implements Queryable {
          return endContext;
       }
 
+      /**
+       * Converts the value used in condition; parameters are not supported by default.
+       */
+      protected Object value(Object value) {
+         if (value instanceof Query.Parameter) {
+            throw new UnsupportedOperationException("Query parameters are supported since Infinispan 8.0");
+         }
+         return value;
+      }
+
       @Override
       public Query.Builder subquery() {
          return new QueryBuilderImpl(factory);
@@ -49,37 +59,37 @@ public abstract class AbstractInfinispanQueryable implements Queryable {
 
       @Override
       public Query.Builder eq(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).eq(value);
+         context = getEndContext(selectExpression).eq(value(value));
          return this;
       }
 
       @Override
       public Query.Builder lt(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).lt(value);
+         context = getEndContext(selectExpression).lt(value(value));
          return this;
       }
 
       @Override
       public Query.Builder le(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).lte(value);
+         context = getEndContext(selectExpression).lte(value(value));
          return this;
       }
 
       @Override
       public Query.Builder gt(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).gt(value);
+         context = getEndContext(selectExpression).gt(value(value));
          return this;
       }
 
       @Override
       public Query.Builder ge(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).gte(value);
+         context = getEndContext(selectExpression).gte(value(value));
          return this;
       }
 
       @Override
       public Query.Builder between(Query.SelectExpression selectExpression, Object lowerBound, boolean lowerInclusive, Object upperBound, boolean upperInclusive) {
-         context = getEndContext(selectExpression).between(lowerBound, upperBound).includeLower(lowerInclusive).includeUpper(upperInclusive);
+         context = getEndContext(selectExpression).between(value(lowerBound), value(upperBound)).includeLower(lowerInclusive).includeUpper(upperInclusive);
          return this;
       }
 
@@ -97,7 +107,7 @@ public abstract class AbstractInfinispanQueryable implements Queryable {
 
       @Override
       public Query.Builder contains(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).contains(value);
+         context = getEndContext(selectExpression).contains(value(value));
          return this;
       }
 
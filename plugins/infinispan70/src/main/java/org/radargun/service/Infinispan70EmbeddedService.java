@@ -15,6 +15,10 @@ public class Infinispan70EmbeddedService extends Infinispan60EmbeddedService {
    @Property(doc = "Enable diagnostics port for service probing (true/false/null). Default is null - use settings from ISPN configuration.")
    protected Boolean enableDiagnostics;
 
+   @Property(doc = "Register separate Infinispan listener for each registered RadarGun listener, instead of single " +
+      "listener per cache that dispatches the events. Default is false.")
+   protected boolean listenerPerRegistration = false;
+
    protected JGroupsTransport transport;
 
    @Override
@@ -58,7 +62,7 @@ public class Infinispan70EmbeddedService extends Infinispan60EmbeddedService {
 
    @ProvidesTrait
    public InfinispanCacheListeners createListeners() {
-      return new InfinispanCacheListeners(this);
+      return new InfinispanCacheListeners(this, listenerPerRegistration);
    }
 
    @ProvidesTrait
@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
@@ -24,7 +25,9 @@ import org.radargun.logging.LogFactory;
 
 /**
  * Generic listener is registered only once for each cache, then it multiplexes the events to the
- * RadarGun listeners. The listener registration is not expected to survive cache manager restarts.
+ * RadarGun listeners. Alternatively, separate native listener can be registered for each RadarGun listener
+ * in order to measure the overhead of multiple listeners in Infinispan itself.
+ * The listener registration is not expected to survive cache manager restarts.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -36,11 +39,20 @@ public class InfinispanCacheListeners extends
    protected final ConcurrentMap<String, GenericCacheListener> syncListeners = new ConcurrentHashMap<String, GenericCacheListener>();
    protected final ConcurrentMap<String, GenericCacheListener> asyncListeners = new ConcurrentHashMap<String, GenericCacheListener>();
 
+   // native listeners registered for single RadarGun listener each
+   protected final ConcurrentMap<Object, GenericCacheListener> dedicatedListeners = new ConcurrentHashMap<Object, GenericCacheListener>();
+
    protected final Infinispan60EmbeddedService service;
+   protected final boolean listenerPerRegistration;
    private InfinispanCacheListeners.CacheManagerListener cacheManagerListener = new CacheManagerListener();
 
    public InfinispanCacheListeners(Infinispan60EmbeddedService service) {
+      this(service, false);
+   }
+
+   public InfinispanCacheListeners(Infinispan60EmbeddedService service, boolean listenerPerRegistration) {
       this.service = service;
+      this.listenerPerRegistration = listenerPerRegistration;
    }
 
    @Override
@@ -87,11 +99,100 @@ public class InfinispanCacheListeners extends
       return Arrays.asList(Type.CREATED, Type.UPDATED, Type.REMOVED, Type.EVICTED);
    }
 
+   @Override
+   public void addCreatedListener(String cacheName, CreatedListener listener, boolean sync) {
+      if (listenerPerRegistration) {
+         addDedicatedListener(cacheName, listener, sync, generic -> generic.add(listener));
+      } else {
+         super.addCreatedListener(cacheName, listener, sync);
+      }
+   }
+
+   @Override
+   public void addUpdatedListener(String cacheName, UpdatedListener listener, boolean sync) {
+      if (listenerPerRegistration) {
+         addDedicatedListener(cacheName, listener, sync, generic -> generic.add(listener));
+      } else {
+         super.addUpdatedListener(cacheName, listener, sync);
+      }
+   }
+
+   @Override
+   public void addRemovedListener(String cacheName, RemovedListener listener, boolean sync) {
+      if (listenerPerRegistration) {
+         addDedicatedListener(cacheName, listener, sync, generic -> generic.add(listener));
+      } else {
+         super.addRemovedListener(cacheName, listener, sync);
+      }
+   }
+
+   @Override
+   public void addEvictedListener(String cacheName, EvictedListener listener, boolean sync) {
+      if (listenerPerRegistration) {
+         addDedicatedListener(cacheName, listener, sync, generic -> generic.add(listener));
+      } else {
+         super.addEvictedListener(cacheName, listener, sync);
+      }
+   }
+
    @Override
    public void addExpiredListener(String cacheName, ExpiredListener listener, boolean sync) {
       throw new UnsupportedOperationException();
    }
 
+   @Override
+   public void removeCreatedListener(String cacheName, CreatedListener listener, boolean sync) {
+      if (listenerPerRegistration) {
+         removeDedicatedListener(cacheName, listener);
+      } else {
+         super.removeCreatedListener(cacheName, listener, sync);
+      }
+   }
+
+   @Override
+   public void removeUpdatedListener(String cacheName, UpdatedListener listener, boolean sync) {
+      if (listenerPerRegistration) {
+         removeDedicatedListener(cacheName, listener);
+      } else {
+         super.removeUpdatedListener(cacheName, listener, sync);
+      }
+   }
+
+   @Override
+   public void removeRemovedListener(String cacheName, RemovedListener listener, boolean sync) {
+      if (listenerPerRegistration) {
+         removeDedicatedListener(cacheName, listener);
+      } else {
+         super.removeRemovedListener(cacheName, listener, sync);
+      }
+   }
+
+   @Override
+   public void removeEvictedListener(String cacheName, EvictedListener listener, boolean sync) {
+      if (listenerPerRegistration) {
+         removeDedicatedListener(cacheName, listener);
+      } else {
+         super.removeEvictedListener(cacheName, listener, sync);
+      }
+   }
+
+   private void addDedicatedListener(String cacheName, Object listener, boolean sync, Consumer<GenericCacheListener> add) {
+      GenericCacheListener generic = sync ? new SyncCacheListener() : new AsyncCacheListener();
+      add.accept(generic);
+      if (dedicatedListeners.putIfAbsent(listener, generic) != null) {
+         throw new IllegalArgumentException("Listener " + listener + " is already registered");
+      }
+      service.getCache(cacheName).getAdvancedCache().addListener(generic);
+   }
+
+   private void removeDedicatedListener(String cacheName, Object listener) {
+      GenericCacheListener generic = dedicatedListeners.remove(listener);
+      if (generic == null) {
+         throw new IllegalArgumentException("Listener " + listener + " was not registered");
+      }
+      service.getCache(cacheName).getAdvancedCache().removeListener(generic);
+   }
+
    @Override
    public void removeExpiredListener(String cacheName, ExpiredListener listener, boolean sync) {
       throw new UnsupportedOperationException();
@@ -7,7 +7,7 @@ import org.infinispan.query.dsl.QueryFactory;
 import org.radargun.traits.Query;
 
 /**
- * Adds support for aggregations.
+ * Adds support for aggregations and query parameters.
  *
  * @author Jakub Markos &lt;jmarkos@redhat.com&gt;
  */
@@ -21,6 +21,11 @@ public class Infinispan80EmbeddedQueryable extends Infinispan70EmbeddedQueryable
       return new QueryBuilder80Impl(Search.getQueryFactory(service.getCache(cacheName)), clazz);
    }
 
+   @Override
+   public boolean supportsParameters() {
+      return true;
+   }
+
    protected static class QueryBuilder80Impl extends QueryBuilderImpl {
       public QueryBuilder80Impl(QueryFactory factory, Class<?> clazz) {
          super(factory, clazz);
@@ -30,6 +35,19 @@ public class Infinispan80EmbeddedQueryable extends Infinispan70EmbeddedQueryable
          super(factory);
       }
 
+      @Override
+      public Query.Builder subquery() {
+         return new QueryBuilder80Impl(factory);
+      }
+
+      @Override
+      protected Object value(Object value) {
+         if (value instanceof Query.Parameter) {
+            return Expression.param(((Query.Parameter) value).name);
+         }
+         return value;
+      }
+
       protected Expression attributeToExpression(Query.SelectExpression selectExpression) {
          switch (selectExpression.function) {
             case NONE:
@@ -90,6 +108,23 @@ public class Infinispan80EmbeddedQueryable extends Infinispan70EmbeddedQueryable
                org.infinispan.query.dsl.SortOrder.ASC : org.infinispan.query.dsl.SortOrder.DESC);
          return this;
       }
+
+      @Override
+      public Query build() {
+         if (builder == null) throw new IllegalArgumentException("You have to call build() on root query builder!");
+         return new ParametrizedQueryImpl(builder.build());
+      }
+   }
+
+   protected static class ParametrizedQueryImpl extends QueryImpl {
+      public ParametrizedQueryImpl(org.infinispan.query.dsl.Query query) {
+         super(query);
+      }
+
+      @Override
+      public void setParameter(String name, Object value) {
+         getDelegatingQuery().setParameter(name, value);
+      }
    }
 
 }
\ No newline at end of file
@@ -37,37 +37,37 @@ public class Infinispan90EmbeddedQueryable extends Infinispan80EmbeddedQueryable
 
       @Override
       public Query.Builder eq(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).eq(value);
+         context = getEndContext(selectExpression).eq(value(value));
          return this;
       }
 
       @Override
       public Query.Builder lt(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).lt(value);
+         context = getEndContext(selectExpression).lt(value(value));
          return this;
       }
 
       @Override
       public Query.Builder le(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).lte(value);
+         context = getEndContext(selectExpression).lte(value(value));
          return this;
       }
 
       @Override
       public Query.Builder gt(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).gt(value);
+         context = getEndContext(selectExpression).gt(value(value));
          return this;
       }
 
       @Override
       public Query.Builder ge(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).gte(value);
+         context = getEndContext(selectExpression).gte(value(value));
          return this;
       }
 
       @Override
       public Query.Builder between(Query.SelectExpression selectExpression, Object lowerBound, boolean lowerInclusive, Object upperBound, boolean upperInclusive) {
-         context = getEndContext(selectExpression).between(lowerBound, upperBound).includeLower(lowerInclusive).includeUpper(upperInclusive);
+         context = getEndContext(selectExpression).between(value(lowerBound), value(upperBound)).includeLower(lowerInclusive).includeUpper(upperInclusive);
          return this;
       }
 
@@ -85,7 +85,7 @@ public class Infinispan90EmbeddedQueryable extends Infinispan80EmbeddedQueryable
 
       @Override
       public Query.Builder contains(Query.SelectExpression selectExpression, Object value) {
-         context = getEndContext(selectExpression).contains(value);
+         context = getEndContext(selectExpression).contains(value(value));
          return this;
       }
 
@@ -157,7 +157,7 @@ public class Infinispan90EmbeddedQueryable extends Infinispan80EmbeddedQueryable
       @Override
       public Query build() {
          if (builder == null) throw new IllegalArgumentException("You have to call build() on root query builder!");
-         return new QueryImpl(builder.build());
+         return new ParametrizedQueryImpl(builder.build());
       }
    }
 
@@ -0,0 +1,80 @@
+package org.radargun.service;
+
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisClusterException;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.util.SafeEncoder;
+
+/**
+ * Exposes pools of connections to the nodes owning given slot, so that commands for multiple keys
+ * can be pipelined. The slot ownership is tracked separately from the connection handler in order
+ * to find out the node without borrowing a connection.
+ */
+public class PipelinedJedisCluster extends JedisCluster {
+   private volatile String[] slotOwners;
+
+   public PipelinedJedisCluster(Set<HostAndPort> nodes, GenericObjectPoolConfig poolConfig) {
+      super(nodes, poolConfig);
+   }
+
+   /**
+    * @return Pool of connections to the master node owning given slot.
+    */
+   public JedisPool getPoolFromSlot(int slot) {
+      String[] owners = slotOwners;
+      if (owners == null) {
+         owners = discoverSlotOwners();
+      }
+      JedisPool pool = owners[slot] == null ? null : getClusterNodes().get(owners[slot]);
+      if (pool == null) {
+         renewSlotCache();
+         owners = slotOwners;
+         pool = owners[slot] == null ? null : getClusterNodes().get(owners[slot]);
+         if (pool == null) {
+            throw new JedisClusterException("No node owns slot " + slot);
+         }
+      }
+      return pool;
+   }
+
+   /**
+    * Should be invoked after the pipelined command was redirected.
+    */
+   public void renewSlotCache() {
+      connectionHandler.renewSlotCache();
+      discoverSlotOwners();
+   }
+
+   private synchronized String[] discoverSlotOwners() {
+      JedisConnectionException lastException = null;
+      for (JedisPool pool : getClusterNodes().values()) {
+         try (Jedis jedis = pool.getResource()) {
+            String[] owners = new String[HASHSLOTS];
+            for (Object slotInfoObject : jedis.clusterSlots()) {
+               List<Object> slotInfo = (List<Object>) slotInfoObject;
+               if (slotInfo.size() <= 2) {
+                  continue;
+               }
+               List<Object> master = (List<Object>) slotInfo.get(2);
+               String address = SafeEncoder.encode((byte[]) master.get(0)) + ":" + master.get(1);
+               int last = ((Long) slotInfo.get(1)).intValue();
+               for (int slot = ((Long) slotInfo.get(0)).intValue(); slot <= last; ++slot) {
+                  owners[slot] = address;
+               }
+            }
+            slotOwners = owners;
+            return owners;
+         } catch (JedisConnectionException e) {
+            lastException = e;
+         }
+      }
+      throw new JedisConnectionException("Cannot retrieve slots from any node", lastException);
+   }
+}
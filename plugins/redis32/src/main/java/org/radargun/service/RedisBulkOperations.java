@@ -0,0 +1,244 @@
+package org.radargun.service;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.radargun.logging.Log;
+import org.radargun.logging.LogFactory;
+import org.radargun.traits.BulkOperations;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.util.JedisClusterCRC16;
+
+/**
+ * Multi-key commands in Redis cluster are allowed only for keys mapped to the same slot, therefore the keys
+ * are grouped by slot and the commands for all slots owned by one node are pipelined over single connection.
+ * Native version uses one MGET/MSET/DEL per slot, asynchronous version pipelines single-key commands.
+ */
+public class RedisBulkOperations implements BulkOperations {
+   private static final Log log = LogFactory.getLog(RedisBulkOperations.class);
+
+   protected final RedisClientService service;
+
+   public RedisBulkOperations(RedisClientService service) {
+      this.service = service;
+   }
+
+   @Override
+   public <K, V> Cache<K, V> getCache(String cacheName, boolean preferAsync) {
+      return new RedisBulkCacheAdapter(service.jedisCluster, service.pipelineDepth, preferAsync);
+   }
+
+   private interface BulkCommand {
+      /**
+       * Pipeline the commands for all keys, which must belong to one slot.
+       */
+      void send(NodePipeline node, List<byte[]> slotKeys);
+
+      void processResponses();
+   }
+
+   private static class RedisBulkCacheAdapter implements BulkOperations.Cache<byte[], byte[]> {
+      private final PipelinedJedisCluster jedisCluster;
+      private final int pipelineDepth;
+      private final boolean preferAsync;
+
+      RedisBulkCacheAdapter(PipelinedJedisCluster jedisCluster, int pipelineDepth, boolean preferAsync) {
+         this.jedisCluster = jedisCluster;
+         this.pipelineDepth = pipelineDepth;
+         this.preferAsync = preferAsync;
+      }
+
+      @Override
+      public Map<byte[], byte[]> getAll(Set<byte[]> keys) {
+         Map<byte[], byte[]> values = new HashMap<>(keys.size());
+         execute(keys, () -> new BulkCommand() {
+            List<List<byte[]>> requestedKeys = new ArrayList<>();
+            List<Response<List<byte[]>>> multiResponses = new ArrayList<>();
+            List<Response<byte[]>> singleResponses = new ArrayList<>();
+
+            @Override
+            public void send(NodePipeline node, List<byte[]> slotKeys) {
+               requestedKeys.add(slotKeys);
+               if (preferAsync) {
+                  for (byte[] key : slotKeys) {
+                     singleResponses.add(node.pipeline.get(key));
+                     node.sent();
+                  }
+               } else {
+                  multiResponses.add(node.pipeline.mget(slotKeys.toArray(new byte[slotKeys.size()][])));
+                  node.sent();
+               }
+            }
+
+            @Override
+            public void processResponses() {
+               values.clear();
+               int single = 0;
+               for (int i = 0; i < requestedKeys.size(); ++i) {
+                  List<byte[]> slotKeys = requestedKeys.get(i);
+                  List<byte[]> slotValues;
+                  if (preferAsync) {
+                     slotValues = new ArrayList<>(slotKeys.size());
+                     for (int j = 0; j < slotKeys.size(); ++j) {
+                        slotValues.add(singleResponses.get(single++).get());
+                     }
+                  } else {
+                     slotValues = multiResponses.get(i).get();
+                  }
+                  for (int j = 0; j < slotKeys.size(); ++j) {
+                     byte[] value = slotValues.get(j);
+                     if (value != null) {
+                        values.put(slotKeys.get(j), value);
+                     }
+                  }
+               }
+            }
+         });
+         return values;
+      }
+
+      @Override
+      public void putAll(Map<byte[], byte[]> entries) {
+         execute(entries.keySet(), () -> new BulkCommand() {
+            List<Response<String>> responses = new ArrayList<>();
+
+            @Override
+            public void send(NodePipeline node, List<byte[]> slotKeys) {
+               if (preferAsync) {
+                  for (byte[] key : slotKeys) {
+                     responses.add(node.pipeline.set(key, entries.get(key)));
+                     node.sent();
+                  }
+               } else {
+                  byte[][] keysValues = new byte[2 * slotKeys.size()][];
+                  int i = 0;
+                  for (byte[] key : slotKeys) {
+                     keysValues[i++] = key;
+                     keysValues[i++] = entries.get(key);
+                  }
+                  responses.add(node.pipeline.mset(keysValues));
+                  node.sent();
+               }
+            }
+
+            @Override
+            public void processResponses() {
+               // propagates errors
+               responses.forEach(Response::get);
+            }
+         });
+      }
+
+      @Override
+      public void removeAll(Set<byte[]> keys) {
+         execute(keys, () -> new BulkCommand() {
+            List<Response<Long>> responses = new ArrayList<>();
+
+            @Override
+            public void send(NodePipeline node, List<byte[]> slotKeys) {
+               if (preferAsync) {
+                  for (byte[] key : slotKeys) {
+                     responses.add(node.pipeline.del(key));
+                     node.sent();
+                  }
+               } else {
+                  responses.add(node.pipeline.del(slotKeys.toArray(new byte[slotKeys.size()][])));
+                  node.sent();
+               }
+            }
+
+            @Override
+            public void processResponses() {
+               responses.forEach(Response::get);
+            }
+         });
+      }
+
+      private void execute(Collection<byte[]> keys, Supplier<BulkCommand> commandFactory) {
+         Map<Integer, List<byte[]>> slots = new HashMap<>();
+         for (byte[] key : keys) {
+            slots.computeIfAbsent(JedisClusterCRC16.getSlot(key), slot -> new ArrayList<>()).add(key);
+         }
+         try {
+            executeOnce(slots, commandFactory.get());
+         } catch (JedisRedirectionException e) {
+            // the topology has changed, retry once with updated slot mapping
+            log.debug("Bulk operation was redirected, renewing slot cache", e);
+            jedisCluster.renewSlotCache();
+            executeOnce(slots, commandFactory.get());
+         }
+      }
+
+      private void executeOnce(Map<Integer, List<byte[]>> slots, BulkCommand command) {
+         try (Pipelines pipelines = new Pipelines()) {
+            // send commands to all nodes first, then wait for the responses, so the round trips overlap
+            for (Map.Entry<Integer, List<byte[]>> entry : slots.entrySet()) {
+               command.send(pipelines.forSlot(entry.getKey()), entry.getValue());
+            }
+            pipelines.sync();
+         }
+         command.processResponses();
+      }
+
+      private class Pipelines implements Closeable {
+         private final Map<JedisPool, NodePipeline> nodes = new HashMap<>();
+
+         NodePipeline forSlot(int slot) {
+            // borrow exactly one connection per node, the owner is resolved without touching the pool
+            JedisPool pool = jedisCluster.getPoolFromSlot(slot);
+            NodePipeline node = nodes.get(pool);
+            if (node == null) {
+               node = new NodePipeline(pool.getResource(), pipelineDepth);
+               nodes.put(pool, node);
+            }
+            return node;
+         }
+
+         void sync() {
+            for (NodePipeline node : nodes.values()) {
+               node.pipeline.sync();
+            }
+         }
+
+         @Override
+         public void close() {
+            for (NodePipeline node : nodes.values()) {
+               node.jedis.close();
+            }
+         }
+      }
+   }
+
+   private static class NodePipeline {
+      private final Jedis jedis;
+      private final Pipeline pipeline;
+      private final int pipelineDepth;
+      private int inFlight;
+
+      NodePipeline(Jedis jedis, int pipelineDepth) {
+         this.jedis = jedis;
+         this.pipeline = jedis.pipelined();
+         this.pipelineDepth = pipelineDepth;
+      }
+
+      /**
+       * Limits the number of commands awaiting response on this connection.
+       */
+      void sent() {
+         if (++inFlight >= pipelineDepth) {
+            pipeline.sync();
+            inFlight = 0;
+         }
+      }
+   }
+}
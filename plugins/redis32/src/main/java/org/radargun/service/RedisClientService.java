@@ -12,7 +12,6 @@ import org.radargun.traits.ProvidesTrait;
 import org.radargun.utils.RedisAddressListConverter;
 import org.radargun.utils.Utils;
 import redis.clients.jedis.HostAndPort;
-import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisPoolConfig;
 
 /**
@@ -21,7 +20,7 @@ import redis.clients.jedis.JedisPoolConfig;
 @Service(doc = "Redis client")
 public class RedisClientService implements Lifecycle {
 
-   protected JedisCluster jedisCluster;
+   protected PipelinedJedisCluster jedisCluster;
 
    @Property(doc = "List of server addresses (in host:port format) the clients should connect to, separated by semicolons (;).", converter = RedisAddressListConverter.class)
    protected List<InetSocketAddress> servers;
@@ -35,6 +34,9 @@ public class RedisClientService implements Lifecycle {
    @Property(doc = "Redis port")
    protected int connectionPoolMinIdle = 10;
 
+   @Property(doc = "Maximum number of pipelined commands awaiting response on one connection in bulk operations. Default is 1000.")
+   protected int pipelineDepth = 1000;
+
    @Override
    public void start() {
       Set<HostAndPort> jedisClusterNodes = new HashSet<>();
@@ -45,7 +47,7 @@ public class RedisClientService implements Lifecycle {
       poolConfig.setMaxTotal(connectionPoolMaxTotal);
       poolConfig.setMaxIdle(connectionPoolMaxIdle);
       poolConfig.setMinIdle(connectionPoolMinIdle);
-      jedisCluster = new JedisCluster(jedisClusterNodes, poolConfig);
+      jedisCluster = new PipelinedJedisCluster(jedisClusterNodes, poolConfig);
    }
 
    @Override
@@ -64,6 +66,11 @@ public class RedisClientService implements Lifecycle {
       return new RedisClientOperations(this);
    }
 
+   @ProvidesTrait
+   public RedisBulkOperations createBulkOperations() {
+      return new RedisBulkOperations(this);
+   }
+
    @ProvidesTrait
    public RedisClientService getSelf() {
       return this;
@@ -5,7 +5,11 @@ import java.net.InetSocketAddress;
 import java.net.URLEncoder;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
 import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.core.Cookie;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
@@ -33,6 +37,11 @@ public class RESTEasyOperations implements RESTOperations {
       return null;
    }
 
+   @Override
+   public int getMaxAsyncRequests() {
+      return service.getAsyncThreads();
+   }
+
    protected class RESTOperationInvokerImpl implements RESTOperationInvoker {
 
       private String uri;
@@ -90,5 +99,38 @@ public class RESTEasyOperations implements RESTOperations {
          }
          return response;
       }
+
+      @Override
+      public CompletionStage<Response> getAsync(List<Cookie> cookiesToPass, MultivaluedMap<String, Object> headersToPass) {
+         CompletableFuture<Response> future = new CompletableFuture<>();
+         if (!service.isRunning()) {
+            future.completeExceptionally(new IllegalStateException("RESTEasyOperations::getAsync service is not running: " + uri));
+            return future;
+         }
+         Invocation.Builder requestBuilder = service.getHttpClient().target(uri).request();
+         for (Cookie cookie : cookiesToPass) {
+            requestBuilder.cookie(cookie);
+         }
+         try {
+            requestBuilder.accept(service.getContentType()).async().get(new InvocationCallback<Response>() {
+               @Override
+               public void completed(Response response) {
+                  if (response.getStatus() == Status.NOT_FOUND.getStatusCode()) {
+                     log.warn("The requested URI does not exist");
+                  }
+                  response.close();
+                  future.complete(response);
+               }
+
+               @Override
+               public void failed(Throwable throwable) {
+                  future.completeExceptionally(new RuntimeException("RESTEasyOperations::getAsync request threw exception: " + uri, throwable));
+               }
+            });
+         } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new RuntimeException("RESTEasyOperations::getAsync too many requests queued: " + uri, e));
+         }
+         return future;
+      }
    }
 }
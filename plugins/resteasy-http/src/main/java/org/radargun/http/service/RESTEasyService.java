@@ -3,7 +3,12 @@ package org.radargun.http.service;
 import java.math.BigDecimal;
 import java.net.InetSocketAddress;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jboss.resteasy.client.jaxrs.BasicAuthentication;
 import org.jboss.resteasy.client.jaxrs.ResteasyClient;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
@@ -28,6 +33,12 @@ public class RESTEasyService implements Lifecycle {
 
    private static final Log log = LogFactory.getLog(RESTEasyService.class);
    private ResteasyClient httpClient = null;
+   private ExecutorService asyncExecutor = null;
+
+   public enum Engine {
+      URL_CONNECTION,
+      APACHE
+   }
 
    @Property(doc = "The username to use on an authenticated server. Defaults to null.")
    private String username;
@@ -61,6 +72,24 @@ public class RESTEasyService implements Lifecycle {
    @Property(doc = "The number of connections to pool per url. Default is equal to <code>maxConnections</code>.")
    protected int maxConnectionsPerHost = 0;
 
+   @Property(doc = "HTTP client engine. Options are URL_CONNECTION (java.net.HttpURLConnection, pooling is left " +
+      "to the JDK keep-alive cache) and APACHE (Apache HttpClient with connection pool sized by maxConnections " +
+      "and maxConnectionsPerHost). Default is URL_CONNECTION.")
+   protected Engine engine = Engine.URL_CONNECTION;
+
+   @Property(doc = "Time to live of the pooled connections, used only with APACHE engine. " +
+      "Default is unlimited (connections are kept alive as long as the server allows).", converter = TimeConverter.class)
+   protected long connectionTtl = -1;
+
+   @Property(doc = "Number of threads executing asynchronous requests. The engines are blocking, therefore this limits " +
+      "the number of concurrent asynchronous requests; tests with more requests in flight on this node are warned " +
+      "that the requests will be queued. Default is 10.")
+   protected int asyncThreads = 10;
+
+   @Property(doc = "Maximum number of asynchronous requests waiting for a free thread; further requests fail " +
+      "immediately instead of piling up in memory. Default is 1000.")
+   protected int asyncQueueSize = 1000;
+
    @ProvidesTrait
    public RESTEasyOperations createOperations() {
       return new RESTEasyOperations(this);
@@ -73,6 +102,12 @@ public class RESTEasyService implements Lifecycle {
 
    @Init
    public void init() {
+      if (asyncThreads <= 0) {
+         throw new IllegalArgumentException("Number of async threads must be positive: " + asyncThreads);
+      }
+      if (asyncQueueSize <= 0) {
+         throw new IllegalArgumentException("Async queue size must be positive: " + asyncQueueSize);
+      }
       if (serversLoadBalance == null) {
          Fuzzy.Builder<Integer> builder = new Fuzzy.Builder<>();
          for (int i=0; i!=servers.size(); i++) {
@@ -95,10 +130,34 @@ public class RESTEasyService implements Lifecycle {
          return;
       }
 
-      httpClient = new ResteasyClientBuilder().httpEngine(new URLConnectionEngine())
+      AtomicInteger threadCounter = new AtomicInteger();
+      ThreadFactory threadFactory = r -> {
+         Thread thread = new Thread(r, "RESTEasyAsync-" + threadCounter.getAndIncrement());
+         thread.setDaemon(true);
+         return thread;
+      };
+      // the requests rejected by the executor are failed by RESTEasyOperations
+      asyncExecutor = new ThreadPoolExecutor(asyncThreads, asyncThreads, 0, TimeUnit.MILLISECONDS,
+         new ArrayBlockingQueue<>(asyncQueueSize), threadFactory);
+      ResteasyClientBuilder builder = new ResteasyClientBuilder()
             .establishConnectionTimeout(connectionTimeout, TimeUnit.MILLISECONDS)
             .socketTimeout(socketTimeout, TimeUnit.MILLISECONDS).connectionPoolSize(maxConnections)
-            .maxPooledPerRoute(maxConnectionsPerHost).hostnameVerification(HostnameVerificationPolicy.ANY).build();
+            .maxPooledPerRoute(maxConnectionsPerHost).hostnameVerification(HostnameVerificationPolicy.ANY)
+            .asyncExecutor(asyncExecutor);
+      switch (engine) {
+         case URL_CONNECTION:
+            builder.httpEngine(new URLConnectionEngine());
+            break;
+         case APACHE:
+            // default engine of the builder, uses the pool settings
+            if (connectionTtl >= 0) {
+               builder.connectionTTL(connectionTtl, TimeUnit.MILLISECONDS);
+            }
+            break;
+         default:
+            throw new IllegalStateException("Unknown engine " + engine);
+      }
+      httpClient = builder.build();
 
       if (username != null) {
          BasicAuthentication auth = new BasicAuthentication(username, password);
@@ -115,6 +174,10 @@ public class RESTEasyService implements Lifecycle {
       return httpClient;
    }
 
+   public int getAsyncThreads() {
+      return asyncThreads;
+   }
+
    public String getUsername() {
       return username;
    }
@@ -140,6 +203,8 @@ public class RESTEasyService implements Lifecycle {
       }
       httpClient.close();
       httpClient = null;
+      asyncExecutor.shutdownNow();
+      asyncExecutor = null;
    }
 
    @Override
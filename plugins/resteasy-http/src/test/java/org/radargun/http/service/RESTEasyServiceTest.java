@@ -0,0 +1,134 @@
+package org.radargun.http.service;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.Response;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+import org.jboss.resteasy.client.jaxrs.engines.URLConnectionEngine;
+import org.radargun.traits.RESTOperations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(timeOut = 30000)
+public class RESTEasyServiceTest {
+   private HttpServer server;
+   private volatile CountDownLatch responseLatch;
+
+   @BeforeMethod
+   public void startServer() throws Exception {
+      server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+      server.createContext("/", exchange -> {
+         CountDownLatch latch = responseLatch;
+         if (latch != null) {
+            try {
+               latch.await();
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+         exchange.getResponseHeaders().add("Set-Cookie", "JSESSIONID=1");
+         exchange.sendResponseHeaders(200, -1);
+         exchange.close();
+      });
+      server.setExecutor(Executors.newCachedThreadPool());
+      server.start();
+   }
+
+   @AfterMethod
+   public void stopServer() {
+      if (responseLatch != null) {
+         responseLatch.countDown();
+         responseLatch = null;
+      }
+      server.stop(0);
+   }
+
+   public void testUrlConnectionEngine() throws Exception {
+      testEngine(RESTEasyService.Engine.URL_CONNECTION, URLConnectionEngine.class);
+   }
+
+   public void testApacheEngine() throws Exception {
+      testEngine(RESTEasyService.Engine.APACHE, ApacheHttpClient4Engine.class);
+   }
+
+   public void testAsyncWhenNotRunning() throws Exception {
+      RESTEasyService service = createService(RESTEasyService.Engine.URL_CONNECTION);
+      service.start();
+      RESTOperations.RESTOperationInvoker invoker = service.createOperations().getRESTInvoker("test");
+      service.stop();
+      CompletableFuture<Response> future = invoker.getAsync(Collections.emptyList(), null).toCompletableFuture();
+      try {
+         future.get(10, TimeUnit.SECONDS);
+         Assert.fail("Request should fail");
+      } catch (ExecutionException e) {
+         Assert.assertTrue(e.getCause() instanceof IllegalStateException, String.valueOf(e.getCause()));
+      }
+   }
+
+   public void testAsyncQueueFull() throws Exception {
+      RESTEasyService service = createService(RESTEasyService.Engine.URL_CONNECTION);
+      service.asyncThreads = 1;
+      service.asyncQueueSize = 1;
+      service.start();
+      responseLatch = new CountDownLatch(1);
+      try {
+         RESTOperations.RESTOperationInvoker invoker = service.createOperations().getRESTInvoker("test");
+         // the first request occupies the thread, the second one waits in the queue
+         CompletableFuture<Response> executing = invoker.getAsync(Collections.emptyList(), null).toCompletableFuture();
+         CompletableFuture<Response> queued = invoker.getAsync(Collections.emptyList(), null).toCompletableFuture();
+         CompletableFuture<Response> rejected = invoker.getAsync(Collections.emptyList(), null).toCompletableFuture();
+         try {
+            rejected.get(10, TimeUnit.SECONDS);
+            Assert.fail("Request should fail");
+         } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause().getCause() instanceof RejectedExecutionException, String.valueOf(e.getCause()));
+         }
+         responseLatch.countDown();
+         Assert.assertEquals(executing.get(10, TimeUnit.SECONDS).getStatus(), 200);
+         Assert.assertEquals(queued.get(10, TimeUnit.SECONDS).getStatus(), 200);
+      } finally {
+         service.stop();
+      }
+   }
+
+   private void testEngine(RESTEasyService.Engine engine, Class<? extends ClientHttpEngine> engineClass) throws Exception {
+      RESTEasyService service = createService(engine);
+      service.start();
+      try {
+         Assert.assertTrue(engineClass.isInstance(service.getHttpClient().httpEngine()),
+            String.valueOf(service.getHttpClient().httpEngine()));
+         RESTEasyOperations operations = service.createOperations();
+         Assert.assertEquals(operations.getMaxAsyncRequests(), 2);
+         RESTOperations.RESTOperationInvoker invoker = operations.getRESTInvoker("test");
+
+         Response response = invoker.get(Collections.emptyList(), null);
+         Assert.assertEquals(response.getStatus(), 200);
+         response = invoker.getAsync(Collections.emptyList(), null).toCompletableFuture().get(10, TimeUnit.SECONDS);
+         Assert.assertEquals(response.getStatus(), 200);
+         Assert.assertNotNull(response.getCookies().get("JSESSIONID"));
+      } finally {
+         service.stop();
+      }
+   }
+
+   private RESTEasyService createService(RESTEasyService.Engine engine) {
+      RESTEasyService service = new RESTEasyService();
+      service.servers = Collections.singletonList(server.getAddress());
+      service.engine = engine;
+      service.asyncThreads = 2;
+      service.init();
+      return service;
+   }
+}
@@ -0,0 +1,89 @@
+package org.radargun.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.internal.OperationFuture;
+import org.radargun.traits.AsyncOperations;
+
+/**
+ * Implementation of {@link AsyncOperations} using the listeners on spymemcached futures, therefore
+ * the requests are pipelined over the client's connection without blocking the caller.
+ */
+public class SpyMemcachedAsyncOperations implements AsyncOperations {
+   private final SpyMemcachedService service;
+
+   public SpyMemcachedAsyncOperations(SpyMemcachedService service) {
+      this.service = service;
+   }
+
+   @Override
+   public <K, V> Cache<K, V> getCache(String cacheName) {
+      service.checkCacheName(cacheName);
+      return new SpyMemcachedAsyncCache<>(service.nextClient());
+   }
+
+   protected static class SpyMemcachedAsyncCache<K, V> implements AsyncOperations.Cache<K, V> {
+      private final MemcachedClient client;
+
+      public SpyMemcachedAsyncCache(MemcachedClient client) {
+         this.client = client;
+      }
+
+      @Override
+      public CompletionStage<V> get(K key) {
+         CompletableFuture<V> result = new CompletableFuture<>();
+         client.asyncGet(key.toString()).addListener(future -> {
+            try {
+               result.complete((V) future.get());
+            } catch (Exception e) {
+               result.completeExceptionally(e);
+            }
+         });
+         return result;
+      }
+
+      @Override
+      public CompletionStage<Boolean> containsKey(K key) {
+         return get(key).thenApply(value -> value != null);
+      }
+
+      @Override
+      public CompletionStage<Void> put(K key, V value) {
+         return toStage(client.set(key.toString(), 0, value), "PUT").thenApply(success -> null);
+      }
+
+      @Override
+      public CompletionStage<Boolean> remove(K key) {
+         CompletableFuture<Boolean> result = new CompletableFuture<>();
+         client.delete(key.toString()).addListener(future -> {
+            try {
+               result.complete((Boolean) future.get());
+            } catch (Exception e) {
+               result.completeExceptionally(e);
+            }
+         });
+         return result;
+      }
+   }
+
+   /**
+    * @return Stage that completes exceptionally if the operation does not succeed.
+    */
+   static CompletableFuture<Boolean> toStage(OperationFuture<Boolean> operationFuture, String operation) {
+      CompletableFuture<Boolean> result = new CompletableFuture<>();
+      operationFuture.addListener(future -> {
+         try {
+            if ((Boolean) future.get()) {
+               result.complete(Boolean.TRUE);
+            } else {
+               result.completeExceptionally(new IllegalStateException(operation + " failed: " + future.getStatus().getMessage()));
+            }
+         } catch (Exception e) {
+            result.completeExceptionally(e);
+         }
+      });
+      return result;
+   }
+}
@@ -0,0 +1,99 @@
+package org.radargun.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import net.spy.memcached.MemcachedClient;
+import org.radargun.traits.BulkOperations;
+
+/**
+ * Implementation of {@link BulkOperations} that issues all requests before waiting for any response.
+ * Native version of getAll uses the multi-get command, asynchronous version sends single gets.
+ * As memcached does not have multi-key update commands, putAll and removeAll always send single requests.
+ */
+public class SpyMemcachedBulkOperations implements BulkOperations {
+   private final SpyMemcachedService service;
+
+   public SpyMemcachedBulkOperations(SpyMemcachedService service) {
+      this.service = service;
+   }
+
+   @Override
+   public <K, V> Cache<K, V> getCache(String cacheName, boolean preferAsync) {
+      service.checkCacheName(cacheName);
+      return new SpyMemcachedBulkCache<>(service.nextClient(), preferAsync);
+   }
+
+   protected static class SpyMemcachedBulkCache<K, V> implements BulkOperations.Cache<K, V> {
+      private final MemcachedClient client;
+      private final boolean preferAsync;
+
+      public SpyMemcachedBulkCache(MemcachedClient client, boolean preferAsync) {
+         this.client = client;
+         this.preferAsync = preferAsync;
+      }
+
+      @Override
+      public Map<K, V> getAll(Set<K> keys) {
+         Map<String, K> stringKeys = new HashMap<>(keys.size());
+         for (K key : keys) {
+            stringKeys.put(key.toString(), key);
+         }
+         Map<K, V> values = new HashMap<>(keys.size());
+         if (preferAsync) {
+            Map<K, Future<Object>> futures = new HashMap<>(keys.size());
+            for (Map.Entry<String, K> entry : stringKeys.entrySet()) {
+               futures.put(entry.getValue(), client.asyncGet(entry.getKey()));
+            }
+            for (Map.Entry<K, Future<Object>> entry : futures.entrySet()) {
+               V value = (V) await(entry.getValue());
+               if (value != null) {
+                  values.put(entry.getKey(), value);
+               }
+            }
+         } else {
+            for (Map.Entry<String, Object> entry : client.getBulk(stringKeys.keySet()).entrySet()) {
+               values.put(stringKeys.get(entry.getKey()), (V) entry.getValue());
+            }
+         }
+         return values;
+      }
+
+      @Override
+      public void putAll(Map<K, V> entries) {
+         List<CompletableFuture<Boolean>> futures = new ArrayList<>(entries.size());
+         for (Map.Entry<K, V> entry : entries.entrySet()) {
+            futures.add(SpyMemcachedAsyncOperations.toStage(client.set(entry.getKey().toString(), 0, entry.getValue()), "PUT"));
+         }
+         await(CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])));
+      }
+
+      @Override
+      public void removeAll(Set<K> keys) {
+         List<Future<Boolean>> futures = new ArrayList<>(keys.size());
+         for (K key : keys) {
+            futures.add(client.delete(key.toString()));
+         }
+         for (Future<Boolean> future : futures) {
+            await(future);
+         }
+      }
+
+      private static <T> T await(Future<T> future) {
+         try {
+            return future.get();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+         } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+         }
+      }
+   }
+}
@@ -25,9 +25,7 @@ public class SpyMemcachedOperations implements BasicOperations, ConditionalOpera
 
    @Override
    public <K, V> SpyMemcachedCache<K, V> getCache(String cacheName) {
-      if (cacheName != null && (service.cacheName == null || !service.cacheName.equals(cacheName))) {
-         throw new UnsupportedOperationException();
-      }
+      service.checkCacheName(cacheName);
       return new SpyMemcachedCache();
    }
 
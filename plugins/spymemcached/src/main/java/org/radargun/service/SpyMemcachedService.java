@@ -57,6 +57,16 @@ public class SpyMemcachedService implements Lifecycle {
       return new SpyMemcachedOperations(this);
    }
 
+   @ProvidesTrait
+   public SpyMemcachedAsyncOperations createAsyncOperations() {
+      return new SpyMemcachedAsyncOperations(this);
+   }
+
+   @ProvidesTrait
+   public SpyMemcachedBulkOperations createBulkOperations() {
+      return new SpyMemcachedBulkOperations(this);
+   }
+
    @ProvidesTrait
    public Lifecycle getLifecycle() {
       return this;
@@ -115,6 +125,15 @@ public class SpyMemcachedService implements Lifecycle {
       return memcachedClients[(nextClient.getAndIncrement() & Integer.MAX_VALUE) % poolSize];
    }
 
+   /**
+    * Requests for other than the expected cache are not supported.
+    */
+   void checkCacheName(String cacheName) {
+      if (cacheName != null && (this.cacheName == null || !this.cacheName.equals(cacheName))) {
+         throw new UnsupportedOperationException();
+      }
+   }
+
    private static class AddressListConverter implements Converter<List<InetSocketAddress>> {
 
       @Override
@@ -1,6 +1,10 @@
 package org.radargun.reporting.commons;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.radargun.reporting.Report;
 import org.radargun.stats.Statistics;
@@ -9,6 +13,10 @@ import org.radargun.stats.representation.DefaultOutcome;
 /**
  * Aggregates statistics information from test
  *
+ * The node and total statistics are merged eagerly by {@link TestAggregations}, as the list of operations
+ * and operation groups in the report depends on them. Representations of these statistics are computed
+ * lazily and cached, see {@link #getRepresentation(Statistics, String, Class, Object...)}.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  * @author Vitalii Chepeliuk &lt;vchepeli@redhat.com&gt;
  * @since 2.0
@@ -21,6 +29,9 @@ public class Aggregation {
    public final Report report;
    public final Report.TestIteration iteration;
 
+   // representations are requested repeatedly by tables, charts and suspect checks
+   private final ConcurrentMap<RepresentationKey, Optional<Object>> representations = new ConcurrentHashMap<>();
+
    public Aggregation(List<Statistics> nodeStats, List<Integer> nodeThreads, Statistics totalStats,
                       int totalThreads, Report report, Report.TestIteration iteration) {
       this.nodeStats = nodeStats;
@@ -45,8 +56,8 @@ public class Aggregation {
       if (node >= nodeStats.size() || (ns = nodeStats.get(node)) == null) {
          return false;
       }
-      DefaultOutcome ndo = ns.getRepresentation(operation, DefaultOutcome.class);
-      DefaultOutcome tdo = totalStats.getRepresentation(operation, DefaultOutcome.class);
+      DefaultOutcome ndo = getRepresentation(ns, operation, DefaultOutcome.class);
+      DefaultOutcome tdo = getRepresentation(totalStats, operation, DefaultOutcome.class);
       if (ndo == null) {
          return tdo != null;
       }
@@ -59,7 +70,7 @@ public class Aggregation {
       int slaveStatsCount = 0;
       for (Statistics ns : nodeStats) {
          if (ns == null) continue;
-         DefaultOutcome defaultOutcome = ns.getRepresentation(operation, DefaultOutcome.class);
+         DefaultOutcome defaultOutcome = getRepresentation(ns, operation, DefaultOutcome.class);
          if (defaultOutcome != null) {
             requests += defaultOutcome.requests;
             slaveStatsCount++;
@@ -67,4 +78,50 @@ public class Aggregation {
       }
       return slaveStatsCount > 0 ? requests / slaveStatsCount : 0;
    }
-}
\ No newline at end of file
+
+   /**
+    * Representation of statistics belonging to this aggregation (total, node or thread statistics).
+    * The representation is computed only once, subsequent calls return the cached instance.
+    */
+   public <T> T getRepresentation(Statistics statistics, String operation, Class<T> clazz, Object... args) {
+      if (statistics == null) {
+         return null;
+      }
+      RepresentationKey key = new RepresentationKey(statistics, operation, clazz, args);
+      return clazz.cast(representations.computeIfAbsent(key,
+         k -> Optional.ofNullable(statistics.getRepresentation(operation, clazz, args))).orElse(null));
+   }
+
+   private static class RepresentationKey {
+      private final Statistics statistics;
+      private final String operation;
+      private final Class<?> clazz;
+      private final Object[] args;
+
+      private RepresentationKey(Statistics statistics, String operation, Class<?> clazz, Object[] args) {
+         this.statistics = statistics;
+         this.operation = operation;
+         this.clazz = clazz;
+         this.args = args;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o) return true;
+         if (o == null || getClass() != o.getClass()) return false;
+         RepresentationKey that = (RepresentationKey) o;
+         // statistics are mutable, compare them by identity
+         return statistics == that.statistics && operation.equals(that.operation)
+            && clazz.equals(that.clazz) && Arrays.equals(args, that.args);
+      }
+
+      @Override
+      public int hashCode() {
+         int result = System.identityHashCode(statistics);
+         result = 31 * result + operation.hashCode();
+         result = 31 * result + clazz.hashCode();
+         result = 31 * result + Arrays.hashCode(args);
+         return result;
+      }
+   }
+}
@@ -9,6 +9,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.radargun.Operation;
 import org.radargun.config.Cluster;
@@ -43,13 +44,25 @@ public class TestAggregations {
       this.testName = testName;
       Set<String> iterationsNames = new TreeSet<>();
 
-      for (Report.Test test : tests) {
+      // thread statistics may be shared between iterations, modify them before the parallel part
+      tests.forEach(TestAggregations::registerThreadOperationsGroups);
+      // merging the statistics is the expensive part, aggregate all iterations in parallel
+      // and collect the results in the original order
+      List<List<Aggregation>> aggregations = tests.parallelStream()
+         .map(test -> test.getIterations().parallelStream()
+            .map(it -> aggregate(test, it))
+            .collect(Collectors.toList()))
+         .collect(Collectors.toList());
+
+      for (int i = 0; i < tests.size(); ++i) {
+         Report.Test test = tests.get(i);
          if (test.iterationsName != null) {
             iterationsNames.add(test.iterationsName);
          }
          List<Aggregation> iterations = new ArrayList<>();
-         for (Report.TestIteration it : test.getIterations()) {
-            addIteration(test, iterations, it);
+         List<Aggregation> testAggregations = aggregations.get(i);
+         for (int j = 0; j < testAggregations.size(); ++j) {
+            addIteration(test, iterations, testAggregations.get(j), test.getIterations().get(j));
          }
          byReports.put(test.getReport(), iterations);
          int clusterSize = test.getReport().getCluster().getSize();
@@ -75,7 +88,7 @@ public class TestAggregations {
       }
    }
 
-   private void addIteration(Report.Test test, List<Aggregation> iterations, Report.TestIteration it) {
+   private Aggregation aggregate(Report.Test test, Report.TestIteration it) {
       AtomicInteger totalThreads = new AtomicInteger();
       List<Statistics> nodeStats = new ArrayList<>();
       List<Integer> nodeThreads = new ArrayList<>();
@@ -97,35 +110,49 @@ public class TestAggregations {
          .filter(Optional::isPresent).map(Optional::get).reduce(Statistics.MERGE);
 
       if (!totalStats.isPresent()) {
-         log.warn("There are no stats for this iteration");
-      } else {
-         if (test.getGroupOperationsMap() != null && nodeStats != null && totalStats != null) {
-            for (Map.Entry<String, Set<Operation>> op : test.getGroupOperationsMap().entrySet()) {
-               //register groups for thread statistics
-               totalStats.get().registerOperationsGroup(op.getKey(), op.getValue());
-               //register groups for node statistics
-               nodeStats.stream().filter(stats -> stats != null).forEach(ns -> ns.registerOperationsGroup(op.getKey(), op.getValue()));
-               //register groups for thread statistics
-               for (Map.Entry<Integer, List<Statistics>> mapEntry : it.getStatistics()) {
-                  for (Statistics ts : mapEntry.getValue()) {
-                     if (ts != null) {
-                        ts.registerOperationsGroup(op.getKey(), op.getValue());
-                     }
+         return null;
+      }
+      if (test.getGroupOperationsMap() != null) {
+         for (Map.Entry<String, Set<Operation>> op : test.getGroupOperationsMap().entrySet()) {
+            //register groups for total statistics
+            totalStats.get().registerOperationsGroup(op.getKey(), op.getValue());
+            //register groups for node statistics
+            nodeStats.stream().filter(stats -> stats != null).forEach(ns -> ns.registerOperationsGroup(op.getKey(), op.getValue()));
+         }
+      }
+      return new Aggregation(nodeStats, nodeThreads, totalStats.get(), totalThreads.get(), test.getReport(), it);
+   }
+
+   private static void registerThreadOperationsGroups(Report.Test test) {
+      if (test.getGroupOperationsMap() == null) {
+         return;
+      }
+      for (Map.Entry<String, Set<Operation>> op : test.getGroupOperationsMap().entrySet()) {
+         for (Report.TestIteration it : test.getIterations()) {
+            for (Map.Entry<Integer, List<Statistics>> mapEntry : it.getStatistics()) {
+               for (Statistics ts : mapEntry.getValue()) {
+                  if (ts != null) {
+                     ts.registerOperationsGroup(op.getKey(), op.getValue());
                   }
                }
             }
          }
+      }
+   }
 
-         iterations.add(new Aggregation(nodeStats, nodeThreads, totalStats.get(), totalThreads.get(), test.getReport(), it));
-         for (String operation : totalStats.get().getOperations()) {
-            DefaultOutcome defaultOutcome = totalStats.get().getRepresentation(operation, DefaultOutcome.class);
+   private void addIteration(Report.Test test, List<Aggregation> iterations, Aggregation aggregation, Report.TestIteration it) {
+      if (aggregation == null) {
+         log.warn("There are no stats for this iteration");
+      } else {
+         iterations.add(aggregation);
+         for (String operation : aggregation.totalStats.getOperations()) {
+            DefaultOutcome defaultOutcome = aggregation.getRepresentation(aggregation.totalStats, operation, DefaultOutcome.class);
             if (defaultOutcome == null || defaultOutcome.requests > 0) {
                operations.add(operation);
             }
          }
 
-         operationGroups.addAll(totalStats.get().getOperationStatsForGroups().get(0).keySet());
-
+         operationGroups.addAll(aggregation.totalStats.getOperationStatsForGroups().get(0).keySet());
       }
 
       if (it != null && it.getResults() != null) {
@@ -16,7 +16,9 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import freemarker.cache.ClassTemplateLoader;
 import freemarker.template.DefaultObjectWrapper;
@@ -43,9 +45,10 @@ import org.radargun.reporting.commons.TestAggregations;
 public class HtmlReporter implements Reporter {
    private static final Log log = LogFactory.getLog(HtmlReporter.class);
    /**
-    * Shared executor used for long-running tasks when the report is generated.
+    * Shared executor used for long-running tasks when the report is generated. This is a fork-join pool
+    * so that a task may wait for other tasks (e.g. a test document for its charts) without starving the pool.
     */
-   public static final ExecutorService executor = Executors.newFixedThreadPool(2 * Runtime.getRuntime().availableProcessors());
+   public static final ExecutorService executor = new ForkJoinPool(2 * Runtime.getRuntime().availableProcessors());
 
    @Property(doc = "Directory to put the reports. Default is results/html.")
    private String targetDir = "results" + File.separator + "html";
@@ -70,12 +73,15 @@ public class HtmlReporter implements Reporter {
       resolveTestsByName(reports, allTests, combinedTests, testsByName);
 
       this.allTests = allTests;
+      // each test is aggregated only once, even if it is used in several combined reports
+      Map<String, TestAggregations> aggregationsByName = testsByName.entrySet().parallelStream()
+         .collect(Collectors.toMap(Map.Entry::getKey, entry -> new TestAggregations(entry.getKey(), entry.getValue())));
 
       writeIndexDocument(masterConfig, reports);
       writeTimelineDocuments(reports, Timeline.Category.Type.CUSTOM);
       writeTimelineDocuments(reports, Timeline.Category.Type.SYSMONITOR);
-      writeTestReportDocuments(combinedTests, testsByName);
-      writeCombinedReportDocuments(testsByName);
+      writeTestReportDocuments(combinedTests, aggregationsByName);
+      writeCombinedReportDocuments(aggregationsByName);
       writeNormalizedConfigDocuments(reports);
 
    }
@@ -133,19 +139,18 @@ public class HtmlReporter implements Reporter {
       }
    }
 
-   private void writeCombinedReportDocuments(Map<String, List<Report.Test>> testsByName) {
+   private void writeCombinedReportDocuments(Map<String, TestAggregations> aggregationsByName) {
       for (List<String> combined : testReportConfig.combinedTests) {
          List<TestAggregations> testAggregations = new ArrayList<>();
          StringBuilder sb = new StringBuilder();
          for (String testName : combined) {
             if (sb.length() != 0) sb.append('_');
             sb.append(testName);
-            List<Report.Test> reportedTests = testsByName.get(testName);
-            if (reportedTests == null) {
+            TestAggregations ta = aggregationsByName.get(testName);
+            if (ta == null) {
                log.warn("Test " + testName + " was not found!");
                continue;
             }
-            TestAggregations ta = new TestAggregations(testName, reportedTests);
             testAggregations.add(ta);
          }
          if (testAggregations.isEmpty()) {
@@ -167,24 +172,35 @@ public class HtmlReporter implements Reporter {
       }
    }
 
-   private void writeTestReportDocuments(Set<String> combinedTests, Map<String, List<Report.Test>> testsByName) {
-      for (Map.Entry<String, List<Report.Test>> entry : testsByName.entrySet()) {
+   private void writeTestReportDocuments(Set<String> combinedTests, Map<String, TestAggregations> aggregationsByName) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (Map.Entry<String, TestAggregations> entry : aggregationsByName.entrySet()) {
          if (combinedTests.contains(entry.getKey())) {
             // do not write TestReportDocument for combined test
             continue;
          }
-         TestAggregations ta = new TestAggregations(entry.getKey(), entry.getValue());
-         TestReportDocument testReport = new TestReportDocument(ta, targetDir, testReportConfig);
+         futures.add(executor.submit(() -> writeTestReportDocument(entry.getValue())));
+      }
+      for (Future<?> future : futures) {
+         try {
+            future.get();
+         } catch (Exception e) {
+            log.error("Failed to write test report", e);
+         }
+      }
+   }
 
-         testReport.createReportDirectory();
-         testReport.createTestCharts();
+   private void writeTestReportDocument(TestAggregations ta) {
+      TestReportDocument testReport = new TestReportDocument(ta, targetDir, testReportConfig);
 
-         Map root = new HashMap();
-         root.put("testReport", testReport);
-         root.put("enums", DefaultObjectWrapper.getDefaultInstance().getEnumModels());
+      testReport.createReportDirectory();
+      testReport.createTestCharts();
 
-         processTemplate(root, targetDir, "test_" + testReport.testName + ".html", "testReport.ftl");
-      }
+      Map root = new HashMap();
+      root.put("testReport", testReport);
+      root.put("enums", DefaultObjectWrapper.getDefaultInstance().getEnumModels());
+
+      processTemplate(root, targetDir, "test_" + testReport.testName + ".html", "testReport.ftl");
    }
 
    private void writeTimelineDocuments(Collection<Report> reports, Timeline.Category.Type categoryType) {
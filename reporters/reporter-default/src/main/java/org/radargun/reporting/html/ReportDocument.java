@@ -45,7 +45,7 @@ public abstract class ReportDocument extends HtmlDocument {
    protected static final Log log = LogFactory.getLog(ReportDocument.class);
 
    private int elementCounter = 0;
-   private List<Future> chartTaskFutures = new ArrayList<>();
+   private List<PendingChart> pendingCharts = new ArrayList<>();
    private Map<String, List<ChartDescription>> generatedCharts = new HashMap<>();
 
    protected final int maxConfigurations;
@@ -83,7 +83,7 @@ public abstract class ReportDocument extends HtmlDocument {
                } else {
                   statistics = aggregation.totalStats;
                }
-               Histogram histogram = statistics.getRepresentation(operation, Histogram.class);
+               Histogram histogram = aggregation.getRepresentation(statistics, operation, Histogram.class);
                if (histogram != null) {
                   collector.accept(aggregation.report.getConfiguration().getName(), histogram);
                }
@@ -168,27 +168,27 @@ public abstract class ReportDocument extends HtmlDocument {
                }
                switch (chartType) {
                   case MEAN_AND_DEV: {
-                     MeanAndDev meanAndDev = aggregation.totalStats.getRepresentation(target, MeanAndDev.class);
+                     MeanAndDev meanAndDev = aggregation.getRepresentation(aggregation.totalStats, target, MeanAndDev.class);
                      if (meanAndDev == null) return false;
                      chart.addValue(toMillis(meanAndDev.mean), toMillis(meanAndDev.dev), categoryName, subCategoryNumeric,
                         subCategoryValue);
                      break;
                   }
                   case OPERATION_THROUGHPUT_NET: {
-                     OperationThroughput throughput = aggregation.totalStats.getRepresentation(target, OperationThroughput.class);
+                     OperationThroughput throughput = aggregation.getRepresentation(aggregation.totalStats, target, OperationThroughput.class);
                      if (throughput == null) return false;
                      chart.addValue(throughput.net, 0, categoryName, subCategoryNumeric, subCategoryValue);
                      break;
                   }
                   case DATA_THROUGHPUT: {
-                     DataThroughput dataThroughput = aggregation.totalStats.getRepresentation(target, DataThroughput.class);
+                     DataThroughput dataThroughput = aggregation.getRepresentation(aggregation.totalStats, target, DataThroughput.class);
                      if (dataThroughput == null) return false;
                      chart.addValue(dataThroughput.meanThroughput / (1024.0 * 1024.0), dataThroughput.deviation
                         / (1024.0 * 1024.0), categoryName, subCategoryNumeric, subCategoryValue);
                      break;
                   }
                   case MEAN_AND_DEV_SERIES: {
-                     MeanAndDev.Series series = aggregation.totalStats.getRepresentation(target, MeanAndDev.Series.class);
+                     MeanAndDev.Series series = aggregation.getRepresentation(aggregation.totalStats, target, MeanAndDev.Series.class);
                      if (series == null) return false;
                      int sample = 0;
                      for (MeanAndDev meanAndDev : series.samples) {
@@ -198,7 +198,7 @@ public abstract class ReportDocument extends HtmlDocument {
                      break;
                   }
                   case REQUESTS_SERIES: {
-                     DefaultOutcome.Series series = aggregation.totalStats.getRepresentation(target, DefaultOutcome.Series.class);
+                     DefaultOutcome.Series series = aggregation.getRepresentation(aggregation.totalStats, target, DefaultOutcome.Series.class);
                      if (series == null) return false;
                      int sample = 0;
                      for (DefaultOutcome defaultOutcome : series.samples) {
@@ -208,7 +208,7 @@ public abstract class ReportDocument extends HtmlDocument {
                      break;
                   }
                   case OPERATION_THROUGHPUT_GROSS_SERIES: {
-                     OperationThroughput.Series series = aggregation.totalStats.getRepresentation(target, OperationThroughput.Series.class);
+                     OperationThroughput.Series series = aggregation.getRepresentation(aggregation.totalStats, target, OperationThroughput.Series.class);
                      if (series == null) return false;
                      int sample = 0;
                      for (OperationThroughput defaultOutcome : series.samples) {
@@ -218,7 +218,7 @@ public abstract class ReportDocument extends HtmlDocument {
                      break;
                   }
                   case OPERATION_THROUGHPUT_NET_SERIES: {
-                     OperationThroughput.Series series = aggregation.totalStats.getRepresentation(target, OperationThroughput.Series.class);
+                     OperationThroughput.Series series = aggregation.getRepresentation(aggregation.totalStats, target, OperationThroughput.Series.class);
                      if (series == null) return false;
                      int sample = 0;
                      for (OperationThroughput defaultOutcome : series.samples) {
@@ -293,10 +293,7 @@ public abstract class ReportDocument extends HtmlDocument {
       String suffix = clusterSize > 0 ? "_" + clusterSize : "";
       String directory = this.directory.endsWith(File.separator) ? this.directory : this.directory + File.separator;
 
-      List<ChartDescription> charts = generatedCharts.get(target);
-      if (charts == null) {
-         generatedCharts.put(target, charts = new ArrayList<>());
-      }
+      generatedCharts.computeIfAbsent(target, t -> new ArrayList<>());
       for (ChartDescription cd : new ChartDescription[] {
          new ChartDescription(ChartType.MEAN_AND_DEV, "mean_dev" + "_" + target, "Response time mean", "Response time (ms)"),
          new ChartDescription(ChartType.OPERATION_THROUGHPUT_NET, "throughput_net" + "_" + target, "Operation throughput", "Operations/sec"),
@@ -305,22 +302,24 @@ public abstract class ReportDocument extends HtmlDocument {
          new ChartDescription(ChartType.REQUESTS_SERIES, "requests_series" + "_" + target, "Requests progression", "Number of requests"),
          new ChartDescription(ChartType.OPERATION_THROUGHPUT_NET_SERIES, "throughput_net_series" + "_" + target, "Operation throughput over time", "Operations/sec"),
       }) {
-         if (createChart(String.format("%s%s%s_%s%s_%s.png", directory, File.separator, testName, target, suffix, cd.name),
-            clusterSize, target, cd.yLabel, cd.type)) {
-            charts.add(cd);
-         }
+         String filename = String.format("%s%s%s_%s%s_%s.png", directory, File.separator, testName, target, suffix, cd.name);
+         Future<Boolean> future = HtmlReporter.executor.submit(() -> createChart(filename, clusterSize, target, cd.yLabel, cd.type));
+         pendingCharts.add(new PendingChart(target, cd, future));
       }
    }
 
    protected void waitForChartsGeneration() {
-      for (Future f : chartTaskFutures) {
+      // charts are rendered in parallel but registered in the order these were requested
+      for (PendingChart pendingChart : pendingCharts) {
          try {
-            f.get();
+            if (pendingChart.future.get()) {
+               generatedCharts.get(pendingChart.target).add(pendingChart.description);
+            }
          } catch (Exception e) {
             log.error("Failed to create chart", e);
          }
       }
-      chartTaskFutures.clear();
+      pendingCharts.clear();
    }
 
    /**
@@ -558,6 +557,18 @@ public abstract class ReportDocument extends HtmlDocument {
       }
    }
 
+   private static class PendingChart {
+      private final String target;
+      private final ChartDescription description;
+      private final Future<Boolean> future;
+
+      private PendingChart(String target, ChartDescription description, Future<Boolean> future) {
+         this.target = target;
+         this.description = description;
+         this.future = future;
+      }
+   }
+
    public static class ChartDescription {
       public final ChartType type;
       public final String name;
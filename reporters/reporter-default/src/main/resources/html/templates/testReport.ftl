@@ -507,8 +507,8 @@
     <#local period = testReport.period(statistics)!0 />
   </#if>
 
-  <#local defaultOutcome = statistics.getRepresentation(operation, testReport.defaultOutcomeClass())! />
-  <#local meanAndDev = statistics.getRepresentation(operation, testReport.meanAndDevClass())! />
+  <#local defaultOutcome = aggregation.getRepresentation(statistics, operation, testReport.defaultOutcomeClass())! />
+  <#local meanAndDev = aggregation.getRepresentation(statistics, operation, testReport.meanAndDevClass())! />
   <#local rowClass = testReport.rowClass(aggregation.anySuspect(operation)) />
 
   <#if rowClass=="highlight">
@@ -544,7 +544,7 @@
   </#if>
 
   <#if operationData.getPresentedStatistics()?seq_contains(StatisticType.OPERATION_THROUGHPUT)>
-    <#local operationThroughput = statistics.getRepresentation(operation, testReport.operationThroughputClass(), period)! />
+    <#local operationThroughput = aggregation.getRepresentation(statistics, operation, testReport.operationThroughputClass(), period)! />
 
     <#if operationThroughput?has_content>
       <td class="${rowClass} rowStyle" title="${tooltip}">
@@ -560,7 +560,7 @@
   </#if>
 
   <#if operationData.getPresentedStatistics()?seq_contains(StatisticType.DATA_THROUGHPUT)>
-    <#local dataThroughput = statistics.getRepresentation(operation, testReport.dataThroughputClass())! />
+    <#local dataThroughput = aggregation.getRepresentation(statistics, operation, testReport.dataThroughputClass())! />
     <#if dataThroughput?has_content>
       <td class="${rowClass} rowStyle" title="${tooltip}">
         ${testReport.formatDataThroughput(dataThroughput.minThroughput)} - min
@@ -584,7 +584,7 @@
 
   <#if operationData.getPresentedStatistics()?seq_contains(StatisticType.PERCENTILES)>
     <#list testReport.configuration.percentiles as percentile >
-      <#local p = (statistics.getRepresentation(operation, testReport.percentileClass(), percentile?double))! />
+      <#local p = (aggregation.getRepresentation(statistics, operation, testReport.percentileClass(), percentile?double))! />
 
       <#if p?has_content>
         <td class="${rowClass} rowStyle" title="${tooltip}">
@@ -747,7 +747,7 @@
     <#local period = testReport.period(statistics)!0 />
   </#if>
 
-  <#local defaultOutcome = statistics.getRepresentation(operation, testReport.defaultOutcomeClass())! />
+  <#local defaultOutcome = aggregation.getRepresentation(statistics, operation, testReport.defaultOutcomeClass())! />
 
 
   <#local rowClass = testReport.rowClass(aggregation.anySuspect(operation)) />
@@ -766,7 +766,7 @@
   <#if operationData.getPresentedStatistics()?seq_contains(StatisticType.OPERATION_THROUGHPUT)>
 
     <#if operationStats?has_content>
-      <#local operationThroughput = statistics.getRepresentation(operation, testReport.operationThroughputClass(), period)! />
+      <#local operationThroughput = aggregation.getRepresentation(statistics, operation, testReport.operationThroughputClass(), period)! />
     </#if>
 
     <#if operationThroughput?has_content>
@@ -0,0 +1,88 @@
+package org.radargun.reporting.html;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.radargun.Operation;
+import org.radargun.config.Cluster;
+import org.radargun.config.Configuration;
+import org.radargun.config.MasterConfig;
+import org.radargun.reporting.Report;
+import org.radargun.reporting.commons.Aggregation;
+import org.radargun.reporting.commons.TestAggregations;
+import org.radargun.stats.AllRecordingOperationStats;
+import org.radargun.stats.BasicStatistics;
+import org.radargun.stats.Statistics;
+import org.radargun.stats.representation.DefaultOutcome;
+import org.radargun.stats.representation.Percentile;
+import org.radargun.utils.Utils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class HtmlReporterTest {
+   private static final Operation OPERATION = Operation.register("HtmlReporterTest.Op");
+   private static final int ITERATIONS = 8;
+   private static final int SLAVES = 3;
+
+   public void testAggregations() {
+      Report report = createReport();
+      TestAggregations aggregations = new TestAggregations("test", new ArrayList<>(report.getTests()));
+
+      Assert.assertEquals(aggregations.getMaxIterations(), ITERATIONS);
+      Assert.assertEquals(aggregations.getAllOperations(), Collections.singleton(OPERATION.name));
+      List<Aggregation> iterations = aggregations.byReports().get(report);
+      for (int i = 0; i < ITERATIONS; ++i) {
+         Aggregation aggregation = iterations.get(i);
+         // iterations are kept in order even though they are aggregated in parallel
+         Assert.assertEquals(aggregation.iteration.id, i);
+         DefaultOutcome outcome = aggregation.getRepresentation(aggregation.totalStats, OPERATION.name, DefaultOutcome.class);
+         Assert.assertEquals(outcome.requests, SLAVES * (i + 1));
+         Assert.assertSame(aggregation.getRepresentation(aggregation.totalStats, OPERATION.name, DefaultOutcome.class), outcome);
+         Percentile percentile = aggregation.getRepresentation(aggregation.totalStats, OPERATION.name, Percentile.class, 99d);
+         Assert.assertSame(aggregation.getRepresentation(aggregation.totalStats, OPERATION.name, Percentile.class, 99d), percentile);
+         Assert.assertNotSame(aggregation.getRepresentation(aggregation.totalStats, OPERATION.name, Percentile.class, 50d), percentile);
+      }
+   }
+
+   public void testReport() throws Exception {
+      Path directory = Files.createTempDirectory("HtmlReporterTest");
+      try {
+         HtmlReporter reporter = new HtmlReporter();
+         Utils.setField(HtmlReporter.class, "targetDir", reporter, directory.toString());
+         MasterConfig masterConfig = new MasterConfig(0, null);
+         masterConfig.setMasterConfigBytes(new byte[0]);
+         reporter.run(masterConfig, Collections.singletonList(createReport()));
+
+         Path document = directory.resolve("test_test.html");
+         Assert.assertTrue(Files.exists(document));
+         Assert.assertTrue(new String(Files.readAllBytes(document), "UTF-8").contains(OPERATION.name));
+         Assert.assertTrue(Files.exists(directory.resolve("test_" + OPERATION.name + "_mean_dev_" + OPERATION.name + ".png")));
+      } finally {
+         Utils.deleteDirectory(directory.toFile());
+      }
+   }
+
+   private Report createReport() {
+      Cluster cluster = new Cluster();
+      cluster.setSize(SLAVES);
+      Report report = new Report(new Configuration("conf"), cluster);
+      Report.Test test = report.createTest("test", "iteration", true);
+      for (int iteration = 0; iteration < ITERATIONS; ++iteration) {
+         for (int slave = 0; slave < SLAVES; ++slave) {
+            BasicStatistics statistics = new BasicStatistics(new AllRecordingOperationStats());
+            statistics.begin();
+            for (int i = 0; i <= iteration; ++i) {
+               statistics.startRequest().succeeded(OPERATION);
+            }
+            statistics.end();
+            test.addStatistics(iteration, slave, Arrays.asList((Statistics) statistics));
+         }
+      }
+      return report;
+   }
+}